@@ -8,6 +8,7 @@
 package com.nextcloud.client.database.migrations
 
 import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
 import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import androidx.test.platform.app.InstrumentationRegistry
@@ -76,6 +77,64 @@ class MigrationTest {
         db.close()
     }
 
+    @Test
+    @Throws(IOException::class)
+    fun migrate102to103() {
+        helper.createDatabase(TEST_DB, 102).apply {
+            insertFile(1, "Report_2024.pdf", "application/pdf")
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, 103, true, MIGRATION_102_103)
+
+        assertEquals("existing file is not indexed", 1, db.countMatches("report* 20*"))
+        assertEquals("mime type is not indexed", 1, db.countMatches("application*"))
+
+        db.insertFile(2, "holiday.jpg", "image/jpeg")
+        assertEquals("inserted file is not indexed", 1, db.countMatches("holi*"))
+
+        db.execSQL(
+            "UPDATE filelist SET filename = 'vacation.jpg', path = '/Documents/vacation.jpg', " +
+                "path_decrypted = '/Documents/vacation.jpg' WHERE _id = 2"
+        )
+        assertEquals("old name is still indexed", 0, db.countMatches("holi*"))
+        assertEquals("updated file is not indexed", 1, db.countMatches("vacation*"))
+
+        db.execSQL("DELETE FROM filelist WHERE _id = 2")
+        assertEquals("deleted file is still indexed", 0, db.countMatches("vacation*"))
+
+        db.close()
+    }
+
+    @Test
+    @Throws(IOException::class)
+    fun migrate103to104() {
+        helper.createDatabase(TEST_DB, 103).close()
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, 104, true, MIGRATION_103_104)
+
+        db.execSQL(
+            "INSERT INTO partial_downloads (account_name, remote_path, etag, total_length, segments, modified_at) " +
+                "VALUES ('test@nextcloud', '/Movies/trip.mp4', '\"abc\"', 1000, 4, 0)"
+        )
+        val count = db.query(
+            "SELECT * FROM partial_downloads WHERE account_name = 'test@nextcloud' AND remote_path = '/Movies/trip.mp4'"
+        ).use { it.count }
+        assertEquals("partial download is not stored", 1, count)
+
+        db.close()
+    }
+
+    private fun SupportSQLiteDatabase.insertFile(id: Int, name: String, contentType: String) {
+        execSQL(
+            "INSERT INTO filelist (_id, filename, path, path_decrypted, content_type, file_owner) " +
+                "VALUES ($id, '$name', '/Documents/$name', '/Documents/$name', '$contentType', 'test@nextcloud')"
+        )
+    }
+
+    private fun SupportSQLiteDatabase.countMatches(match: String): Int =
+        query("SELECT docid FROM filelist_fts WHERE filelist_fts MATCH '$match'").use { it.count }
+
     companion object {
         private const val TEST_DB = "migration-test"
     }
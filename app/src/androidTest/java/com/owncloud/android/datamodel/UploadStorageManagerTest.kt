@@ -165,6 +165,81 @@ class UploadStorageManagerTest : AbstractIT() {
         Assert.assertNull(newUpload)
     }
 
+    @Test
+    fun getUploadCounts() {
+        deleteAllUploads()
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_IN_PROGRESS)
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_IN_PROGRESS)
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_FAILED)
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED, lastResult = UploadResult.UPLOADED)
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED, lastResult = UploadResult.UPLOADED)
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED, lastResult = UploadResult.SKIPPED)
+        insertUpload(user2.toPlatformAccount(), UploadsStorageManager.UploadStatus.UPLOAD_FAILED)
+
+        val counts = uploadsStorageManager.getUploadCounts(account.name)
+            .associate { (it.status to it.skipped) to it.count }
+
+        Assert.assertEquals(
+            mapOf(
+                (UploadsStorageManager.UploadStatus.UPLOAD_IN_PROGRESS.value to false) to 2,
+                (UploadsStorageManager.UploadStatus.UPLOAD_FAILED.value to false) to 1,
+                (UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED.value to false) to 2,
+                (UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED.value to true) to 1
+            ),
+            counts
+        )
+    }
+
+    @Test
+    fun getUploadPageFollowsKeysetOrder() {
+        deleteAllUploads()
+        val status = UploadsStorageManager.UploadStatus.UPLOAD_FAILED
+        val newest = insertUpload(account, status, endTimestamp = 300)
+        val sameTimeFirst = insertUpload(account, status, endTimestamp = 200)
+        val sameTimeSecond = insertUpload(account, status, endTimestamp = 200)
+        val oldest = insertUpload(account, status, endTimestamp = 100)
+        insertUpload(account, UploadsStorageManager.UploadStatus.UPLOAD_IN_PROGRESS, endTimestamp = 250)
+        insertUpload(user2.toPlatformAccount(), status, endTimestamp = 250)
+
+        val ids = ArrayList<Long>()
+        var after: OCUpload? = null
+        do {
+            val page = uploadsStorageManager.getUploadPage(account.name, status, null, after, 2)
+            ids.addAll(page.map { it.uploadId })
+            after = page.lastOrNull()
+        } while (page.isNotEmpty())
+
+        Assert.assertEquals(listOf(newest, sameTimeFirst, sameTimeSecond, oldest), ids)
+    }
+
+    @Test
+    fun getUploadPageSplitsSkippedUploads() {
+        deleteAllUploads()
+        val status = UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED
+        val uploaded = insertUpload(account, status, lastResult = UploadResult.UPLOADED)
+        val skipped = insertUpload(account, status, lastResult = UploadResult.SKIPPED)
+
+        fun page(skippedOnly: Boolean?) =
+            uploadsStorageManager.getUploadPage(account.name, status, skippedOnly, null, 10).map { it.uploadId }
+
+        Assert.assertEquals(listOf(uploaded), page(false))
+        Assert.assertEquals(listOf(skipped), page(true))
+        Assert.assertEquals(setOf(uploaded, skipped), page(null).toSet())
+    }
+
+    private fun insertUpload(
+        account: Account,
+        status: UploadsStorageManager.UploadStatus,
+        endTimestamp: Long = System.currentTimeMillis(),
+        lastResult: UploadResult = UploadResult.UNKNOWN
+    ): Long {
+        val upload = createUpload(account)
+        upload.setUploadStatus(status)
+        upload.uploadEndTimestamp = endTimestamp
+        upload.lastResult = lastResult
+        return uploadsStorageManager.uploadDao.insertOrReplace(upload.toUploadEntity())
+    }
+
     private fun insertUploads(account: Account, rowsToInsert: Int) {
         for (i in 0..<rowsToInsert) {
             uploadsStorageManager.uploadDao.insertOrReplace(createUpload(account).toUploadEntity())
@@ -7,6 +7,7 @@
  */
 package com.owncloud.android.ui.fragment
 
+import com.nextcloud.client.core.Cancellable
 import com.owncloud.android.lib.common.SearchResult
 import com.owncloud.android.lib.common.SearchResultEntry
 import com.owncloud.android.ui.unifiedsearch.IUnifiedSearchRepository
@@ -15,12 +16,17 @@ import com.owncloud.android.ui.unifiedsearch.UnifiedSearchResult
 
 class UnifiedSearchFakeRepository : IUnifiedSearchRepository {
 
+    private val finished = object : Cancellable {
+        override fun cancel() = Unit
+    }
+
     override fun queryAll(
         query: String,
+        refresh: Boolean,
         onResult: (UnifiedSearchResult) -> Unit,
         onError: (Throwable) -> Unit,
         onFinished: (Boolean) -> Unit
-    ) {
+    ): Cancellable {
         val result = UnifiedSearchResult(
             provider = "files",
             success = true,
@@ -50,6 +56,7 @@ class UnifiedSearchFakeRepository : IUnifiedSearchRepository {
         )
         onResult(result)
         onFinished(true)
+        return finished
     }
 
     override fun queryProvider(
@@ -59,7 +66,7 @@ class UnifiedSearchFakeRepository : IUnifiedSearchRepository {
         onResult: (UnifiedSearchResult) -> Unit,
         onError: (Throwable) -> Unit,
         onFinished: (Boolean) -> Unit
-    ) {
+    ): Cancellable {
         val result = UnifiedSearchResult(
             provider = provider,
             success = true,
@@ -87,5 +94,6 @@ class UnifiedSearchFakeRepository : IUnifiedSearchRepository {
             )
 
         )
+        return finished
     }
 }
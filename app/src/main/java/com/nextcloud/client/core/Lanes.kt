@@ -0,0 +1,259 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.core
+
+import android.os.Looper
+import android.os.Process
+import com.google.gson.GsonBuilder
+import com.nextcloud.client.jobs.transfer.metrics.Histogram
+import com.owncloud.android.lib.common.utils.Log_OC
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asCoroutineDispatcher
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+import java.util.concurrent.PriorityBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Process-wide background executors, one bounded lane per kind of resource.
+ *
+ * Work for the same resource shares a lane, so the number of threads using it is limited however many components are
+ * busy. Within a lane, queued [Priority.USER_VISIBLE] tasks run before [Priority.BACKGROUND] ones. Tasks inherit the
+ * priority of the task or main thread submitting them, and a queued task can be raised with [boost] when the user
+ * starts waiting for it.
+ *
+ * Queue depth and wait and run times are recorded per lane and shown in the engineering test mode.
+ */
+object Lanes {
+
+    private val TAG = Lanes::class.java.simpleName
+
+    private const val KEEP_ALIVE_SECONDS = 30L
+    private const val NANOS_PER_MILLI = 1_000_000L
+
+    enum class Lane(val threads: Int) {
+        /**
+         * Database reads and writes. SQLite serializes writers, more threads only contend for the lock.
+         */
+        DB(2),
+
+        /**
+         * Requests to the server, mostly waiting for the network.
+         */
+        NETWORK(8),
+
+        /**
+         * Up- and downloads of the transfer service, each holding a thread for the whole transfer. Kept apart from
+         * [NETWORK], so long transfers do not delay thumbnails, searches and folder syncs.
+         */
+        TRANSFER(8),
+
+        /**
+         * Folder reloads of the documents provider and the downloads its binder threads block on. One thread per
+         * binder thread, of which a process has at most 16, so a waiting binder thread is never queued behind
+         * unrelated work.
+         */
+        DOCUMENTS_PROVIDER(16),
+
+        /**
+         * Short tasks the user waits for, e.g. of the ui async runner. Not queued behind requests or transfers.
+         */
+        UI(4),
+
+        /**
+         * Decoding and scaling images, bound by the CPU.
+         */
+        CPU_DECODE(maxOf(2, Runtime.getRuntime().availableProcessors() - 1)),
+
+        /**
+         * Reading and writing local files.
+         */
+        DISK_IO(4)
+    }
+
+    enum class Priority { USER_VISIBLE, BACKGROUND }
+
+    data class Stats(
+        val lane: Lane,
+        val threads: Int,
+        val active: Int,
+        val queued: Int,
+        val maxQueued: Int,
+        val submitted: Long,
+        val completed: Long,
+        val waitMs: Histogram.Snapshot,
+        val runMs: Histogram.Snapshot
+    )
+
+    private val currentPriority = ThreadLocal<Priority?>()
+
+    private class LaneTask(
+        val runnable: Runnable,
+        @Volatile var priority: Priority,
+        val sequence: Long
+    ) : FutureTask<Unit>(runnable, Unit),
+        Comparable<LaneTask> {
+        val queuedAt = System.nanoTime()
+
+        @Volatile
+        var startedAt = 0L
+
+        override fun compareTo(other: LaneTask): Int = compareValuesBy(this, other, { it.priority }, { it.sequence })
+    }
+
+    private class LaneExecutor(val lane: Lane) : ThreadPoolExecutor(
+        lane.threads,
+        lane.threads,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        PriorityBlockingQueue<Runnable>(),
+        object : ThreadFactory {
+            private val count = AtomicInteger()
+            override fun newThread(runnable: Runnable): Thread =
+                Thread(runnable, "lane-${lane.name.lowercase()}-${count.incrementAndGet()}")
+        }
+    ) {
+        val sequence = AtomicLong()
+        val submitted = AtomicLong()
+        val completed = AtomicLong()
+        val maxQueued = AtomicInteger()
+        val waitMs = Histogram()
+        val runMs = Histogram()
+
+        init {
+            allowCoreThreadTimeOut(true)
+        }
+
+        fun enqueue(runnable: Runnable, priority: Priority): LaneTask {
+            val task = LaneTask(runnable, priority, sequence.incrementAndGet())
+            submitted.incrementAndGet()
+            execute(task)
+            maxQueued.accumulateAndGet(queue.size) { a, b -> maxOf(a, b) }
+            return task
+        }
+
+        /**
+         * Removes the queued task running [runnable], which may be the task itself or the runnable it wraps.
+         */
+        override fun remove(task: Runnable): Boolean {
+            val queued = queue.firstOrNull { it === task || (it as? LaneTask)?.runnable === task } ?: return false
+            return super.remove(queued)
+        }
+
+        fun boost(task: LaneTask) {
+            if (task.priority != Priority.USER_VISIBLE && queue.remove(task)) {
+                task.priority = Priority.USER_VISIBLE
+                queue.offer(task)
+            }
+        }
+
+        override fun beforeExecute(thread: Thread, runnable: Runnable) {
+            super.beforeExecute(thread, runnable)
+            val task = runnable as? LaneTask ?: return
+            task.startedAt = System.nanoTime()
+            waitMs.record((task.startedAt - task.queuedAt) / NANOS_PER_MILLI)
+            currentPriority.set(task.priority)
+            Process.setThreadPriority(
+                if (task.priority == Priority.USER_VISIBLE) {
+                    Process.THREAD_PRIORITY_DEFAULT
+                } else {
+                    Process.THREAD_PRIORITY_BACKGROUND
+                }
+            )
+        }
+
+        override fun afterExecute(runnable: Runnable, throwable: Throwable?) {
+            super.afterExecute(runnable, throwable)
+            currentPriority.remove()
+            val task = runnable as? LaneTask ?: return
+            runMs.record((System.nanoTime() - task.startedAt) / NANOS_PER_MILLI)
+            completed.incrementAndGet()
+
+            // futures keep exceptions, tasks nobody waits for would fail silently
+            if (!task.isCancelled) {
+                try {
+                    task.get()
+                } catch (e: ExecutionException) {
+                    Log_OC.e(TAG, "Task failed in lane ${lane.name}", e.cause)
+                }
+            }
+        }
+    }
+
+    /**
+     * Executor submitting to a lane, removing queued tasks as well.
+     */
+    class LaneView internal constructor(private val lane: Lane, private val priority: Priority?) : Executor {
+        override fun execute(command: Runnable) {
+            submit(lane, command, priority)
+        }
+
+        fun remove(command: Runnable): Boolean = executors.getValue(lane).remove(command)
+    }
+
+    private val executors: Map<Lane, LaneExecutor> = Lane.entries.associateWith { LaneExecutor(it) }
+    private val dispatchers: Map<Lane, CoroutineDispatcher> =
+        Lane.entries.associateWith { executor(it).asCoroutineDispatcher() }
+
+    /**
+     * @param priority null to inherit the priority of the calling task, or [Priority.USER_VISIBLE] on the main thread
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun submit(lane: Lane, runnable: Runnable, priority: Priority? = null): Future<*> =
+        executors.getValue(lane).enqueue(runnable, priority ?: inheritedPriority())
+
+    /**
+     * Executor for components expecting one, tasks get [priority] or inherit it if null.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun executor(lane: Lane, priority: Priority? = null): LaneView = LaneView(lane, priority)
+
+    /**
+     * Coroutine dispatcher of a lane, coroutines inherit the priority of the code launching them.
+     */
+    @JvmStatic
+    fun dispatcher(lane: Lane): CoroutineDispatcher = dispatchers.getValue(lane)
+
+    /**
+     * Moves a queued task ahead of background tasks, e.g. when the user waits for its result.
+     */
+    @JvmStatic
+    fun boost(future: Future<*>?) {
+        val task = future as? LaneTask ?: return
+        executors.values.forEach { it.boost(task) }
+    }
+
+    fun stats(): List<Stats> = executors.values.map {
+        Stats(
+            it.lane,
+            it.lane.threads,
+            it.activeCount,
+            it.queue.size,
+            it.maxQueued.get(),
+            it.submitted.get(),
+            it.completed.get(),
+            it.waitMs.snapshot(),
+            it.runMs.snapshot()
+        )
+    }
+
+    fun toJson(): String = GsonBuilder().setPrettyPrinting().create().toJson(stats())
+
+    private fun inheritedPriority(): Priority {
+        currentPriority.get()?.let { return it }
+        val mainLooper = Looper.getMainLooper()
+        return if (mainLooper != null && mainLooper.isCurrentThread) Priority.USER_VISIBLE else Priority.BACKGROUND
+    }
+}
@@ -7,21 +7,32 @@
 package com.nextcloud.client.core
 
 import android.os.Handler
+import java.util.concurrent.Executor
 import java.util.concurrent.ScheduledThreadPoolExecutor
 
 /**
- * This async runner uses [java.util.concurrent.ScheduledThreadPoolExecutor] to run tasks
+ * This async runner uses [java.util.concurrent.ScheduledThreadPoolExecutor] or a lane of [Lanes] to run tasks
  * asynchronously.
  *
- * Tasks are run on multi-threaded pool. If serialized execution is desired, set [corePoolSize] to 1.
+ * Tasks are run on multi-threaded pool. If serialized execution is desired, set corePoolSize to 1.
+ *
+ * @param removeFromQueue removes a task not started yet from the executor queue
  */
 internal class ThreadPoolAsyncRunner(
     private val uiThreadHandler: Handler,
-    corePoolSize: Int,
+    private val executor: Executor,
+    private val removeFromQueue: (Runnable) -> Boolean,
     val tag: String = "default"
 ) : AsyncRunner {
 
-    private val executor = ScheduledThreadPoolExecutor(corePoolSize)
+    constructor(uiThreadHandler: Handler, corePoolSize: Int, tag: String = "default") :
+        this(uiThreadHandler, ScheduledThreadPoolExecutor(corePoolSize), tag)
+
+    private constructor(uiThreadHandler: Handler, executor: ScheduledThreadPoolExecutor, tag: String) :
+        this(uiThreadHandler, executor, executor::remove, tag)
+
+    constructor(uiThreadHandler: Handler, lane: Lanes.LaneView, tag: String) :
+        this(uiThreadHandler, lane, lane::remove, tag)
 
     override fun <T> postQuickTask(
         task: () -> T,
@@ -43,10 +54,9 @@ internal class ThreadPoolAsyncRunner(
         onError: OnErrorCallback?,
         onProgress: OnProgressCallback<P>?
     ): Cancellable {
-        val remove: Function1<Runnable, Boolean> = executor::remove
         val taskWrapper = Task(
             postResult = uiThreadHandler::post,
-            removeFromQueue = remove,
+            removeFromQueue = removeFromQueue,
             taskBody = task,
             onSuccess = onResult,
             onError = onError,
@@ -22,6 +22,7 @@ import com.nextcloud.client.database.dao.CapabilityDao
 import com.nextcloud.client.database.dao.FileDao
 import com.nextcloud.client.database.dao.FileSystemDao
 import com.nextcloud.client.database.dao.OfflineOperationDao
+import com.nextcloud.client.database.dao.PartialDownloadDao
 import com.nextcloud.client.database.dao.RecommendedFileDao
 import com.nextcloud.client.database.dao.ShareDao
 import com.nextcloud.client.database.dao.SyncedFolderDao
@@ -31,8 +32,10 @@ import com.nextcloud.client.database.entity.AssistantEntity
 import com.nextcloud.client.database.entity.CapabilityEntity
 import com.nextcloud.client.database.entity.ExternalLinkEntity
 import com.nextcloud.client.database.entity.FileEntity
+import com.nextcloud.client.database.entity.FileSearchIndexEntity
 import com.nextcloud.client.database.entity.FilesystemEntity
 import com.nextcloud.client.database.entity.OfflineOperationEntity
+import com.nextcloud.client.database.entity.PartialDownloadEntity
 import com.nextcloud.client.database.entity.RecommendedFileEntity
 import com.nextcloud.client.database.entity.ShareEntity
 import com.nextcloud.client.database.entity.SyncedFolderEntity
@@ -41,6 +44,8 @@ import com.nextcloud.client.database.entity.VirtualEntity
 import com.nextcloud.client.database.migrations.DatabaseMigrationUtil
 import com.nextcloud.client.database.migrations.MIGRATION_88_89
 import com.nextcloud.client.database.migrations.MIGRATION_97_98
+import com.nextcloud.client.database.migrations.MIGRATION_102_103
+import com.nextcloud.client.database.migrations.MIGRATION_103_104
 import com.nextcloud.client.database.migrations.MIGRATION_99_100
 import com.nextcloud.client.database.migrations.Migration67to68
 import com.nextcloud.client.database.migrations.RoomMigration
@@ -55,6 +60,7 @@ import com.owncloud.android.db.ProviderMeta
         CapabilityEntity::class,
         ExternalLinkEntity::class,
         FileEntity::class,
+        FileSearchIndexEntity::class,
         FilesystemEntity::class,
         ShareEntity::class,
         SyncedFolderEntity::class,
@@ -62,7 +68,8 @@ import com.owncloud.android.db.ProviderMeta
         VirtualEntity::class,
         OfflineOperationEntity::class,
         RecommendedFileEntity::class,
-        AssistantEntity::class
+        AssistantEntity::class,
+        PartialDownloadEntity::class
     ],
     version = ProviderMeta.DB_VERSION,
     autoMigrations = [
@@ -102,6 +109,8 @@ import com.owncloud.android.db.ProviderMeta
         // manual migration used for 99 to 100
         AutoMigration(from = 100, to = 101, spec = DatabaseMigrationUtil.ResetCapabilitiesPostMigration::class),
         AutoMigration(from = 101, to = 102, spec = DatabaseMigrationUtil.ResetCapabilitiesPostMigration::class)
+        // manual migration used for 102 to 103
+        // manual migration used for 103 to 104
     ],
     exportSchema = true
 )
@@ -119,6 +128,7 @@ abstract class NextcloudDatabase : RoomDatabase() {
     abstract fun assistantDao(): AssistantDao
     abstract fun shareDao(): ShareDao
     abstract fun capabilityDao(): CapabilityDao
+    abstract fun partialDownloadDao(): PartialDownloadDao
 
     companion object {
         const val FIRST_ROOM_DB_VERSION = 65
@@ -142,6 +152,8 @@ abstract class NextcloudDatabase : RoomDatabase() {
                     .addMigrations(MIGRATION_88_89)
                     .addMigrations(MIGRATION_97_98)
                     .addMigrations(MIGRATION_99_100)
+                    .addMigrations(MIGRATION_102_103)
+                    .addMigrations(MIGRATION_103_104)
                     .build()
             }
             return instance!!
@@ -13,6 +13,7 @@ import androidx.room.Update
 import com.nextcloud.client.database.entity.FileEntity
 import com.owncloud.android.db.ProviderMeta.ProviderTableMeta
 import com.owncloud.android.utils.MimeType
+import kotlinx.coroutines.flow.Flow
 
 @Suppress("TooManyFunctions")
 @Dao
@@ -47,6 +48,12 @@ interface FileDao {
     @Query("SELECT * FROM filelist WHERE parent = :parentId ORDER BY ${ProviderTableMeta.FILE_DEFAULT_SORT_ORDER}")
     suspend fun getFolderContentSuspended(parentId: Long): List<FileEntity>
 
+    /**
+     * Emits the folder content now and again after every committed change of the filelist table.
+     */
+    @Query("SELECT * FROM filelist WHERE parent = :parentId ORDER BY ${ProviderTableMeta.FILE_DEFAULT_SORT_ORDER}")
+    fun getFolderContentFlow(parentId: Long): Flow<List<FileEntity>>
+
     @Query(
         "SELECT * FROM filelist WHERE modified >= :startDate" +
             " AND modified < :endDate" +
@@ -65,21 +72,29 @@ interface FileDao {
     )
     suspend fun getGalleryItemsSuspended(startDate: Long, endDate: Long, fileOwner: String): List<FileEntity>
 
+    /**
+     * Keyset paged gallery query: returns the next [limit] media files that sort after the row identified by
+     * ([afterModified], [afterId]) in (modified DESC, _id DESC) order. Passing null as [afterModified] returns the
+     * first page. Unlike LIMIT/OFFSET, the cost of a page does not grow with the number of rows already loaded.
+     */
     @Query(
         "SELECT * FROM filelist" +
             " WHERE (content_type LIKE 'image/%' OR content_type LIKE 'video/%')" +
             " AND file_owner = :fileOwner" +
             " AND path LIKE :pathPrefix || '%'" +
             " AND (:mimeFilter IS NULL OR content_type LIKE :mimeFilter)" +
-            " ORDER BY modified DESC" +
-            " LIMIT :limit OFFSET :offset"
+            " AND (:afterModified IS NULL OR modified < :afterModified" +
+            " OR (modified = :afterModified AND _id < :afterId))" +
+            " ORDER BY modified DESC, _id DESC" +
+            " LIMIT :limit"
     )
     suspend fun getGalleryItemsPageSuspended(
         fileOwner: String,
         pathPrefix: String,
         mimeFilter: String?,
-        limit: Int,
-        offset: Int
+        afterModified: Long?,
+        afterId: Long,
+        limit: Int
     ): List<FileEntity>
 
     @Query("SELECT * FROM filelist WHERE file_owner = :fileOwner ORDER BY ${ProviderTableMeta.FILE_DEFAULT_SORT_ORDER}")
@@ -143,6 +158,26 @@ interface FileDao {
     )
     fun searchFilesInFolder(parentId: Long, fileOwner: String, query: String): List<FileEntity>
 
+    /**
+     * Files of an account matching a full text query on their name, path or mime type, name matches first.
+     *
+     * @param match FTS query, e.g. `report* 2024*`
+     * @param namePattern LIKE pattern telling name matches apart
+     */
+    @Query(
+        """
+    SELECT filelist.*
+    FROM filelist
+    JOIN ${ProviderTableMeta.FILE_SEARCH_INDEX_TABLE_NAME}
+      ON filelist._id = ${ProviderTableMeta.FILE_SEARCH_INDEX_TABLE_NAME}.docid
+    WHERE ${ProviderTableMeta.FILE_SEARCH_INDEX_TABLE_NAME} MATCH :match
+      AND filelist.file_owner = :fileOwner
+    ORDER BY filelist.${ProviderTableMeta.FILE_NAME} LIKE :namePattern DESC, filelist.modified DESC
+    LIMIT :limit
+    """
+    )
+    fun searchFilesByIndex(match: String, namePattern: String, fileOwner: String, limit: Int): List<FileEntity>
+
     @Query(
         """
     SELECT *
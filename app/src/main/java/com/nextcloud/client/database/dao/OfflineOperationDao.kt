@@ -35,6 +35,9 @@ interface OfflineOperationDao {
     @Query("SELECT * FROM offline_operations WHERE offline_operations_path = :path LIMIT 1")
     fun getByPath(path: String): OfflineOperationEntity?
 
+    @Query("SELECT * FROM offline_operations WHERE _id = :id LIMIT 1")
+    fun getById(id: Int): OfflineOperationEntity?
+
     @Query("SELECT * FROM offline_operations WHERE offline_operations_parent_oc_file_id = :parentOCFileId")
     fun getSubEntitiesByParentOCFileId(parentOCFileId: Long): List<OfflineOperationEntity>
 
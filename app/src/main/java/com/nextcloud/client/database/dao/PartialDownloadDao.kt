@@ -0,0 +1,29 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.client.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.nextcloud.client.database.entity.PartialDownloadEntity
+
+@Dao
+interface PartialDownloadDao {
+    @Query("SELECT * FROM partial_downloads WHERE account_name = :accountName AND remote_path = :remotePath LIMIT 1")
+    fun get(accountName: String, remotePath: String): PartialDownloadEntity?
+
+    @Query("SELECT * FROM partial_downloads WHERE modified_at < :modifiedBefore")
+    fun getModifiedBefore(modifiedBefore: Long): List<PartialDownloadEntity>
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsert(entity: PartialDownloadEntity)
+
+    @Query("DELETE FROM partial_downloads WHERE account_name = :accountName AND remote_path = :remotePath")
+    fun delete(accountName: String, remotePath: String)
+}
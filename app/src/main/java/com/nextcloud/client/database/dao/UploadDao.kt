@@ -12,6 +12,7 @@ import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
 import com.nextcloud.client.database.entity.UploadEntity
+import com.nextcloud.client.database.entity.model.UploadStatusCount
 import com.owncloud.android.db.ProviderMeta.ProviderTableMeta
 
 @Dao
@@ -80,6 +81,34 @@ interface UploadDao {
     )
     suspend fun updateStatus(remotePath: String, accountName: String, status: Int): Int
 
+    /**
+     * Writes a status transition without reading the row first. Null paths and timestamp keep the stored values.
+     *
+     * @param expectedStatus if not null, the row is only updated while it still has this status
+     */
+    @Query(
+        """
+    UPDATE ${ProviderTableMeta.UPLOADS_TABLE_NAME}
+    SET ${ProviderTableMeta.UPLOADS_STATUS} = :status,
+        ${ProviderTableMeta.UPLOADS_LAST_RESULT} = :lastResult,
+        ${ProviderTableMeta.UPLOADS_REMOTE_PATH} = IFNULL(:remotePath, ${ProviderTableMeta.UPLOADS_REMOTE_PATH}),
+        ${ProviderTableMeta.UPLOADS_LOCAL_PATH} = IFNULL(:localPath, ${ProviderTableMeta.UPLOADS_LOCAL_PATH}),
+        ${ProviderTableMeta.UPLOADS_UPLOAD_END_TIMESTAMP_LONG} =
+            IFNULL(:uploadEndTimestamp, ${ProviderTableMeta.UPLOADS_UPLOAD_END_TIMESTAMP_LONG})
+    WHERE ${ProviderTableMeta._ID} = :id
+      AND (:expectedStatus IS NULL OR ${ProviderTableMeta.UPLOADS_STATUS} = :expectedStatus)
+"""
+    )
+    fun updateTransition(
+        id: Long,
+        status: Int,
+        lastResult: Int,
+        remotePath: String?,
+        localPath: String?,
+        uploadEndTimestamp: Long?,
+        expectedStatus: Int?
+    ): Int
+
     @Query(
         """
     UPDATE ${ProviderTableMeta.UPLOADS_TABLE_NAME}
@@ -112,4 +141,45 @@ interface UploadDao {
         status: Int,
         nameCollisionPolicy: Int? = null
     ): List<UploadEntity>
+
+    @Query(
+        """
+    SELECT ${ProviderTableMeta.UPLOADS_STATUS} AS status,
+           ${ProviderTableMeta.UPLOADS_LAST_RESULT} = :skippedResult AS skipped,
+           COUNT(*) AS count
+    FROM ${ProviderTableMeta.UPLOADS_TABLE_NAME}
+    WHERE ${ProviderTableMeta.UPLOADS_ACCOUNT_NAME} = :accountName
+    GROUP BY status, skipped
+"""
+    )
+    fun getStatusCounts(accountName: String, skippedResult: Int): List<UploadStatusCount>
+
+    /**
+     * Keyset paged uploads of an account, newest finished first. The next page starts after the end timestamp and id
+     * of the last row of the previous one, so no rows are skipped by OFFSET.
+     *
+     * @param skipped if not null, only rows whose last result is or is not [skippedResult]
+     */
+    @Query(
+        """
+    SELECT * FROM ${ProviderTableMeta.UPLOADS_TABLE_NAME}
+    WHERE ${ProviderTableMeta.UPLOADS_ACCOUNT_NAME} = :accountName
+      AND ${ProviderTableMeta.UPLOADS_STATUS} = :status
+      AND (:skipped IS NULL OR (${ProviderTableMeta.UPLOADS_LAST_RESULT} = :skippedResult) = :skipped)
+      AND (IFNULL(${ProviderTableMeta.UPLOADS_UPLOAD_END_TIMESTAMP_LONG}, 0) < :afterTimestamp
+        OR (IFNULL(${ProviderTableMeta.UPLOADS_UPLOAD_END_TIMESTAMP_LONG}, 0) = :afterTimestamp
+          AND ${ProviderTableMeta._ID} > :afterId))
+    ORDER BY IFNULL(${ProviderTableMeta.UPLOADS_UPLOAD_END_TIMESTAMP_LONG}, 0) DESC, ${ProviderTableMeta._ID} ASC
+    LIMIT :limit
+"""
+    )
+    fun getUploadPage(
+        accountName: String,
+        status: Int,
+        skipped: Boolean?,
+        skippedResult: Int,
+        afterTimestamp: Long,
+        afterId: Long,
+        limit: Int
+    ): List<UploadEntity>
 }
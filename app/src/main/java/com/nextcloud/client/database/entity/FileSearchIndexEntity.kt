@@ -0,0 +1,34 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+import androidx.room.PrimaryKey
+import com.owncloud.android.db.ProviderMeta.ProviderTableMeta
+
+/**
+ * Full text index of names, decrypted paths and mime types of [FileEntity].
+ *
+ * The index has no data of its own, rows share the id of their file. SQLite triggers keep it up to date with every
+ * write to the file list, including the ones of the content provider.
+ */
+@Fts4(contentEntity = FileEntity::class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = ProviderTableMeta.FILE_SEARCH_INDEX_TABLE_NAME)
+data class FileSearchIndexEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    val rowId: Long,
+    @ColumnInfo(name = ProviderTableMeta.FILE_NAME)
+    val name: String?,
+    @ColumnInfo(name = ProviderTableMeta.FILE_PATH_DECRYPTED)
+    val pathDecrypted: String?,
+    @ColumnInfo(name = ProviderTableMeta.FILE_CONTENT_TYPE)
+    val contentType: String?
+)
@@ -0,0 +1,46 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.client.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import com.owncloud.android.db.ProviderMeta.ProviderTableMeta
+
+/**
+ * Download interrupted before it was complete. The bytes are kept in the temporary files of the download, the eTag
+ * is sent with range requests so the download only resumes if the file was not changed on the server.
+ */
+@Entity(
+    tableName = ProviderTableMeta.PARTIAL_DOWNLOAD_TABLE_NAME,
+    primaryKeys = [ProviderTableMeta.PARTIAL_DOWNLOAD_ACCOUNT_NAME, ProviderTableMeta.PARTIAL_DOWNLOAD_REMOTE_PATH]
+)
+data class PartialDownloadEntity(
+    @ColumnInfo(name = ProviderTableMeta.PARTIAL_DOWNLOAD_ACCOUNT_NAME)
+    val accountName: String,
+
+    @ColumnInfo(name = ProviderTableMeta.PARTIAL_DOWNLOAD_REMOTE_PATH)
+    val remotePath: String,
+
+    /**
+     * Entity tag as sent by the server, including quotes.
+     */
+    @ColumnInfo(name = ProviderTableMeta.PARTIAL_DOWNLOAD_ETAG)
+    val etag: String,
+
+    @ColumnInfo(name = ProviderTableMeta.PARTIAL_DOWNLOAD_TOTAL_LENGTH)
+    val totalLength: Long,
+
+    /**
+     * Number of ranges downloaded in parallel, each into its own file.
+     */
+    @ColumnInfo(name = ProviderTableMeta.PARTIAL_DOWNLOAD_SEGMENTS)
+    val segments: Int,
+
+    @ColumnInfo(name = ProviderTableMeta.PARTIAL_DOWNLOAD_MODIFIED_AT)
+    val modifiedAt: Long
+)
@@ -0,0 +1,19 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.client.database.entity.model
+
+import androidx.room.ColumnInfo
+
+/**
+ * Number of uploads with the same status. Succeeded uploads are split by [skipped].
+ */
+data class UploadStatusCount(
+    @ColumnInfo(name = "status") val status: Int,
+    @ColumnInfo(name = "skipped") val skipped: Boolean,
+    @ColumnInfo(name = "count") val count: Int
+)
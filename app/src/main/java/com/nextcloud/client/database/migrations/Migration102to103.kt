@@ -0,0 +1,46 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.client.database.migrations
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+private const val TABLE = "filelist_fts"
+private const val COLUMNS = "`filename`, `path_decrypted`, `content_type`"
+private const val NEW_COLUMNS = "NEW.`filename`, NEW.`path_decrypted`, NEW.`content_type`"
+
+/**
+ * Adds the full text index of the file list, with the statements Room generates for it, and fills it from the
+ * existing rows.
+ */
+@Suppress("MagicNumber")
+val MIGRATION_102_103 = object : Migration(102, 103) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE VIRTUAL TABLE IF NOT EXISTS `$TABLE` USING FTS4(" +
+                "`filename` TEXT, `path_decrypted` TEXT, `content_type` TEXT, " +
+                "tokenize=unicode61, content=`filelist`)"
+        )
+
+        listOf("UPDATE", "DELETE").forEach { operation ->
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_${TABLE}_BEFORE_$operation " +
+                    "BEFORE $operation ON `filelist` BEGIN DELETE FROM `$TABLE` WHERE `docid`=OLD.`rowid`; END"
+            )
+        }
+        listOf("UPDATE", "INSERT").forEach { operation ->
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_${TABLE}_AFTER_$operation " +
+                    "AFTER $operation ON `filelist` BEGIN INSERT INTO `$TABLE`(`docid`, $COLUMNS) " +
+                    "VALUES (NEW.`rowid`, $NEW_COLUMNS); END"
+            )
+        }
+
+        db.execSQL("INSERT INTO `$TABLE`(`$TABLE`) VALUES('rebuild')")
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.client.database.migrations
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Adds the table of partial downloads, with the statement Room generates for it.
+ */
+@Suppress("MagicNumber")
+val MIGRATION_103_104 = object : Migration(103, 104) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `partial_downloads` (" +
+                "`account_name` TEXT NOT NULL, `remote_path` TEXT NOT NULL, `etag` TEXT NOT NULL, " +
+                "`total_length` INTEGER NOT NULL, `segments` INTEGER NOT NULL, `modified_at` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`account_name`, `remote_path`))"
+        )
+    }
+}
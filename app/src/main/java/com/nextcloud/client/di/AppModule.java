@@ -25,6 +25,7 @@ import com.nextcloud.client.appinfo.AppInfo;
 import com.nextcloud.client.core.AsyncRunner;
 import com.nextcloud.client.core.Clock;
 import com.nextcloud.client.core.ClockImpl;
+import com.nextcloud.client.core.Lanes;
 import com.nextcloud.client.core.ThreadPoolAsyncRunner;
 import com.nextcloud.client.database.dao.ArbitraryDataDao;
 import com.nextcloud.client.device.DeviceInfo;
@@ -182,7 +183,9 @@ class AppModule {
     @Singleton
     AsyncRunner uiAsyncRunner() {
         Handler uiHandler = new Handler();
-        return new ThreadPoolAsyncRunner(uiHandler, 4, "ui");
+        return new ThreadPoolAsyncRunner(uiHandler,
+                                         Lanes.executor(Lanes.Lane.UI, Lanes.Priority.USER_VISIBLE),
+                                         "ui");
     }
 
     @Provides
@@ -190,7 +193,9 @@ class AppModule {
     @Named("io")
     AsyncRunner ioAsyncRunner() {
         Handler uiHandler = new Handler();
-        return new ThreadPoolAsyncRunner(uiHandler, 8, "io");
+        return new ThreadPoolAsyncRunner(uiHandler,
+                                         Lanes.executor(Lanes.Lane.TRANSFER, Lanes.Priority.BACKGROUND),
+                                         "io");
     }
 
     @Provides
@@ -17,19 +17,28 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.etm.pages.EtmAccountsFragment
 import com.nextcloud.client.etm.pages.EtmBackgroundJobsFragment
+import com.nextcloud.client.etm.pages.EtmExecutorsFragment
 import com.nextcloud.client.etm.pages.EtmFileTransferFragment
 import com.nextcloud.client.etm.pages.EtmMigrations
 import com.nextcloud.client.etm.pages.EtmPreferencesFragment
+import com.nextcloud.client.etm.pages.EtmStartupFragment
+import com.nextcloud.client.etm.pages.EtmTransferMetricsFragment
 import com.nextcloud.client.jobs.BackgroundJobManager
 import com.nextcloud.client.jobs.JobInfo
 import com.nextcloud.client.jobs.transfer.TransferManagerConnection
+import com.nextcloud.client.jobs.transfer.metrics.TransferMetrics
 import com.nextcloud.client.migrations.MigrationInfo
 import com.nextcloud.client.migrations.MigrationsDb
 import com.nextcloud.client.migrations.MigrationsManager
+import com.nextcloud.client.network.ClientPool
+import com.nextcloud.client.startup.StartupTrace
 import com.owncloud.android.R
+import com.owncloud.android.datamodel.OCFileCache
 import com.owncloud.android.lib.common.accounts.AccountUtils
+import com.owncloud.android.ui.unifiedsearch.UnifiedSearchMetrics
 import javax.inject.Inject
 
 @Suppress("LongParameterList") // Dependencies Injection
@@ -94,6 +103,21 @@ class EtmViewModel @Inject constructor(
             iconRes = R.drawable.ic_cloud_download,
             titleRes = R.string.etm_transfer,
             pageClass = EtmFileTransferFragment::class
+        ),
+        EtmMenuEntry(
+            iconRes = R.drawable.ic_cloud_upload,
+            titleRes = R.string.etm_transfer_metrics,
+            pageClass = EtmTransferMetricsFragment::class
+        ),
+        EtmMenuEntry(
+            iconRes = R.drawable.ic_clock,
+            titleRes = R.string.etm_startup,
+            pageClass = EtmStartupFragment::class
+        ),
+        EtmMenuEntry(
+            iconRes = R.drawable.ic_sync,
+            titleRes = R.string.etm_executors,
+            pageClass = EtmExecutorsFragment::class
         )
     )
     val transferManagerConnection = TransferManagerConnection(context, accountManager.user)
@@ -119,6 +143,18 @@ class EtmViewModel @Inject constructor(
         return backgroundJobManager.jobs
     }
 
+    val transferMetrics: List<TransferMetrics.Entry> get() = TransferMetrics.snapshot()
+
+    val clientPoolStats: ClientPool.Stats get() = ClientPool.stats()
+
+    val fileCacheStats: OCFileCache.Stats get() = OCFileCache.stats()
+
+    val searchMetrics: List<UnifiedSearchMetrics.Entry> get() = UnifiedSearchMetrics.snapshot()
+
+    val laneStats: List<Lanes.Stats> get() = Lanes.stats()
+
+    val startupTrace: StartupTrace.Snapshot get() = StartupTrace.snapshot()
+
     val migrationsInfo: List<MigrationInfo> get() {
         return migrationsManager.info
     }
@@ -177,4 +213,15 @@ class EtmViewModel @Inject constructor(
     fun clearMigrations() {
         migrationsDb.clearMigrations()
     }
+
+    fun transferMetricsJson(): String = TransferMetrics.toJson()
+
+    fun resetTransferMetrics() {
+        TransferMetrics.reset()
+        UnifiedSearchMetrics.reset()
+    }
+
+    fun startupTraceJson(): String = StartupTrace.toJson()
+
+    fun laneStatsJson(): String = Lanes.toJson()
 }
@@ -0,0 +1,93 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.etm.pages
+
+import android.content.Intent
+import android.os.Bundle
+import android.view.LayoutInflater
+import android.view.Menu
+import android.view.MenuInflater
+import android.view.MenuItem
+import android.view.View
+import android.view.ViewGroup
+import com.nextcloud.client.etm.EtmBaseFragment
+import com.nextcloud.client.jobs.transfer.metrics.Histogram
+import com.owncloud.android.R
+import com.owncloud.android.databinding.FragmentEtmExecutorsBinding
+
+class EtmExecutorsFragment : EtmBaseFragment() {
+    private var _binding: FragmentEtmExecutorsBinding? = null
+    val binding get() = _binding!!
+
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        setHasOptionsMenu(true)
+    }
+
+    override fun onCreateView(inflater: LayoutInflater, container: ViewGroup?, savedInstanceState: Bundle?): View? {
+        _binding = FragmentEtmExecutorsBinding.inflate(inflater, container, false)
+
+        return binding.root
+    }
+
+    override fun onResume() {
+        super.onResume()
+        showStats()
+    }
+
+    override fun onCreateOptionsMenu(menu: Menu, inflater: MenuInflater) {
+        super.onCreateOptionsMenu(menu, inflater)
+        inflater.inflate(R.menu.fragment_etm_executors, menu)
+    }
+
+    override fun onOptionsItemSelected(item: MenuItem): Boolean = when (item.itemId) {
+        R.id.etm_executors_share -> {
+            onClickedShare()
+            true
+        }
+
+        R.id.etm_executors_refresh -> {
+            showStats()
+            true
+        }
+
+        else -> super.onOptionsItemSelected(item)
+    }
+
+    private fun showStats() {
+        val builder = StringBuilder()
+        vm.laneStats.forEach {
+            builder.append("${it.lane} (${it.threads} threads)\n")
+            builder.append("active: ${it.active}, queued: ${it.queued}, max queued: ${it.maxQueued}\n")
+            builder.append("submitted: ${it.submitted}, completed: ${it.completed}\n")
+            builder.append(format("queue wait ms", it.waitMs))
+            builder.append(format("run ms", it.runMs))
+            builder.append("\n")
+        }
+        binding.etmExecutorsText.text = builder
+    }
+
+    private fun format(name: String, snapshot: Histogram.Snapshot): String = if (snapshot.count == 0L) {
+        "$name: -\n"
+    } else {
+        "$name: p50 ${snapshot.p50}, p90 ${snapshot.p90}, p99 ${snapshot.p99}, max ${snapshot.max}\n"
+    }
+
+    private fun onClickedShare() {
+        val intent = Intent(Intent.ACTION_SEND)
+        intent.putExtra(Intent.EXTRA_SUBJECT, "Nextcloud executor lanes")
+        intent.putExtra(Intent.EXTRA_TEXT, vm.laneStatsJson())
+        intent.type = "text/plain"
+        startActivity(intent)
+    }
+
+    override fun onDestroyView() {
+        super.onDestroyView()
+
+        _binding = null
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.etm.pages
+
+import android.content.Intent
+import android.os.Bundle
+import android.view.LayoutInflater
+import android.view.Menu
+import android.view.MenuInflater
+import android.view.MenuItem
+import android.view.View
+import android.view.ViewGroup
+import com.nextcloud.client.etm.EtmBaseFragment
+import com.owncloud.android.R
+import com.owncloud.android.databinding.FragmentEtmStartupBinding
+
+class EtmStartupFragment : EtmBaseFragment() {
+    private var _binding: FragmentEtmStartupBinding? = null
+    val binding get() = _binding!!
+
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        setHasOptionsMenu(true)
+    }
+
+    override fun onCreateView(inflater: LayoutInflater, container: ViewGroup?, savedInstanceState: Bundle?): View? {
+        _binding = FragmentEtmStartupBinding.inflate(inflater, container, false)
+
+        return binding.root
+    }
+
+    override fun onResume() {
+        super.onResume()
+        showTrace()
+    }
+
+    override fun onCreateOptionsMenu(menu: Menu, inflater: MenuInflater) {
+        super.onCreateOptionsMenu(menu, inflater)
+        inflater.inflate(R.menu.fragment_etm_startup, menu)
+    }
+
+    override fun onOptionsItemSelected(item: MenuItem): Boolean = when (item.itemId) {
+        R.id.etm_startup_share -> {
+            onClickedShare()
+            true
+        }
+
+        else -> super.onOptionsItemSelected(item)
+    }
+
+    private fun showTrace() {
+        val trace = vm.startupTrace
+        val builder = StringBuilder()
+        builder.append("application created: ${trace.applicationCreatedMs ?: "-"} ms\n")
+        builder.append("first frame: ${trace.firstFrameMs ?: "-"} ms\n\n")
+        trace.steps.forEach {
+            builder.append("${it.startMs.toString().padStart(STEP_COLUMN_WIDTH)} ms ")
+            builder.append("+${it.durationMs.toString().padEnd(STEP_COLUMN_WIDTH)} ")
+            builder.append("${it.name} (${it.mode}, ${it.thread})\n")
+        }
+        binding.etmStartupText.text = builder
+    }
+
+    private fun onClickedShare() {
+        val intent = Intent(Intent.ACTION_SEND)
+        intent.putExtra(Intent.EXTRA_SUBJECT, "Nextcloud startup trace")
+        intent.putExtra(Intent.EXTRA_TEXT, vm.startupTraceJson())
+        intent.type = "text/plain"
+        startActivity(intent)
+    }
+
+    override fun onDestroyView() {
+        super.onDestroyView()
+
+        _binding = null
+    }
+
+    private companion object {
+        const val STEP_COLUMN_WIDTH = 5
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.etm.pages
+
+import android.content.Intent
+import android.os.Bundle
+import android.view.LayoutInflater
+import android.view.Menu
+import android.view.MenuInflater
+import android.view.MenuItem
+import android.view.View
+import android.view.ViewGroup
+import com.nextcloud.client.etm.EtmBaseFragment
+import com.nextcloud.client.jobs.transfer.metrics.Histogram
+import com.owncloud.android.R
+import com.owncloud.android.databinding.FragmentEtmTransferMetricsBinding
+
+class EtmTransferMetricsFragment : EtmBaseFragment() {
+    private var _binding: FragmentEtmTransferMetricsBinding? = null
+    val binding get() = _binding!!
+
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        setHasOptionsMenu(true)
+    }
+
+    override fun onCreateView(inflater: LayoutInflater, container: ViewGroup?, savedInstanceState: Bundle?): View? {
+        _binding = FragmentEtmTransferMetricsBinding.inflate(inflater, container, false)
+
+        return binding.root
+    }
+
+    override fun onResume() {
+        super.onResume()
+        showMetrics()
+    }
+
+    override fun onCreateOptionsMenu(menu: Menu, inflater: MenuInflater) {
+        super.onCreateOptionsMenu(menu, inflater)
+        inflater.inflate(R.menu.fragment_etm_transfer_metrics, menu)
+    }
+
+    override fun onOptionsItemSelected(item: MenuItem): Boolean = when (item.itemId) {
+        R.id.etm_transfer_metrics_share -> {
+            onClickedShare()
+            true
+        }
+
+        R.id.etm_transfer_metrics_refresh -> {
+            showMetrics()
+            true
+        }
+
+        R.id.etm_transfer_metrics_reset -> {
+            vm.resetTransferMetrics()
+            showMetrics()
+            true
+        }
+
+        else -> super.onOptionsItemSelected(item)
+    }
+
+    private fun showMetrics() {
+        val builder = StringBuilder()
+        val pool = vm.clientPoolStats
+        builder.append("client pool: ${pool.accounts} accounts, ${pool.pooledConnections} pooled connections\n")
+        builder.append("OwnCloudClient requests: ${pool.ownCloudClientRequests}\n")
+        builder.append("NextcloudClient requests: ${pool.nextcloudClientRequests}, ")
+        builder.append("reused: ${pool.nextcloudClientsReused}, created: ${pool.nextcloudClientsCreated}\n")
+        val fileCache = vm.fileCacheStats
+        builder.append("file cache: ${fileCache.entries} entries, ")
+        builder.append("hits: ${fileCache.hits}, misses: ${fileCache.misses}\n\n")
+
+        val entries = vm.transferMetrics
+        if (entries.isEmpty()) {
+            builder.append(getString(R.string.etm_transfer_metrics_empty))
+        }
+        entries.forEach {
+            builder.append("${it.direction} ${it.accountName} (${it.networkType})\n")
+            builder.append("started: ${it.started}, succeeded: ${it.succeeded}, failed: ${it.failed}, ")
+            builder.append("retries: ${it.retries}, bytes: ${it.bytes}\n")
+            builder.append(format("bytes/s", it.bytesPerSecond))
+            builder.append(format("time to first byte ms", it.timeToFirstByteMs))
+            builder.append(format("ms per MiB", it.chunkLatencyMs))
+            builder.append(format("queue wait ms", it.queueWaitMs))
+            builder.append(format("duration ms", it.durationMs))
+            builder.append("\n")
+        }
+        vm.searchMetrics.forEach {
+            builder.append("search provider ${it.provider}\n")
+            builder.append("succeeded: ${it.succeeded}, failed: ${it.failed}, cancelled: ${it.cancelled}\n")
+            builder.append(format("latency ms", it.latencyMs))
+            builder.append("\n")
+        }
+        binding.etmTransferMetricsText.text = builder
+    }
+
+    private fun format(name: String, snapshot: Histogram.Snapshot): String = if (snapshot.count == 0L) {
+        "$name: -\n"
+    } else {
+        "$name: p50 ${snapshot.p50}, p90 ${snapshot.p90}, p99 ${snapshot.p99}, max ${snapshot.max}\n"
+    }
+
+    private fun onClickedShare() {
+        val intent = Intent(Intent.ACTION_SEND)
+        intent.putExtra(Intent.EXTRA_SUBJECT, "Nextcloud transfer metrics")
+        intent.putExtra(Intent.EXTRA_TEXT, vm.transferMetricsJson())
+        intent.type = "text/plain"
+        startActivity(intent)
+    }
+
+    override fun onDestroyView() {
+        super.onDestroyView()
+
+        _binding = null
+    }
+}
@@ -20,6 +20,7 @@ import com.google.gson.Gson
 import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.client.core.Clock
+import com.nextcloud.client.network.ClientPool
 import com.nextcloud.client.preferences.AppPreferences
 import com.nextcloud.common.NextcloudClient
 import com.owncloud.android.MainApp
@@ -28,6 +29,7 @@ import com.owncloud.android.datamodel.ArbitraryDataProvider
 import com.owncloud.android.datamodel.ArbitraryDataProviderImpl
 import com.owncloud.android.datamodel.FileDataStorageManager
 import com.owncloud.android.datamodel.FilesystemDataProvider
+import com.owncloud.android.datamodel.OCFileCache
 import com.owncloud.android.datamodel.PushConfigurationState
 import com.owncloud.android.datamodel.SyncedFolderProvider
 import com.owncloud.android.datamodel.UploadsStorageManager
@@ -117,6 +119,7 @@ class AccountRemovalWork(
 
         // delete all database entries
         storageManager.deleteAllFiles()
+        OCFileCache.clear()
 
         if (remoteWipe) {
             val optionalClient = createClient(user)
@@ -139,6 +142,7 @@ class AccountRemovalWork(
 
         // delete cached OwncloudClient
         OwnCloudClientManagerFactory.getDefaultSingleton().removeClientFor(user.toOwnCloudAccount())
+        ClientPool.invalidate(user.accountName)
 
         if (userRemoved) {
             eventBus.post(AccountRemovedEvent())
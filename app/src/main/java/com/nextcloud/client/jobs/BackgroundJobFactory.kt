@@ -257,6 +257,7 @@ class BackgroundJobFactory @Inject constructor(
         FileDownloadWorker(
             viewThemeUtils.get(),
             accountManager,
+            connectivityService,
             localBroadcastManager.get(),
             context,
             params
@@ -306,6 +307,7 @@ class BackgroundJobFactory @Inject constructor(
     private fun createFolderDownloadWorker(context: Context, params: WorkerParameters): FolderDownloadWorker =
         FolderDownloadWorker(
             accountManager,
+            connectivityService,
             context,
             viewThemeUtils.get(),
             localBroadcastManager.get(),
@@ -12,7 +12,6 @@ import android.content.Context
 import android.content.Intent
 import android.content.ServiceConnection
 import android.content.res.Resources
-import android.database.Cursor
 import android.net.Uri
 import android.os.IBinder
 import android.provider.ContactsContract
@@ -23,7 +22,9 @@ import androidx.work.WorkerParameters
 import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.client.files.UploadRequest
+import com.nextcloud.client.jobs.transfer.Transfer
 import com.nextcloud.client.jobs.transfer.TransferManagerConnection
+import com.nextcloud.client.jobs.transfer.TransferState
 import com.nextcloud.client.jobs.upload.PostUploadAction
 import com.nextcloud.client.jobs.upload.UploadTrigger
 import com.owncloud.android.R
@@ -38,11 +39,13 @@ import com.owncloud.android.ui.activity.ContactsPreferenceActivity
 import ezvcard.Ezvcard
 import ezvcard.VCardVersion
 import java.io.File
-import java.io.FileWriter
 import java.io.IOException
 import java.io.InputStream
 import java.io.InputStreamReader
 import java.util.Calendar
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 
 @Suppress("LongParameterList") // legacy code
 class ContactsBackupWork(
@@ -60,6 +63,13 @@ class ContactsBackupWork(
         const val KEY_FORCE = "force"
         const val JOB_INTERVAL_MS: Long = 24L * 60L * 60L * 1000L
         const val BUFFER_SIZE = 1024
+
+        /**
+         * Hash of the last uploaded backup and its remote path, see [ContactsBackupWriter.lastBackup]
+         */
+        const val PREFERENCE_CONTACTS_LAST_BACKUP_HASH = "PREFERENCE_CONTACTS_LAST_BACKUP_HASH"
+        private const val CONVERTED_CONTACTS_DIR = "contacts_backup"
+        private const val UPLOAD_TIMEOUT_MINUTES = 30L
     }
 
     private var operationsServiceConnection: OperationsServiceConnection? = null
@@ -86,19 +96,22 @@ class ContactsBackupWork(
             Log_OC.d(TAG, "start contacts backup job")
             val backupFolder: String = resources.getString(R.string.contacts_backup_folder) + OCFile.PATH_SEPARATOR
             val daysToExpire: Int = applicationContext.getResources().getInteger(R.integer.contacts_backup_expire)
-            backupContact(user, backupFolder)
-            // bind to Operations Service
-            operationsServiceConnection = OperationsServiceConnection(
-                this,
-                daysToExpire,
-                backupFolder,
-                user
-            )
-            applicationContext.bindService(
-                Intent(applicationContext, OperationsService::class.java),
-                operationsServiceConnection as OperationsServiceConnection,
-                OperationsService.BIND_AUTO_CREATE
-            )
+            val uploaded = backupContact(user, backupFolder, force)
+            // without a new backup, expiring old ones could remove the last one
+            if (uploaded) {
+                // bind to Operations Service
+                operationsServiceConnection = OperationsServiceConnection(
+                    this,
+                    daysToExpire,
+                    backupFolder,
+                    user
+                )
+                applicationContext.bindService(
+                    Intent(applicationContext, OperationsService::class.java),
+                    operationsServiceConnection as OperationsServiceConnection,
+                    OperationsService.BIND_AUTO_CREATE
+                )
+            }
             // store execution date
             arbitraryDataProvider.storeOrUpdateKeyValue(
                 user.accountName,
@@ -111,45 +124,56 @@ class ContactsBackupWork(
         return Result.success()
     }
 
-    private fun backupContact(user: User, backupFolder: String) {
-        val vCard = ArrayList<String>()
-        val cursor = contentResolver.query(
-            ContactsContract.Contacts.CONTENT_URI,
-            null,
-            null,
-            null,
-            null
-        )
-        if (cursor != null && cursor.count > 0) {
-            cursor.moveToFirst()
-            for (i in 0 until cursor.count) {
-                vCard.add(getContactFromCursor(cursor))
-                cursor.moveToNext()
-            }
-        }
+    /**
+     * Writes all contacts to a new backup file and uploads it, unless its content equals the last uploaded backup
+     * and the backup is not [forced][force]. The hash of the backup is stored once its upload succeeded.
+     *
+     * @return true if a backup was uploaded
+     */
+    private fun backupContact(user: User, backupFolder: String, force: Boolean): Boolean {
         val filename = DateFormat.format("yyyy-MM-dd_HH-mm-ss", Calendar.getInstance()).toString() + ".vcf"
         Log_OC.d(TAG, "Storing: $filename")
         val file = File(applicationContext.getCacheDir(), filename)
-        var fw: FileWriter? = null
-        try {
-            fw = FileWriter(file)
-            for (card in vCard) {
-                fw.write(card)
-            }
+        val remotePath = backupFolder + file.name
+
+        val hash = try {
+            writeContacts(user, file)
         } catch (e: IOException) {
             Log_OC.d(TAG, "Error ", e)
-        } finally {
-            cursor?.close()
-            if (fw != null) {
-                try {
-                    fw.close()
-                } catch (e: IOException) {
-                    Log_OC.d(TAG, "Error closing file writer ", e)
-                }
+            null
+        }
+
+        if (hash != null) {
+            val lastBackup = arbitraryDataProvider.getValue(user, PREFERENCE_CONTACTS_LAST_BACKUP_HASH)
+            if (ContactsBackupWriter.isUnchanged(lastBackup, hash, force)) {
+                Log_OC.d(TAG, "contacts unchanged since last backup, skipping upload")
+                file.delete()
+                return false
             }
         }
 
-        val request = UploadRequest.Builder(user, file.absolutePath, backupFolder + file.name)
+        if (!upload(user, file, remotePath)) {
+            Log_OC.w(TAG, "upload of contacts backup $remotePath failed")
+            return false
+        }
+
+        if (hash != null) {
+            arbitraryDataProvider.storeOrUpdateKeyValue(
+                user,
+                PREFERENCE_CONTACTS_LAST_BACKUP_HASH,
+                ContactsBackupWriter.lastBackup(hash, remotePath)
+            )
+        }
+        return true
+    }
+
+    /**
+     * Enqueues the upload of the backup and waits until it finished.
+     *
+     * @return true if the backup was uploaded
+     */
+    private fun upload(user: User, file: File, remotePath: String): Boolean {
+        val request = UploadRequest.Builder(user, file.absolutePath, remotePath)
             .setFileSize(file.length())
             .setNameConflicPolicy(NameCollisionPolicy.RENAME)
             .setCreateRemoteFolder(true)
@@ -159,8 +183,54 @@ class ContactsBackupWork(
             .setRequireCharging(false)
             .build()
 
+        val finished = CountDownLatch(1)
+        val succeeded = AtomicBoolean()
+        val listener: (Transfer) -> Unit = { transfer ->
+            if (transfer.uuid == request.uuid && transfer.isFinished) {
+                succeeded.set(transfer.state == TransferState.COMPLETED)
+                finished.countDown()
+            }
+        }
+
         val connection = TransferManagerConnection(applicationContext, user)
-        connection.enqueue(request)
+        connection.registerTransferListener(listener)
+        connection.bind()
+        try {
+            connection.enqueue(request)
+            if (!finished.await(UPLOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                Log_OC.w(TAG, "contacts backup upload did not finish in time")
+            }
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+        } finally {
+            connection.removeTransferListener(listener)
+            connection.unbind()
+        }
+        return succeeded.get()
+    }
+
+    private fun writeContacts(user: User, file: File): String {
+        val cacheDir = File(
+            File(applicationContext.cacheDir, CONVERTED_CONTACTS_DIR),
+            ContactsBackupWriter.hash(user.accountName.toByteArray())
+        )
+        val writer = ContactsBackupWriter(cacheDir, this::getContact)
+
+        val cursor = contentResolver.query(
+            ContactsContract.Contacts.CONTENT_URI,
+            arrayOf(ContactsContract.Contacts.LOOKUP_KEY, ContactsContract.Contacts.CONTACT_LAST_UPDATED_TIMESTAMP),
+            null,
+            null,
+            ContactsContract.Contacts._ID
+        )
+        return cursor.use { rows ->
+            val contacts = generateSequence { rows?.takeIf { it.moveToNext() } }
+                .mapNotNull { row ->
+                    val lookupKey = row.getString(0) ?: return@mapNotNull null
+                    ContactsBackupWriter.Contact(lookupKey, if (row.isNull(1)) 0L else row.getLong(1))
+                }
+            writer.write(contacts, file)
+        }
     }
 
     private fun expireFiles(daysToExpire: Int, backupFolderString: String, user: User) {
@@ -197,8 +267,7 @@ class ContactsBackupWork(
     }
 
     @Suppress("NestedBlockDepth")
-    private fun getContactFromCursor(cursor: Cursor): String {
-        val lookupKey = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Contacts.LOOKUP_KEY))
+    private fun getContact(lookupKey: String): String {
         val uri = Uri.withAppendedPath(ContactsContract.Contacts.CONTENT_VCARD_URI, lookupKey)
         var vCard = ""
         var inputStream: InputStream? = null
@@ -0,0 +1,113 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs
+
+import com.owncloud.android.lib.common.utils.Log_OC
+import java.io.File
+import java.io.IOException
+import java.io.Writer
+import java.security.DigestOutputStream
+import java.security.MessageDigest
+
+/**
+ * Writes the vCards of all contacts into one backup file for [ContactsBackupWork].
+ *
+ * Contacts are converted to vCard 3.0 only if they changed since the last backup; unchanged ones are copied from the
+ * conversion cache in [cacheDir], which is keyed by lookup key and last update timestamp of the contact. Cache files
+ * are written to a temporary file and renamed into place, so a conversion interrupted by a kill is never reused.
+ *
+ * @param convert returns the vCard 3.0 of the contact with the given lookup key
+ */
+internal class ContactsBackupWriter(private val cacheDir: File, private val convert: (String) -> String) {
+
+    companion object {
+        private val TAG = ContactsBackupWriter::class.java.simpleName
+        private const val HASH_ALGORITHM = "SHA-256"
+        private const val BACKUP_HASH_SEPARATOR = ";"
+        private const val CACHE_FILE_EXTENSION = ".vcf"
+        private const val TEMP_FILE_EXTENSION = ".tmp"
+
+        fun hash(value: ByteArray): String = MessageDigest.getInstance(HASH_ALGORITHM)
+            .digest(value)
+            .toHex()
+
+        private fun ByteArray.toHex(): String = joinToString("") { "%02x".format(it) }
+
+        /**
+         * @return the stored value for the last uploaded backup with [hash] at [remotePath]
+         */
+        fun lastBackup(hash: String, remotePath: String): String = hash + BACKUP_HASH_SEPARATOR + remotePath
+
+        /**
+         * @param lastBackup stored value created with [lastBackup], empty if no backup was uploaded yet
+         * @return true if a backup with [hash] does not need to be uploaded
+         */
+        fun isUnchanged(lastBackup: String, hash: String, force: Boolean): Boolean =
+            !force && lastBackup.isNotEmpty() && lastBackup.substringBefore(BACKUP_HASH_SEPARATOR) == hash
+    }
+
+    /**
+     * A contact to back up.
+     *
+     * @param lastUpdated 0 if unknown, such contacts are converted every time
+     */
+    data class Contact(val lookupKey: String, val lastUpdated: Long)
+
+    /**
+     * Streams the vCards of [contacts] into [file] and drops cached conversions of contacts not in [contacts].
+     *
+     * @return hash of the written content
+     */
+    fun write(contacts: Sequence<Contact>, file: File): String {
+        cacheDir.mkdirs()
+        val usedCacheFiles = HashSet<String>()
+
+        val digest = MessageDigest.getInstance(HASH_ALGORITHM)
+        DigestOutputStream(file.outputStream(), digest).bufferedWriter().use { writer ->
+            contacts.forEach { contact ->
+                writeContact(writer, contact)?.let { usedCacheFiles.add(it.name) }
+            }
+        }
+
+        // drop conversions of deleted contacts, outdated versions and interrupted writes
+        cacheDir.listFiles()?.filter { it.name !in usedCacheFiles }?.forEach { it.delete() }
+
+        return digest.digest().toHex()
+    }
+
+    /**
+     * @return the cache file holding the converted contact, if it could be cached
+     */
+    private fun writeContact(writer: Writer, contact: Contact): File? {
+        if (contact.lastUpdated <= 0) {
+            // without a version the contact cannot be cached
+            writer.write(convert(contact.lookupKey))
+            return null
+        }
+
+        val name = hash(contact.lookupKey.toByteArray()) + "_" + contact.lastUpdated
+        val cacheFile = File(cacheDir, name + CACHE_FILE_EXTENSION)
+        if (!cacheFile.exists()) {
+            val vCard = convert(contact.lookupKey)
+            val tempFile = File(cacheDir, name + TEMP_FILE_EXTENSION)
+            try {
+                tempFile.writeText(vCard)
+                if (!tempFile.renameTo(cacheFile)) {
+                    throw IOException("Renaming ${tempFile.name} failed")
+                }
+            } catch (e: IOException) {
+                Log_OC.d(TAG, "Error caching converted contact ", e)
+                tempFile.delete()
+                writer.write(vCard)
+                return null
+            }
+        }
+
+        cacheFile.reader().use { it.copyTo(writer) }
+        return cacheFile
+    }
+}
@@ -20,11 +20,11 @@ import androidx.work.CoroutineWorker
 import androidx.work.WorkerParameters
 import com.nextcloud.client.account.User
 import com.nextcloud.client.jobs.worker.WorkerFilesPayload
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.R
 import com.owncloud.android.datamodel.FileDataStorageManager
 import com.owncloud.android.datamodel.OCFile
 import com.owncloud.android.lib.common.OwnCloudClient
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.operations.DownloadFileOperation
 import com.owncloud.android.operations.DownloadType
@@ -78,8 +78,7 @@ class FilesExportWork(
     private suspend fun exportFiles(fileIDs: List<Long>, storageManager: FileDataStorageManager): Pair<Int, Int> =
         withContext(Dispatchers.IO) {
             val client = runCatching {
-                OwnCloudClientManagerFactory.getDefaultSingleton()
-                    .getClientFor(user.toOwnCloudAccount(), context)
+                ClientPool.getOwnCloudClient(user, context)
             }.onFailure {
                 Log_OC.e(TAG, "Failed to create OwnCloudClient", it)
             }.getOrNull()
@@ -29,11 +29,10 @@ import com.google.gson.Gson
 import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.client.integrations.deck.DeckApi
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.R
 import com.owncloud.android.datamodel.DecryptedPushMessage
 import com.owncloud.android.lib.common.OwnCloudClient
-import com.owncloud.android.lib.common.OwnCloudClientFactory
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.operations.RemoteOperation
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.lib.resources.notifications.DeleteNotificationRemoteOperation
@@ -260,7 +259,7 @@ class NotificationWork constructor(
         }
         val user = optionalUser.get()
         try {
-            val client = OwnCloudClientFactory.createNextcloudClient(user, context)
+            val client = ClientPool.getNextcloudClient(user, context)
             val result = GetNotificationRemoteOperation(decryptedPushMessage.nid)
                 .execute(client)
             if (result.isSuccess) {
@@ -308,9 +307,8 @@ class NotificationWork constructor(
                             val optionalUser = accountManager.getUser(accountName)
                             if (optionalUser.isPresent) {
                                 val user = optionalUser.get()
-                                val client = OwnCloudClientManagerFactory.getDefaultSingleton()
-                                    .getClientFor(user.toOwnCloudAccount(), context)
-                                val nextcloudClient = OwnCloudClientFactory.createNextcloudClient(user, context)
+                                val client = ClientPool.getOwnCloudClient(user, context)
+                                val nextcloudClient = ClientPool.getNextcloudClient(user, context)
                                 val actionType = intent.getStringExtra(KEY_NOTIFICATION_ACTION_TYPE)
                                 val actionLink = intent.getStringExtra(KEY_NOTIFICATION_ACTION_LINK)
                                 val success: Boolean = if (!actionType.isNullOrEmpty() && !actionLink.isNullOrEmpty()) {
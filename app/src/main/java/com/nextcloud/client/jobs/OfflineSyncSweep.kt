@@ -0,0 +1,271 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs
+
+import android.content.Context
+import com.nextcloud.client.account.User
+import com.nextcloud.client.core.Lanes
+import com.nextcloud.client.jobs.transfer.metrics.TransferMetrics
+import com.nextcloud.client.network.ConnectivityService
+import com.owncloud.android.datamodel.FileDataStorageManager
+import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
+import com.owncloud.android.lib.common.utils.Log_OC
+import com.owncloud.android.lib.resources.files.CheckEtagRemoteOperation
+import com.owncloud.android.lib.resources.files.ReadFolderRemoteOperation
+import com.owncloud.android.lib.resources.files.model.RemoteFile
+import com.owncloud.android.operations.SynchronizeFileOperation
+import com.owncloud.android.utils.FileStorageUtils
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.joinAll
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import java.io.File
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Synchronizes the downloaded files of one account with the server.
+ *
+ * Only the eTag of the root folder is checked on its own. Folders whose eTag changed are listed with one depth 1
+ * PROPFIND, which gives the eTags of their files and subfolders, and local files are resolved against the database
+ * with one query per folder. Only files changed on either side are synchronized, concurrently and without reading
+ * them from the server again. If a listing fails, the files and subfolders of that folder are checked one by one.
+ */
+internal class OfflineSyncSweep(
+    private val context: Context,
+    private val user: User,
+    private val storageManager: FileDataStorageManager,
+    private val connectivityService: ConnectivityService,
+    private val dispatcher: CoroutineDispatcher = Lanes.dispatcher(Lanes.Lane.NETWORK),
+    private val isStopped: () -> Boolean
+) {
+
+    companion object {
+        private const val TAG = OfflineSyncWork.TAG
+
+        const val MAX_PARALLEL_SYNCS = 4
+    }
+
+    data class Stats(
+        val foldersChanged: Int,
+        val foldersListed: Int,
+        val filesChecked: Int,
+        val filesSynced: Int,
+        val filesFailed: Int,
+        val durationMs: Long
+    )
+
+    private val semaphore = Semaphore(MAX_PARALLEL_SYNCS)
+    private val downloadFolder = FileStorageUtils.getSavePath(user.accountName)
+    private val networkType = TransferMetrics.networkType(context)
+
+    private var foldersChanged = 0
+    private var foldersListed = 0
+    private var filesChecked = 0
+    private val filesSynced = AtomicInteger()
+    private val filesFailed = AtomicInteger()
+
+    suspend fun sweep(root: File): Stats {
+        val startedAt = System.currentTimeMillis()
+        coroutineScope {
+            val folder = storageManager.getFileByEncryptedRemotePath(folderName(root))
+            val updatedEtag = folder?.let { checkETagChanged(it) }
+            if (folder != null && updatedEtag != null) {
+                sweepFolder(root, folder, updatedEtag)
+            }
+        }
+        return Stats(
+            foldersChanged,
+            foldersListed,
+            filesChecked,
+            filesSynced.get(),
+            filesFailed.get(),
+            System.currentTimeMillis() - startedAt
+        )
+    }
+
+    /**
+     * @return false if the sweep was stopped before the folder and all its subfolders were synchronized, their eTags
+     * are kept then, so the next sweep checks them again
+     */
+    private suspend fun CoroutineScope.sweepFolder(directory: File, folder: OCFile, updatedEtag: String): Boolean {
+        val entries = directory.listFiles() ?: return true
+        if (isStopped()) {
+            return false
+        }
+        foldersChanged++
+        Log_OC.d(TAG, "${folder.remotePath}: eTag changed")
+
+        // children by remote id, paths of encrypted folders differ between server and database
+        val remoteFiles = listFolder(folder)?.associateBy { it.remoteId }
+        val localFiles = storageManager.getFolderContent(folder, false).associateBy { it.storagePath }
+
+        val syncs = entries.filter { it.isFile }.mapNotNull { file ->
+            val ocFile = localFiles[file.path]
+            if (ocFile?.remotePath == null) {
+                Log_OC.w(TAG, "remote path is null can't sync")
+                return@mapNotNull null
+            }
+            filesChecked++
+
+            val serverFile = remoteFiles?.get(ocFile.remoteId)?.let { FileStorageUtils.fillOCFile(it) }
+            if (serverFile != null && !isChanged(ocFile, serverFile)) {
+                null
+            } else {
+                launch(dispatcher) {
+                    semaphore.withPermit {
+                        if (!isStopped()) {
+                            synchronize(ocFile, serverFile)
+                        }
+                    }
+                }
+            }
+        }
+
+        var completed = true
+        entries.filter { it.isDirectory }.forEach { subdirectory ->
+            val subfolder = storageManager.getFileByEncryptedRemotePath(folderName(subdirectory))
+                ?: return@forEach
+            val subfolderEtag = if (remoteFiles == null || subfolder.remoteId == null) {
+                checkETagChanged(subfolder)
+            } else {
+                changedEtag(subfolder, remoteFiles[subfolder.remoteId])
+            }
+            if (subfolderEtag != null && !sweepFolder(subdirectory, subfolder, subfolderEtag)) {
+                completed = false
+            }
+        }
+
+        syncs.joinAll()
+        // syncs skipped once stopped are only noticed here
+        if (!completed || isStopped()) {
+            Log_OC.d(TAG, "${folder.remotePath}: sweep stopped, keeping the old eTag")
+            return false
+        }
+        updateEtag(folder, updatedEtag)
+        return true
+    }
+
+    private fun folderName(directory: File): String =
+        directory.absolutePath.replaceFirst(downloadFolder.toRegex(), "") + OCFile.PATH_SEPARATOR
+
+    /**
+     * Same comparison as [SynchronizeFileOperation] does, files not downloaded are requested for download there.
+     */
+    private fun isChanged(localFile: OCFile, serverFile: OCFile): Boolean {
+        val serverChanged = if (localFile.etag.isNullOrEmpty()) {
+            serverFile.modificationTimestamp != localFile.modificationTimestampAtLastSyncForData
+        } else {
+            serverFile.etag != localFile.etag
+        }
+        val localChanged = localFile.localModificationTimestamp > localFile.lastSyncDateForData
+        return serverChanged || localChanged || !localFile.isDown
+    }
+
+    /**
+     * @param serverFile null if the file was not listed, it is read and removed locally if missing on the server
+     */
+    private fun synchronize(localFile: OCFile, serverFile: OCFile?) {
+        val operation = if (serverFile != null) {
+            serverFile.lastSyncDateForProperties = System.currentTimeMillis()
+            SynchronizeFileOperation(localFile, serverFile, user, true, context, storageManager, false)
+        } else {
+            SynchronizeFileOperation(localFile.remotePath, user, true, context, storageManager, false, false)
+        }
+        val result = operation.execute(context)
+        if (result.isSuccess) {
+            filesSynced.incrementAndGet()
+        } else {
+            filesFailed.incrementAndGet()
+        }
+    }
+
+    /**
+     * @return eTag of the listed subfolder if it changed, `null` otherwise
+     */
+    private fun changedEtag(subfolder: OCFile, remoteFolder: RemoteFile?): String? = when {
+        remoteFolder == null -> {
+            removeFolder(subfolder)
+            null
+        }
+
+        remoteFolder.etag == subfolder.etagOnServer -> null
+
+        else -> remoteFolder.etag
+    }
+
+    @Suppress("DEPRECATION")
+    private fun listFolder(folder: OCFile): List<RemoteFile>? {
+        val tracker = TransferMetrics.start(TransferMetrics.Direction.SYNC, user.accountName, networkType)
+        val result = ReadFolderRemoteOperation(folder.remotePath).execute(user, context)
+        tracker.finish(result.isSuccess)
+        connectivityService.onRequestCompleted(user, result)
+
+        return if (result.isSuccess) {
+            foldersListed++
+            result.data.filterIsInstance<RemoteFile>()
+        } else {
+            Log_OC.w(TAG, "${folder.remotePath}: listing failed, checking files one by one: ${result.logMessage}")
+            null
+        }
+    }
+
+    /**
+     * @return new eTag if changed, `null` otherwise
+     */
+    private fun checkETagChanged(folder: OCFile): String? {
+        Log_OC.d(TAG, "${folder.remotePath}: current eTag: ${folder.etag}")
+
+        // check for etag change, if false, skip
+        val tracker = TransferMetrics.start(TransferMetrics.Direction.SYNC, user.accountName, networkType)
+        val operation = CheckEtagRemoteOperation(folder.remotePath, folder.etagOnServer)
+        val result = operation.execute(user, context)
+        tracker.finish(result.code == ResultCode.ETAG_UNCHANGED || result.code == ResultCode.ETAG_CHANGED)
+
+        return when (result.code) {
+            ResultCode.ETAG_UNCHANGED -> {
+                Log_OC.d(TAG, "${folder.remotePath}: eTag unchanged")
+                null
+            }
+
+            ResultCode.FILE_NOT_FOUND -> {
+                removeFolder(folder)
+                null
+            }
+
+            ResultCode.ETAG_CHANGED -> result?.data?.get(0) as? String
+
+            else -> if (connectivityService.isInternetWalled()) {
+                Log_OC.d(TAG, "No connectivity, skipping sync")
+                null
+            } else {
+                result?.data?.get(0) as? String
+            }
+        }
+    }
+
+    private fun removeFolder(folder: OCFile) {
+        val removalResult = storageManager.removeFolder(folder, true, true)
+        if (!removalResult) {
+            Log_OC.e(TAG, "removal of " + folder.storagePath + " failed: file not found")
+        }
+    }
+
+    private fun updateEtag(folder: OCFile, updatedEtag: String) {
+        @Suppress("TooGenericExceptionCaught") // legacy code
+        try {
+            val ocFolder = storageManager.getFileByPath(folder.remotePath)
+            ocFolder.etagOnServer = updatedEtag
+            storageManager.saveFile(ocFolder)
+        } catch (e: Exception) {
+            Log_OC.e(TAG, "Failed to update etag on " + folder.remotePath, e)
+        }
+    }
+}
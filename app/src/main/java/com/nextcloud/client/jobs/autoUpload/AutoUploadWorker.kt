@@ -18,15 +18,19 @@ import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.client.database.entity.toOCUpload
 import com.nextcloud.client.database.entity.toUploadEntity
 import com.nextcloud.client.device.PowerManagementService
+import com.nextcloud.client.jobs.transfer.metrics.TransferMetrics
 import com.nextcloud.client.jobs.upload.FileUploadEventBroadcaster
 import com.nextcloud.client.jobs.upload.FileUploadHelper
 import com.nextcloud.client.jobs.upload.FileUploadWorker
 import com.nextcloud.client.jobs.upload.UploadDelayPolicy
 import com.nextcloud.client.jobs.utils.UploadErrorNotificationManager
+import com.nextcloud.client.network.ClientPool
 import com.nextcloud.client.network.ConnectivityService
 import com.nextcloud.utils.extensions.getLog
 import com.nextcloud.utils.extensions.isConflict
+import com.nextcloud.utils.extensions.isDelayed
 import com.nextcloud.utils.extensions.isNonRetryable
+import com.nextcloud.utils.extensions.isRetryableFailure
 import com.nextcloud.utils.extensions.updateStatus
 import com.owncloud.android.R
 import com.owncloud.android.datamodel.ArbitraryDataProviderImpl
@@ -38,7 +42,6 @@ import com.owncloud.android.db.OCUpload
 import com.owncloud.android.db.UploadResult
 import com.owncloud.android.files.services.NameCollisionPolicy
 import com.owncloud.android.lib.common.OwnCloudAccount
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.operations.RemoteOperationResult
 import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
 import com.owncloud.android.lib.common.utils.Log_OC
@@ -120,6 +123,7 @@ class AutoUploadWorker(
             Log_OC.e(TAG, "❌ failed: ${e.message}")
             Result.failure()
         } finally {
+            uploadsStorageManager.flushStatusUpdates()
             retryPolicy.reset()
         }
     }
@@ -255,8 +259,7 @@ class AutoUploadWorker(
     private suspend fun uploadFiles(syncedFolder: SyncedFolder) = withContext(Dispatchers.IO) {
         val user = getUserOrReturn(syncedFolder) ?: return@withContext
         val ocAccount = OwnCloudAccount(user.toPlatformAccount(), context)
-        val client = OwnCloudClientManagerFactory.getDefaultSingleton()
-            .getClientFor(ocAccount, context)
+        val client = ClientPool.getOwnCloudClient(ocAccount, context)
         val capability = CapabilityUtils.getCapability(user, context)
 
         updateNotification()
@@ -290,6 +293,7 @@ class AutoUploadWorker(
                     }
 
                     var (uploadEntity, upload) = entityResult.data
+                    val isRetry = upload.lastResult?.isRetryableFailure() == true
 
                     // if local file deleted, upload process cannot be started or retriable thus needs to be removed
                     if (path.isEmpty() || !file.exists()) {
@@ -309,7 +313,27 @@ class AutoUploadWorker(
                         val operation = createUploadFileOperation(upload, user)
                         Log_OC.d(TAG, "🕒 uploading: $localPath, id: $generatedId")
 
-                        val result = operation.execute(client)
+                        val networkType = TransferMetrics.networkType(context)
+                        val tracker = TransferMetrics.start(
+                            TransferMetrics.Direction.UPLOAD,
+                            user.accountName,
+                            networkType
+                        )
+                        operation.addDataTransferProgressListener(tracker)
+
+                        val result = try {
+                            operation.execute(client).also { tracker.finish(it.isSuccess) }
+                        } finally {
+                            operation.removeDataTransferProgressListener(tracker)
+                            // only counts if the operation threw
+                            tracker.finish(false)
+                        }
+                        connectivityService.onRequestCompleted(user, result)
+
+                        // an attempt that waited for Wi-Fi or charging again did not retry the transfer
+                        if (isRetry && !UploadResult.fromOperationResult(result).isDelayed()) {
+                            TransferMetrics.recordRetry(TransferMetrics.Direction.UPLOAD, user.accountName, networkType)
+                        }
                         fileUploadEventBroadcaster.sendUploadStarted(operation, context)
 
                         UploadErrorNotificationManager.handleResult(
@@ -40,6 +40,19 @@ class DownloadNotificationManager(id: Int, private val context: Context, viewThe
         showNotification()
     }
 
+    fun updateFolderProgress(folderName: String, filename: String, finished: Int, total: Int) {
+        currentOperationTitle = folderName
+
+        notificationBuilder.run {
+            setContentTitle(currentOperationTitle)
+            setContentText(context.getString(R.string.folder_download_counter, finished, total, filename))
+            setOngoing(false)
+            setProgress(total, finished, false)
+        }
+
+        showNotification()
+    }
+
     fun prepareForResult() {
         notificationBuilder
             .setAutoCancel(true)
@@ -73,6 +73,21 @@ class FileDownloadHelper {
     }
 
     fun saveFile(file: OCFile, currentDownload: DownloadFileOperation?, storageManager: FileDataStorageManager?) {
+        updateDownloadedFile(file, currentDownload)
+
+        storageManager?.saveFile(file)
+
+        if (MimeTypeUtil.isMedia(currentDownload?.mimeType)) {
+            FileDataStorageManager.triggerMediaScan(file.storagePath, file)
+        }
+
+        storageManager?.saveConflict(file, null)
+    }
+
+    /**
+     * Sets the state of a downloaded file without saving it, see [FileDataStorageManager.saveDownloadedFiles].
+     */
+    fun updateDownloadedFile(file: OCFile, currentDownload: DownloadFileOperation?) {
         val syncDate = System.currentTimeMillis()
 
         file.apply {
@@ -92,14 +107,6 @@ class FileDownloadHelper {
 
             remoteId = currentDownload?.file?.remoteId
         }
-
-        storageManager?.saveFile(file)
-
-        if (MimeTypeUtil.isMedia(currentDownload?.mimeType)) {
-            FileDataStorageManager.triggerMediaScan(file.storagePath, file)
-        }
-
-        storageManager?.saveConflict(file, null)
     }
 
     fun downloadFileIfNotStartedBefore(user: User, file: OCFile) {
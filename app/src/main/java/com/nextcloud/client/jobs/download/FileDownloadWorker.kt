@@ -20,6 +20,10 @@ import androidx.work.ForegroundInfo
 import androidx.work.WorkerParameters
 import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
+import com.nextcloud.client.database.NextcloudDatabase
+import com.nextcloud.client.jobs.transfer.metrics.TransferMetrics
+import com.nextcloud.client.network.ClientPool
+import com.nextcloud.client.network.ConnectivityService
 import com.nextcloud.utils.ForegroundServiceHelper
 import com.nextcloud.utils.extensions.getPercent
 import com.owncloud.android.R
@@ -28,13 +32,13 @@ import com.owncloud.android.datamodel.ForegroundServiceType
 import com.owncloud.android.datamodel.OCFile
 import com.owncloud.android.files.services.IndexedForest
 import com.owncloud.android.lib.common.OwnCloudAccount
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.network.OnDatatransferProgressListener
 import com.owncloud.android.lib.common.operations.RemoteOperationResult
 import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.operations.DownloadFileOperation
 import com.owncloud.android.operations.DownloadType
+import com.owncloud.android.operations.ResumableDownload
 import com.owncloud.android.ui.events.EventBusFactory
 import com.owncloud.android.ui.events.FileDownloadProgressEvent
 import com.owncloud.android.utils.theme.ViewThemeUtils
@@ -48,6 +52,7 @@ import kotlin.random.Random
 class FileDownloadWorker(
     viewThemeUtils: ViewThemeUtils,
     private val accountManager: UserAccountManager,
+    private val connectivityService: ConnectivityService,
     localBroadcastManager: LocalBroadcastManager,
     private val context: Context,
     params: WorkerParameters
@@ -77,15 +82,29 @@ class FileDownloadWorker(
         const val ACTIVITY_NAME = "ACTIVITY_NAME"
         const val PACKAGE_NAME = "PACKAGE_NAME"
         const val CONFLICT_UPLOAD_ID = "CONFLICT_UPLOAD_ID"
+
+        /**
+         * Ranges very large files are downloaded in at once, when they are downloaded on their own.
+         */
+        const val PARALLEL_RANGES = 4
+
+        /**
+         * Interrupted downloads of large files are continued by running the work again up to this many times.
+         */
+        const val MAX_RESUME_ATTEMPTS = 5
     }
 
     private var currentDownload: DownloadFileOperation? = null
 
+    @Volatile
+    private var folderDownloads: List<DownloadFileOperation> = emptyList()
+
     private var conflictUploadId: Long? = null
     private var lastPercent = 0
 
     private val fileDownloadEventBroadcaster = FileDownloadEventBroadcaster(context, localBroadcastManager)
     private val intents = FileDownloadIntents(context)
+    private val partialDownloadDao = NextcloudDatabase.instance().partialDownloadDao()
 
     private var notificationManager = DownloadNotificationManager(
         Random.nextInt(),
@@ -102,18 +121,33 @@ class FileDownloadWorker(
     private var fileDataStorageManager: FileDataStorageManager? = null
 
     private var downloadError: FileDownloadError? = null
+    private var resumableDownloadFailed = false
+
+    private var workStartedAt = 0L
+    private var transferTracker: TransferMetrics.Tracker? = null
 
     @Suppress("ReturnCount")
     override suspend fun doWork(): Result {
+        workStartedAt = System.currentTimeMillis()
         return try {
             setUser()
+            ResumableDownload.discardStale(partialDownloadDao, System.currentTimeMillis())
             val remotePath = inputData.keyValueMap[FILE_REMOTE_PATH] as? String? ?: return Result.failure()
             val ocFile = fileDataStorageManager?.getFileByEncryptedRemotePath(remotePath) ?: return Result.failure()
             val requestDownloads = getRequestDownloads(ocFile)
             addAccountUpdateListener()
 
-            requestDownloads.forEach {
-                downloadFile(it)
+            if (ocFile.isFolder) {
+                downloadFolder(ocFile, requestDownloads)
+            } else {
+                requestDownloads.forEach {
+                    downloadFile(it)
+                }
+            }
+
+            if (resumableDownloadFailed && runAttemptCount < MAX_RESUME_ATTEMPTS) {
+                Log_OC.d(TAG, "interrupted downloads are resumed on the next attempt")
+                return Result.retry()
             }
 
             downloadError?.let {
@@ -191,7 +225,10 @@ class FileDownloadWorker(
                     downloadType
                 )
 
-                operation.addProgressListener(this)
+                if (!ocFile.isFolder) {
+                    operation.addProgressListener(this)
+                    operation.maxParallelRanges = PARALLEL_RANGES
+                }
                 val (downloadKey, _) = pendingDownloads.putIfAbsent(
                     user.accountName,
                     file.remotePath,
@@ -225,7 +262,7 @@ class FileDownloadWorker(
     }
 
     private fun getFiles(file: OCFile): List<OCFile> = if (file.isFolder) {
-        fileDataStorageManager?.getAllFilesRecursivelyInsideFolder(file) ?: listOf()
+        FolderDownloadEngine.pendingFiles(fileDataStorageManager?.getAllFilesRecursivelyInsideFolder(file) ?: listOf())
     } else {
         listOf(file)
     }
@@ -271,11 +308,18 @@ class FileDownloadWorker(
             setContentIntent(intents.detailsIntent(currentDownload!!), PendingIntent.FLAG_IMMUTABLE)
         }
 
+        val tracker = TransferMetrics.start(
+            TransferMetrics.Direction.DOWNLOAD,
+            currentDownload?.user?.accountName ?: "",
+            TransferMetrics.networkType(context),
+            System.currentTimeMillis() - workStartedAt
+        )
+        transferTracker = tracker
+
         var downloadResult: RemoteOperationResult<*>? = null
         try {
             val ocAccount = getOCAccountForDownload()
-            val downloadClient =
-                OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(ocAccount, context)
+            val downloadClient = ClientPool.getOwnCloudClient(ocAccount, context)
 
             downloadResult = currentDownload?.execute(downloadClient)
             if (downloadResult?.isSuccess == true && currentDownload?.downloadType === DownloadType.DOWNLOAD) {
@@ -287,7 +331,51 @@ class FileDownloadWorker(
             Log_OC.e(TAG, "exception downloading file: ", e)
             downloadResult = RemoteOperationResult<Any?>(e)
         } finally {
-            cleanupDownloadProcess(downloadResult)
+            transferTracker = null
+            tracker.finish(downloadResult?.isSuccess == true)
+            val downloadUser = currentDownload?.user
+            if (downloadUser != null && downloadResult != null) {
+                connectivityService.onRequestCompleted(downloadUser, downloadResult)
+            }
+            if (downloadResult != null && (downloadResult.isSuccess || downloadError != null)) {
+                notificationManager.dismissNotification()
+            }
+            cleanupDownloadProcess(currentDownload, downloadResult)
+        }
+    }
+
+    /**
+     * Downloads the files of a folder concurrently, files are saved and reported in batches.
+     */
+    @Suppress("DEPRECATION")
+    private suspend fun downloadFolder(folder: OCFile, downloadKeys: List<String>) {
+        val user = user ?: return
+        val storageManager = fileDataStorageManager ?: return
+        if (!accountManager.exists(user.toPlatformAccount())) {
+            removePendingDownload(user.accountName)
+            return
+        }
+
+        folderDownloads = downloadKeys.mapNotNull { pendingDownloads.get(it) }
+        if (folderDownloads.isEmpty()) {
+            return
+        }
+
+        trySetForeground(folder.fileName)
+        notificationManager.setContentIntent(intents.detailsIntent(null), PendingIntent.FLAG_IMMUTABLE)
+
+        val engine = FolderDownloadEngine(context, user, storageManager, connectivityService) { isStopped }
+        try {
+            engine.download(folderDownloads) { operation, result, finished, total ->
+                val now = System.currentTimeMillis()
+                if (finished == total || now - lastUpdateTime >= minProgressUpdateInterval) {
+                    notificationManager.updateFolderProgress(folder.fileName, operation.file.fileName, finished, total)
+                    lastUpdateTime = now
+                }
+                cleanupDownloadProcess(operation, result)
+            }
+        } finally {
+            folderDownloads = emptyList()
         }
     }
 
@@ -317,19 +405,24 @@ class FileDownloadWorker(
         return file
     }
 
-    private fun cleanupDownloadProcess(result: RemoteOperationResult<*>?) {
+    private fun cleanupDownloadProcess(download: DownloadFileOperation?, result: RemoteOperationResult<*>?) {
         result?.let {
             checkDownloadError(it)
         }
 
+        if (download != null && result?.isSuccess == false && !result.isCancelled) {
+            resumableDownloadFailed = resumableDownloadFailed ||
+                partialDownloadDao.get(download.user.accountName, download.remotePath) != null
+        }
+
         pendingDownloads.removePayload(
-            currentDownload?.user?.accountName,
-            currentDownload?.remotePath
+            download?.user?.accountName,
+            download?.remotePath
         )
 
         val downloadResult = result ?: RemoteOperationResult<Any?>(RuntimeException("Error downloading…"))
 
-        currentDownload?.run {
+        download?.run {
             notifyDownloadResult(this, downloadResult)
 
             fileDownloadEventBroadcaster.sendDownloadCompleted(
@@ -341,7 +434,6 @@ class FileDownloadWorker(
 
     private fun checkDownloadError(result: RemoteOperationResult<*>) {
         if (result.isSuccess || downloadError != null) {
-            notificationManager.dismissNotification()
             return
         }
 
@@ -392,6 +484,9 @@ class FileDownloadWorker(
         if (!accountManager.exists(currentDownload?.user?.toPlatformAccount())) {
             currentDownload?.cancel()
         }
+        if (!accountManager.exists(user?.toPlatformAccount())) {
+            folderDownloads.forEach { it.cancel() }
+        }
     }
 
     @Suppress("MagicNumber")
@@ -416,6 +511,7 @@ class FileDownloadWorker(
         }
 
         lastPercent = percent
+        transferTracker?.onProgress(totalTransferredSoFar)
         EventBusFactory.downloadProgressEventBus.post(FileDownloadProgressEvent(percent))
         downloadProgressListener.onTransferProgress(progressRate, totalTransferredSoFar, totalToTransfer, filePath)
     }
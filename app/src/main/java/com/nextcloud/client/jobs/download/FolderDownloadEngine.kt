@@ -0,0 +1,228 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs.download
+
+import android.content.Context
+import com.nextcloud.client.account.User
+import com.nextcloud.client.core.Clock
+import com.nextcloud.client.core.ClockImpl
+import com.nextcloud.client.core.Lanes
+import com.nextcloud.client.jobs.transfer.metrics.TransferMetrics
+import com.nextcloud.client.network.ClientPool
+import com.nextcloud.client.network.ConnectivityService
+import com.owncloud.android.datamodel.FileDataStorageManager
+import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.lib.common.OwnCloudClient
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+import com.owncloud.android.lib.common.utils.Log_OC
+import com.owncloud.android.operations.DownloadFileOperation
+import com.owncloud.android.operations.DownloadType
+import com.owncloud.android.utils.MimeTypeUtil
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Downloads the files of a folder concurrently.
+ *
+ * Up to [parallelism] files are downloaded at once. Files larger than [LARGE_FILE_BYTES] are streamed by at most
+ * [largeFileParallelism] of them, the others go through the small files, so a few large files neither wait for
+ * thousands of small ones nor take all connections. Both are started smallest first.
+ *
+ * Downloaded files are saved to the database in batches of [SAVE_BATCH_SIZE], or after [SAVE_INTERVAL_MS], and once
+ * more when the download stops. Files are reported as finished once they are saved, so a download interrupted later
+ * resumes with the files in [pendingFiles].
+ *
+ * @param isStopped checked before each file is started
+ */
+@Suppress("LongParameterList")
+class FolderDownloadEngine(
+    private val context: Context,
+    private val user: User,
+    private val storageManager: FileDataStorageManager,
+    private val connectivityService: ConnectivityService,
+    private val parallelism: Int = DEFAULT_PARALLELISM,
+    private val largeFileParallelism: Int = maxOf(1, parallelism / 2),
+    private val clock: Clock = ClockImpl(),
+    private val isStopped: () -> Boolean = { false }
+) {
+
+    companion object {
+        private const val TAG = "FolderDownloadEngine"
+
+        const val DEFAULT_PARALLELISM = 4
+        const val LARGE_FILE_BYTES = 10L * 1024 * 1024
+        const val SAVE_BATCH_SIZE = 50
+        const val SAVE_INTERVAL_MS = 2000L
+
+        /**
+         * Files not downloaded yet, or whose downloaded content is older than the one on the server.
+         */
+        @JvmStatic
+        fun pendingFiles(files: List<OCFile>): List<OCFile> = files.filter { !isCurrent(it) }
+
+        private fun isCurrent(file: OCFile): Boolean =
+            file.isDown && (file.etagOnServer.isNullOrEmpty() || file.etagOnServer == file.etag)
+    }
+
+    fun interface Listener {
+        /**
+         * Called for one file at a time, after a downloaded file was saved.
+         */
+        fun onFinished(operation: DownloadFileOperation, result: RemoteOperationResult<*>, finished: Int, total: Int)
+    }
+
+    data class Stats(
+        val files: Int,
+        val succeeded: Int,
+        val failed: Int,
+        val bytes: Long,
+        val durationMs: Long
+    )
+
+    private class Downloaded(val operation: DownloadFileOperation, val result: RemoteOperationResult<*>)
+
+    private val networkType = TransferMetrics.networkType(context)
+    private val downloadHelper = FileDownloadHelper.instance()
+
+    private val reportLock = Any()
+    private val unsaved = ArrayList<Downloaded>()
+    private var lastSaveAt = 0L
+
+    private val finished = AtomicInteger()
+    private val succeeded = AtomicInteger()
+    private val bytes = AtomicLong()
+
+    suspend fun download(operations: List<DownloadFileOperation>, listener: Listener): Stats {
+        val startedAt = clock.currentTime
+        lastSaveAt = startedAt
+
+        val (large, small) = operations.sortedBy { it.size }.partition { it.size > LARGE_FILE_BYTES }
+        val smallQueue = ConcurrentLinkedQueue(small)
+        val largeQueue = ConcurrentLinkedQueue(large)
+        val largeWorkers = largeFileParallelism.coerceIn(1, parallelism)
+        Log_OC.d(TAG, "${operations.size} files, ${large.size} large, $parallelism in parallel")
+
+        @Suppress("DEPRECATION")
+        val client = ClientPool.getOwnCloudClient(user.toOwnCloudAccount(), context)
+
+        try {
+            coroutineScope {
+                repeat(parallelism) { index ->
+                    launch(Lanes.dispatcher(Lanes.Lane.TRANSFER)) {
+                        // large file workers help with small files once the large ones are done
+                        while (isActive && !isStopped()) {
+                            val next = (if (index < largeWorkers) largeQueue.poll() else null) ?: smallQueue.poll()
+                            next ?: break
+                            val result = execute(client, next)
+                            onDownloaded(Downloaded(next, result), operations.size, listener)
+                        }
+                    }
+                }
+            }
+        } finally {
+            withContext(NonCancellable) {
+                save(takeUnsaved(), operations.size, listener)
+            }
+        }
+
+        val stats = Stats(
+            operations.size,
+            succeeded.get(),
+            finished.get() - succeeded.get(),
+            bytes.get(),
+            clock.currentTime - startedAt
+        )
+        Log_OC.d(TAG, "finished: $stats")
+        return stats
+    }
+
+    @Suppress("TooGenericExceptionCaught", "DEPRECATION")
+    private fun execute(client: OwnCloudClient, operation: DownloadFileOperation): RemoteOperationResult<*> {
+        val tracker = TransferMetrics.start(TransferMetrics.Direction.DOWNLOAD, user.accountName, networkType)
+        operation.addProgressListener(tracker)
+
+        val result = try {
+            operation.execute(client)
+        } catch (e: Exception) {
+            Log_OC.e(TAG, "exception downloading ${operation.remotePath}", e)
+            RemoteOperationResult<Any?>(e)
+        } finally {
+            operation.removeProgressListener(tracker)
+        }
+
+        tracker.finish(result.isSuccess)
+        connectivityService.onRequestCompleted(user, result)
+        if (!result.isSuccess) {
+            Log_OC.w(TAG, "download failed for ${operation.remotePath}: ${result.logMessage}")
+        }
+        return result
+    }
+
+    private fun onDownloaded(downloaded: Downloaded, total: Int, listener: Listener) {
+        val saved = downloaded.result.isSuccess && downloaded.operation.downloadType === DownloadType.DOWNLOAD
+        if (!saved) {
+            report(listOf(downloaded), total, listener)
+            return
+        }
+
+        val batch = synchronized(unsaved) {
+            unsaved.add(downloaded)
+            val now = clock.currentTime
+            if (unsaved.size >= SAVE_BATCH_SIZE || now - lastSaveAt >= SAVE_INTERVAL_MS) {
+                lastSaveAt = now
+                takeUnsaved()
+            } else {
+                emptyList()
+            }
+        }
+        save(batch, total, listener)
+    }
+
+    private fun takeUnsaved(): List<Downloaded> = synchronized(unsaved) {
+        unsaved.toList().also { unsaved.clear() }
+    }
+
+    private fun save(batch: List<Downloaded>, total: Int, listener: Listener) {
+        if (batch.isEmpty()) {
+            return
+        }
+
+        val files = batch.mapNotNull { downloaded ->
+            val operation = downloaded.operation
+            val file = storageManager.getFileById(operation.file.fileId)
+                ?: storageManager.getFileByDecryptedRemotePath(operation.file.remotePath)
+            if (file == null) {
+                Log_OC.e(TAG, "could not resolve OCFile for save: ${operation.remotePath}")
+            }
+            file?.also { downloadHelper.updateDownloadedFile(it, operation) }
+        }
+        storageManager.saveDownloadedFiles(files)
+        files.filter { MimeTypeUtil.isMedia(it.mimeType) }.forEach {
+            FileDataStorageManager.triggerMediaScan(it.storagePath, it)
+        }
+
+        report(batch, total, listener)
+    }
+
+    private fun report(batch: List<Downloaded>, total: Int, listener: Listener) {
+        synchronized(reportLock) {
+            batch.forEach {
+                if (it.result.isSuccess) {
+                    succeeded.incrementAndGet()
+                    bytes.addAndGet(it.operation.size)
+                }
+                listener.onFinished(it.operation, it.result, finished.incrementAndGet(), total)
+            }
+        }
+    }
+}
@@ -13,13 +13,12 @@ import androidx.work.CoroutineWorker
 import androidx.work.ForegroundInfo
 import androidx.work.WorkerParameters
 import com.nextcloud.client.account.UserAccountManager
-import com.nextcloud.client.jobs.download.FileDownloadHelper
+import com.nextcloud.client.jobs.download.FolderDownloadEngine
+import com.nextcloud.client.network.ConnectivityService
 import com.owncloud.android.datamodel.FileDataStorageManager
 import com.owncloud.android.datamodel.OCFile
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.operations.DownloadFileOperation
-import com.owncloud.android.operations.DownloadType
 import com.owncloud.android.utils.FileStorageUtils
 import com.owncloud.android.utils.theme.ViewThemeUtils
 import kotlinx.coroutines.Dispatchers
@@ -28,11 +27,13 @@ import kotlinx.coroutines.withContext
 import java.util.concurrent.ConcurrentHashMap
 
 /**
- * Only used for downloading files in first level of the folder, not subfolders.
+ * Only used for downloading files in first level of the folder, not subfolders. Files already downloaded with the
+ * current eTag are skipped, so a stopped download continues with the missing files.
  */
 @Suppress("LongMethod", "TooGenericExceptionCaught", "MagicNumber")
 class FolderDownloadWorker(
     private val accountManager: UserAccountManager,
+    private val connectivityService: ConnectivityService,
     private val context: Context,
     viewThemeUtils: ViewThemeUtils,
     localBroadcastManager: LocalBroadcastManager,
@@ -85,13 +86,8 @@ class FolderDownloadWorker(
         folderDownloadEventBroadcaster.sendDownloadEnqueued(folder.fileId)
         pendingDownloads.add(folder.fileId)
 
-        val downloadHelper = FileDownloadHelper.instance()
-
         return withContext(Dispatchers.IO) {
             try {
-                val account = user.toOwnCloudAccount()
-                val client = OwnCloudClientManagerFactory.getDefaultSingleton()
-                    .getClientFor(account, context)
                 val files = getFiles(folder, storageManager)
                 if (files.isEmpty()) {
                     Log_OC.d(TAG, "✅ no files need downloading")
@@ -99,41 +95,28 @@ class FolderDownloadWorker(
                     return@withContext Result.success()
                 }
 
-                var overallSuccess = true
-
-                files.forEachIndexed { index, file ->
-                    if (isStopped) {
-                        Log_OC.d(TAG, "⚠️ worker stopped mid-download, aborting remaining files")
-                        return@withContext Result.failure()
-                    }
-
-                    if (!FileStorageUtils.checkIfEnoughSpace(folder)) {
-                        notificationManager.showNotAvailableDiskSpace()
-                        return@withContext Result.failure()
-                    }
+                if (!FileStorageUtils.checkIfEnoughSpace(folder)) {
+                    notificationManager.showNotAvailableDiskSpace()
+                    return@withContext Result.failure()
+                }
 
+                val operations = files.map { DownloadFileOperation(user, it, context) }
+                val engine = FolderDownloadEngine(context, user, storageManager, connectivityService) { isStopped }
+                val stats = engine.download(operations) { operation, _, finished, total ->
                     notificationManager.showProgressNotification(
                         folder.fileName,
-                        file.fileName,
-                        index,
-                        files.size
+                        operation.file.fileName,
+                        finished - 1,
+                        total
                     )
+                }
 
-                    val operation = DownloadFileOperation(user, file, context)
-                    val operationResult = operation.execute(client)
-
-                    if (operationResult?.isSuccess == true && operation.downloadType === DownloadType.DOWNLOAD) {
-                        getOCFile(operation)?.let { ocFile ->
-                            downloadHelper.saveFile(ocFile, operation, storageManager)
-                        }
-                    }
-
-                    if (operationResult?.isSuccess != true) {
-                        Log_OC.w(TAG, "⚠️ download failed for ${file.remotePath}: ${operationResult?.logMessage}")
-                        overallSuccess = false
-                    }
+                if (isStopped) {
+                    Log_OC.d(TAG, "⚠️ worker stopped mid-download, remaining files are downloaded next time")
+                    return@withContext Result.failure()
                 }
 
+                val overallSuccess = stats.failed == 0
                 notificationManager.showCompletionNotification(folder.fileName, overallSuccess)
 
                 if (overallSuccess) {
@@ -187,16 +170,6 @@ class FolderDownloadWorker(
         }
     }
 
-    private fun getOCFile(operation: DownloadFileOperation): OCFile? = operation.file?.fileId?.let {
-        storageManager.getFileById(it)
-    }
-        ?: storageManager.getFileByDecryptedRemotePath(operation.file?.remotePath)
-        ?: run {
-            Log_OC.e(TAG, "could not resolve OCFile for save: ${operation.file?.remotePath}")
-            null
-        }
-
     private fun getFiles(folder: OCFile, storageManager: FileDataStorageManager): List<OCFile> =
-        storageManager.getFolderContent(folder, false)
-            .filter { !it.isFolder && !it.isDown }
+        FolderDownloadEngine.pendingFiles(storageManager.getFolderContent(folder, false).filter { !it.isFolder })
 }
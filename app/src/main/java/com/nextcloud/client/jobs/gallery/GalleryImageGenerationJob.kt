@@ -17,6 +17,7 @@ import android.view.WindowManager
 import android.widget.ImageView
 import androidx.core.content.ContextCompat
 import com.nextcloud.client.account.User
+import com.nextcloud.client.network.ClientPool
 import com.nextcloud.utils.extensions.getBigThumbnail
 import com.nextcloud.utils.extensions.getBigThumbnailKey
 import com.nextcloud.utils.extensions.getSmallThumbnail
@@ -27,7 +28,6 @@ import com.owncloud.android.R
 import com.owncloud.android.datamodel.FileDataStorageManager
 import com.owncloud.android.datamodel.OCFile
 import com.owncloud.android.datamodel.ThumbnailsCacheManager
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.utils.BitmapUtils
 import com.owncloud.android.utils.MimeTypeUtil
@@ -186,8 +186,7 @@ class GalleryImageGenerationJob(private val user: User, private val storageManag
 
     private suspend fun fetchFromServer(file: OCFile): Bitmap? = try {
         val client = withContext(Dispatchers.IO) {
-            OwnCloudClientManagerFactory.getDefaultSingleton()
-                .getClientFor(user.toOwnCloudAccount(), MainApp.getAppContext())
+            ClientPool.getOwnCloudClient(user, MainApp.getAppContext())
         }
         ThumbnailsCacheManager.setClient(client)
         ThumbnailsCacheManager.doResizedImageInBackground(file, storageManager)
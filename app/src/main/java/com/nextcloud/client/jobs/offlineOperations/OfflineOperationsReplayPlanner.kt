@@ -0,0 +1,174 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.client.jobs.offlineOperations
+
+import com.nextcloud.client.core.Lanes
+import com.nextcloud.client.database.entity.OfflineOperationEntity
+import com.nextcloud.model.OfflineOperationType
+import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.lib.common.OwnCloudClient
+import com.owncloud.android.lib.common.utils.Log_OC
+import com.owncloud.android.lib.resources.files.ReadFileRemoteOperation
+import com.owncloud.android.lib.resources.files.ReadFolderRemoteOperation
+import com.owncloud.android.lib.resources.files.model.RemoteFile
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+
+/**
+ * Plans the replay of queued offline operations.
+ *
+ * Operations on the same path, or on a path below another one, depend on each other, e.g. creating a file in a folder
+ * that was created offline. A rename makes its new path part of the chain too, so operations queued later on the
+ * renamed file or below it wait for the rename. Dependent operations are kept in one chain in their queued order.
+ * Different chains are independent and are replayed concurrently.
+ *
+ * Before replaying, the parent folders of the first operation of each chain are listed with one depth 1 PROPFIND per
+ * folder, instead of reading every file on its own. Later operations of a chain read their file when they are
+ * replayed, as earlier operations may have changed it.
+ *
+ * Up to [MAX_PARALLEL_REQUESTS] requests share [client], which has to use a multi-threaded connection manager, as the
+ * clients handed out by [com.nextcloud.client.network.ClientPool] do.
+ */
+internal class OfflineOperationsReplayPlanner(
+    private val client: OwnCloudClient,
+    private val dispatcher: CoroutineDispatcher = Lanes.dispatcher(Lanes.Lane.NETWORK)
+) {
+
+    companion object {
+        private val TAG = OfflineOperationsReplayPlanner::class.java.simpleName
+
+        const val MAX_PARALLEL_REQUESTS = 4
+    }
+
+    private val semaphore = Semaphore(MAX_PARALLEL_REQUESTS)
+    private val listedFolders = HashSet<String>()
+    private val prefetchedFiles = HashMap<String, RemoteFile>()
+
+    /**
+     * Groups operations into chains of dependent operations, ordered by their first operation. Operations without a
+     * path are left out.
+     */
+    fun plan(operations: List<OfflineOperationEntity>): List<List<OfflineOperationEntity>> {
+        val planned = operations.filter { it.path != null }
+        val paths = planned.map(::chainPaths)
+
+        // union-find over the operations, dependencies are transitive
+        val roots = IntArray(planned.size) { it }
+        fun root(index: Int): Int {
+            var current = index
+            while (roots[current] != current) {
+                roots[current] = roots[roots[current]]
+                current = roots[current]
+            }
+            return current
+        }
+
+        for (i in planned.indices) {
+            for (j in i + 1 until planned.size) {
+                if (dependsOn(paths[i], paths[j])) {
+                    roots[root(j)] = root(i)
+                }
+            }
+        }
+
+        val chains = LinkedHashMap<Int, MutableList<OfflineOperationEntity>>()
+        planned.forEachIndexed { index, operation ->
+            chains.getOrPut(root(index)) { mutableListOf() }.add(operation)
+        }
+        return chains.values.toList()
+    }
+
+    /**
+     * Paths an operation works on, as folder keys: its own path and, for a rename, the path after the rename.
+     */
+    private fun chainPaths(operation: OfflineOperationEntity): List<String> {
+        val path = key(operation.path!!)
+        val type = operation.type
+        return if (type is OfflineOperationType.RenameFile) {
+            listOf(folderKey(path), folderKey(parentOf(path) + type.newName))
+        } else {
+            listOf(folderKey(path))
+        }
+    }
+
+    private fun dependsOn(paths: List<String>, otherPaths: List<String>): Boolean = paths.any { path ->
+        otherPaths.any { it.startsWith(path) || path.startsWith(it) }
+    }
+
+    /**
+     * Lists the parent folders of the first operation of every chain.
+     */
+    suspend fun prefetch(chains: List<List<OfflineOperationEntity>>) {
+        val parents = chains
+            .mapNotNull { chain -> chain.first().path?.let { parentOf(key(it)) } }
+            .distinct()
+
+        val listings = coroutineScope {
+            parents.map { parent ->
+                async(dispatcher) {
+                    semaphore.withPermit { parent to listFolder(parent) }
+                }
+            }.awaitAll()
+        }
+
+        listings.forEach { (parent, files) ->
+            if (files != null) {
+                listedFolders.add(parent)
+                files.forEach { prefetchedFiles[key(it.remotePath)] = it }
+            }
+        }
+        Log_OC.d(TAG, "Prefetched ${prefetchedFiles.size} files from ${listedFolders.size}/${parents.size} folders")
+    }
+
+    /**
+     * @param usePrefetched whether the listing made by [prefetch] is still valid for the path
+     */
+    suspend fun getRemoteFile(remotePath: String, usePrefetched: Boolean): RemoteFile? {
+        val key = key(remotePath)
+        if (usePrefetched && parentOf(key) in listedFolders) {
+            return prefetchedFiles[key]
+        }
+
+        return semaphore.withPermit { readFile(remotePath) }
+    }
+
+    @Suppress("DEPRECATION")
+    private fun listFolder(remotePath: String): List<RemoteFile>? {
+        val result = ReadFolderRemoteOperation(remotePath).execute(client)
+        return if (result.isSuccess) {
+            result.data.filterIsInstance<RemoteFile>()
+        } else {
+            null
+        }
+    }
+
+    // depth 0 works for folders as well, so their content is not listed
+    @Suppress("DEPRECATION")
+    private fun readFile(remotePath: String): RemoteFile? {
+        val result = ReadFileRemoteOperation(remotePath).execute(client)
+        return if (result.isSuccess) {
+            result.data[0] as? RemoteFile
+        } else {
+            null
+        }
+    }
+
+    private fun key(path: String): String = if (path == OCFile.ROOT_PATH) {
+        path
+    } else {
+        path.removeSuffix(OCFile.PATH_SEPARATOR)
+    }
+
+    private fun folderKey(path: String): String = key(path).removeSuffix(OCFile.PATH_SEPARATOR) + OCFile.PATH_SEPARATOR
+
+    private fun parentOf(key: String): String = key.substringBeforeLast(OCFile.PATH_SEPARATOR) + OCFile.PATH_SEPARATOR
+}
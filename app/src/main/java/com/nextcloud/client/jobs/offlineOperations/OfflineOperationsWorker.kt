@@ -24,16 +24,19 @@ import com.owncloud.android.lib.common.OwnCloudClient
 import com.owncloud.android.lib.common.operations.RemoteOperation
 import com.owncloud.android.lib.common.operations.RemoteOperationResult
 import com.owncloud.android.lib.common.utils.Log_OC
-import com.owncloud.android.lib.resources.files.ReadFileRemoteOperation
-import com.owncloud.android.lib.resources.files.ReadFolderRemoteOperation
 import com.owncloud.android.lib.resources.files.UploadFileRemoteOperation
 import com.owncloud.android.lib.resources.files.model.RemoteFile
 import com.owncloud.android.operations.CreateFolderOperation
 import com.owncloud.android.operations.RemoveFileOperation
 import com.owncloud.android.operations.RenameFileOperation
-import com.owncloud.android.utils.MimeTypeUtil
 import com.owncloud.android.utils.theme.ViewThemeUtils
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.withPermit
 import kotlinx.coroutines.withContext
 import kotlin.coroutines.resume
 import kotlin.coroutines.suspendCoroutine
@@ -60,6 +63,10 @@ class OfflineOperationsWorker(
     private val notificationManager = OfflineOperationsNotificationManager(context, viewThemeUtils)
     private var repository = OfflineOperationsRepository(fileDataStorageManager)
 
+    // notifications and progress are shared by operations replayed concurrently
+    private val resultLock = Mutex()
+    private var completedOperations = 0
+
     @Suppress("TooGenericExceptionCaught")
     override suspend fun doWork(): Result = withContext(Dispatchers.IO) {
         try {
@@ -97,42 +104,64 @@ class OfflineOperationsWorker(
     }
 
     // region Handle offline operations
-    @Suppress("TooGenericExceptionCaught")
     private suspend fun processOperations(operations: List<OfflineOperationEntity>, client: OwnCloudClient) {
+        val planner = OfflineOperationsReplayPlanner(client)
+        val chains = planner.plan(operations)
+        planner.prefetch(chains)
+        Log_OC.d(TAG, "Replaying ${operations.size} operations in ${chains.size} independent chains")
+
         val totalOperationSize = operations.size
-        operations.forEachIndexed { index, operation ->
+        val semaphore = Semaphore(OfflineOperationsReplayPlanner.MAX_PARALLEL_REQUESTS)
+        coroutineScope {
+            chains.forEach { chain ->
+                launch(Dispatchers.IO) {
+                    semaphore.withPermit { processChain(chain, planner, client, totalOperationSize) }
+                }
+            }
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private suspend fun processChain(
+        chain: List<OfflineOperationEntity>,
+        planner: OfflineOperationsReplayPlanner,
+        client: OwnCloudClient,
+        totalOperationSize: Int
+    ) {
+        chain.forEachIndexed { index, queuedOperation ->
             try {
+                // earlier operations of the chain may have removed or moved this one
+                val operation = if (index == 0) {
+                    queuedOperation
+                } else {
+                    queuedOperation.id?.let { fileDataStorageManager.offlineOperationDao.getById(it) }
+                        ?: return@forEachIndexed
+                }
+                val usePrefetched = index == 0
+
                 Log_OC.d(TAG, "Processing operation, path: ${operation.path}")
-                val result = executeOperation(operation, client)
-                handleResult(operation, totalOperationSize, index, result)
+                val result = executeOperation(operation, client, planner, usePrefetched)
+                resultLock.withLock { handleResult(operation, totalOperationSize, result) }
             } catch (e: Exception) {
-                Log_OC.e(TAG, "💥 Exception while processing operation id=${operation.id}: ${e.message}")
+                Log_OC.e(TAG, "💥 Exception while processing operation id=${queuedOperation.id}: ${e.message}")
             }
         }
     }
 
-    private fun handleResult(
-        operation: OfflineOperationEntity,
-        totalOperations: Int,
-        currentSuccessfulOperationIndex: Int,
-        result: OfflineOperationResult
-    ) {
+    private fun handleResult(operation: OfflineOperationEntity, totalOperations: Int, result: OfflineOperationResult) {
         val operationResult = result?.first ?: return
+        connectivityService.onRequestCompleted(user, operationResult)
         val logMessage = if (operationResult.isSuccess) "Operation completed" else "Operation failed"
         Log_OC.d(TAG, "$logMessage filename: ${operation.filename}, type: ${operation.type}")
 
         return if (result.first?.isSuccess == true) {
-            handleSuccessResult(operation, totalOperations, currentSuccessfulOperationIndex)
+            handleSuccessResult(operation, totalOperations)
         } else {
             handleErrorResult(operation.id, result)
         }
     }
 
-    private fun handleSuccessResult(
-        operation: OfflineOperationEntity,
-        totalOperations: Int,
-        currentSuccessfulOperationIndex: Int
-    ) {
+    private fun handleSuccessResult(operation: OfflineOperationEntity, totalOperations: Int) {
         if (operation.type is OfflineOperationType.RemoveFile) {
             val operationType = operation.type as OfflineOperationType.RemoveFile
             fileDataStorageManager.getFileByDecryptedRemotePath(operationType.path)?.let { ocFile ->
@@ -143,7 +172,8 @@ class OfflineOperationsWorker(
         }
 
         fileDataStorageManager.offlineOperationDao.delete(operation)
-        notificationManager.update(totalOperations, currentSuccessfulOperationIndex + 1, operation.filename ?: "")
+        completedOperations++
+        notificationManager.update(totalOperations, completedOperations, operation.filename ?: "")
     }
 
     private fun handleErrorResult(id: Int?, result: OfflineOperationResult) {
@@ -171,7 +201,9 @@ class OfflineOperationsWorker(
     @Suppress("ComplexCondition", "LongMethod")
     private suspend fun executeOperation(
         operation: OfflineOperationEntity,
-        client: OwnCloudClient
+        client: OwnCloudClient,
+        planner: OfflineOperationsReplayPlanner,
+        usePrefetched: Boolean
     ): OfflineOperationResult? = withContext(Dispatchers.IO) {
         var path = (operation.path)
         if (path == null) {
@@ -188,19 +220,21 @@ class OfflineOperationsWorker(
             path = path.removeSuffix(OCFile.PATH_SEPARATOR)
         }
 
-        val remoteFile = getRemoteFile(path)
+        val remoteFile = planner.getRemoteFile(path, usePrefetched)
         val ocFile = fileDataStorageManager.getFileByDecryptedRemotePath(path)
 
         if (remoteFile != null && ocFile != null && isFileChanged(remoteFile, ocFile)) {
             Log_OC.w(TAG, "⚠️ Conflict detected: File already exists on server. Skipping operation id=${operation.id}")
 
-            if (operation.isRenameOrRemove()) {
-                Log_OC.d(TAG, "🗑 Removing conflicting rename/remove operation id=${operation.id}")
-                fileDataStorageManager.offlineOperationDao.delete(operation)
-                notificationManager.showConflictNotificationForDeleteOrRemoveOperation(operation)
-            } else {
-                Log_OC.d(TAG, "📌 Showing conflict resolution for operation id=${operation.id}")
-                notificationManager.showConflictResolveNotification(ocFile, operation)
+            resultLock.withLock {
+                if (operation.isRenameOrRemove()) {
+                    Log_OC.d(TAG, "🗑 Removing conflicting rename/remove operation id=${operation.id}")
+                    fileDataStorageManager.offlineOperationDao.delete(operation)
+                    notificationManager.showConflictNotificationForDeleteOrRemoveOperation(operation)
+                } else {
+                    Log_OC.d(TAG, "📌 Showing conflict resolution for operation id=${operation.id}")
+                    notificationManager.showConflictResolveNotification(ocFile, operation)
+                }
             }
 
             return@withContext null
@@ -283,23 +317,5 @@ class OfflineOperationsWorker(
     }
     // endregion
 
-    @Suppress("DEPRECATION")
-    private fun getRemoteFile(remotePath: String): RemoteFile? {
-        val mimeType = MimeTypeUtil.getMimeTypeFromPath(remotePath)
-        val isFolder = MimeTypeUtil.isFolder(mimeType)
-        val client = ClientFactoryImpl(context).create(user)
-        val result = if (isFolder) {
-            ReadFolderRemoteOperation(remotePath).execute(client)
-        } else {
-            ReadFileRemoteOperation(remotePath).execute(client)
-        }
-
-        return if (result.isSuccess) {
-            result.data[0] as? RemoteFile
-        } else {
-            null
-        }
-    }
-
     private fun isFileChanged(remoteFile: RemoteFile, ocFile: OCFile): Boolean = remoteFile.etag != ocFile.etagOnServer
 }
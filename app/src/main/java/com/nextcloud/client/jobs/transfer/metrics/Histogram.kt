@@ -0,0 +1,71 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs.transfer.metrics
+
+/**
+ * Histogram of non-negative values with power of two buckets, so it takes constant memory for any number of values.
+ * Percentiles are estimated as the upper bound of the bucket they fall into, limited by the largest recorded value.
+ */
+class Histogram {
+
+    private companion object {
+        const val BUCKET_COUNT = 64
+        const val P50 = 0.5
+        const val P90 = 0.9
+        const val P99 = 0.99
+    }
+
+    data class Snapshot(
+        val count: Long,
+        val min: Long,
+        val max: Long,
+        val mean: Long,
+        val p50: Long,
+        val p90: Long,
+        val p99: Long
+    )
+
+    private val buckets = LongArray(BUCKET_COUNT)
+    private var count = 0L
+    private var sum = 0L
+    private var min = Long.MAX_VALUE
+    private var max = 0L
+
+    @Synchronized
+    fun record(value: Long) {
+        val v = value.coerceAtLeast(0)
+        buckets[bucketOf(v)]++
+        count++
+        sum += v
+        min = minOf(min, v)
+        max = maxOf(max, v)
+    }
+
+    @Synchronized
+    fun snapshot(): Snapshot = if (count == 0L) {
+        Snapshot(0, 0, 0, 0, 0, 0, 0)
+    } else {
+        Snapshot(count, min, max, sum / count, percentile(P50), percentile(P90), percentile(P99))
+    }
+
+    // bucket i holds values below 2^i
+    private fun bucketOf(value: Long): Int = (Long.SIZE_BITS - java.lang.Long.numberOfLeadingZeros(value))
+        .coerceAtMost(BUCKET_COUNT - 1)
+
+    private fun percentile(quantile: Double): Long {
+        val rank = kotlin.math.ceil(quantile * count).toLong().coerceAtLeast(1)
+        var seen = 0L
+        for (i in buckets.indices) {
+            seen += buckets[i]
+            if (seen >= rank) {
+                val upperBound = if (i == 0) 0 else (1L shl i) - 1
+                return upperBound.coerceIn(min, max)
+            }
+        }
+        return max
+    }
+}
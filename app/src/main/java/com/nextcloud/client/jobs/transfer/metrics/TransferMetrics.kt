@@ -0,0 +1,199 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs.transfer.metrics
+
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.NetworkCapabilities
+import com.google.gson.GsonBuilder
+import com.owncloud.android.lib.common.network.OnDatatransferProgressListener
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * In-process registry of transfer performance, per direction, account and network type.
+ *
+ * Uploads, downloads and sync requests create a [Tracker] when they start and finish it when they are done. Nothing is
+ * persisted; the registry is shown and exported as JSON in the engineering test mode.
+ */
+object TransferMetrics {
+
+    private const val CHUNK_SIZE_BYTES = 1024L * 1024L
+    private const val MILLIS_PER_SECOND = 1000L
+
+    const val NETWORK_WIFI = "wifi"
+    const val NETWORK_CELLULAR = "cellular"
+    const val NETWORK_ETHERNET = "ethernet"
+    const val NETWORK_OTHER = "other"
+    const val NETWORK_NONE = "none"
+
+    enum class Direction { UPLOAD, DOWNLOAD, SYNC }
+
+    data class Key(val direction: Direction, val accountName: String, val networkType: String)
+
+    data class Entry(
+        val direction: Direction,
+        val accountName: String,
+        val networkType: String,
+        val started: Long,
+        val succeeded: Long,
+        val failed: Long,
+        val retries: Long,
+        val bytes: Long,
+        val bytesPerSecond: Histogram.Snapshot,
+        val timeToFirstByteMs: Histogram.Snapshot,
+        val chunkLatencyMs: Histogram.Snapshot,
+        val queueWaitMs: Histogram.Snapshot,
+        val durationMs: Histogram.Snapshot
+    )
+
+    internal class Metrics {
+        val started = AtomicLong()
+        val succeeded = AtomicLong()
+        val failed = AtomicLong()
+        val retries = AtomicLong()
+        val bytes = AtomicLong()
+        val bytesPerSecond = Histogram()
+        val timeToFirstByteMs = Histogram()
+        val chunkLatencyMs = Histogram()
+        val queueWaitMs = Histogram()
+        val durationMs = Histogram()
+    }
+
+    /**
+     * Measures a single transfer. It can be registered as progress listener of the transfer operation.
+     *
+     * Chunk latency is the time it takes to transfer each MiB, as operations do not report their HTTP chunks.
+     */
+    class Tracker internal constructor(private val metrics: Metrics) : OnDatatransferProgressListener {
+        private val startedAt = now()
+        private var firstByteAt = 0L
+        private var lastChunkAt = startedAt
+        private var lastChunkBytes = 0L
+        private var transferred = 0L
+        private var finished = false
+
+        @Synchronized
+        fun onProgress(totalTransferredSoFar: Long) {
+            if (finished || totalTransferredSoFar <= transferred) {
+                return
+            }
+
+            val now = now()
+            if (firstByteAt == 0L) {
+                firstByteAt = now
+                metrics.timeToFirstByteMs.record(now - startedAt)
+                lastChunkAt = now
+            }
+            transferred = totalTransferredSoFar
+
+            if (transferred - lastChunkBytes >= CHUNK_SIZE_BYTES) {
+                val chunks = (transferred - lastChunkBytes) / CHUNK_SIZE_BYTES
+                metrics.chunkLatencyMs.record((now - lastChunkAt) / chunks)
+                lastChunkAt = now
+                lastChunkBytes += chunks * CHUNK_SIZE_BYTES
+            }
+        }
+
+        override fun onTransferProgress(
+            progressRate: Long,
+            totalTransferredSoFar: Long,
+            totalToTransfer: Long,
+            fileAbsoluteName: String?
+        ) {
+            onProgress(totalTransferredSoFar)
+        }
+
+        @Synchronized
+        fun finish(success: Boolean) {
+            if (finished) {
+                return
+            }
+            finished = true
+
+            val durationMs = now() - startedAt
+            metrics.durationMs.record(durationMs)
+            metrics.bytes.addAndGet(transferred)
+            if (success) {
+                metrics.succeeded.incrementAndGet()
+                if (transferred > 0 && durationMs > 0) {
+                    metrics.bytesPerSecond.record(transferred * MILLIS_PER_SECOND / durationMs)
+                }
+            } else {
+                metrics.failed.incrementAndGet()
+            }
+        }
+    }
+
+    private val registry = ConcurrentHashMap<Key, Metrics>()
+
+    private fun metricsOf(direction: Direction, accountName: String, networkType: String): Metrics =
+        registry.getOrPut(Key(direction, accountName, networkType)) { Metrics() }
+
+    private fun now(): Long = TimeUnit.NANOSECONDS.toMillis(System.nanoTime())
+
+    /**
+     * @param queueWaitMs time the transfer waited before it started, if known
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun start(direction: Direction, accountName: String, networkType: String, queueWaitMs: Long? = null): Tracker {
+        val metrics = metricsOf(direction, accountName, networkType)
+        metrics.started.incrementAndGet()
+        queueWaitMs?.let { metrics.queueWaitMs.record(it) }
+        return Tracker(metrics)
+    }
+
+    @JvmStatic
+    fun recordRetry(direction: Direction, accountName: String, networkType: String) {
+        metricsOf(direction, accountName, networkType).retries.incrementAndGet()
+    }
+
+    fun snapshot(): List<Entry> = registry.entries
+        .map { (key, metrics) ->
+            Entry(
+                key.direction,
+                key.accountName,
+                key.networkType,
+                metrics.started.get(),
+                metrics.succeeded.get(),
+                metrics.failed.get(),
+                metrics.retries.get(),
+                metrics.bytes.get(),
+                metrics.bytesPerSecond.snapshot(),
+                metrics.timeToFirstByteMs.snapshot(),
+                metrics.chunkLatencyMs.snapshot(),
+                metrics.queueWaitMs.snapshot(),
+                metrics.durationMs.snapshot()
+            )
+        }
+        .sortedWith(compareBy<Entry>({ it.direction }, { it.accountName }, { it.networkType }))
+
+    fun toJson(): String = GsonBuilder().setPrettyPrinting().create().toJson(snapshot())
+
+    fun reset() {
+        registry.clear()
+    }
+
+    /**
+     * Type of the currently active network, used to group the metrics.
+     */
+    @JvmStatic
+    fun networkType(context: Context): String {
+        val connectivityManager = context.getSystemService(ConnectivityManager::class.java) ?: return NETWORK_NONE
+        val capabilities = connectivityManager.getNetworkCapabilities(connectivityManager.activeNetwork)
+            ?: return NETWORK_NONE
+
+        return when {
+            capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI) -> NETWORK_WIFI
+            capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR) -> NETWORK_CELLULAR
+            capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET) -> NETWORK_ETHERNET
+            else -> NETWORK_OTHER
+        }
+    }
+}
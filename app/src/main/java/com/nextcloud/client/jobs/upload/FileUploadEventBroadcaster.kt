@@ -38,6 +38,7 @@ class FileUploadEventBroadcaster(private val broadcastManager: LocalBroadcastMan
         const val EXTRA_ACCOUNT_NAME = PREFIX + "EXTRA_ACCOUNT_NAME"
         const val EXTRA_OLD_REMOTE_PATH = PREFIX + "EXTRA_OLD_REMOTE_PATH"
         const val EXTRA_UPLOAD_RESULT = PREFIX + "EXTRA_UPLOAD_RESULT"
+        const val EXTRA_UPLOAD_ID = PREFIX + "EXTRA_UPLOAD_ID"
     }
 
     /**
@@ -76,6 +77,7 @@ class FileUploadEventBroadcaster(private val broadcastManager: LocalBroadcastMan
             putExtra(EXTRA_REMOTE_PATH, upload.remotePath) // real remote
             putExtra(EXTRA_OLD_FILE_PATH, upload.originalStoragePath)
             putExtra(EXTRA_ACCOUNT_NAME, upload.user.accountName)
+            putExtra(EXTRA_UPLOAD_ID, upload.ocUploadId)
             setPackage(context.packageName)
         }
         broadcastManager.sendBroadcast(intent)
@@ -107,6 +109,7 @@ class FileUploadEventBroadcaster(private val broadcastManager: LocalBroadcastMan
             putExtra(EXTRA_OLD_FILE_PATH, upload.originalStoragePath)
             putExtra(EXTRA_ACCOUNT_NAME, upload.user.accountName)
             putExtra(EXTRA_UPLOAD_RESULT, uploadResult.isSuccess)
+            putExtra(EXTRA_UPLOAD_ID, upload.ocUploadId)
             setPackage(context.packageName)
         }
         broadcastManager.sendBroadcast(intent)
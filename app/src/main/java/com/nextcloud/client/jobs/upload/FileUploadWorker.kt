@@ -21,12 +21,16 @@ import com.nextcloud.client.jobs.BackgroundJobManager
 import com.nextcloud.client.jobs.BackgroundJobManagerImpl
 import com.nextcloud.client.jobs.autoUpload.FileSystemRepository
 import com.nextcloud.client.jobs.autoUpload.SyncFolderHelper
+import com.nextcloud.client.jobs.transfer.metrics.TransferMetrics
 import com.nextcloud.client.jobs.utils.UploadErrorNotificationManager
+import com.nextcloud.client.network.ClientPool
 import com.nextcloud.client.network.ConnectivityService
 import com.nextcloud.client.preferences.AppPreferences
 import com.nextcloud.utils.ForegroundServiceHelper
 import com.nextcloud.utils.extensions.getPercent
+import com.nextcloud.utils.extensions.isDelayed
 import com.nextcloud.utils.extensions.isNonRetryable
+import com.nextcloud.utils.extensions.isRetryableFailure
 import com.nextcloud.utils.extensions.toFile
 import com.owncloud.android.R
 import com.owncloud.android.datamodel.ForegroundServiceType
@@ -39,7 +43,6 @@ import com.owncloud.android.db.OCUpload
 import com.owncloud.android.db.UploadResult
 import com.owncloud.android.lib.common.OwnCloudAccount
 import com.owncloud.android.lib.common.OwnCloudClient
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.network.OnDatatransferProgressListener
 import com.owncloud.android.lib.common.operations.RemoteOperationResult
 import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
@@ -121,6 +124,8 @@ class FileUploadWorker(
 
         fun getCurrentUpload(id: Long?): UploadFileOperation? = activeOperations[id]
 
+        fun getCurrentUploadIds(): Set<Long> = activeOperations.keys.toSet()
+
         fun isUploading(remotePath: String?, accountName: String?): Boolean = activeOperations.values.any {
             it.remotePath == remotePath && it.user.accountName == accountName
         }
@@ -158,6 +163,7 @@ class FileUploadWorker(
         Result.failure()
     } finally {
         // Ensure all database operations are complete before signaling completion
+        uploadsStorageManager.flushStatusUpdates()
         uploadsStorageManager.notifyObserversNow()
         notificationManager.dismissNotification()
         retryPolicy.reset()
@@ -259,11 +265,12 @@ class FileUploadWorker(
         val previouslyUploadedFileSize = currentBatchIndex * FileUploadHelper.MAX_FILE_COUNT
         val uploads = uploadsStorageManager.getUploadsByIds(uploadIds, accountName)
         val ocAccount = OwnCloudAccount(user.toPlatformAccount(), context)
-        val client = OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(ocAccount, context)
+        val client = ClientPool.getOwnCloudClient(ocAccount, context)
         val syncFolderHelper = SyncFolderHelper(context)
         val syncedFolders = syncedFolderProvider.syncedFolders
         var hasRetryableFailure = false
         var hasNonRetryableFailure = false
+        val batchStartedAt = System.currentTimeMillis()
 
         for ((index, upload) in uploads.withIndex()) {
             ensureActive()
@@ -301,6 +308,9 @@ class FileUploadWorker(
                 return@withContext Result.retry()
             }
 
+            val isRetry = upload.uploadStatus == UploadStatus.UPLOAD_FAILED &&
+                upload.lastResult?.isRetryableFailure() == true
+
             fileUploadEventBroadcaster.sendUploadEnqueued(context)
             val operation = uploadFileOperationFactory.create(context, upload, this@FileUploadWorker)
             activeOperations[upload.uploadId] = operation
@@ -315,7 +325,7 @@ class FileUploadWorker(
             )
 
             val result = withContext(Dispatchers.IO) {
-                upload(operation, user, client)
+                upload(operation, user, client, System.currentTimeMillis() - batchStartedAt)
             }
             activeOperations.remove(upload.uploadId)
 
@@ -328,6 +338,14 @@ class FileUploadWorker(
 
             // check upload result for worker
             val uploadResult = UploadResult.fromOperationResult(result)
+            // an attempt that waited for Wi-Fi or charging again did not retry the transfer
+            if (isRetry && !uploadResult.isDelayed()) {
+                TransferMetrics.recordRetry(
+                    TransferMetrics.Direction.UPLOAD,
+                    accountName,
+                    TransferMetrics.networkType(context)
+                )
+            }
             if (!result.isSuccess) {
                 Log_OC.e(TAG, "upload failed for ${upload.remotePath}: ${result.code}")
                 if (uploadResult.isNonRetryable()) {
@@ -414,9 +432,18 @@ class FileUploadWorker(
     private suspend fun upload(
         operation: UploadFileOperation,
         user: User,
-        client: OwnCloudClient
+        client: OwnCloudClient,
+        queueWaitMs: Long
     ): RemoteOperationResult<Any?> = withContext(Dispatchers.IO) {
         var result: RemoteOperationResult<Any?>
+        val networkType = TransferMetrics.networkType(context)
+        val tracker = TransferMetrics.start(
+            TransferMetrics.Direction.UPLOAD,
+            user.accountName,
+            networkType,
+            queueWaitMs
+        )
+        operation.addDataTransferProgressListener(tracker)
 
         try {
             val storageManager = operation.storageManager
@@ -433,7 +460,11 @@ class FileUploadWorker(
         } catch (e: Exception) {
             Log_OC.e(TAG, "Error uploading", e)
             result = RemoteOperationResult(e)
+        } finally {
+            operation.removeDataTransferProgressListener(tracker)
         }
+        tracker.finish(result.isSuccess)
+        connectivityService.onRequestCompleted(user, result)
 
         if (!isStopped) {
             UploadErrorNotificationManager.handleResult(
@@ -6,11 +6,15 @@
  */
 package com.nextcloud.client.logger
 
+import java.io.BufferedOutputStream
 import java.io.File
 import java.io.FileNotFoundException
 import java.io.FileOutputStream
 import java.io.IOException
-import java.nio.charset.Charset
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.CharBuffer
+import java.nio.charset.CodingErrorAction
 
 /**
  * Very simple log writer with file rotations.
@@ -18,6 +22,9 @@ import java.nio.charset.Charset
  * Files are rotated when writing entry causes log file to exceed it's maximum size.
  * Last entry is not truncated and final log file can exceed max file size, but
  * no further entries will be written to it.
+ *
+ * Writes are buffered and encoded into a reused byte buffer, so the handler can be kept
+ * opened across batches and only needs to be flushed.
  */
 internal class FileLogHandler(private val logDir: File, private val logFilename: String, private val maxSize: Long) {
 
@@ -25,9 +32,15 @@ internal class FileLogHandler(private val logDir: File, private val logFilename:
 
     companion object {
         const val ROTATED_LOGS_COUNT = 3
+        private const val WRITE_BUFFER_SIZE = 16 * 1024
+        private const val INITIAL_ENCODE_BUFFER_SIZE = 1024
     }
 
-    private var writer: FileOutputStream? = null
+    private var writer: OutputStream? = null
+    private val encoder = Charsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+    private var encodeBuffer = ByteBuffer.allocate(INITIAL_ENCODE_BUFFER_SIZE)
     private var size: Long = 0
     private val rotationList = listOf(
         "$logFilename.2",
@@ -49,25 +62,42 @@ internal class FileLogHandler(private val logDir: File, private val logFilename:
     val maxLogFilesCount get() = rotationList.size
 
     fun open() {
-        try {
-            writer = FileOutputStream(logFile, true)
-            size = logFile.length()
+        val stream = try {
+            FileOutputStream(logFile, true)
         } catch (ex: FileNotFoundException) {
             logFile.parentFile.mkdirs()
-            writer = FileOutputStream(logFile, true)
-            size = logFile.length()
+            FileOutputStream(logFile, true)
         }
+        writer = BufferedOutputStream(stream, WRITE_BUFFER_SIZE)
+        size = logFile.length()
     }
 
-    fun write(logEntry: String) {
-        val rawLogEntry = logEntry.toByteArray(Charset.forName("UTF-8"))
-        writer?.write(rawLogEntry)
-        size += rawLogEntry.size
+    fun write(logEntry: CharSequence) {
+        val rawLogEntry = encode(logEntry)
+        writer?.write(rawLogEntry.array(), 0, rawLogEntry.limit())
+        size += rawLogEntry.limit()
         if (size > maxSize) {
             rotateLogs()
         }
     }
 
+    fun flush() {
+        writer?.flush()
+    }
+
+    private fun encode(text: CharSequence): ByteBuffer {
+        val requiredSize = (text.length * encoder.maxBytesPerChar().toDouble()).toInt()
+        if (encodeBuffer.capacity() < requiredSize) {
+            encodeBuffer = ByteBuffer.allocate(requiredSize)
+        }
+        encodeBuffer.clear()
+        encoder.reset()
+        encoder.encode(CharBuffer.wrap(text), encodeBuffer, true)
+        encoder.flush(encodeBuffer)
+        encodeBuffer.flip()
+        return encodeBuffer
+    }
+
     fun close() {
         writer?.close()
         writer = null
@@ -75,9 +105,19 @@ internal class FileLogHandler(private val logDir: File, private val logFilename:
     }
 
     fun deleteAll() {
+        // an opened stream would keep writing to the deleted file
+        val deletingOpenedLog = isOpened
+        if (deletingOpenedLog) {
+            close()
+        }
+
         rotationList
             .map { File(logDir, it) }
             .forEach { it.delete() }
+
+        if (deletingOpenedLog) {
+            open()
+        }
     }
 
     fun rotateLogs() {
@@ -100,6 +140,17 @@ internal class FileLogHandler(private val logDir: File, private val logFilename:
         }
     }
 
+    /**
+     * Indexes the log files, oldest first, without reading their entries.
+     *
+     * @see LogEntryPages
+     */
+    fun indexLogFiles(rotated: Int = ROTATED_LOGS_COUNT): LogEntryPages {
+        require(rotated >= 0) { "Negative index" }
+        val files = (0..Math.min(rotated, rotationList.size - 1)).map { File(logDir, rotationList[it]) }
+        return LogEntryPages(LogIndex.build(files))
+    }
+
     fun loadLogFiles(rotated: Int = ROTATED_LOGS_COUNT): RawLogs {
         if (rotated < 0) {
             throw IllegalArgumentException("Negative index")
@@ -67,6 +67,36 @@ data class LogEntry(val timestamp: Date, val level: Level, val tag: String, val
                 message = message
             )
         }
+
+        /**
+         * Appends the entry line to [sb] without intermediate strings, so the logger can format
+         * into a reused buffer.
+         */
+        @Suppress("LongParameterList")
+        internal fun format(
+            sb: StringBuilder,
+            dateFormat: SimpleDateFormat,
+            timestamp: Date,
+            level: Level,
+            tag: String,
+            message: String
+        ) {
+            sb.append(dateFormat.format(timestamp))
+            sb.append(';')
+            sb.append(level.tag)
+            sb.append(';')
+            for (c in tag) {
+                sb.append(if (c == ';') ' ' else c)
+            }
+            sb.append(';')
+            for (c in message) {
+                if (c == '\n') {
+                    sb.append("\\n")
+                } else {
+                    sb.append(c)
+                }
+            }
+        }
     }
 
     override fun toString(): String {
@@ -82,12 +112,6 @@ data class LogEntry(val timestamp: Date, val level: Level, val tag: String, val
     }
 
     private fun format(sb: StringBuilder, dateFormat: SimpleDateFormat) {
-        sb.append(dateFormat.format(timestamp))
-        sb.append(';')
-        sb.append(level.tag)
-        sb.append(';')
-        sb.append(tag.replace(';', ' '))
-        sb.append(';')
-        sb.append(message.replace("\n", "\\n"))
+        format(sb, dateFormat, timestamp, level, tag, message)
     }
 }
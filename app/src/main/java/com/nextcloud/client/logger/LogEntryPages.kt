@@ -0,0 +1,166 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.logger
+
+import java.io.Closeable
+import java.util.Date
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Read-only list of log entries backed by a [LogIndex].
+ *
+ * Entries are read and parsed a page at a time when they are first accessed, and only a few pages
+ * are kept in memory, so a list view shows large logs without loading all of them. A list view on the main thread
+ * uses [getIfLoaded] and [loadPage] instead of [get], so pages are read on a background executor. Filtering
+ * matches the raw lines and returns another view on the same index.
+ *
+ * Only the list created by the logger and the ones returned by [retain] own a reference to the index; closing the
+ * last of them invalidates all views. Reading entries of an invalidated view throws [IllegalStateException].
+ */
+class LogEntryPages internal constructor(
+    private val index: LogIndex,
+    private val lines: IntArray,
+    private val ownsIndex: Boolean
+) : AbstractList<LogEntry>(),
+    Closeable {
+
+    private companion object {
+        const val PAGE_SIZE = 100
+        const val MAX_CACHED_PAGES = 8
+        const val LOAD_FACTOR = 0.75f
+
+        // <iso8601 date>;<level tag>;<entry tag>;<message> - skip date and level
+        const val TAG_START = 27
+        val MISSING_ENTRY = LogEntry(Date(0), Level.UNKNOWN, "", "")
+    }
+
+    internal constructor(index: LogIndex) : this(index, index.allLines(), true)
+
+    private val closed = AtomicBoolean()
+    private val loadingPages = HashSet<Int>()
+
+    private val pages = object : LinkedHashMap<Int, Array<LogEntry>>(MAX_CACHED_PAGES, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Int, Array<LogEntry>>?): Boolean =
+            size > MAX_CACHED_PAGES
+    }
+
+    val logSize: Long
+        get() = index.logSize
+
+    override val size: Int
+        get() = lines.size
+
+    override fun get(index: Int): LogEntry {
+        checkIndex(index)
+        check(!isClosed) { "Log entries are closed" }
+        val page = index / PAGE_SIZE
+        val entries = synchronized(pages) { pages[page] } ?: readPage(page)
+        return entries[index % PAGE_SIZE]
+    }
+
+    /**
+     * @return the entry at [index] if its page is in memory, otherwise null without reading it
+     */
+    fun getIfLoaded(index: Int): LogEntry? {
+        checkIndex(index)
+        return synchronized(pages) { pages[index / PAGE_SIZE] }?.get(index % PAGE_SIZE)
+    }
+
+    /**
+     * Reads the page of the entry at [index] on [executor], unless it is in memory or already being read.
+     *
+     * @param onLoaded called on the thread of [executor] with the positions of the read entries
+     */
+    fun loadPage(index: Int, executor: Executor, onLoaded: (IntRange) -> Unit) {
+        checkIndex(index)
+        val page = index / PAGE_SIZE
+        synchronized(pages) {
+            if (pages.containsKey(page) || !loadingPages.add(page)) {
+                return
+            }
+        }
+        executor.execute {
+            try {
+                if (!isClosed) {
+                    readPage(page)
+                    onLoaded(page * PAGE_SIZE until minOf((page + 1) * PAGE_SIZE, size))
+                }
+            } finally {
+                synchronized(pages) { loadingPages.remove(page) }
+            }
+        }
+    }
+
+    private val isClosed: Boolean
+        get() = closed.get() || index.isClosed
+
+    private fun checkIndex(index: Int) {
+        if (index !in lines.indices) {
+            throw IndexOutOfBoundsException("Index $index, size $size")
+        }
+    }
+
+    private fun readPage(page: Int): Array<LogEntry> {
+        check(!isClosed) { "Log entries are closed" }
+        val from = page * PAGE_SIZE
+        val to = minOf(from + PAGE_SIZE, size)
+        val entries = Array(to - from) { MISSING_ENTRY }
+        index.forEachLine(lines, from, to) { position, text ->
+            entries[position - from] = LogEntry.parse(text) ?: LogEntry(Date(0), Level.UNKNOWN, "", text)
+        }
+        // closed while reading, unread lines would be silently missing
+        check(!isClosed) { "Log entries are closed" }
+        synchronized(pages) {
+            pages[page] = entries
+        }
+        return entries
+    }
+
+    /**
+     * Returns a view on the same entries that keeps the index opened until it is closed itself, e.g. while the entries
+     * are exported in the background.
+     *
+     * @throws IllegalStateException if the index is closed already
+     */
+    fun retain(): LogEntryPages {
+        check(!closed.get() && index.retain()) { "Log entries are closed" }
+        return LogEntryPages(index, lines, true)
+    }
+
+    /**
+     * Finds entries whose tag or message contains [pattern], ignoring case. The lines are matched
+     * as they are stored, so non-matching entries are never parsed.
+     *
+     * This reads all lines of this list, so it should not be called on the main thread.
+     */
+    fun filter(pattern: String): LogEntryPages {
+        check(!isClosed) { "Log entries are closed" }
+        var matches = IntArray(0)
+        var count = 0
+        index.forEachLine(lines, 0, size) { position, text ->
+            if (text.indexOf(pattern, TAG_START, ignoreCase = true) >= 0) {
+                if (count == matches.size) {
+                    matches = matches.copyOf(maxOf(PAGE_SIZE, count * 2))
+                }
+                matches[count++] = lines[position]
+            }
+        }
+        return LogEntryPages(index, matches.copyOf(count), false)
+    }
+
+    override fun close() {
+        if (closed.compareAndSet(false, true) && ownsIndex) {
+            index.close()
+        }
+    }
+
+    // comparing by content would read every entry
+    override fun equals(other: Any?): Boolean = this === other
+
+    override fun hashCode(): Int = System.identityHashCode(this)
+}
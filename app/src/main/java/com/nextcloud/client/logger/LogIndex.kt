@@ -0,0 +1,223 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.logger
+
+import java.io.Closeable
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Line offset index of a set of log files.
+ *
+ * The files are scanned once for line breaks without decoding them, and stay opened, so the index
+ * remains valid when the logger rotates or deletes files afterwards. Lines are read back on demand
+ * with positional reads, which are safe to use from several threads.
+ *
+ * The index is reference counted: it starts with one reference, [retain] adds one and [close] releases one. The
+ * files are closed with the last reference.
+ */
+internal class LogIndex private constructor(
+    private val channels: List<FileChannel>,
+    private val fileOfLine: ByteArray,
+    private val offsets: LongArray,
+    private val lengths: IntArray,
+    val lineCount: Int,
+    val logSize: Long
+) : Closeable {
+
+    companion object {
+        private const val SCAN_BUFFER_SIZE = 64 * 1024
+        private const val MAX_BATCH_SIZE = 64 * 1024
+        private const val INITIAL_CAPACITY = 1024
+
+        // <iso8601 date>;<level tag>;... - see LogEntry
+        private const val LEVEL_SEPARATOR_POSITION = 24
+        private const val TAG_SEPARATOR_POSITION = 26
+        private const val MIN_LINE_LENGTH = TAG_SEPARATOR_POSITION + 1
+        private const val SEPARATOR = ';'.code.toByte()
+        private const val NEW_LINE = '\n'.code.toByte()
+
+        /**
+         * Indexes all lines of [files] that look like log entries, in the given order.
+         * Missing or unreadable files are skipped.
+         */
+        fun build(files: List<File>): LogIndex {
+            val builder = Builder()
+            val channels = mutableListOf<FileChannel>()
+            var logSize = 0L
+            val buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE)
+
+            for (file in files) {
+                if (!file.exists()) continue
+                val channel = try {
+                    RandomAccessFile(file, "r").channel
+                } catch (ex: IOException) {
+                    continue
+                }
+                val indexedLines = builder.count
+                val size = try {
+                    builder.scan(channel, channels.size, buffer)
+                } catch (ex: IOException) {
+                    // ignore failing file
+                    builder.count = indexedLines
+                    channel.close()
+                    continue
+                }
+                channels.add(channel)
+                logSize += size
+            }
+
+            return LogIndex(channels, builder.files, builder.offsets, builder.lengths, builder.count, logSize)
+        }
+    }
+
+    private class Builder {
+        var files = ByteArray(INITIAL_CAPACITY)
+        var offsets = LongArray(INITIAL_CAPACITY)
+        var lengths = IntArray(INITIAL_CAPACITY)
+        var count = 0
+
+        /**
+         * @return number of scanned bytes
+         */
+        fun scan(channel: FileChannel, fileIndex: Int, buffer: ByteBuffer): Long {
+            val size = channel.size()
+            var position = 0L
+            var lineStart = 0L
+            var positionInLine = 0
+            var looksLikeEntry = true
+
+            while (position < size) {
+                buffer.clear()
+                val read = channel.read(buffer, position)
+                if (read <= 0) break
+                val bytes = buffer.array()
+                for (i in 0 until read) {
+                    val b = bytes[i]
+                    if (b == NEW_LINE) {
+                        add(fileIndex, lineStart, positionInLine, looksLikeEntry)
+                        lineStart = position + i + 1
+                        positionInLine = 0
+                        looksLikeEntry = true
+                    } else {
+                        if (positionInLine == LEVEL_SEPARATOR_POSITION || positionInLine == TAG_SEPARATOR_POSITION) {
+                            looksLikeEntry = looksLikeEntry && b == SEPARATOR
+                        }
+                        positionInLine++
+                    }
+                }
+                position += read
+            }
+            add(fileIndex, lineStart, positionInLine, looksLikeEntry)
+            return size
+        }
+
+        private fun add(fileIndex: Int, offset: Long, length: Int, looksLikeEntry: Boolean) {
+            if (!looksLikeEntry || length < MIN_LINE_LENGTH) {
+                return
+            }
+            if (count == offsets.size) {
+                val capacity = count * 2
+                files = files.copyOf(capacity)
+                offsets = offsets.copyOf(capacity)
+                lengths = lengths.copyOf(capacity)
+            }
+            files[count] = fileIndex.toByte()
+            offsets[count] = offset
+            lengths[count] = length
+            count++
+        }
+    }
+
+    private val references = AtomicInteger(1)
+
+    val isClosed: Boolean
+        get() = references.get() <= 0
+
+    /**
+     * @return false if the index is closed already, so it cannot be used anymore
+     */
+    fun retain(): Boolean {
+        while (true) {
+            val count = references.get()
+            if (count <= 0) {
+                return false
+            }
+            if (references.compareAndSet(count, count + 1)) {
+                return true
+            }
+        }
+    }
+
+    fun allLines(): IntArray = IntArray(lineCount) { it }
+
+    /**
+     * Reads the given lines in order. Adjacent lines of the same file are read in one go.
+     *
+     * @param lines line numbers in ascending order
+     * @param action called with the position in [lines] and the text of the line; lines that cannot be read
+     * are skipped
+     */
+    fun forEachLine(lines: IntArray, from: Int, to: Int, action: (Int, String) -> Unit) {
+        var i = from
+        while (i < to) {
+            var end = i + 1
+            var batchSize = lengths[lines[i]] + 1L
+            while (end < to && isAdjacent(lines[end - 1], lines[end]) && batchSize < MAX_BATCH_SIZE) {
+                batchSize += lengths[lines[end]] + 1
+                end++
+            }
+            readBatch(lines, i, end, action)
+            i = end
+        }
+    }
+
+    private fun isAdjacent(line: Int, next: Int): Boolean = next == line + 1 &&
+        fileOfLine[line] == fileOfLine[next]
+
+    private fun readBatch(lines: IntArray, from: Int, to: Int, action: (Int, String) -> Unit) {
+        val first = lines[from]
+        val last = lines[to - 1]
+        val start = offsets[first]
+        val buffer = ByteBuffer.allocate((offsets[last] + lengths[last] - start).toInt())
+        val channel = channels[fileOfLine[first].toInt()]
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) <= 0) break
+            }
+        } catch (ex: IOException) {
+            // the index was closed or the file became unreadable
+            return
+        }
+
+        val bytes = buffer.array()
+        for (i in from until to) {
+            val line = lines[i]
+            val offset = (offsets[line] - start).toInt()
+            if (offset + lengths[line] <= buffer.position()) {
+                action(i, String(bytes, offset, lengths[line], Charsets.UTF_8))
+            }
+        }
+    }
+
+    override fun close() {
+        if (references.decrementAndGet() != 0) {
+            return
+        }
+        channels.forEach {
+            try {
+                it.close()
+            } catch (ex: IOException) {
+                // nothing to do
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.logger
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Bounded multi-producer, single-consumer queue of log records that never blocks producers.
+ *
+ * A producer claims a sequence number with a single atomic increment and publishes its record into the slot of that
+ * sequence. When producers get more than [capacity] records ahead of the consumer, the oldest unread records are
+ * overwritten; the consumer detects the gap and counts the skipped records as dropped.
+ */
+internal class LogRingBuffer(private val capacity: Int) {
+
+    class Record(val sequence: Long, val timestamp: Long, val level: Level, val tag: String, val message: String)
+
+    private val slots = AtomicReferenceArray<Record?>(capacity)
+    private val writeSequence = AtomicLong()
+    private val droppedTotal = AtomicLong()
+
+    // written by the consumer only
+    @Volatile
+    private var readSequence = 0L
+
+    init {
+        require(capacity > 0) { "Capacity must be positive" }
+    }
+
+    /**
+     * Total number of records overwritten before the consumer could read them.
+     */
+    val droppedCount: Long
+        get() = droppedTotal.get()
+
+    val isEmpty: Boolean
+        get() = writeSequence.get() == readSequence
+
+    /**
+     * True if the next [drainTo] passes or drops at least one record. Unlike [isEmpty], a record claimed by a
+     * producer but not yet published does not count, so the consumer waits for the producer instead of draining
+     * nothing in a loop. Must be called from the consumer thread only.
+     */
+    val hasPublished: Boolean
+        get() {
+            val next = readSequence
+            val written = writeSequence.get()
+            if (written == next) {
+                return false
+            }
+            if (written - next > capacity) {
+                return true
+            }
+            val record = slots.get(indexOf(next))
+            return record != null && record.sequence >= next
+        }
+
+    /**
+     * Publishes a record. Never blocks. The consumer has to be signalled afterwards, as it may be waiting for exactly
+     * this record.
+     *
+     * @return false if the buffer was full, so an unread record is lost
+     */
+    fun offer(timestamp: Long, level: Level, tag: String, message: String): Boolean {
+        val sequence = writeSequence.getAndIncrement()
+        val record = Record(sequence, timestamp, level, tag, message)
+        val index = indexOf(sequence)
+        while (true) {
+            val current = slots.get(index)
+            if (current != null && current.sequence > sequence) {
+                // a newer record already took the slot while this producer was descheduled
+                return false
+            }
+            if (slots.compareAndSet(index, current, record)) {
+                break
+            }
+        }
+        return sequence - readSequence < capacity
+    }
+
+    /**
+     * Passes all published records to [sink] in order of their sequence.
+     * Must be called from the consumer thread only.
+     *
+     * @return number of records dropped since the previous call
+     */
+    fun drainTo(sink: (Record) -> Unit): Long {
+        val written = writeSequence.get()
+        var next = readSequence
+        var dropped = 0L
+
+        if (written - next > capacity) {
+            dropped += written - capacity - next
+            next = written - capacity
+        }
+
+        while (next < written) {
+            val index = indexOf(next)
+            val record = slots.get(index)
+            if (record == null || record.sequence < next) {
+                // claimed, but not yet published; picked up by the next drain
+                break
+            }
+            if (record.sequence > next) {
+                dropped++
+            } else {
+                slots.compareAndSet(index, record, null)
+                sink(record)
+            }
+            next++
+        }
+
+        readSequence = next
+        droppedTotal.addAndGet(dropped)
+        return dropped
+    }
+
+    private fun indexOf(sequence: Long): Int = (sequence % capacity).toInt()
+}
@@ -14,8 +14,15 @@ import java.util.concurrent.BlockingQueue
 import java.util.concurrent.LinkedBlockingQueue
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
-import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.LockSupport
 
+/**
+ * Logger writing entries to a file on a background thread.
+ *
+ * Logging calls only publish a record into a [LogRingBuffer] and never block: if the writer thread
+ * falls behind, the oldest unwritten entries are dropped and counted. Entries are formatted on the
+ * writer thread into a reused buffer and written to a log file that stays opened between batches.
+ */
 @Suppress("TooManyFunctions")
 internal class LoggerImpl(
     private val clock: Clock,
@@ -25,22 +32,36 @@ internal class LoggerImpl(
 ) : Logger,
     LogsRepository {
 
+    private companion object {
+        val MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(500)
+    }
+
     data class Load(val onResult: (List<LogEntry>, Long) -> Unit)
     class Delete
 
     private val looper = ThreadLoop()
-    private val eventQueue: BlockingQueue<Any> = LinkedBlockingQueue(queueCapacity)
-
-    private val processedEvents = mutableListOf<Any>()
+    private val buffer = LogRingBuffer(queueCapacity)
+    private val controlEvents: BlockingQueue<Any> = LinkedBlockingQueue()
     private val otherEvents = mutableListOf<Any>()
     private val missedLogs = AtomicBoolean()
-    private val missedLogsCount = AtomicLong()
+
+    // used by the writer thread only
+    private val line = StringBuilder()
+    private val dateFormat = LogEntry.buildDateFormat()
+    private val date = Date()
+
+    @Volatile
+    private var writerThread: Thread? = null
+    private val writerIdle = AtomicBoolean()
 
     override val lostEntries: Boolean
         get() {
             return missedLogs.get()
         }
 
+    override val droppedEntries: Long
+        get() = buffer.droppedCount
+
     fun start() {
         looper.start(this::eventLoop)
     }
@@ -81,83 +102,106 @@ internal class LoggerImpl(
     }
 
     override fun load(onLoaded: (entries: List<LogEntry>, totalLogSize: Long) -> Unit) {
-        eventQueue.put(Load(onLoaded))
+        controlEvents.put(Load(onLoaded))
+        wakeUpWriter()
     }
 
     override fun deleteAll() {
-        eventQueue.put(Delete())
+        controlEvents.put(Delete())
+        wakeUpWriter()
     }
 
     private fun enqueue(level: Level, tag: String, message: String) {
-        try {
-            val entry = LogEntry(timestamp = clock.currentDate, level = level, tag = tag, message = message)
-            val enqueued = eventQueue.offer(entry, 1, TimeUnit.SECONDS)
-            if (!enqueued) {
-                missedLogs.set(true)
-                missedLogsCount.incrementAndGet()
-            }
-        } catch (ex: InterruptedException) {
-            // since interrupted flag is consumed now, we need to re-set the flag so
-            // the caller can continue handling the thread interruption in it's own way
-            Thread.currentThread().interrupt()
+        if (!buffer.offer(clock.currentTime, level, tag, message)) {
+            missedLogs.set(true)
+        }
+        // only after publishing, the writer may be parked waiting for this record
+        wakeUpWriter()
+    }
+
+    private fun wakeUpWriter() {
+        if (writerIdle.compareAndSet(true, false)) {
+            LockSupport.unpark(writerThread)
         }
     }
 
     private fun eventLoop() {
+        writerThread = Thread.currentThread()
         try {
-            processedEvents.clear()
+            awaitEvents()
+
+            // log writes are the most frequent use case, so the log file stays opened and is only
+            // flushed after every batch
+            if (!handler.isOpened) {
+                handler.open()
+            }
+
+            // taken before the writes, so entries logged before a load or delete request are
+            // written before it is handled
             otherEvents.clear()
+            controlEvents.drainTo(otherEvents)
 
-            processedEvents.add(eventQueue.take())
-            eventQueue.drainTo(processedEvents)
-
-            // process all writes in bulk - this is most frequest use case and we can
-            // assume handler must be opened 99.999% of time; anything that is not a log
-            // write should be deferred
-            handler.open()
-            for (event in processedEvents) {
-                if (event is LogEntry) {
-                    handler.write(event.toString() + "\n")
-                } else {
-                    otherEvents.add(event)
-                }
+            val dropped = buffer.drainTo(this::write)
+            if (dropped > 0) {
+                writeDroppedWarning(dropped)
             }
-            handler.close()
+            handler.flush()
 
             // Those events are very sporadic and we don't have to be clever here
             for (event in otherEvents) {
                 when (event) {
                     is Load -> {
-                        val loaded = handler.loadLogFiles()
-                        val entries = loaded.lines.mapNotNull { LogEntry.parse(it) }
+                        val entries = handler.indexLogFiles()
                         mainThreadHandler.post {
-                            event.onResult(entries, loaded.logSize)
+                            event.onResult(entries, entries.logSize)
                         }
                     }
 
                     is Delete -> handler.deleteAll()
                 }
             }
-
-            checkAndLogLostMessages()
         } catch (ex: InterruptedException) {
             handler.close()
             throw ex
         }
     }
 
-    private fun checkAndLogLostMessages() {
-        val lastMissedLogsCount = missedLogsCount.getAndSet(0)
-        if (lastMissedLogsCount > 0) {
-            handler.open()
-            val warning = LogEntry(
-                timestamp = Date(),
-                level = Level.WARNING,
-                tag = "Logger",
-                message = "Logger queue overflow. Approx $lastMissedLogsCount entries lost. You write too much."
-            ).toString()
-            handler.write(warning)
-            handler.close()
+    /**
+     * Parks the writer until a record is published or a control event arrives. A record that is claimed but not
+     * published yet does not wake it up, its producer signals the writer once the record is published.
+     */
+    private fun awaitEvents() {
+        while (!buffer.hasPublished && controlEvents.isEmpty()) {
+            writerIdle.set(true)
+            // re-check after announcing idleness, so a record published in between is not missed
+            if (!buffer.hasPublished && controlEvents.isEmpty()) {
+                LockSupport.parkNanos(this, MAX_IDLE_NANOS)
+            }
+            writerIdle.set(false)
+            if (Thread.interrupted()) {
+                throw InterruptedException()
+            }
         }
     }
+
+    private fun write(record: LogRingBuffer.Record) {
+        date.time = record.timestamp
+        write(date, record.level, record.tag, record.message)
+    }
+
+    private fun write(timestamp: Date, level: Level, tag: String, message: String) {
+        line.setLength(0)
+        LogEntry.format(line, dateFormat, timestamp, level, tag, message)
+        line.append('\n')
+        handler.write(line)
+    }
+
+    private fun writeDroppedWarning(dropped: Long) {
+        write(
+            Date(),
+            Level.WARNING,
+            "Logger",
+            "Logger queue overflow. $dropped entries lost, ${buffer.droppedCount} in total. You write too much."
+        )
+    }
 }
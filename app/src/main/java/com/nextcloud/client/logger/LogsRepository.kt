@@ -22,10 +22,21 @@ interface LogsRepository {
      */
     val lostEntries: Boolean
 
+    /**
+     * Number of entries dropped since the application started, because
+     * the logger could not write them fast enough.
+     *
+     * This property is thread-safe.
+     */
+    val droppedEntries: Long
+
     /**
      * Asynchronously load available logs. Load can be scheduled on any thread,
      * but the listener will be called on main thread.
      *
+     * Entries may be read lazily, see [LogEntryPages]; if the list is [java.io.Closeable],
+     * the listener is responsible to close it when it is no longer used.
+     *
      * @param onLoaded: Callback with loaded logs; called on main thread
      */
     fun load(onLoaded: OnLogsLoaded)
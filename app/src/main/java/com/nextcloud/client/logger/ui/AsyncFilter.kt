@@ -39,18 +39,29 @@ class AsyncFilter(private val asyncRunner: AsyncRunner, private val time: () ->
         predicate: (T) -> Boolean,
         onResult: (filtered: List<T>, durationMs: Long) -> Unit
     ) {
+        filter(task = { collection.filter { predicate.invoke(it) } }, onResult = onResult)
+    }
+
+    /**
+     * Schedule filtering request for collections that filter themselves,
+     * like [com.nextcloud.client.logger.LogEntryPages].
+     *
+     * @param task filter task run in background
+     * @param onResult result callback called on the main thread
+     */
+    fun <T> filter(task: () -> List<T>, onResult: (filtered: List<T>, durationMs: Long) -> Unit) {
         pendingRequest = {
-            filterAsync(collection, predicate, onResult)
+            filterAsync(task, onResult)
         }
         if (!isRunning) {
             pendingRequest?.invoke()
         }
     }
 
-    private fun <T> filterAsync(collection: Iterable<T>, predicate: (T) -> Boolean, onResult: (List<T>, Long) -> Unit) {
+    private fun <T> filterAsync(task: () -> List<T>, onResult: (List<T>, Long) -> Unit) {
         startTime = time.invoke()
         filterTask = asyncRunner.postQuickTask(
-            task = { collection.filter { predicate.invoke(it) } },
+            task = task,
             onResult = { filtered: List<T> ->
                 onFilterCompleted(filtered, onResult)
             }
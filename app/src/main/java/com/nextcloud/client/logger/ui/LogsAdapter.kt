@@ -8,13 +8,17 @@ package com.nextcloud.client.logger.ui
 
 import android.annotation.SuppressLint
 import android.content.Context
+import android.os.Handler
+import android.os.Looper
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
 import android.widget.TextView
 import androidx.core.content.ContextCompat
 import androidx.recyclerview.widget.RecyclerView
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.logger.LogEntry
+import com.nextcloud.client.logger.LogEntryPages
 import com.owncloud.android.R
 
 class LogsAdapter(private val context: Context) : RecyclerView.Adapter<LogsAdapter.ViewHolder>() {
@@ -25,11 +29,14 @@ class LogsAdapter(private val context: Context) : RecyclerView.Adapter<LogsAdapt
     }
 
     private val inflater = LayoutInflater.from(context)
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val pageLoader = Lanes.executor(Lanes.Lane.DISK_IO, Lanes.Priority.USER_VISIBLE)
 
     var entries: List<LogEntry> = listOf()
         @SuppressLint("NotifyDataSetChanged")
         set(value) {
-            field = value.sortedBy { it.timestamp }
+            // entries are read lazily and already in order of writing
+            field = value
             notifyDataSetChanged()
         }
 
@@ -39,7 +46,13 @@ class LogsAdapter(private val context: Context) : RecyclerView.Adapter<LogsAdapt
     override fun getItemCount() = entries.size
 
     override fun onBindViewHolder(holder: ViewHolder, position: Int) {
-        val entry = entries[position]
+        val entry = entryOrLoad(position)
+        if (entry == null) {
+            holder.header?.text = ""
+            holder.message?.text = context.getString(R.string.logs_status_loading)
+            return
+        }
+
         val header = "${entry.timestamp.time} ${entry.level.tag} ${entry.tag}"
         val entryColor = ContextCompat.getColor(context, entry.level.getColor())
 
@@ -49,4 +62,22 @@ class LogsAdapter(private val context: Context) : RecyclerView.Adapter<LogsAdapt
         holder.message?.setTextColor(entryColor)
         holder.message?.text = entry.message
     }
+
+    /**
+     * @return the entry, or null if its page is read in the background first; the rows of the page are rebound
+     * once it is read
+     */
+    private fun entryOrLoad(position: Int): LogEntry? {
+        val pages = entries as? LogEntryPages ?: return entries[position]
+        pages.getIfLoaded(position)?.let { return it }
+
+        pages.loadPage(position, pageLoader) { loaded ->
+            mainHandler.post {
+                if (entries === pages) {
+                    notifyItemRangeChanged(loaded.first, loaded.last - loaded.first + 1)
+                }
+            }
+        }
+        return null
+    }
 }
@@ -22,9 +22,12 @@ import com.nextcloud.client.core.AsyncRunner
 import com.nextcloud.client.core.Cancellable
 import com.nextcloud.client.core.Clock
 import com.nextcloud.client.logger.LogEntry
+import com.nextcloud.client.logger.LogEntryPages
+import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.R
 import com.owncloud.android.ui.notifications.NotificationUtils
 import com.owncloud.android.utils.FileExportUtils
+import java.io.Closeable
 import java.io.File
 import java.security.SecureRandom
 import java.util.TimeZone
@@ -32,9 +35,14 @@ import java.util.TimeZone
 class LogsEmailSender(private val context: Context, private val clock: Clock, private val runner: AsyncRunner) {
 
     private companion object {
+        const val TAG = "LogsEmailSender"
         const val LOGS_MIME_TYPE = "text/plain"
     }
 
+    /**
+     * Writes [logs] to [file]. Paged logs are retained by the caller and closed here, so they stay readable even if
+     * the view model closes its entries in the meantime.
+     */
     private class Task(
         private val context: Context,
         private val logs: List<LogEntry>,
@@ -43,47 +51,81 @@ class LogsEmailSender(private val context: Context, private val clock: Clock, pr
     ) : Function0<Uri?> {
 
         override fun invoke(): Uri? {
-            file.parentFile?.mkdirs()
-
-            file.outputStream().use { outputStream ->
-                outputStream.writer(Charsets.UTF_8).buffered().use { writer ->
-                    logs.forEach {
-                        writer.write(it.toString(tz))
-                        writer.newLine()
+            try {
+                file.parentFile?.mkdirs()
+
+                file.outputStream().use { outputStream ->
+                    outputStream.writer(Charsets.UTF_8).buffered().use { writer ->
+                        logs.forEach {
+                            writer.write(it.toString(tz))
+                            writer.newLine()
+                        }
                     }
                 }
+            } finally {
+                release()
             }
 
             return FileProvider.getUriForFile(context, context.getString(R.string.file_provider_authority), file)
         }
+
+        fun release() {
+            (logs as? Closeable)?.close()
+        }
     }
 
     private var task: Cancellable? = null
+    private var pendingTask: Task? = null
 
     fun send(logs: List<LogEntry>) {
-        if (task == null) {
-            val outFile = File(context.cacheDir, "attachments/logs.txt")
-            task = runner.postQuickTask(Task(context, logs, outFile, clock.tz), onResult = {
-                task = null
-                send(it)
-            })
-        }
+        write(logs) { uri, _ -> send(uri) }
     }
 
     fun export(logs: List<LogEntry>) {
-        if (task == null) {
-            val outFile = File(context.cacheDir, "attachments/logs.txt")
-            task = runner.postQuickTask(Task(context, logs, outFile, clock.tz), onResult = {
-                task = null
-                export(outFile)
-            })
+        write(logs) { _, file -> export(file) }
+    }
+
+    private fun write(logs: List<LogEntry>, onWritten: (Uri?, File) -> Unit) {
+        if (task != null) {
+            return
         }
+
+        val retained = try {
+            (logs as? LogEntryPages)?.retain() ?: logs
+        } catch (e: IllegalStateException) {
+            onFailed(e)
+            return
+        }
+        val outFile = File(context.cacheDir, "attachments/logs.txt")
+        val writeTask = Task(context, retained, outFile, clock.tz)
+        pendingTask = writeTask
+        task = runner.postQuickTask(
+            writeTask,
+            onResult = {
+                task = null
+                pendingTask = null
+                onWritten(it, outFile)
+            },
+            onError = {
+                task = null
+                pendingTask = null
+                onFailed(it)
+            }
+        )
+    }
+
+    private fun onFailed(error: Throwable) {
+        Log_OC.e(TAG, "writing logs failed", error)
+        Toast.makeText(context, R.string.log_export_failed, Toast.LENGTH_LONG).show()
     }
 
     fun stop() {
         if (task != null) {
             task?.cancel()
             task = null
+            // a task cancelled before it ran never releases the logs itself; closing twice is harmless
+            pendingTask?.release()
+            pendingTask = null
         }
     }
 
@@ -14,8 +14,10 @@ import androidx.lifecycle.ViewModel
 import com.nextcloud.client.core.AsyncRunner
 import com.nextcloud.client.core.Clock
 import com.nextcloud.client.logger.LogEntry
+import com.nextcloud.client.logger.LogEntryPages
 import com.nextcloud.client.logger.LogsRepository
 import com.owncloud.android.R
+import java.io.Closeable
 import javax.inject.Inject
 
 @SuppressLint("StaticFieldLeak")
@@ -66,6 +68,9 @@ class LogsViewModel @Inject constructor(
         this.isLoading as MutableLiveData
         this.status as MutableLiveData
 
+        if (allEntries !== entries) {
+            closeEntries()
+        }
         this.entries.value = entries
         this.allEntries = entries
         this.logsSize = logsSize
@@ -76,11 +81,21 @@ class LogsViewModel @Inject constructor(
     fun deleteAll() {
         logsRepository.deleteAll()
         (entries as MutableLiveData).value = emptyList()
+        closeEntries()
+        allEntries = emptyList()
     }
 
     fun filter(pattern: String) {
         if (isLoading.value == false) {
             isFiltered = pattern.isNotEmpty()
+            val indexedEntries = allEntries
+            if (indexedEntries is LogEntryPages) {
+                asyncFilter.filter(
+                    task = { if (pattern.isNotEmpty()) indexedEntries.filter(pattern) else indexedEntries },
+                    onResult = this::onFiltered
+                )
+                return
+            }
             val predicate = when (isFiltered) {
                 true -> { it: LogEntry -> it.tag.contains(pattern, true) || it.message.contains(pattern, true) }
                 false -> { _ -> true }
@@ -95,6 +110,11 @@ class LogsViewModel @Inject constructor(
 
     override fun onCleared() {
         sender.stop()
+        closeEntries()
+    }
+
+    private fun closeEntries() {
+        (allEntries as? Closeable)?.close()
     }
 
     private fun onFiltered(filtered: List<LogEntry>, filterDurationMs: Long) {
@@ -104,6 +124,16 @@ class LogsViewModel @Inject constructor(
     }
 
     private fun formatStatus(): String {
+        val status = formatLoadStatus()
+        val droppedEntries = logsRepository.droppedEntries
+        return if (isLoading.value != true && droppedEntries > 0) {
+            context.getString(R.string.logs_status_dropped, status, droppedEntries)
+        } else {
+            status
+        }
+    }
+
+    private fun formatLoadStatus(): String {
         val displayedEntries = entries.value?.size ?: allEntries.size
         val sizeKb = logsSize / KILOBYTE
         return when {
@@ -17,9 +17,9 @@ import android.net.Uri;
 import com.nextcloud.client.account.User;
 import com.nextcloud.common.NextcloudClient;
 import com.nextcloud.common.PlainClient;
+import com.owncloud.android.lib.common.OwnCloudAccount;
 import com.owncloud.android.lib.common.OwnCloudClient;
 import com.owncloud.android.lib.common.OwnCloudClientFactory;
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory;
 import com.owncloud.android.lib.common.accounts.AccountUtils;
 
 import java.io.IOException;
@@ -35,7 +35,7 @@ public class ClientFactoryImpl implements ClientFactory {
     @Override
     public OwnCloudClient create(User user) throws CreationException {
         try {
-            return OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(user.toOwnCloudAccount(), context);
+            return ClientPool.getOwnCloudClient(user, context);
         } catch (OperationCanceledException |
             AuthenticatorException |
             IOException e) {
@@ -46,8 +46,10 @@ public class ClientFactoryImpl implements ClientFactory {
     @Override
     public NextcloudClient createNextcloudClient(User user) throws CreationException {
         try {
-            return OwnCloudClientFactory.createNextcloudClient(user, context);
-        } catch (AccountUtils.AccountNotFoundException e) {
+            return ClientPool.getNextcloudClient(user, context);
+        } catch (OperationCanceledException |
+            AuthenticatorException |
+            IOException e) {
             throw new CreationException(e);
         }
     }
@@ -56,7 +58,7 @@ public class ClientFactoryImpl implements ClientFactory {
     public OwnCloudClient create(Account account)
         throws OperationCanceledException, AuthenticatorException, IOException,
         AccountUtils.AccountNotFoundException {
-        return OwnCloudClientFactory.createOwnCloudClient(account, context);
+        return ClientPool.getOwnCloudClient(new OwnCloudAccount(account, context), context);
     }
 
     @Override
@@ -0,0 +1,152 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.network
+
+import android.accounts.Account
+import android.accounts.AuthenticatorException
+import android.accounts.OperationCanceledException
+import android.content.Context
+import com.nextcloud.client.account.User
+import com.nextcloud.common.NextcloudClient
+import com.nextcloud.utils.extensions.toNextcloudClient
+import com.owncloud.android.lib.common.OwnCloudAccount
+import com.owncloud.android.lib.common.OwnCloudClient
+import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
+import com.owncloud.android.lib.common.accounts.AccountUtils
+import com.owncloud.android.lib.common.utils.Log_OC
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Process-wide registry of clients per account, shared by workers, services and screens.
+ *
+ * [OwnCloudClient]s come from the library session manager and share its connection manager, which is configured
+ * once with larger connection limits. [NextcloudClient]s are built from them and kept per account, so their
+ * connection pools, and the TLS sessions in them, are reused instead of being created for every request.
+ */
+object ClientPool {
+
+    private val TAG = ClientPool::class.java.simpleName
+
+    const val MAX_CONNECTIONS_PER_HOST = 8
+    const val MAX_TOTAL_CONNECTIONS = 16
+
+    /**
+     * Idle connections older than this are closed before a client is handed out, as servers close them anyway.
+     */
+    const val KEEP_ALIVE_MS = 30_000L
+
+    data class Stats(
+        val ownCloudClientRequests: Long,
+        val nextcloudClientRequests: Long,
+        val nextcloudClientsCreated: Long,
+        val accounts: Int,
+        val pooledConnections: Int
+    ) {
+        val nextcloudClientsReused: Long
+            get() = nextcloudClientRequests - nextcloudClientsCreated
+    }
+
+    private class PooledClient(val source: OwnCloudClient, val client: NextcloudClient)
+
+    private val nextcloudClients = ConcurrentHashMap<String, PooledClient>()
+    private val ownCloudClientRequests = AtomicLong()
+    private val nextcloudClientRequests = AtomicLong()
+    private val nextcloudClientsCreated = AtomicLong()
+
+    @Volatile
+    private var connectionManager: MultiThreadedHttpConnectionManager? = null
+
+    @JvmStatic
+    @Throws(OperationCanceledException::class, AuthenticatorException::class, IOException::class)
+    fun getOwnCloudClient(user: User, context: Context): OwnCloudClient =
+        getOwnCloudClient(user.toOwnCloudAccount(), context)
+
+    @JvmStatic
+    @Throws(OperationCanceledException::class, AuthenticatorException::class, IOException::class)
+    fun getOwnCloudClient(account: OwnCloudAccount, context: Context): OwnCloudClient {
+        ownCloudClientRequests.incrementAndGet()
+        val client = OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(account, context)
+        configure(client)
+        return client
+    }
+
+    @JvmStatic
+    @Throws(OperationCanceledException::class, AuthenticatorException::class, IOException::class)
+    fun getNextcloudClient(user: User, context: Context): NextcloudClient =
+        getNextcloudClient(user.toOwnCloudAccount(), context)
+
+    /**
+     * For callers knowing only the platform account, e.g. status tasks.
+     */
+    @JvmStatic
+    @Throws(
+        AccountUtils.AccountNotFoundException::class,
+        OperationCanceledException::class,
+        AuthenticatorException::class,
+        IOException::class
+    )
+    fun getNextcloudClient(account: Account, context: Context): NextcloudClient =
+        getNextcloudClient(OwnCloudAccount(account, context), context)
+
+    /**
+     * The client is rebuilt when the session manager replaced the account client, e.g. after the credentials
+     * changed.
+     */
+    @JvmStatic
+    @Throws(OperationCanceledException::class, AuthenticatorException::class, IOException::class)
+    fun getNextcloudClient(account: OwnCloudAccount, context: Context): NextcloudClient {
+        val source = getOwnCloudClient(account, context)
+        nextcloudClientRequests.incrementAndGet()
+        // anonymous accounts of a server URL only are not kept
+        val accountName = account.name ?: return source.toNextcloudClient(context.applicationContext).also {
+            nextcloudClientsCreated.incrementAndGet()
+        }
+
+        return nextcloudClients.compute(accountName) { _, pooled ->
+            if (pooled != null && pooled.source === source) {
+                pooled
+            } else {
+                nextcloudClientsCreated.incrementAndGet()
+                PooledClient(source, source.toNextcloudClient(context.applicationContext))
+            }
+        }!!.client
+    }
+
+    @JvmStatic
+    fun invalidate(accountName: String) {
+        nextcloudClients.remove(accountName)
+    }
+
+    fun stats(): Stats = Stats(
+        ownCloudClientRequests.get(),
+        nextcloudClientRequests.get(),
+        nextcloudClientsCreated.get(),
+        nextcloudClients.size,
+        connectionManager?.connectionsInPool ?: 0
+    )
+
+    private fun configure(client: OwnCloudClient) {
+        val manager = client.httpConnectionManager as? MultiThreadedHttpConnectionManager ?: return
+        if (manager !== connectionManager) {
+            synchronized(this) {
+                if (manager !== connectionManager) {
+                    val params = manager.params
+                    params.defaultMaxConnectionsPerHost =
+                        maxOf(params.defaultMaxConnectionsPerHost, MAX_CONNECTIONS_PER_HOST)
+                    params.maxTotalConnections = maxOf(params.maxTotalConnections, MAX_TOTAL_CONNECTIONS)
+                    params.isStaleCheckingEnabled = true
+                    connectionManager = manager
+                    Log_OC.d(TAG, "configured connection manager: ${params.defaultMaxConnectionsPerHost} per host")
+                }
+            }
+        }
+        manager.closeIdleConnections(KEEP_ALIVE_MS)
+    }
+}
@@ -7,13 +7,13 @@
 
 package com.nextcloud.client.network
 
+import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
 
 data class ConnectivityKey(val accountName: String, val baseUrl: String) {
     companion object {
-        fun getBy(accountManager: UserAccountManager): ConnectivityKey = ConnectivityKey(
-            accountManager.user.accountName,
-            accountManager.user.server.uri.toString()
-        )
+        fun getBy(accountManager: UserAccountManager): ConnectivityKey = getBy(accountManager.user)
+
+        fun getBy(user: User): ConnectivityKey = ConnectivityKey(user.accountName, user.server.uri.toString())
     }
 }
@@ -7,6 +7,9 @@
 
 package com.nextcloud.client.network
 
+import com.nextcloud.client.account.User
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+
 object ConnectivityManagerFactory {
     val mock: ConnectivityService = object : ConnectivityService {
         override fun isNetworkAndServerAvailable(onCompleted: (Boolean) -> Unit) {
@@ -16,6 +19,7 @@ object ConnectivityManagerFactory {
         override fun removeListener(listener: NetworkChangeListener) = Unit
         override val isConnected = true
         override fun isInternetWalled(): Boolean = false
+        override fun onRequestCompleted(user: User, result: RemoteOperationResult<*>) = Unit
         override val connectivity = Connectivity.CONNECTED_WIFI
     }
 
@@ -27,6 +31,7 @@ object ConnectivityManagerFactory {
         override fun removeListener(listener: NetworkChangeListener) = Unit
         override val isConnected = false
         override fun isInternetWalled(): Boolean = false
+        override fun onRequestCompleted(user: User, result: RemoteOperationResult<*>) = Unit
         override val connectivity = Connectivity(true, true, true, true, false)
     }
 
@@ -38,6 +43,7 @@ object ConnectivityManagerFactory {
         override fun removeListener(listener: NetworkChangeListener) = Unit
         override val isConnected = false
         override fun isInternetWalled(): Boolean = false
+        override fun onRequestCompleted(user: User, result: RemoteOperationResult<*>) = Unit
         override val connectivity = Connectivity(true, false, false, true, false)
     }
 }
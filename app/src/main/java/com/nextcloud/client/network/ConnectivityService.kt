@@ -7,6 +7,9 @@
  */
 package com.nextcloud.client.network
 
+import com.nextcloud.client.account.User
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+
 /**
  * This service provides information about current network connectivity
  * and server reachability.
@@ -74,6 +77,15 @@ interface ConnectivityService {
      */
     fun isInternetWalled(): Boolean
 
+    /**
+     * Updates the cached walled state of the [user]'s server from the outcome of a real request, so
+     * [isInternetWalled] only has to probe the server when there was no traffic recently.
+     *
+     * Successful requests and SSL errors mean the server was reached, timeouts and unreachable hosts mean it was not.
+     * Other outcomes are ignored.
+     */
+    fun onRequestCompleted(user: User, result: RemoteOperationResult<*>)
+
     /**
      * Returns a [Connectivity] object that represents the current network state.
      *
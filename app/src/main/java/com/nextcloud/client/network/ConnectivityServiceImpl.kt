@@ -11,8 +11,10 @@ import android.net.ConnectivityManager
 import android.net.Network
 import android.net.NetworkCapabilities
 import android.os.Build
+import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.operations.GetMethod
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
 import com.owncloud.android.lib.common.utils.Log_OC
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
@@ -24,6 +26,9 @@ import java.io.IOException
 import java.net.ConnectException
 import java.net.SocketTimeoutException
 import java.net.UnknownHostException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
 import javax.net.ssl.SSLException
 
 @Suppress("TooGenericExceptionCaught", "ReturnCount")
@@ -38,6 +43,18 @@ class ConnectivityServiceImpl(
     companion object {
         private const val TAG = "ConnectivityServiceImpl"
         private const val CONNECTIVITY_CHECK_ROUTE = "/index.php/204"
+
+        private val REACHABLE_RESULT_CODES = setOf(
+            RemoteOperationResult.ResultCode.SSL_ERROR,
+            RemoteOperationResult.ResultCode.SSL_RECOVERABLE_PEER_UNVERIFIED
+        )
+
+        private val UNREACHABLE_RESULT_CODES = setOf(
+            RemoteOperationResult.ResultCode.TIMEOUT,
+            RemoteOperationResult.ResultCode.HOST_NOT_AVAILABLE,
+            RemoteOperationResult.ResultCode.NO_NETWORK_CONNECTION,
+            RemoteOperationResult.ResultCode.WRONG_CONNECTION
+        )
     }
 
     // region private values
@@ -46,6 +63,7 @@ class ConnectivityServiceImpl(
     private var notifyJob: Job? = null
     private val connectivityManager = context.getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
     private val listeners = mutableSetOf<NetworkChangeListener>()
+    private val runningProbes = ConcurrentHashMap<ConnectivityKey, CompletableFuture<Boolean>>()
 
     @Volatile
     private var currentConnectivity: Connectivity = Connectivity.DISCONNECTED
@@ -111,25 +129,17 @@ class ConnectivityServiceImpl(
             return !currentConnectivity.isConnected
         }
 
-        val get = requestBuilder.invoke(baseServerAddress + CONNECTIVITY_CHECK_ROUTE)
-        val client = clientFactory.createPlainClient()
+        return awaitProbe(currentKey, baseServerAddress)
+    }
 
-        val isWalled = try {
-            val status = get.execute(client)
-            (!(status == HttpStatus.SC_NO_CONTENT && get.getResponseContentLength() <= 0)).also {
-                if (it) Log_OC.w(TAG, "server returned unexpected response, status: $status")
-            }
-        } catch (e: Exception) {
-            Log_OC.e(TAG, "exception during server check", e)
-            getWalledValueFromException(e)
-        } finally {
-            get.releaseConnection()
+    override fun onRequestCompleted(user: User, result: RemoteOperationResult<*>) {
+        val isWalled = when {
+            result.isSuccess -> false
+            result.code in REACHABLE_RESULT_CODES -> false
+            result.code in UNREACHABLE_RESULT_CODES -> true
+            else -> return
         }
-
-        walledCheckCache.setValue(currentKey, isWalled)
-
-        Log_OC.d(TAG, "server check, isWalled: $isWalled")
-        return isWalled
+        walledCheckCache.setValue(ConnectivityKey.getBy(user), isWalled)
     }
 
     override val connectivity: Connectivity
@@ -234,6 +244,57 @@ class ConnectivityServiceImpl(
                     capabilities.hasTransport(NetworkCapabilities.TRANSPORT_USB)
                 )
 
+    /**
+     * Callers checking the same server while a probe is running wait for its result instead of sending their own.
+     */
+    private fun awaitProbe(key: ConnectivityKey, baseServerAddress: String): Boolean {
+        val probe = CompletableFuture<Boolean>()
+        val runningProbe = runningProbes.putIfAbsent(key, probe)
+        if (runningProbe != null) {
+            Log_OC.d(TAG, "server check already running, waiting for its result")
+            return try {
+                runningProbe.get()
+            } catch (e: ExecutionException) {
+                !currentConnectivity.isConnected
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                !currentConnectivity.isConnected
+            }
+        }
+
+        try {
+            val isWalled = probe(baseServerAddress)
+            walledCheckCache.setValue(key, isWalled)
+            probe.complete(isWalled)
+            return isWalled
+        } catch (e: Throwable) {
+            probe.completeExceptionally(e)
+            throw e
+        } finally {
+            runningProbes.remove(key, probe)
+        }
+    }
+
+    private fun probe(baseServerAddress: String): Boolean {
+        val get = requestBuilder.invoke(baseServerAddress + CONNECTIVITY_CHECK_ROUTE)
+        val client = clientFactory.createPlainClient()
+
+        val isWalled = try {
+            val status = get.execute(client)
+            (!(status == HttpStatus.SC_NO_CONTENT && get.getResponseContentLength() <= 0)).also {
+                if (it) Log_OC.w(TAG, "server returned unexpected response, status: $status")
+            }
+        } catch (e: Exception) {
+            Log_OC.e(TAG, "exception during server check", e)
+            getWalledValueFromException(e)
+        } finally {
+            get.releaseConnection()
+        }
+
+        Log_OC.d(TAG, "server check, isWalled: $isWalled")
+        return isWalled
+    }
+
     private fun getWalledValueFromException(e: Exception): Boolean = when (e) {
         is UnknownHostException,
         is ConnectException -> {
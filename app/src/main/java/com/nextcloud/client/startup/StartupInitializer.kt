@@ -0,0 +1,183 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.startup
+
+import android.app.Activity
+import android.app.Application
+import android.os.Bundle
+import android.os.Handler
+import android.os.Looper
+import android.os.Trace
+import com.nextcloud.client.core.Lanes
+import java.util.concurrent.Executor
+
+/**
+ * Runs the initialization steps of the app process.
+ *
+ * Only steps the first screen depends on should run [Mode.IMMEDIATE]. The others run on background threads or on the
+ * main thread once the first frame is drawn, as soon as the steps they depend on are done. Every step is recorded in
+ * [StartupTrace].
+ *
+ * @param mainExecutor runs [Mode.AFTER_FIRST_FRAME] steps, on the main thread
+ * @param backgroundExecutor runs [Mode.BACKGROUND] steps
+ */
+class StartupInitializer(
+    private val mainExecutor: Executor,
+    private val backgroundExecutor: Executor
+) {
+
+    companion object {
+        /**
+         * Deferred steps run after this time when no activity is shown, e.g. when the process was started for a job.
+         */
+        const val FIRST_FRAME_TIMEOUT_MS = 5000L
+
+        /**
+         * Background steps mostly clean up and schedule work in the database, so they run in its lane.
+         */
+        @JvmStatic
+        fun create(): StartupInitializer {
+            val handler = Handler(Looper.getMainLooper())
+            return StartupInitializer({ handler.post(it) }, Lanes.executor(Lanes.Lane.DB, Lanes.Priority.BACKGROUND))
+        }
+    }
+
+    enum class Mode {
+        /**
+         * Runs on the calling thread in [start], before it returns.
+         */
+        IMMEDIATE,
+
+        /**
+         * Runs on the main thread after the first frame of the first activity is drawn.
+         */
+        AFTER_FIRST_FRAME,
+
+        /**
+         * Runs on a background thread.
+         */
+        BACKGROUND
+    }
+
+    private class Step(val name: String, val mode: Mode, val dependsOn: List<String>, val action: Runnable)
+
+    private val steps = LinkedHashMap<String, Step>()
+    private val scheduled = HashSet<String>()
+    private val done = HashSet<String>()
+    private var started = false
+    private var firstFrameDrawn = false
+
+    /**
+     * Steps have to be added after the steps they depend on, so there cannot be cycles.
+     */
+    @Synchronized
+    fun add(name: String, mode: Mode, action: Runnable, vararg dependsOn: String): StartupInitializer {
+        check(!started) { "Step $name added after start" }
+        require(!steps.containsKey(name)) { "Duplicate step $name" }
+        dependsOn.forEach {
+            val dependency = requireNotNull(steps[it]) { "Step $name depends on unknown step $it" }
+            require(mode != Mode.IMMEDIATE || dependency.mode == Mode.IMMEDIATE) {
+                "Immediate step $name cannot depend on deferred step $it"
+            }
+        }
+        steps[name] = Step(name, mode, dependsOn.toList(), action)
+        return this
+    }
+
+    /**
+     * Runs the immediate steps and schedules the others.
+     */
+    fun start() {
+        val immediate = synchronized(this) {
+            check(!started) { "Already started" }
+            started = true
+            steps.values.filter { it.mode == Mode.IMMEDIATE }
+        }
+        immediate.forEach { step ->
+            synchronized(this) { scheduled.add(step.name) }
+            run(step)
+        }
+        scheduleReadySteps()
+    }
+
+    /**
+     * Runs the steps deferred until the first frame, must be called on the main thread.
+     */
+    fun onFirstFrame() {
+        synchronized(this) {
+            if (firstFrameDrawn) {
+                return
+            }
+            firstFrameDrawn = true
+        }
+        StartupTrace.markFirstFrame()
+        scheduleReadySteps()
+    }
+
+    /**
+     * Calls [onFirstFrame] once the first activity was drawn, or after [FIRST_FRAME_TIMEOUT_MS].
+     */
+    fun awaitFirstFrame(application: Application) {
+        val handler = Handler(Looper.getMainLooper())
+        val timeout = Runnable { onFirstFrame() }
+        handler.postDelayed(timeout, FIRST_FRAME_TIMEOUT_MS)
+
+        application.registerActivityLifecycleCallbacks(object : Application.ActivityLifecycleCallbacks {
+            override fun onActivityResumed(activity: Activity) {
+                application.unregisterActivityLifecycleCallbacks(this)
+                // posted from the resumed activity, this runs after its first traversal
+                activity.window.decorView.post {
+                    handler.removeCallbacks(timeout)
+                    onFirstFrame()
+                }
+            }
+
+            override fun onActivityCreated(activity: Activity, savedInstanceState: Bundle?) = Unit
+            override fun onActivityStarted(activity: Activity) = Unit
+            override fun onActivityPaused(activity: Activity) = Unit
+            override fun onActivityStopped(activity: Activity) = Unit
+            override fun onActivitySaveInstanceState(activity: Activity, outState: Bundle) = Unit
+            override fun onActivityDestroyed(activity: Activity) = Unit
+        })
+    }
+
+    private fun scheduleReadySteps() {
+        val ready = synchronized(this) {
+            steps.values
+                .filter { it.name !in scheduled && isReady(it) }
+                .onEach { scheduled.add(it.name) }
+        }
+        ready.forEach { step ->
+            val executor = if (step.mode == Mode.BACKGROUND) backgroundExecutor else mainExecutor
+            executor.execute {
+                try {
+                    run(step)
+                } finally {
+                    scheduleReadySteps()
+                }
+            }
+        }
+    }
+
+    private fun isReady(step: Step): Boolean = when (step.mode) {
+        Mode.IMMEDIATE -> false
+        Mode.AFTER_FIRST_FRAME -> firstFrameDrawn && done.containsAll(step.dependsOn)
+        Mode.BACKGROUND -> done.containsAll(step.dependsOn)
+    }
+
+    private fun run(step: Step) {
+        val startMs = StartupTrace.now()
+        Trace.beginSection("startup:${step.name}")
+        try {
+            step.action.run()
+        } finally {
+            Trace.endSection()
+            StartupTrace.record(step.name, step.mode, startMs, StartupTrace.now() - startMs)
+            synchronized(this) { done.add(step.name) }
+        }
+    }
+}
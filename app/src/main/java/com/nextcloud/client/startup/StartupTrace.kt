@@ -0,0 +1,67 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.startup
+
+import android.os.Process
+import android.os.SystemClock
+import com.google.gson.GsonBuilder
+import java.util.concurrent.CopyOnWriteArrayList
+
+/**
+ * Timings of the steps run while the app process starts, relative to the process start.
+ *
+ * Steps are recorded by [StartupInitializer] and also show up as trace sections in system traces. The trace is shown
+ * and exported as JSON in the engineering test mode.
+ */
+object StartupTrace {
+
+    data class Step(
+        val name: String,
+        val mode: StartupInitializer.Mode,
+        val thread: String,
+        val startMs: Long,
+        val durationMs: Long
+    )
+
+    data class Snapshot(
+        val applicationCreatedMs: Long?,
+        val firstFrameMs: Long?,
+        val steps: List<Step>
+    )
+
+    private val steps = CopyOnWriteArrayList<Step>()
+
+    @Volatile
+    private var applicationCreatedMs: Long? = null
+
+    @Volatile
+    private var firstFrameMs: Long? = null
+
+    /**
+     * Milliseconds since the process was started.
+     */
+    fun now(): Long = SystemClock.uptimeMillis() - Process.getStartUptimeMillis()
+
+    fun record(name: String, mode: StartupInitializer.Mode, startMs: Long, durationMs: Long) {
+        steps.add(Step(name, mode, Thread.currentThread().name, startMs, durationMs))
+    }
+
+    @JvmStatic
+    fun markApplicationCreated() {
+        applicationCreatedMs = now()
+    }
+
+    fun markFirstFrame() {
+        if (firstFrameMs == null) {
+            firstFrameMs = now()
+        }
+    }
+
+    fun snapshot(): Snapshot = Snapshot(applicationCreatedMs, firstFrameMs, steps.sortedBy { it.startMs })
+
+    fun toJson(): String = GsonBuilder().setPrettyPrinting().create().toJson(snapshot())
+}
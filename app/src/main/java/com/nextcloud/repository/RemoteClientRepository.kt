@@ -11,25 +11,24 @@ import android.content.Context
 import androidx.lifecycle.LifecycleOwner
 import androidx.lifecycle.lifecycleScope
 import com.nextcloud.client.account.User
+import com.nextcloud.client.network.ClientPool
 import com.nextcloud.common.NextcloudClient
 import com.owncloud.android.lib.common.OwnCloudClient
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.utils.Log_OC
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
-@Suppress("TooGenericExceptionCaught", "DEPRECATION")
+@Suppress("TooGenericExceptionCaught")
 class RemoteClientRepository(private val user: User, private val context: Context, lifecycleOwner: LifecycleOwner) :
     ClientRepository {
     private val tag = "ClientRepository"
-    private val clientFactory = OwnCloudClientManagerFactory.getDefaultSingleton()
     private val scope = lifecycleOwner.lifecycleScope
 
     override fun getNextcloudClient(onComplete: (NextcloudClient) -> Unit) {
         scope.launch(Dispatchers.IO) {
             try {
-                val client = clientFactory.getNextcloudClientFor(user.toOwnCloudAccount(), context)
+                val client = ClientPool.getNextcloudClient(user, context)
                 onComplete(client)
             } catch (e: Exception) {
                 Log_OC.d(tag, "Exception caught getNextcloudClient(): $e")
@@ -39,7 +38,7 @@ class RemoteClientRepository(private val user: User, private val context: Contex
 
     override suspend fun getNextcloudClient(): NextcloudClient? = withContext(Dispatchers.IO) {
         try {
-            clientFactory.getNextcloudClientFor(user.toOwnCloudAccount(), context)
+            ClientPool.getNextcloudClient(user, context)
         } catch (e: Exception) {
             Log_OC.d(tag, "Exception caught getNextcloudClient(): $e")
             null
@@ -49,7 +48,7 @@ class RemoteClientRepository(private val user: User, private val context: Contex
     override fun getOwncloudClient(onComplete: (OwnCloudClient) -> Unit) {
         scope.launch(Dispatchers.IO) {
             try {
-                val client = clientFactory.getClientFor(user.toOwnCloudAccount(), context)
+                val client = ClientPool.getOwnCloudClient(user, context)
                 onComplete(client)
             } catch (e: Exception) {
                 Log_OC.d(tag, "Exception caught getOwncloudClient(): $e")
@@ -59,7 +58,7 @@ class RemoteClientRepository(private val user: User, private val context: Contex
 
     override suspend fun getOwncloudClient(): OwnCloudClient? = withContext(Dispatchers.IO) {
         try {
-            clientFactory.getClientFor(user.toOwnCloudAccount(), context)
+            ClientPool.getOwnCloudClient(user, context)
         } catch (e: Exception) {
             Log_OC.d(tag, "Exception caught getOwncloudClient(): $e")
             null
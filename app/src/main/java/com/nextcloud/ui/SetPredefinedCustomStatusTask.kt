@@ -9,8 +9,7 @@ package com.nextcloud.ui
 
 import android.accounts.Account
 import android.content.Context
-import com.owncloud.android.lib.common.OwnCloudClientFactory
-import com.owncloud.android.lib.common.accounts.AccountUtils
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.lib.resources.users.SetPredefinedCustomStatusMessageRemoteOperation
 
@@ -20,11 +19,12 @@ class SetPredefinedCustomStatusTask(
     val account: Account?,
     val context: Context?
 ) : Function0<Boolean> {
+    @Suppress("TooGenericExceptionCaught")
     override fun invoke(): Boolean = try {
-        val client = OwnCloudClientFactory.createNextcloudClient(account, context)
+        val client = ClientPool.getNextcloudClient(requireNotNull(account), requireNotNull(context))
 
         SetPredefinedCustomStatusMessageRemoteOperation(messageId, clearAt).execute(client).isSuccess
-    } catch (e: AccountUtils.AccountNotFoundException) {
+    } catch (e: Exception) {
         Log_OC.e(this, "Error setting predefined status", e)
 
         false
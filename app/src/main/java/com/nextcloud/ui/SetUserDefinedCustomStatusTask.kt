@@ -9,8 +9,7 @@ package com.nextcloud.ui
 
 import android.accounts.Account
 import android.content.Context
-import com.owncloud.android.lib.common.OwnCloudClientFactory
-import com.owncloud.android.lib.common.accounts.AccountUtils
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.lib.resources.users.SetUserDefinedCustomStatusMessageRemoteOperation
 
@@ -21,12 +20,13 @@ public class SetUserDefinedCustomStatusTask(
     val account: Account?,
     val context: Context?
 ) : Function0<Boolean> {
+    @Suppress("TooGenericExceptionCaught")
     override fun invoke(): Boolean {
         return try {
-            val client = OwnCloudClientFactory.createNextcloudClient(account, context)
+            val client = ClientPool.getNextcloudClient(requireNotNull(account), requireNotNull(context))
 
             return SetUserDefinedCustomStatusMessageRemoteOperation(message, icon, clearAt).execute(client).isSuccess
-        } catch (e: AccountUtils.AccountNotFoundException) {
+        } catch (e: Exception) {
             Log_OC.e(this, "Error setting user defined custom status", e)
 
             false
@@ -61,26 +61,33 @@ suspend fun FileDataStorageManager.saveShares(shares: List<OCShare>, accountName
 
 private const val GALLERY_DB_CHUNK_SIZE = 500
 
+/**
+ * Loads up to [limit] gallery items that are older than [after] (or the newest ones when [after] is null),
+ * newest first. Pages are keyset based on (modified, _id), so continuing from the last loaded file only reads
+ * the rows of the new page.
+ */
 suspend fun FileDataStorageManager.getGalleryItemsPageSuspended(
     pathPrefix: String,
     mimeFilter: String?,
-    limit: Int
+    limit: Int,
+    after: OCFile? = null
 ): List<OCFile> {
     val result = ArrayList<OCFile>(minOf(limit, GALLERY_DB_CHUNK_SIZE))
-    var offset = 0
+    var last = after
 
-    while (offset < limit) {
-        val chunkLimit = minOf(GALLERY_DB_CHUNK_SIZE, limit - offset)
+    while (result.size < limit) {
+        val chunkLimit = minOf(GALLERY_DB_CHUNK_SIZE, limit - result.size)
         val entities = fileDao.getGalleryItemsPageSuspended(
             user.accountName,
             pathPrefix,
             mimeFilter,
-            chunkLimit,
-            offset
+            last?.modificationTimestamp,
+            last?.fileId ?: 0L,
+            chunkLimit
         )
 
         entities.mapTo(result) { createFileInstance(it) }
-        offset += entities.size
+        last = result.lastOrNull()
 
         if (entities.size < chunkLimit) break
     }
@@ -93,6 +100,24 @@ fun FileDataStorageManager.searchFilesByName(file: OCFile, accountName: String,
         createFileInstance(it)
     }
 
+/**
+ * Searches the names, paths and mime types of all files of [accountName] known locally, with words matching as
+ * prefixes, e.g. `rep 20` finds `Report_2024.pdf`.
+ */
+fun FileDataStorageManager.searchFilesInIndex(accountName: String, query: String, limit: Int): List<OCFile> {
+    val words = query.lowercase().split(FILE_SEARCH_WORD_SEPARATOR).filter { it.isNotEmpty() }
+    if (words.isEmpty()) {
+        return emptyList()
+    }
+
+    val match = words.joinToString(" ") { "$it*" }
+    return fileDao.searchFilesByIndex(match, "%${words.first()}%", accountName, limit).map {
+        createFileInstance(it)
+    }
+}
+
+private val FILE_SEARCH_WORD_SEPARATOR = Regex("[^\\p{L}\\p{N}]+")
+
 fun FileDataStorageManager.getDecryptedPath(file: OCFile): String {
     val paths = mutableListOf<String>()
     var entity = fileDao.getFileByEncryptedRemotePath(file.remotePath, user.accountName)
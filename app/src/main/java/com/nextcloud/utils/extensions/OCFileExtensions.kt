@@ -74,6 +74,39 @@ fun List<OCFile>.toGalleryItems(columns: Int, defaultSize: Int): List<GalleryIte
         .sortedByDescending { it.date }
 }
 
+/**
+ * Appends [olderFiles] to already built gallery sections without rebuilding them. All [olderFiles] must be older
+ * than the files in the receiver, as returned by the next keyset page. Only the last existing section can change:
+ * its incomplete last row is filled up and further rows and sections are added behind it, so existing adapter
+ * positions stay valid.
+ */
+fun List<GalleryItems>.appendGalleryItems(
+    olderFiles: List<OCFile>,
+    columns: Int,
+    defaultSize: Int
+): List<GalleryItems> {
+    val appended = olderFiles.toGalleryItems(columns, defaultSize)
+    val lastSection = lastOrNull()
+    val firstAppendedSection = appended.firstOrNull()
+    if (lastSection == null || firstAppendedSection == null || lastSection.date != firstAppendedSection.date) {
+        return this + appended
+    }
+
+    val lastRow = lastSection.rows.last()
+    val mergedSection = if (lastRow.files.size < columns) {
+        val refilledRows = transformToRows(
+            lastRow.files + firstAppendedSection.rows.flatMap { it.files },
+            columns,
+            defaultSize
+        )
+        GalleryItems(lastSection.date, lastSection.rows.dropLast(1) + refilledRows)
+    } else {
+        GalleryItems(lastSection.date, lastSection.rows + firstAppendedSection.rows)
+    }
+
+    return dropLast(1) + mergedSection + appended.drop(1)
+}
+
 private fun transformToRows(list: List<OCFile>, columns: Int, defaultSize: Int): List<GalleryRow> {
     if (list.isEmpty()) return emptyList()
 
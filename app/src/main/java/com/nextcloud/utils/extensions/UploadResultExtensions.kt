@@ -34,6 +34,27 @@ fun UploadResult.isNonRetryable(): Boolean = when (this) {
     else -> false
 }
 
+/**
+ * The upload waited for Wi-Fi, charging or the end of power saving mode and was not transferred.
+ */
+fun UploadResult.isDelayed(): Boolean = when (this) {
+    UploadResult.DELAYED_FOR_WIFI,
+    UploadResult.DELAYED_FOR_CHARGING,
+    UploadResult.DELAYED_IN_POWER_SAVE_MODE -> true
+
+    else -> false
+}
+
+/**
+ * The last attempt of the upload failed in a way that may succeed on the next attempt, which then is a retry.
+ */
+fun UploadResult.isRetryableFailure(): Boolean = when (this) {
+    UploadResult.UPLOADED,
+    UploadResult.SKIPPED -> false
+
+    else -> !isNonRetryable() && !isDelayed()
+}
+
 fun UploadResult.getFailedStatusText(context: Context): String = when (this) {
     UploadResult.CREDENTIAL_ERROR ->
         context.getString(R.string.uploads_view_upload_status_failed_credentials_error)
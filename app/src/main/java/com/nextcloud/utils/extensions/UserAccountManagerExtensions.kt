@@ -8,9 +8,9 @@
 package com.nextcloud.utils.extensions
 
 import com.nextcloud.client.account.UserAccountManager
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.MainApp
 import com.owncloud.android.lib.common.OwnCloudClient
-import com.owncloud.android.lib.common.OwnCloudClientFactory
 import com.owncloud.android.lib.common.accounts.AccountUtils
 import com.owncloud.android.lib.common.utils.Log_OC
 
@@ -18,7 +18,7 @@ private const val TAG = "UserAccountManagerExtensions"
 
 fun UserAccountManager.createOwncloudClient(): OwnCloudClient? = createOwncloudClient(currentAccount.name)
 
-@Suppress("TooGenericExceptionCaught", "ReturnCount", "DEPRECATION")
+@Suppress("TooGenericExceptionCaught", "ReturnCount")
 fun UserAccountManager.createOwncloudClient(accountName: String): OwnCloudClient? {
     val context = context ?: MainApp.getAppContext()
     if (context == null) {
@@ -33,7 +33,7 @@ fun UserAccountManager.createOwncloudClient(accountName: String): OwnCloudClient
     }
 
     return try {
-        val result = OwnCloudClientFactory.createOwnCloudClient(user.toPlatformAccount(), context)
+        val result = ClientPool.getOwnCloudClient(user, context)
         Log_OC.i(TAG, "client created")
         result
     } catch (e: AccountUtils.AccountNotFoundException) {
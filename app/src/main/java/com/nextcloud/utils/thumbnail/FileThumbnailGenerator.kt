@@ -19,6 +19,7 @@ import androidx.core.content.res.ResourcesCompat
 import androidx.core.graphics.drawable.toDrawable
 import com.elyeproj.loaderviewlibrary.LoaderImageView
 import com.nextcloud.client.account.UserAccountManager
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.preferences.AppPreferences
 import com.nextcloud.model.OfflineOperationType
 import com.nextcloud.utils.extensions.getSmallThumbnail
@@ -39,7 +40,6 @@ import com.owncloud.android.utils.MimeType
 import com.owncloud.android.utils.MimeTypeUtil
 import com.owncloud.android.utils.theme.ViewThemeUtils
 import java.util.Collections
-import java.util.concurrent.Executors
 import javax.inject.Inject
 import javax.inject.Provider
 import javax.inject.Singleton
@@ -57,15 +57,12 @@ class FileThumbnailGenerator @Inject constructor(
     companion object {
         private const val TAG = "FileThumbnailGenerator"
         private const val SHIMMER_DELAY_MS = 100L
-        private const val MIN_THREADS = 3
-        private const val CORES_PER_THREAD = 2
         private const val OFFLINE_ICON_SIZE = 105
         private const val OFFLINE_ICON_ALPHA = 100
     }
 
-    private val executor = Executors.newFixedThreadPool(
-        maxOf(MIN_THREADS, Runtime.getRuntime().availableProcessors() / CORES_PER_THREAD)
-    )
+    // thumbnails are mostly fetched from the server for files shown in the list
+    private val executor = Lanes.executor(Lanes.Lane.NETWORK, Lanes.Priority.USER_VISIBLE)
 
     private val tasks = Collections.synchronizedList(mutableListOf<ThumbnailGenerationTask>())
 
@@ -58,6 +58,9 @@ import com.nextcloud.client.onboarding.OnboardingService;
 import com.nextcloud.client.preferences.AppPreferences;
 import com.nextcloud.client.preferences.AppPreferencesImpl;
 import com.nextcloud.client.preferences.DarkMode;
+import com.nextcloud.client.startup.StartupInitializer;
+import com.nextcloud.client.startup.StartupInitializer.Mode;
+import com.nextcloud.client.startup.StartupTrace;
 import com.nextcloud.ui.composeActivity.ComposeProcessTextAlias;
 import com.nextcloud.utils.extensions.ContextExtensionsKt;
 import com.nextcloud.utils.mdm.MDMConfig;
@@ -289,67 +292,88 @@ public class MainApp extends Application implements HasAndroidInjector, NetworkC
 
         ProcessLifecycleOwner.get().getLifecycle().addObserver(lifecycleEventObserver);
 
-        insertConscrypt();
-
         registerActivityLifecycleCallbacks(new ActivityInjector());
 
         //update the app restart count when app is launched by the user
         inAppReviewHelper.resetAndIncrementAppRestartCounter();
 
-        int startedMigrationsCount = migrationsManager.startMigration();
-        logger.i(TAG, String.format(Locale.US, "Started %d migrations", startedMigrationsCount));
-
-        new SecurityUtils();
-        DisplayUtils.useCompatVectorIfNeeded();
-
-        fixStoragePath();
-
-        checkCancelDownloadJobs();
-
-        MainApp.storagePath = preferences.getStoragePath(getApplicationContext().getFilesDir().getAbsolutePath());
+        StartupInitializer initializer = StartupInitializer.create();
+        initializer
+            .add("conscrypt", Mode.IMMEDIATE, this::insertConscrypt)
+            .add("migrations", Mode.IMMEDIATE, () -> {
+                int startedMigrationsCount = migrationsManager.startMigration();
+                logger.i(TAG, String.format(Locale.US, "Started %d migrations", startedMigrationsCount));
+            })
+            .add("storagePath", Mode.IMMEDIATE, () -> {
+                new SecurityUtils();
+                DisplayUtils.useCompatVectorIfNeeded();
 
-        OwnCloudClientManagerFactory.setUserAgent(getUserAgent());
+                fixStoragePath();
 
-        if (isClientBrandedPlus()) {
-            setProxyConfig();
-            ContextExtensionsKt.registerBroadcastReceiver(this, restrictionsReceiver, restrictionsFilter, ReceiverFlag.NotExported);
-        } else {
-            setProxyForNonBrandedPlusClients();
-        }
+                checkCancelDownloadJobs();
 
-        // initialise thumbnails cache on background thread
-        ThumbnailsCacheManager.initDiskCacheAsync();
+                MainApp.storagePath = preferences.getStoragePath(getApplicationContext().getFilesDir().getAbsolutePath());
+            }, "migrations")
+            .add("network", Mode.IMMEDIATE, () -> {
+                OwnCloudClientManagerFactory.setUserAgent(getUserAgent());
 
+                if (isClientBrandedPlus()) {
+                    setProxyConfig();
+                    ContextExtensionsKt.registerBroadcastReceiver(this, restrictionsReceiver, restrictionsFilter, ReceiverFlag.NotExported);
+                } else {
+                    setProxyForNonBrandedPlusClients();
+                }
+            }, "conscrypt")
+            .add("logging", Mode.IMMEDIATE, () -> {
+                if (MDMConfig.INSTANCE.isLogEnabled(this)) {
+                    // use app writable dir, no permissions needed
+                    Log_OC.setLoggerImplementation(new LegacyLoggerAdapter(logger));
+                    Log_OC.d("Debug", "start logging");
+                }
 
-        if (MDMConfig.INSTANCE.isLogEnabled(this)) {
-            // use app writable dir, no permissions needed
-            Log_OC.setLoggerImplementation(new LegacyLoggerAdapter(logger));
-            Log_OC.d("Debug", "start logging");
-        }
+                try {
+                    Method m = StrictMode.class.getMethod("disableDeathOnFileUriExposure");
+                    m.invoke(null);
+                } catch (Exception e) {
+                    Log_OC.d("Debug", "Failed to disable uri exposure");
+                }
+            })
+            .add("passCodeProtection", Mode.IMMEDIATE, this::registerGlobalPassCodeProtection)
+            // loads the thumbnails cache class and its default bitmaps off the main thread
+            .add("thumbnailsCache", Mode.BACKGROUND, ThumbnailsCacheManager::initDiskCacheAsync, "storagePath")
+            // channels have to exist before the first notification, the update dialog needs the main thread
+            .add("notificationChannels", Mode.IMMEDIATE, MainApp::notificationChannels)
+            .add("autoUploadUpdate", Mode.IMMEDIATE, () -> updateToAutoUpload(this))
+            .add("syncOperations", Mode.BACKGROUND, () -> initSyncEntriesAndReceivers(preferences,
+                                                                                  uploadsStorageManager,
+                                                                                  accountManager,
+                                                                                  connectivityService,
+                                                                                  powerManagementService,
+                                                                                  backgroundJobManager,
+                                                                                  clock,
+                                                                                  viewThemeUtils,
+                                                                                  walledCheckCache),
+                 "network", "notificationChannels", "autoUploadUpdate")
+            .add("contactsBackup", Mode.BACKGROUND,
+                 () -> initContactsBackup(accountManager, backgroundJobManager),
+                 "migrations")
+            .add("backgroundJobs", Mode.BACKGROUND, this::scheduleBackgroundJobs, "storagePath", "notificationChannels")
+            .add("documentsStorageProvider", Mode.AFTER_FIRST_FRAME, () -> {
+                if (!MDMConfig.INSTANCE.sendFilesSupport(this)) {
+                    disableDocumentsStorageProvider();
+                }
+            });
+        initializer.awaitFirstFrame(this);
+        initializer.start();
 
-        try {
-            Method m = StrictMode.class.getMethod("disableDeathOnFileUriExposure");
-            m.invoke(null);
-        } catch (Exception e) {
-            Log_OC.d("Debug", "Failed to disable uri exposure");
-        }
+        connectivityService.addListener(this);
+        StartupTrace.markApplicationCreated();
+    }
 
+    private void scheduleBackgroundJobs() {
         Log_OC.d(TAG, "scheduleContentObserverJob, called");
         backgroundJobManager.scheduleContentObserverJob();
 
-        initSyncOperations(this,
-                           preferences,
-                           uploadsStorageManager,
-                           accountManager,
-                           connectivityService,
-                           powerManagementService,
-                           backgroundJobManager,
-                           clock,
-                           viewThemeUtils,
-                           walledCheckCache);
-        initContactsBackup(accountManager, backgroundJobManager);
-        notificationChannels();
-
         if (backgroundJobManager != null) {
             backgroundJobManager.scheduleMediaFoldersDetectionJob();
             backgroundJobManager.startMediaFoldersDetectionJob();
@@ -361,12 +385,6 @@ public class MainApp extends Application implements HasAndroidInjector, NetworkC
 
             backgroundJobManager.startPeriodicallyOfflineOperation();
         }
-
-        registerGlobalPassCodeProtection();
-        if (!MDMConfig.INSTANCE.sendFilesSupport(this)) {
-            disableDocumentsStorageProvider();
-        }
-        connectivityService.addListener(this);
     }
 
     public void disableDocumentsStorageProvider() {
@@ -610,6 +628,30 @@ public class MainApp extends Application implements HasAndroidInjector, NetworkC
         final ViewThemeUtils viewThemeUtils,
         final WalledCheckCache walledCheckCache) {
         updateToAutoUpload(context);
+        initSyncEntriesAndReceivers(preferences,
+                                    uploadsStorageManager,
+                                    accountManager,
+                                    connectivityService,
+                                    powerManagementService,
+                                    backgroundJobManager,
+                                    clock,
+                                    viewThemeUtils,
+                                    walledCheckCache);
+    }
+
+    /**
+     * Database and receiver part of {@link #initSyncOperations}, without UI, so it can run on a background thread.
+     */
+    private static void initSyncEntriesAndReceivers(
+        final AppPreferences preferences,
+        final UploadsStorageManager uploadsStorageManager,
+        final UserAccountManager accountManager,
+        final ConnectivityService connectivityService,
+        final PowerManagementService powerManagementService,
+        final BackgroundJobManager backgroundJobManager,
+        final Clock clock,
+        final ViewThemeUtils viewThemeUtils,
+        final WalledCheckCache walledCheckCache) {
         cleanOldEntries(clock);
         updateAutoUploadEntries(clock);
 
@@ -540,6 +540,7 @@ public class FileDataStorageManager {
 
     public boolean saveFile(OCFile ocFile) {
         Log_OC.d(TAG, "saving file: " + ocFile.getRemotePath());
+        OCFileCache.remove(ocFile.getFileId());
 
         boolean overridden = false;
         final ContentValues cv = createContentValuesForFile(ocFile);
@@ -702,6 +703,45 @@ public class FileDataStorageManager {
     }
 
 
+    /**
+     * Updates files whose content was downloaded in one batch, instead of one {@link #saveFile(OCFile)} and
+     * {@link #saveConflict(OCFile, String)} per file. Conflicts are only cleared, including in the ancestor folders,
+     * for files which were in conflict.
+     *
+     * @param files files already stored in the database
+     */
+    public void saveDownloadedFiles(List<OCFile> files) {
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>(files.size());
+        List<OCFile> filesInConflict = new ArrayList<>();
+
+        for (OCFile ocFile : files) {
+            if (ocFile.getFileId() == -1) {
+                saveFile(ocFile);
+                continue;
+            }
+
+            OCFileCache.remove(ocFile.getFileId());
+            operations.add(ContentProviderOperation.newUpdate(ProviderTableMeta.CONTENT_URI)
+                               .withValues(createContentValuesForFile(ocFile))
+                               .withSelection(ProviderTableMeta._ID + " = ?",
+                                              new String[]{String.valueOf(ocFile.getFileId())})
+                               .build());
+
+            if (ocFile.getEtagInConflict() != null) {
+                filesInConflict.add(ocFile);
+            }
+        }
+
+        if (!operations.isEmpty()) {
+            Log_OC.d(TAG, String.format(Locale.ENGLISH, SENDING_TO_FILECONTENTPROVIDER_MSG, operations.size()));
+            applyBatch(operations);
+        }
+
+        for (OCFile ocFile : filesInConflict) {
+            saveConflict(ocFile, null);
+        }
+    }
+
     /**
      * Inserts or updates the list of files contained in a given folder.
      * <p>
@@ -716,6 +756,14 @@ public class FileDataStorageManager {
         Log_OC.d(TAG, "Saving folder " + folder.getRemotePath() + " with " + updatedFiles.size()
             + " children and " + filesToRemove.size() + " files to remove");
 
+        OCFileCache.remove(folder.getFileId());
+        for (OCFile ocFile : updatedFiles) {
+            OCFileCache.remove(ocFile.getFileId());
+        }
+        for (OCFile ocFile : filesToRemove) {
+            OCFileCache.remove(ocFile.getFileId());
+        }
+
         ArrayList<ContentProviderOperation> operations = new ArrayList<>(updatedFiles.size());
 
         // prepare operations to insert or update files to save in the given folder
@@ -918,6 +966,8 @@ public class FileDataStorageManager {
             return false;
         }
 
+        OCFileCache.remove(ocFile.getFileId());
+
         if (ocFile.isFolder()) {
             Log_OC.d(TAG, "deleting folder");
             return removeFolder(ocFile, removeDBData, removeLocalCopy);
@@ -1424,57 +1474,63 @@ public class FileDataStorageManager {
         ocFile.setE2eCounter(fileEntity.getE2eCounter());
         ocFile.setInternalFolderSyncTimestamp(nullToMinusOne(fileEntity.getInternalTwoWaySync()));
 
+        OCFileCache.Decoded decoded = OCFileCache.getOrDecode(fileEntity, this::decodeJsonColumns);
+        ocFile.setSharees(new ArrayList<>(decoded.getSharees()));
+        ocFile.setTags(new ArrayList<>(decoded.getTags()));
+        if (decoded.getImageDimension() != null) {
+            ocFile.setImageDimension(decoded.getImageDimension());
+        }
+        if (decoded.getGeoLocation() != null) {
+            ocFile.setGeoLocation(decoded.getGeoLocation());
+        }
+
+        return ocFile;
+    }
+
+    private OCFileCache.Decoded decodeJsonColumns(FileEntity fileEntity) {
+        List<ShareeUser> shareeUsers = new ArrayList<>();
         String sharees = fileEntity.getSharees();
         // Surprisingly JSON deserialization causes significant overhead.
         // Avoid it in common, trivial cases (null/empty).
-        if (sharees == null || sharees.isEmpty() ||
-            JSON_NULL_STRING.equals(sharees) || JSON_EMPTY_ARRAY.equals(sharees)) {
-            ocFile.setSharees(new ArrayList<>());
-        } else {
+        if (sharees != null && !sharees.isEmpty() &&
+            !JSON_NULL_STRING.equals(sharees) && !JSON_EMPTY_ARRAY.equals(sharees)) {
             try {
                 ShareeUser[] shareesArray = gson.fromJson(sharees, ShareeUser[].class);
-                ocFile.setSharees(new ArrayList<>(Arrays.asList(shareesArray)));
+                shareeUsers = Arrays.asList(shareesArray);
             } catch (JsonSyntaxException e) {
                 // ignore saved value due to api change
-                ocFile.setSharees(new ArrayList<>());
             }
         }
 
+        List<Tag> tagList = new ArrayList<>();
         String tags = fileEntity.getTags();
-        if (tags == null || tags.isEmpty() ||
-            JSON_NULL_STRING.equals(tags) || JSON_EMPTY_ARRAY.equals(tags)) {
-            ocFile.setTags(new ArrayList<>());
-        } else {
+        if (tags != null && !tags.isEmpty() &&
+            !JSON_NULL_STRING.equals(tags) && !JSON_EMPTY_ARRAY.equals(tags)) {
             try {
                 Tag[] tagsArray = gson.fromJson(tags, Tag[].class);
-                ocFile.setTags(new ArrayList<>(Arrays.asList(tagsArray)));
+                tagList = Arrays.asList(tagsArray);
             } catch (JsonSyntaxException e) {
                 // ignore saved value due to api change
-                ocFile.setTags(new ArrayList<>());
             }
         }
 
+        ImageDimension imageDimension = null;
         String metadataSize = fileEntity.getMetadataSize();
         // Surprisingly JSON deserialization causes significant overhead.
         // Avoid it in common, trivial cases (null/empty).
         if (metadataSize != null && !metadataSize.isEmpty() && !JSON_NULL_STRING.equalsIgnoreCase(metadataSize)) {
-            ImageDimension imageDimension = gson.fromJson(metadataSize, ImageDimension.class);
-            if (imageDimension != null) {
-                ocFile.setImageDimension(imageDimension);
-            }
+            imageDimension = gson.fromJson(metadataSize, ImageDimension.class);
         }
 
+        GeoLocation geoLocation = null;
         String metadataGPS = fileEntity.getMetadataGPS();
         // Surprisingly JSON deserialization causes significant overhead.
         // Avoid it in common, trivial cases (null/empty).
         if (!(metadataGPS == null || metadataGPS.isEmpty() || JSON_NULL_STRING.equals(metadataGPS))) {
-            GeoLocation geoLocation = gson.fromJson(metadataGPS, GeoLocation.class);
-            if (geoLocation != null) {
-                ocFile.setGeoLocation(geoLocation);
-            }
+            geoLocation = gson.fromJson(metadataGPS, GeoLocation.class);
         }
 
-        return ocFile;
+        return new OCFileCache.Decoded(shareeUsers, tagList, imageDimension, geoLocation);
     }
 
     public boolean saveShare(OCShare share) {
@@ -8,8 +8,10 @@
 package com.owncloud.android.datamodel;
 
 import android.content.ContentResolver;
+import android.content.Context;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Build;
 import android.provider.MediaStore;
 
 import com.owncloud.android.MainApp;
@@ -20,11 +22,13 @@ import com.owncloud.android.utils.theme.ViewThemeUtils;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Nullable;
 
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 
 /**
@@ -35,15 +39,32 @@ public final class MediaProvider {
 
     // fixed query parameters
     private static final Uri IMAGES_MEDIA_URI = android.provider.MediaStore.Images.Media.EXTERNAL_CONTENT_URI;
-    private static final String[] FILE_PROJECTION = new String[]{MediaStore.MediaColumns.DATA};
-    private static final String IMAGES_FILE_SELECTION = MediaStore.Images.Media.BUCKET_ID + "=";
-    private static final String[] IMAGES_FOLDER_PROJECTION = {MediaStore.Images.Media.BUCKET_ID,
-        MediaStore.Images.Media.BUCKET_DISPLAY_NAME};
-    private static final String IMAGES_FOLDER_SORT_COLUMN = MediaStore.Images.Media.BUCKET_DISPLAY_NAME;
-    private static final String IMAGES_SORT_DIRECTION = ContentResolverHelper.SORT_DIRECTION_ASCENDING;
+    private static final Uri VIDEOS_MEDIA_URI = MediaStore.Video.Media.EXTERNAL_CONTENT_URI;
 
-    private static final String[] VIDEOS_FOLDER_PROJECTION = {MediaStore.Video.Media.BUCKET_ID,
-        MediaStore.Video.Media.BUCKET_DISPLAY_NAME};
+    /**
+     * Single projection for folder discovery: one pass over all media rows, newest first, yields the per bucket
+     * counts, names and newest file paths at once.
+     */
+    private static final String[] IMAGES_AGGREGATION_PROJECTION = {MediaStore.Images.Media.BUCKET_ID,
+        MediaStore.Images.Media.BUCKET_DISPLAY_NAME, MediaStore.MediaColumns.DATA};
+    private static final String[] VIDEOS_AGGREGATION_PROJECTION = {MediaStore.Video.Media.BUCKET_ID,
+        MediaStore.Video.Media.BUCKET_DISPLAY_NAME, MediaStore.MediaColumns.DATA};
+
+    /**
+     * Folders of the last aggregation per media type, item limit and app data path, valid as long as the MediaStore
+     * generation of all external volumes is unchanged.
+     */
+    private static final Map<String, CachedFolders> CACHE = new HashMap<>();
+
+    private static final class CachedFolders {
+        private final String generation;
+        private final List<MediaFolder> folders;
+
+        private CachedFolders(String generation, List<MediaFolder> folders) {
+            this.generation = generation;
+            this.folders = folders;
+        }
+    }
 
     private MediaProvider() {
         // utility class -> private constructor
@@ -63,106 +84,12 @@ public final class MediaProvider {
         // check permissions
         checkPermissions(activity);
 
-        // query media/image folders
-        Cursor cursorFolders = null;
         if (activity != null && PermissionUtil.checkStoragePermission(activity.getApplicationContext())
             || getWithoutActivity) {
-            cursorFolders = ContentResolverHelper.queryResolver(contentResolver, IMAGES_MEDIA_URI,
-                                                                IMAGES_FOLDER_PROJECTION, null, null,
-                                                                IMAGES_FOLDER_SORT_COLUMN, IMAGES_SORT_DIRECTION, null);
+            return getMediaFolders(contentResolver, MediaFolderType.IMAGE, itemLimit);
         }
 
-        List<MediaFolder> mediaFolders = new ArrayList<>();
-        String dataPath = MainApp.getStoragePath() + File.separator + MainApp.getDataFolder();
-
-        if (cursorFolders != null) {
-            Cursor cursorImages;
-
-            Map<String, String> uniqueFolders = new HashMap<>();
-
-            // since sdk 29 we have to manually distinct on bucket id
-            while (cursorFolders.moveToNext()) {
-                uniqueFolders.put(cursorFolders.getString(
-                    cursorFolders.getColumnIndexOrThrow(MediaStore.Images.Media.BUCKET_ID)),
-                                  cursorFolders.getString(
-                                      cursorFolders.getColumnIndexOrThrow(MediaStore.Images.Media.BUCKET_DISPLAY_NAME))
-                );
-            }
-            cursorFolders.close();
-
-            for (Map.Entry<String, String> folder : uniqueFolders.entrySet()) {
-                MediaFolder mediaFolder = new MediaFolder();
-
-                mediaFolder.type = MediaFolderType.IMAGE;
-                mediaFolder.folderName = folder.getValue();
-                mediaFolder.filePaths = new ArrayList<>();
-
-                // query images
-                cursorImages = ContentResolverHelper.queryResolver(contentResolver,
-                                                                   IMAGES_MEDIA_URI,
-                                                                   FILE_PROJECTION,
-                                                                   IMAGES_FILE_SELECTION + folder.getKey(),
-                                                                   null,
-                                                                   MediaStore.Images.Media.DATE_TAKEN,
-                                                                   ContentResolverHelper.SORT_DIRECTION_DESCENDING,
-                                                                   itemLimit);
-                Log_OC.d(TAG, "Reading images for " + mediaFolder.folderName);
-
-                if (cursorImages != null) {
-                    String filePath;
-                    int imageCount = 0;
-                    while (cursorImages.moveToNext() && imageCount < itemLimit) {
-                        filePath = cursorImages.getString(cursorImages.getColumnIndexOrThrow(
-                            MediaStore.MediaColumns.DATA));
-
-                        // check if valid path and file exists
-                        if (isValidAndExistingFilePath(filePath)) {
-                            mediaFolder.filePaths.add(filePath);
-                            mediaFolder.absolutePath = filePath.substring(0, filePath.lastIndexOf('/'));
-                        }
-                        // ensure we don't go over the limit due to faulty android implementations
-                        imageCount++;
-                    }
-                    cursorImages.close();
-
-                    // only do further work if folder is not within the Nextcloud app itself
-                    if (isFolderOutsideOfAppPath(dataPath, mediaFolder)) {
-
-                        // count images
-                        Cursor count = contentResolver.query(
-                            IMAGES_MEDIA_URI,
-                            FILE_PROJECTION,
-                            IMAGES_FILE_SELECTION + folder.getKey(),
-                            null,
-                            null);
-
-                        if (count != null) {
-                            mediaFolder.numberOfFiles = count.getCount();
-                            count.close();
-                        }
-
-                        mediaFolders.add(mediaFolder);
-                    }
-                }
-            }
-        }
-
-        return mediaFolders;
-    }
-
-    private static boolean isFolderOutsideOfAppPath(String dataPath, MediaFolder mediaFolder) {
-        return mediaFolder.absolutePath != null && !mediaFolder.absolutePath.startsWith(dataPath);
-    }
-
-    private static boolean isValidAndExistingFilePath(String filePath) {
-        return filePath != null && filePath.lastIndexOf('/') > 0 && new File(filePath).exists();
-    }
-
-    private static void checkPermissions(@Nullable AppCompatActivity activity) {
-        if (activity != null &&
-            !PermissionUtil.checkStoragePermission(activity.getApplicationContext())) {
-            PermissionUtil.requestStoragePermissionIfNeeded(activity);
-        }
+        return new ArrayList<>();
     }
 
     public static List<MediaFolder> getVideoFolders(ContentResolver contentResolver,
@@ -172,89 +99,169 @@ public final class MediaProvider {
         // check permissions
         checkPermissions(activity);
 
-        // query media/image folders
-        Cursor cursorFolders = null;
         if ((activity != null && PermissionUtil.checkStoragePermission(activity.getApplicationContext()))
             || getWithoutActivity) {
-            cursorFolders = contentResolver.query(MediaStore.Video.Media.EXTERNAL_CONTENT_URI, VIDEOS_FOLDER_PROJECTION,
-                                                  null, null, null);
+            return getMediaFolders(contentResolver, MediaFolderType.VIDEO, itemLimit);
         }
 
-        List<MediaFolder> mediaFolders = new ArrayList<>();
-        String dataPath = MainApp.getStoragePath() + File.separator + MainApp.getDataFolder();
+        return new ArrayList<>();
+    }
 
-        if (cursorFolders != null) {
-            Cursor cursorVideos;
+    private static List<MediaFolder> getMediaFolders(ContentResolver contentResolver,
+                                                     MediaFolderType type,
+                                                     int itemLimit) {
+        // the data path changes when the user moves the app storage, and with it the folders left out
+        String dataPath = MainApp.getStoragePath() + File.separator + MainApp.getDataFolder();
+        String cacheKey = type + ":" + itemLimit + ":" + dataPath;
+        String generation = getMediaStoreGeneration();
+
+        synchronized (CACHE) {
+            CachedFolders cached = CACHE.get(cacheKey);
+            if (generation != null && cached != null && generation.equals(cached.generation)) {
+                Log_OC.d(TAG, "MediaStore unchanged, reusing " + type + " folders");
+                return new ArrayList<>(cached.folders);
+            }
+        }
 
-            Map<String, String> uniqueFolders = new HashMap<>();
+        List<MediaFolder> mediaFolders = queryMediaFolders(contentResolver, type, itemLimit, dataPath);
 
-            // since sdk 29 we have to manually distinct on bucket id
-            while (cursorFolders.moveToNext()) {
-                uniqueFolders.put(cursorFolders.getString(
-                    cursorFolders.getColumnIndexOrThrow(MediaStore.Video.Media.BUCKET_ID)),
-                                  cursorFolders.getString(
-                                      cursorFolders.getColumnIndexOrThrow(MediaStore.Video.Media.BUCKET_DISPLAY_NAME))
-                );
+        if (generation != null) {
+            synchronized (CACHE) {
+                CACHE.put(cacheKey, new CachedFolders(generation, mediaFolders));
             }
-            cursorFolders.close();
-
-            for (Map.Entry<String, String> folder : uniqueFolders.entrySet()) {
-                MediaFolder mediaFolder = new MediaFolder();
-                mediaFolder.type = MediaFolderType.VIDEO;
-                mediaFolder.folderName = folder.getValue();
-                mediaFolder.filePaths = new ArrayList<>();
-
-                // query videos
-                cursorVideos = ContentResolverHelper.queryResolver(contentResolver,
-                                                                   MediaStore.Video.Media.EXTERNAL_CONTENT_URI,
-                                                                   FILE_PROJECTION,
-                                                                   MediaStore.Video.Media.BUCKET_ID + "=" + folder.getKey(),
-                                                                   null,
-                                                                   MediaStore.Video.Media.DATE_TAKEN,
-                                                                   ContentResolverHelper.SORT_DIRECTION_DESCENDING,
-                                                                   itemLimit);
-
-                Log_OC.d(TAG, "Reading videos for " + mediaFolder.folderName);
-
-                if (cursorVideos != null) {
-                    String filePath;
-                    int videoCount = 0;
-                    while (cursorVideos.moveToNext() && videoCount < itemLimit) {
-                        filePath = cursorVideos.getString(cursorVideos.getColumnIndexOrThrow(
-                            MediaStore.MediaColumns.DATA));
-
-                        if (filePath != null) {
-                            mediaFolder.filePaths.add(filePath);
-                            mediaFolder.absolutePath = filePath.substring(0, filePath.lastIndexOf('/'));
-                        }
-                        // ensure we don't go over the limit due to faulty android implementations
-                        videoCount++;
-                    }
-                    cursorVideos.close();
+        }
 
-                    // only do further work if folder is not within the Nextcloud app itself
-                    if (isFolderOutsideOfAppPath(dataPath, mediaFolder)) {
+        return new ArrayList<>(mediaFolders);
+    }
 
-                        // count images
-                        Cursor count = contentResolver.query(
-                            MediaStore.Video.Media.EXTERNAL_CONTENT_URI,
-                            FILE_PROJECTION,
-                            MediaStore.Video.Media.BUCKET_ID + "=" + folder.getKey(),
-                            null,
-                            null);
+    private static List<MediaFolder> queryMediaFolders(ContentResolver contentResolver,
+                                                       MediaFolderType type,
+                                                       int itemLimit,
+                                                       String dataPath) {
+        final boolean isImage = type == MediaFolderType.IMAGE;
+        final Uri uri = isImage ? IMAGES_MEDIA_URI : VIDEOS_MEDIA_URI;
+        final String dateTakenColumn = isImage ? MediaStore.Images.Media.DATE_TAKEN : MediaStore.Video.Media.DATE_TAKEN;
+
+        Cursor cursor = ContentResolverHelper.queryResolver(contentResolver,
+                                                            uri,
+                                                            projection(type),
+                                                            null,
+                                                            null,
+                                                            dateTakenColumn,
+                                                            ContentResolverHelper.SORT_DIRECTION_DESCENDING,
+                                                            null);
+
+        return aggregateMediaFolders(cursor, type, itemLimit, dataPath);
+    }
 
-                        if (count != null) {
-                            mediaFolder.numberOfFiles = count.getCount();
-                            count.close();
-                        }
+    private static String[] projection(MediaFolderType type) {
+        return type == MediaFolderType.IMAGE ? IMAGES_AGGREGATION_PROJECTION : VIDEOS_AGGREGATION_PROJECTION;
+    }
 
-                        mediaFolders.add(mediaFolder);
+    /**
+     * Reads all media rows of the given type once, newest first, and groups them by bucket: every row counts towards
+     * the size of its folder and the first {@code itemLimit} rows of a folder are its newest items. Folders within
+     * {@code dataPath} are left out. The cursor is closed.
+     */
+    @VisibleForTesting
+    static List<MediaFolder> aggregateMediaFolders(@Nullable Cursor cursor,
+                                                   MediaFolderType type,
+                                                   int itemLimit,
+                                                   String dataPath) {
+        final boolean isImage = type == MediaFolderType.IMAGE;
+        final String[] projection = projection(type);
+
+        // since sdk 29 we have to manually distinct on bucket id
+        Map<String, MediaFolder> folders = new LinkedHashMap<>();
+        Map<String, Integer> sampledRows = new HashMap<>();
+
+        if (cursor != null) {
+            try {
+                int bucketIdColumn = cursor.getColumnIndexOrThrow(projection[0]);
+                int bucketNameColumn = cursor.getColumnIndexOrThrow(projection[1]);
+                int dataColumn = cursor.getColumnIndexOrThrow(projection[2]);
+
+                while (cursor.moveToNext()) {
+                    String bucketId = cursor.getString(bucketIdColumn);
+                    MediaFolder mediaFolder = folders.get(bucketId);
+                    if (mediaFolder == null) {
+                        mediaFolder = new MediaFolder();
+                        mediaFolder.type = type;
+                        mediaFolder.folderName = cursor.getString(bucketNameColumn);
+                        mediaFolder.filePaths = new ArrayList<>();
+                        folders.put(bucketId, mediaFolder);
+                    }
+                    mediaFolder.numberOfFiles++;
+
+                    // ensure we don't go over the limit due to faulty android implementations
+                    int sampled = sampledRows.containsKey(bucketId) ? sampledRows.get(bucketId) : 0;
+                    if (sampled < itemLimit) {
+                        sampledRows.put(bucketId, sampled + 1);
+                        addFilePath(mediaFolder, cursor.getString(dataColumn), isImage);
                     }
                 }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        List<MediaFolder> mediaFolders = new ArrayList<>();
+        for (MediaFolder mediaFolder : folders.values()) {
+            // only folders not within the Nextcloud app itself
+            if (isFolderOutsideOfAppPath(dataPath, mediaFolder)) {
+                mediaFolders.add(mediaFolder);
             }
-            cursorFolders.close();
         }
 
+        Log_OC.d(TAG, "Read " + mediaFolders.size() + " " + type + " folders");
         return mediaFolders;
     }
+
+    private static void addFilePath(MediaFolder mediaFolder, @Nullable String filePath, boolean checkExistence) {
+        // check if valid path and, for images, if file exists
+        if (filePath == null || filePath.lastIndexOf('/') <= 0 || checkExistence && !new File(filePath).exists()) {
+            return;
+        }
+
+        mediaFolder.filePaths.add(filePath);
+        mediaFolder.absolutePath = filePath.substring(0, filePath.lastIndexOf('/'));
+    }
+
+    /**
+     * @return version and generation of all external volumes, which changes with every change of the MediaStore, or
+     * null if it is not available
+     */
+    @Nullable
+    private static String getMediaStoreGeneration() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return null;
+        }
+
+        Context context = MainApp.getAppContext();
+        if (context == null) {
+            return null;
+        }
+
+        StringBuilder generation = new StringBuilder();
+        for (String volume : MediaStore.getExternalVolumeNames(context)) {
+            generation.append(volume)
+                .append(':')
+                .append(MediaStore.getVersion(context, volume))
+                .append(':')
+                .append(MediaStore.getGeneration(context, volume))
+                .append(';');
+        }
+        return generation.toString();
+    }
+
+    private static boolean isFolderOutsideOfAppPath(String dataPath, MediaFolder mediaFolder) {
+        return mediaFolder.absolutePath != null && !mediaFolder.absolutePath.startsWith(dataPath);
+    }
+
+    private static void checkPermissions(@Nullable AppCompatActivity activity) {
+        if (activity != null &&
+            !PermissionUtil.checkStoragePermission(activity.getApplicationContext())) {
+            PermissionUtil.requestStoragePermissionIfNeeded(activity);
+        }
+    }
 }
@@ -32,7 +32,7 @@ import com.owncloud.android.lib.resources.files.model.ServerFileInterface;
 import com.owncloud.android.lib.resources.shares.ShareeUser;
 import com.owncloud.android.lib.resources.tags.Tag;
 import com.owncloud.android.utils.MimeType;
-import com.owncloud.android.utils.sort.AlphanumericComparator;
+import com.owncloud.android.utils.sort.NaturalSortKey;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -129,6 +129,12 @@ public class OCFile implements Parcelable, Comparable<OCFile>, ServerFileInterfa
     private Long internalFolderSyncTimestamp = -1L;
     private String internalFolderSyncResult = "";
 
+    // not parcelled, rebuilt on demand from the file name
+    @Nullable
+    private NaturalSortKey naturalSortKey;
+    @Nullable
+    private String naturalSortKeyPath;
+
     // region Recommend files variables
     private boolean recommendedFile = false;
     private String reason = "";
@@ -455,6 +461,21 @@ public class OCFile implements Parcelable, Comparable<OCFile>, ServerFileInterfa
         return f.getName().length() == 0 ? ROOT_PATH : f.getName();
     }
 
+    /**
+     * Returns the natural sort key of {@link #getFileName()}. It is computed once and reused until the path of the
+     * file changes, so sorting a folder does not split and collate the names again on every comparison.
+     *
+     * @return The sort key of the file name
+     */
+    public NaturalSortKey getNaturalSortKey() {
+        String path = decryptedRemotePath != null ? decryptedRemotePath : remotePath;
+        if (naturalSortKey == null || !Objects.equals(naturalSortKeyPath, path)) {
+            naturalSortKey = NaturalSortKey.of(getFileName());
+            naturalSortKeyPath = path;
+        }
+        return naturalSortKey;
+    }
+
     /**
      * Returns the encrypted filename and "/" for the root directory
      *
@@ -554,13 +575,13 @@ public class OCFile implements Parcelable, Comparable<OCFile>, ServerFileInterfa
     @Override
     public int compareTo(@NonNull OCFile another) {
         if (isFolder() && another.isFolder()) {
-            return AlphanumericComparator.compare(this, another);
+            return getNaturalSortKey().compareTo(another.getNaturalSortKey());
         } else if (isFolder()) {
             return -1;
         } else if (another.isFolder()) {
             return 1;
         }
-        return AlphanumericComparator.compare(this, another);
+        return getNaturalSortKey().compareTo(another.getNaturalSortKey());
     }
 
     @Override
@@ -0,0 +1,127 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import com.nextcloud.client.database.entity.FileEntity
+import com.owncloud.android.lib.common.utils.Log_OC
+import com.owncloud.android.lib.resources.files.model.GeoLocation
+import com.owncloud.android.lib.resources.files.model.ImageDimension
+import com.owncloud.android.lib.resources.shares.ShareeUser
+import com.owncloud.android.lib.resources.tags.Tag
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Process wide cache for [FileDataStorageManager.createFileInstance], keyed by the `_id` of the file row.
+ *
+ * Sharees, tags, image dimension and geo location are stored as JSON and were parsed with Gson for every row of every
+ * query. The cache keeps the parsed values and uses them while etag, modification time and the stored JSON of the row
+ * are unchanged, so a stale entry is never applied. The [OCFile] itself is still created per query, as callers modify
+ * the instances they get, and every caller gets its own copy of the decoded values for the same reason.
+ * [FileDataStorageManager.saveFile], [FileDataStorageManager.saveFolder] and [FileDataStorageManager.removeFile] evict
+ * the rows they write, the removal of an account clears the whole cache.
+ */
+object OCFileCache {
+    private const val TAG = "OCFileCache"
+    private const val MAX_ENTRIES = 2000
+    private const val LOAD_FACTOR = 0.75f
+
+    // access ordered, so the least recently used entry is the eldest
+    private val entries = object : LinkedHashMap<Long, Entry>(MAX_ENTRIES, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Long, Entry>?): Boolean = size > MAX_ENTRIES
+    }
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+
+    data class Stats(val entries: Int, val hits: Long, val misses: Long)
+
+    class Decoded(
+        val sharees: List<ShareeUser>,
+        val tags: List<Tag>,
+        val imageDimension: ImageDimension?,
+        val geoLocation: GeoLocation?
+    ) {
+        /**
+         * @return a deep copy, so files created from the same cache entry do not share mutable values
+         */
+        fun copy(): Decoded = Decoded(
+            sharees.map { it.copy() },
+            tags.map { it.copy() },
+            imageDimension?.copy(),
+            geoLocation?.copy()
+        )
+    }
+
+    private class Entry(
+        val etag: String?,
+        val modified: Long?,
+        val sharees: String?,
+        val tags: String?,
+        val metadataSize: String?,
+        val metadataGPS: String?,
+        val decoded: Decoded
+    ) {
+        fun isValidFor(fileEntity: FileEntity): Boolean = etag == fileEntity.etag &&
+            modified == fileEntity.modified &&
+            sharees == fileEntity.sharees &&
+            tags == fileEntity.tags &&
+            metadataSize == fileEntity.metadataSize &&
+            metadataGPS == fileEntity.metadataGPS
+    }
+
+    /**
+     * @return a copy of the cached values for the row if they are still valid, otherwise the result of [decode], a
+     * copy of which is cached
+     */
+    @JvmStatic
+    fun getOrDecode(fileEntity: FileEntity, decode: (FileEntity) -> Decoded): Decoded {
+        val id = fileEntity.id ?: return decode(fileEntity)
+
+        val cached = synchronized(entries) { entries[id] }
+        if (cached != null && cached.isValidFor(fileEntity)) {
+            hits.incrementAndGet()
+            return cached.decoded.copy()
+        }
+
+        misses.incrementAndGet()
+        val decoded = decode(fileEntity)
+        val entry = Entry(
+            fileEntity.etag,
+            fileEntity.modified,
+            fileEntity.sharees,
+            fileEntity.tags,
+            fileEntity.metadataSize,
+            fileEntity.metadataGPS,
+            decoded.copy()
+        )
+        synchronized(entries) { entries[id] = entry }
+        return decoded
+    }
+
+    @JvmStatic
+    fun remove(fileId: Long) {
+        if (fileId > 0) {
+            synchronized(entries) { entries.remove(fileId) }
+        }
+    }
+
+    /**
+     * @return the current number of entries and how often the cache was used since the process started
+     */
+    @JvmStatic
+    fun stats(): Stats = Stats(synchronized(entries) { entries.size }, hits.get(), misses.get())
+
+    /**
+     * Removes all entries and logs how often the cache was used so far. The hit and miss counters are kept.
+     */
+    @JvmStatic
+    fun clear() {
+        val size = synchronized(entries) {
+            entries.size.also { entries.clear() }
+        }
+        Log_OC.d(TAG, "cleared $size entries, ${hits.get()} hits, ${misses.get()} misses")
+    }
+}
@@ -9,6 +9,7 @@ package com.owncloud.android.datamodel
 
 import com.nextcloud.client.database.entity.FileEntity
 import com.owncloud.android.ui.adapter.helper.OCFileListAdapterDataProvider
+import kotlinx.coroutines.flow.Flow
 
 @Suppress("ReturnCount")
 class OCFileListAdapterDataProviderImpl(private val storageManager: FileDataStorageManager) :
@@ -19,5 +20,8 @@ class OCFileListAdapterDataProviderImpl(private val storageManager: FileDataStor
     override suspend fun getFolderContent(id: Long): List<FileEntity> =
         storageManager.fileDao.getFolderContentSuspended(id)
 
+    override fun getFolderContentFlow(id: Long): Flow<List<FileEntity>> =
+        storageManager.fileDao.getFolderContentFlow(id)
+
     override fun createFileInstance(entity: FileEntity): OCFile = storageManager.createFileInstance(entity)
 }
@@ -36,6 +36,8 @@ import android.widget.FrameLayout;
 import android.widget.ImageView;
 
 import com.nextcloud.client.account.User;
+import com.nextcloud.client.core.Lanes;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.client.network.ConnectivityService;
 import com.nextcloud.utils.BitmapExtensionsKt;
 import com.nextcloud.utils.extensions.FileExtensionsKt;
@@ -45,7 +47,6 @@ import com.owncloud.android.MainApp;
 import com.owncloud.android.R;
 import com.owncloud.android.lib.common.OwnCloudAccount;
 import com.owncloud.android.lib.common.OwnCloudClient;
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory;
 import com.owncloud.android.lib.common.operations.RemoteOperation;
 import com.owncloud.android.lib.common.utils.Log_OC;
 import com.owncloud.android.lib.resources.files.model.ImageDimension;
@@ -71,8 +72,7 @@ import java.io.InputStream;
 import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -123,10 +123,10 @@ public final class ThumbnailsCacheManager {
     private ThumbnailsCacheManager() {
     }
 
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static volatile Future<?> diskCacheInit;
 
     public static void initDiskCacheAsync() {
-        executor.execute(() -> {
+        diskCacheInit = Lanes.submit(Lanes.Lane.DISK_IO, () -> {
             synchronized (mThumbnailsDiskCacheLock) {
                 mThumbnailCacheStarting = true;
 
@@ -271,6 +271,10 @@ public final class ThumbnailsCacheManager {
     }
 
     public static Bitmap getScaledBitmapFromDiskCache(String key, int width, int height) {
+        if (mThumbnailCacheStarting) {
+            // the caller waits for the cache now
+            Lanes.boost(diskCacheInit);
+        }
         synchronized (mThumbnailsDiskCacheLock) {
             // Wait while disk cache is started from background thread
             while (mThumbnailCacheStarting) {
@@ -288,6 +292,10 @@ public final class ThumbnailsCacheManager {
     }
 
     public static Bitmap getBitmapFromDiskCache(String key) {
+        if (mThumbnailCacheStarting) {
+            // the caller waits for the cache now
+            Lanes.boost(diskCacheInit);
+        }
         synchronized (mThumbnailsDiskCacheLock) {
             // Wait while disk cache is started from background thread
             while (mThumbnailCacheStarting) {
@@ -351,8 +359,7 @@ public final class ThumbnailsCacheManager {
             file = (OCFile) params[0];
 
             try {
-                mClient = OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(user.toOwnCloudAccount(),
-                                                                                          MainApp.getAppContext());
+                mClient = ClientPool.getOwnCloudClient(user, MainApp.getAppContext());
 
                 thumbnail = doResizedImageInBackground(file, storageManager);
 
@@ -392,7 +399,7 @@ public final class ThumbnailsCacheManager {
                         }
                     }
                 } else {
-                    new Thread(() -> {
+                    Lanes.submit(Lanes.Lane.NETWORK, () -> {
                         if (connectivityService.isInternetWalled()) {
                             if (fileFragment instanceof PreviewImageFragment) {
                                 ((PreviewImageFragment) fileFragment).setNoConnectionErrorMessage();
@@ -402,7 +409,7 @@ public final class ThumbnailsCacheManager {
                                 ((PreviewImageFragment) fileFragment).handleUnsupportedImage();
                             }
                         }
-                    }).start();
+                    });
 
                 }
             }
@@ -497,8 +504,7 @@ public final class ThumbnailsCacheManager {
             try {
                 if (user != null) {
                     OwnCloudAccount ocAccount = user.toOwnCloudAccount();
-                    mClient = OwnCloudClientManagerFactory.getDefaultSingleton().
-                            getClientFor(ocAccount, MainApp.getAppContext());
+                    mClient = ClientPool.getOwnCloudClient(ocAccount, MainApp.getAppContext());
                 }
 
                 ThumbnailGenerationTaskObject object = params[0];
@@ -974,7 +980,7 @@ public final class ThumbnailsCacheManager {
                 try {
                     if (user != null) {
                         OwnCloudAccount ocAccount = user.toOwnCloudAccount();
-                        mClient = OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(ocAccount, mContext);
+                        mClient = ClientPool.getOwnCloudClient(ocAccount, mContext);
                     }
 
                     int px = mResources.getInteger(R.integer.file_avatar_px);
@@ -1226,7 +1232,7 @@ public final class ThumbnailsCacheManager {
             OwnCloudClient client = mClient;
             if (client == null) {
                 OwnCloudAccount ocAccount = user.toOwnCloudAccount();
-                client = OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(ocAccount, context);
+                client = ClientPool.getOwnCloudClient(ocAccount, context);
             }
 
             String uri = client.getBaseUri() + "/index.php/apps/files/api/v1/thumbnail/" +
@@ -0,0 +1,104 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import android.os.Handler
+import android.os.Looper
+import androidx.annotation.VisibleForTesting
+import java.util.concurrent.CopyOnWriteArraySet
+
+/**
+ * Process wide channel for changes of the uploads table.
+ *
+ * Uploads change several times per file, from many [UploadsStorageManager] instances and worker threads. Changes are
+ * collected and delivered to the listeners on the main thread at most once per frame, together with the ids of the
+ * changed uploads, so listeners can refresh only the affected rows.
+ */
+object UploadChangeNotifier {
+    internal const val FRAME_INTERVAL_MS = 16L
+
+    // above this, listeners would rather reload than refresh single rows
+    internal const val MAX_TRACKED_IDS = 500
+
+    /**
+     * @param all true if uploads changed that are not listed in [uploadIds], e.g. after deleting by status
+     */
+    class Changes(val uploadIds: Set<Long>, val all: Boolean)
+
+    fun interface Listener {
+        fun onUploadsChanged(changes: Changes)
+    }
+
+    private val listeners = CopyOnWriteArraySet<Listener>()
+    private val handler by lazy { Handler(Looper.getMainLooper()) }
+    private val dispatch = Runnable { dispatchPending() }
+
+    /**
+     * Runs the delivery after the given delay, on the main thread unless replaced by tests.
+     */
+    @VisibleForTesting
+    internal var scheduler: (Runnable, Long) -> Unit = { runnable, delayMs -> handler.postDelayed(runnable, delayMs) }
+
+    private val lock = Any()
+    private var pendingIds = HashSet<Long>()
+    private var pendingAll = false
+    private var dispatchScheduled = false
+
+    @JvmStatic
+    fun addListener(listener: Listener) {
+        listeners.add(listener)
+    }
+
+    @JvmStatic
+    fun removeListener(listener: Listener) {
+        listeners.remove(listener)
+    }
+
+    @JvmStatic
+    fun notifyChanged(uploadId: Long) {
+        schedule {
+            if (!pendingAll) {
+                pendingIds.add(uploadId)
+                if (pendingIds.size > MAX_TRACKED_IDS) {
+                    pendingAll = true
+                    pendingIds.clear()
+                }
+            }
+        }
+    }
+
+    @JvmStatic
+    fun notifyAllChanged() {
+        schedule {
+            pendingAll = true
+            pendingIds.clear()
+        }
+    }
+
+    private inline fun schedule(record: () -> Unit) {
+        synchronized(lock) {
+            record()
+            if (dispatchScheduled) {
+                return
+            }
+            dispatchScheduled = true
+        }
+        scheduler(dispatch, FRAME_INTERVAL_MS)
+    }
+
+    @VisibleForTesting
+    internal fun dispatchPending() {
+        val changes = synchronized(lock) {
+            Changes(pendingIds, pendingAll).also {
+                pendingIds = HashSet()
+                pendingAll = false
+                dispatchScheduled = false
+            }
+        }
+        listeners.forEach { it.onUploadsChanged(changes) }
+    }
+}
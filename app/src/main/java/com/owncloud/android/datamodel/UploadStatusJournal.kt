@@ -0,0 +1,191 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import com.nextcloud.client.database.NextcloudDatabase
+import com.owncloud.android.datamodel.UploadsStorageManager.UploadStatus
+import com.owncloud.android.db.UploadResult
+import com.owncloud.android.lib.common.utils.Log_OC
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Write-behind journal of upload status transitions.
+ *
+ * Every upload changes its status when it starts and when it finishes, and each write used to be its own transaction.
+ * All transitions are written in batches, one transaction per batch, by a single writer thread:
+ * - transitions to [UploadStatus.UPLOAD_IN_PROGRESS] are kept for at most [flushDelayMs]
+ * - a terminal transition starts a write right away and [record] returns once it is committed, so a crash can only
+ * lose the start of an upload, which is repeated anyway when the upload is restarted
+ *
+ * Terminal transitions recorded while a batch is being written, e.g. by parallel uploads, are committed together in
+ * the next transaction, so their callers share one commit instead of committing one after the other.
+ *
+ * Pending transitions are only applied while the upload is still in progress, so they never overwrite a status that
+ * was written directly in the meantime, e.g. when the user cancels the upload.
+ */
+internal class UploadStatusJournal(
+    private val store: Store,
+    private val executor: ScheduledExecutorService,
+    private val flushDelayMs: Long = MAX_FLUSH_DELAY_MS
+) {
+    companion object {
+        private const val TAG = "UploadStatusJournal"
+        private const val MAX_FLUSH_DELAY_MS = 500L
+        private const val MAX_PENDING_TRANSITIONS = 200
+
+        val instance: UploadStatusJournal by lazy {
+            val executor = Executors.newSingleThreadScheduledExecutor { runnable ->
+                Thread(runnable, TAG).apply { isDaemon = true }
+            }
+            UploadStatusJournal(DatabaseStore, executor)
+        }
+    }
+
+    class Transition(
+        val uploadId: Long,
+        val status: UploadStatus,
+        val result: UploadResult,
+        val remotePath: String?,
+        val localPath: String?,
+        val uploadEndTimestamp: Long?
+    ) {
+        val isTerminal: Boolean
+            get() = status != UploadStatus.UPLOAD_IN_PROGRESS
+    }
+
+    fun interface Store {
+        /**
+         * Writes all [transitions] in one transaction.
+         */
+        fun write(transitions: Collection<Transition>)
+    }
+
+    /**
+     * Transitions written in one transaction, callers waiting for it are released once it is committed.
+     */
+    private class Batch {
+        val transitions = LinkedHashMap<Long, Transition>()
+        private val written = CountDownLatch(1)
+
+        @Volatile
+        private var failure: RuntimeException? = null
+
+        fun complete(failure: RuntimeException?) {
+            this.failure = failure
+            written.countDown()
+        }
+
+        fun await() {
+            written.await()
+            failure?.let { throw it }
+        }
+    }
+
+    private val lock = Any()
+    private var batch = Batch()
+    private var writeRequested = false
+    private var delayedWriteScheduled = false
+
+    /**
+     * Failures of the write of a terminal transition are thrown to the caller, as they were when every transition
+     * was written on its own.
+     */
+    fun record(transition: Transition) {
+        val batch = synchronized(lock) {
+            batch.transitions[transition.uploadId] = transition
+            if (transition.isTerminal || batch.transitions.size >= MAX_PENDING_TRANSITIONS) {
+                requestWrite()
+            } else if (!delayedWriteScheduled) {
+                delayedWriteScheduled = true
+                executor.schedule({ writeBatch() }, flushDelayMs, TimeUnit.MILLISECONDS)
+            }
+            batch
+        }
+
+        if (transition.isTerminal) {
+            batch.await()
+        }
+    }
+
+    /**
+     * Writes all pending transitions and waits until they are committed. Failures are thrown to the caller.
+     */
+    fun flush() {
+        val batch = synchronized(lock) {
+            if (batch.transitions.isEmpty()) {
+                return
+            }
+            requestWrite()
+            batch
+        }
+        batch.await()
+    }
+
+    private fun requestWrite() {
+        if (!writeRequested) {
+            writeRequested = true
+            executor.execute { writeBatch() }
+        }
+    }
+
+    /**
+     * Runs on the writer thread only, so batches are committed in the order they were taken.
+     */
+    @Suppress("TooGenericExceptionCaught")
+    private fun writeBatch() {
+        val written = synchronized(lock) {
+            writeRequested = false
+            delayedWriteScheduled = false
+            batch.also { batch = Batch() }
+        }
+        if (written.transitions.isEmpty()) {
+            written.complete(null)
+            return
+        }
+
+        try {
+            store.write(written.transitions.values)
+            written.complete(null)
+        } catch (e: RuntimeException) {
+            Log_OC.e(TAG, "Writing ${written.transitions.size} upload status transitions failed: $e")
+            written.complete(e)
+        }
+    }
+
+    private object DatabaseStore : Store {
+        override fun write(transitions: Collection<Transition>) {
+            val database = NextcloudDatabase.instance()
+            val dao = database.uploadDao()
+            val changedIds = ArrayList<Long>(transitions.size)
+
+            database.runInTransaction {
+                transitions.forEach {
+                    val updated = dao.updateTransition(
+                        it.uploadId,
+                        it.status.value,
+                        it.result.value,
+                        it.remotePath,
+                        it.localPath,
+                        it.uploadEndTimestamp,
+                        if (it.isTerminal) null else UploadStatus.UPLOAD_IN_PROGRESS.value
+                    )
+                    if (updated > 0) {
+                        changedIds.add(it.uploadId)
+                    } else if (it.isTerminal) {
+                        Log_OC.e(TAG, "Upload ${it.uploadId} not found, status ${it.status} not written")
+                    }
+                }
+            }
+
+            Log_OC.d(TAG, "Wrote ${changedIds.size}/${transitions.size} upload status transitions in one transaction")
+            changedIds.forEach { UploadChangeNotifier.notifyChanged(it) }
+        }
+    }
+}
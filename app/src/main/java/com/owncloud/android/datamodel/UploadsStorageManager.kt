@@ -18,14 +18,13 @@ package com.owncloud.android.datamodel
 import android.content.ContentResolver
 import android.content.ContentValues
 import android.database.Cursor
-import android.os.Handler
-import android.os.Looper
 import androidx.annotation.VisibleForTesting
 import com.nextcloud.client.account.CurrentAccountProvider
 import com.nextcloud.client.account.User
 import com.nextcloud.client.database.NextcloudDatabase
 import com.nextcloud.client.database.dao.UploadDao
 import com.nextcloud.client.database.entity.UploadEntity
+import com.nextcloud.client.database.entity.model.UploadStatusCount
 import com.nextcloud.client.database.entity.toOCUpload
 import com.nextcloud.client.jobs.upload.FileUploadHelper
 import com.nextcloud.client.jobs.upload.FileUploadWorker
@@ -41,15 +40,13 @@ import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.lib.resources.status.OCCapability
 import com.owncloud.android.operations.UploadFileOperation
 import com.owncloud.android.utils.theme.CapabilityUtils
-import java.util.Calendar
 import java.util.Locale
-import java.util.Observable
 
 @Suppress("TooManyFunctions", "TooGenericExceptionCaught", "MagicNumber", "ReturnCount")
 class UploadsStorageManager(
     private val currentAccountProvider: CurrentAccountProvider,
     private val contentResolver: ContentResolver
-) : Observable() {
+) {
 
     private var capability: OCCapability? = null
 
@@ -110,90 +107,48 @@ class UploadsStorageManager(
         if (result != SINGLE_RESULT) {
             Log_OC.e(TAG, "Failed to update item " + ocUpload.localPath + " into upload db.")
         } else {
-            notifyObserversNow()
+            UploadChangeNotifier.notifyChanged(ocUpload.uploadId)
         }
 
         return result
     }
 
-    private fun updateUploadInternal(
-        c: Cursor,
-        status: UploadStatus?,
-        result: UploadResult?,
-        remotePath: String?,
-        localPath: String?
-    ): Int {
-        var r = 0
-        while (c.moveToNext()) {
-            val upload = createOCUploadFromCursor(c)
-
-            val path = c.getString(c.getColumnIndexOrThrow(ProviderTableMeta.UPLOADS_LOCAL_PATH))
-            Log_OC.v(
-                TAG,
-                (
-                    "Updating " + path + " with status:" + status + " and result:" +
-                        (result?.toString() ?: "null") + " (old:" +
-                        upload.toFormattedString() + ')'
-                    )
-            )
-
-            upload.setUploadStatus(status)
-            upload.lastResult = result
-            upload.remotePath = remotePath
-
-            if (localPath != null) {
-                upload.localPath = localPath
-            }
-
-            if (status == UploadStatus.UPLOAD_SUCCEEDED) {
-                upload.uploadEndTimestamp = Calendar.getInstance().getTimeInMillis()
-            }
-
-            r = updateUpload(upload)
-        }
-
-        return r
-    }
-
+    /**
+     * Records a status transition in [UploadStatusJournal] instead of reading and rewriting the whole row. Terminal
+     * transitions are committed, together with the ones recorded meanwhile, before this returns.
+     */
     private fun updateUploadStatus(
         id: Long,
-        status: UploadStatus?,
-        result: UploadResult?,
+        status: UploadStatus,
+        result: UploadResult,
         remotePath: String?,
         localPath: String?
     ) {
-        val c = contentResolver.query(
-            ProviderTableMeta.CONTENT_URI_UPLOADS,
-            null,
-            ProviderTableMeta._ID + "=?",
-            arrayOf(id.toString()),
-            null
+        Log_OC.v(TAG, "Updating upload $id with status: $status and result: $result")
+
+        val uploadEndTimestamp = if (status == UploadStatus.UPLOAD_SUCCEEDED) System.currentTimeMillis() else null
+        UploadStatusJournal.instance.record(
+            UploadStatusJournal.Transition(id, status, result, remotePath, localPath, uploadEndTimestamp)
         )
+    }
 
-        if (c != null) {
-            if (c.count != SINGLE_RESULT) {
-                Log_OC.e(
-                    TAG,
-                    (
-                        c.count.toString() + " items for id=" + id +
-                            " available in UploadDb. Expected 1. Failed to update upload db."
-                        )
-                )
-            } else {
-                updateUploadInternal(c, status, result, remotePath, localPath)
-            }
-            c.close()
-        } else {
-            Log_OC.e(TAG, "Cursor is null")
+    /**
+     * Writes status transitions that are still pending in [UploadStatusJournal].
+     */
+    fun flushStatusUpdates() {
+        try {
+            UploadStatusJournal.instance.flush()
+        } catch (e: RuntimeException) {
+            Log_OC.e(TAG, "Failed to write pending upload status updates: $e")
         }
     }
 
+    /**
+     * Tells [UploadChangeNotifier] listeners that any upload may have changed.
+     */
     fun notifyObserversNow() {
         Log_OC.d(TAG, "notifying upload storage manager observers")
-        Handler(Looper.getMainLooper()).post {
-            setChanged()
-            notifyObservers()
-        }
+        UploadChangeNotifier.notifyAllChanged()
     }
 
     fun removeUpload(upload: OCUpload?): Int = if (upload == null) 0 else removeUpload(upload.uploadId)
@@ -206,7 +161,7 @@ class UploadsStorageManager(
         )
         Log_OC.d(TAG, "delete returns $result for upload with id $id")
         if (result > 0) {
-            notifyObserversNow()
+            UploadChangeNotifier.notifyChanged(id)
         }
         return result
     }
@@ -266,6 +221,35 @@ class UploadsStorageManager(
         return result
     }
 
+    /**
+     * Number of uploads of the account per status, counted by the database. Succeeded uploads are split by whether
+     * they were skipped.
+     */
+    fun getUploadCounts(accountName: String): List<UploadStatusCount> =
+        uploadDao.getStatusCounts(accountName, UploadResult.SKIPPED.value)
+
+    /**
+     * Reads one page of uploads of the account with the given status, ordered by end timestamp descending and id.
+     *
+     * @param skipped if not null, only succeeded uploads that were or were not skipped
+     * @param after last upload of the previous page, or null for the first page
+     */
+    fun getUploadPage(
+        accountName: String,
+        status: UploadStatus,
+        skipped: Boolean?,
+        after: OCUpload?,
+        limit: Int
+    ): List<OCUpload> = uploadDao.getUploadPage(
+        accountName,
+        status.value,
+        skipped,
+        UploadResult.SKIPPED.value,
+        after?.uploadEndTimestamp ?: Long.MAX_VALUE,
+        after?.uploadId ?: -1,
+        limit
+    ).mapNotNull { createOCUploadFromEntity(it) }
+
     private fun getUploads(selection: String?, vararg selectionArgs: String?): Array<OCUpload> {
         val uploads = ArrayList<OCUpload>()
         var page: Long = 0
@@ -24,7 +24,7 @@ import java.util.List;
  */
 public class ProviderMeta {
     public static final String DB_NAME = "filelist";
-    public static final int DB_VERSION = 102;
+    public static final int DB_VERSION = 104;
 
     private ProviderMeta() {
         // No instance
@@ -43,9 +43,20 @@ public class ProviderMeta {
         public static final String RECOMMENDED_TIMESTAMP = "timestamp";
         // endregion
 
+        // region Partial downloads table
+        public static final String PARTIAL_DOWNLOAD_TABLE_NAME = "partial_downloads";
+        public static final String PARTIAL_DOWNLOAD_ACCOUNT_NAME = "account_name";
+        public static final String PARTIAL_DOWNLOAD_REMOTE_PATH = "remote_path";
+        public static final String PARTIAL_DOWNLOAD_ETAG = "etag";
+        public static final String PARTIAL_DOWNLOAD_TOTAL_LENGTH = "total_length";
+        public static final String PARTIAL_DOWNLOAD_SEGMENTS = "segments";
+        public static final String PARTIAL_DOWNLOAD_MODIFIED_AT = "modified_at";
+        // endregion
+
         // region Table names
         public static final String OFFLINE_OPERATION_TABLE_NAME = "offline_operations";
         public static final String FILE_TABLE_NAME = "filelist";
+        public static final String FILE_SEARCH_INDEX_TABLE_NAME = "filelist_fts";
         public static final String OCSHARES_TABLE_NAME = "ocshares";
         public static final String CAPABILITIES_TABLE_NAME = "capabilities";
         public static final String UPLOADS_TABLE_NAME = "list_of_uploads";
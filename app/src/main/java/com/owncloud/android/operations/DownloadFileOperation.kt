@@ -11,6 +11,7 @@ import android.os.Handler
 import android.os.Looper
 import android.webkit.MimeTypeMap
 import com.nextcloud.client.account.User
+import com.nextcloud.client.database.NextcloudDatabase
 import com.nextcloud.utils.extensions.showToast
 import com.nextcloud.utils.extensions.toNextcloudClient
 import com.owncloud.android.R
@@ -52,6 +53,11 @@ class DownloadFileOperation(
     var etag: String? = ""
         private set
 
+    /**
+     * Number of ranges very large files are downloaded in at once, see [ResumableDownload].
+     */
+    var maxParallelRanges = 1
+
     private val context = WeakReference(context)
     private val dataTransferListeners = ConcurrentHashMap.newKeySet<OnDatatransferProgressListener>()
     private var timestampForModification: Long = 0
@@ -134,12 +140,13 @@ class DownloadFileOperation(
             ?: return RemoteOperationResult(RemoteOperationResult.ResultCode.UNKNOWN_ERROR)
 
         val tmpFile = File(tmpPath)
-        val (downloadOp, downloadResult) = executeDownload(client, operationContext)
+        val download = executeDownload(client, operationContext)
+        val downloadResult = download.result
 
         if (!downloadResult.isSuccess) return downloadResult
 
-        timestampForModification = downloadOp.modificationTimestamp
-        etag = downloadOp.etag
+        timestampForModification = download.modificationTimestamp
+        etag = download.etag
 
         if (file.isEncrypted) {
             handleDecryption(client, operationContext, tmpFile)?.let { return it }
@@ -156,19 +163,37 @@ class DownloadFileOperation(
     }
 
     private data class DownloadResult(
-        val operation: DownloadFileRemoteOperation,
-        val result: RemoteOperationResult<Unit>
+        val result: RemoteOperationResult<Unit>,
+        val etag: String?,
+        val modificationTimestamp: Long
     )
 
+    /**
+     * Large files are downloaded resumably, small ones in one request.
+     */
     @Suppress("UNCHECKED_CAST")
     private fun executeDownload(client: OwnCloudClient, operationContext: Context): DownloadResult {
+        if (file.fileLength >= ResumableDownload.RESUMABLE_MIN_BYTES) {
+            val download = ResumableDownload(
+                user.accountName,
+                file.remotePath,
+                file.fileName,
+                File(tmpPath),
+                NextcloudDatabase.instance().partialDownloadDao(),
+                if (downloadType == DownloadType.DOWNLOAD) dataTransferListeners else emptySet(),
+                { cancellationRequested.get() },
+                if (file.fileLength >= ResumableDownload.PARALLEL_MIN_BYTES) maxParallelRanges else 1
+            ).run(client)
+            return DownloadResult(download.result, download.etag, download.modificationTimestamp)
+        }
+
         val operation = DownloadFileRemoteOperation(file.remotePath, tmpFolder, file.fileLength).also { op ->
             if (downloadType == DownloadType.DOWNLOAD) {
                 dataTransferListeners.forEach { op.addProgressListener(it) }
             }
         }
         val result = operation.execute(client.toNextcloudClient(operationContext)) as RemoteOperationResult<Unit>
-        return DownloadResult(operation, result)
+        return DownloadResult(result, operation.etag, operation.modificationTimestamp)
     }
 
     private data class EncryptionKeys(val key: String?, val nonce: String?, val authTag: String?)
@@ -8,6 +8,8 @@
  */
 package com.owncloud.android.operations;
 
+import android.accounts.AuthenticatorException;
+import android.accounts.OperationCanceledException;
 import android.content.Context;
 import android.content.Intent;
 
@@ -15,6 +17,7 @@ import com.google.common.collect.Maps;
 import com.google.gson.Gson;
 import com.nextcloud.android.lib.resources.directediting.DirectEditingObtainRemoteOperation;
 import com.nextcloud.client.account.User;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.common.NextcloudClient;
 import com.nextcloud.utils.ResultParser;
 import com.nextcloud.utils.e2ee.E2EVersionHelper;
@@ -28,9 +31,7 @@ import com.owncloud.android.datamodel.e2e.v2.decrypted.DecryptedFile;
 import com.owncloud.android.datamodel.e2e.v2.decrypted.DecryptedFolderMetadataFile;
 import com.owncloud.android.lib.common.DirectEditing;
 import com.owncloud.android.lib.common.OwnCloudClient;
-import com.owncloud.android.lib.common.OwnCloudClientFactory;
 import com.owncloud.android.lib.common.UserInfo;
-import com.owncloud.android.lib.common.accounts.AccountUtils;
 import com.owncloud.android.lib.common.operations.RemoteOperation;
 import com.owncloud.android.lib.common.operations.RemoteOperationResult;
 import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode;
@@ -49,6 +50,7 @@ import com.owncloud.android.utils.MimeType;
 import com.owncloud.android.utils.MimeTypeUtil;
 import com.owncloud.android.utils.theme.CapabilityUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -334,7 +336,7 @@ public class RefreshFolderOperation extends RemoteOperation {
 
     private void updateUserProfile() {
         try {
-            NextcloudClient nextcloudClient = OwnCloudClientFactory.createNextcloudClient(user, mContext);
+            NextcloudClient nextcloudClient = ClientPool.getNextcloudClient(user, mContext);
 
             RemoteOperationResult<UserInfo> result = new GetUserProfileOperation(fileDataStorageManager).execute(nextcloudClient);
             if (!result.isSuccess()) {
@@ -342,7 +344,7 @@ public class RefreshFolderOperation extends RemoteOperation {
             } else {
                 Log_OC.i(TAG, "Got display name: " + result.getResultData());
             }
-        } catch (AccountUtils.AccountNotFoundException | NullPointerException e) {
+        } catch (OperationCanceledException | AuthenticatorException | IOException | NullPointerException e) {
             Log_OC.e(this, "Error updating profile", e);
         }
     }
@@ -367,8 +369,13 @@ public class RefreshFolderOperation extends RemoteOperation {
     }
 
     private void updateDirectEditing(ArbitraryDataProvider arbitraryDataProvider, String newDirectEditingEtag) {
-        RemoteOperationResult<DirectEditing> result =
-            new DirectEditingObtainRemoteOperation().executeNextcloudClient(user, mContext);
+        RemoteOperationResult<DirectEditing> result;
+        try {
+            result = new DirectEditingObtainRemoteOperation().execute(ClientPool.getNextcloudClient(user, mContext));
+        } catch (OperationCanceledException | AuthenticatorException | IOException e) {
+            Log_OC.e(this, "Update of direct editing not possible!", e);
+            return;
+        }
 
         if (result.isSuccess()) {
             DirectEditing directEditing = result.getResultData();
@@ -387,8 +394,8 @@ public class RefreshFolderOperation extends RemoteOperation {
         NextcloudClient client;
 
         try {
-            client = OwnCloudClientFactory.createNextcloudClient(user, mContext);
-        } catch (AccountUtils.AccountNotFoundException | NullPointerException e) {
+            client = ClientPool.getNextcloudClient(user, mContext);
+        } catch (OperationCanceledException | AuthenticatorException | IOException | NullPointerException e) {
             Log_OC.e(this, "Update of predefined status not possible!");
             return;
         }
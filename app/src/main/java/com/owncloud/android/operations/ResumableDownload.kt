@@ -0,0 +1,441 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.operations
+
+import com.nextcloud.client.database.dao.PartialDownloadDao
+import com.nextcloud.client.database.entity.PartialDownloadEntity
+import com.owncloud.android.lib.common.OwnCloudClient
+import com.owncloud.android.lib.common.network.OnDatatransferProgressListener
+import com.owncloud.android.lib.common.operations.OperationCancelledException
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
+import com.owncloud.android.lib.common.utils.Log_OC
+import com.owncloud.android.utils.FileStorageUtils
+import org.apache.commons.httpclient.HttpMethodBase
+import org.apache.commons.httpclient.HttpStatus
+import org.apache.commons.httpclient.methods.GetMethod
+import org.apache.commons.httpclient.methods.HeadMethod
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.InputStream
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.time.format.DateTimeParseException
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Downloads a file with range requests, so a download interrupted before continues instead of starting over.
+ *
+ * The entity tag and length of a download are saved in the database as soon as its response headers are received,
+ * the bytes stay in its temporary file. When the download is run again, only the missing bytes are requested, with
+ * `If-Range`, so the server sends the whole file instead if it changed in between. Only downloads with a strong
+ * entity tag are resumed, as `If-Range` requires.
+ *
+ * Files of at least [PARALLEL_MIN_BYTES] can be split into up to [maxSegments] ranges, downloaded in parallel into
+ * their own files, which are joined once all of them are complete.
+ */
+@Suppress("TooManyFunctions", "LongParameterList")
+class ResumableDownload(
+    private val accountName: String,
+    private val remotePath: String,
+    private val fileName: String,
+    private val tmpFile: File,
+    private val dao: PartialDownloadDao,
+    private val listeners: Collection<OnDatatransferProgressListener>,
+    private val isCancelled: () -> Boolean,
+    private val maxSegments: Int = 1
+) {
+
+    companion object {
+        private val TAG = ResumableDownload::class.java.simpleName
+
+        /**
+         * Smaller files are downloaded by the library in one request, as they are quickly downloaded again.
+         */
+        const val RESUMABLE_MIN_BYTES = 4L * 1024 * 1024
+        const val PARALLEL_MIN_BYTES = 64L * 1024 * 1024
+        const val STALE_AFTER_MS = 7L * 24 * 60 * 60 * 1000
+
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val HEADER_RANGE = "Range"
+        private const val HEADER_IF_RANGE = "If-Range"
+        private const val HEADER_CONTENT_RANGE = "Content-Range"
+        private const val HEADER_ETAG = "ETag"
+        private const val HEADER_OC_ETAG = "OC-ETag"
+        private const val HEADER_LAST_MODIFIED = "Last-Modified"
+        private const val WEAK_ETAG_PREFIX = "W/"
+        private val CONTENT_RANGE = Regex("""bytes (\d+)-(\d+)/(\d+|\*)""")
+
+        fun parseContentRange(header: String?): ContentRange? {
+            val match = header?.trim()?.let { CONTENT_RANGE.matchEntire(it) } ?: return null
+            val (start, end, total) = match.destructured
+            return ContentRange(start.toLong(), end.toLong(), total.toLongOrNull() ?: -1)
+        }
+
+        /**
+         * Splits [totalLength] bytes into [segments] ranges of the same length, except the last one.
+         */
+        fun segmentRanges(totalLength: Long, segments: Int): List<LongRange> {
+            val length = (totalLength + segments - 1) / segments
+            return (0 until segments)
+                .map { it * length until minOf(totalLength, (it + 1) * length) }
+                .filter { !it.isEmpty() }
+        }
+
+        fun tmpFile(accountName: String, remotePath: String): File =
+            File(FileStorageUtils.getTemporalPath(accountName) + remotePath)
+
+        private fun partFile(tmpFile: File, segment: Int, segments: Int): File = if (segments == 1) {
+            tmpFile
+        } else {
+            File("${tmpFile.path}.part$segment")
+        }
+
+        private fun deleteFiles(tmpFile: File, segments: Int) {
+            tmpFile.delete()
+            if (segments > 1) {
+                (0 until segments).forEach { partFile(tmpFile, it, segments).delete() }
+            }
+        }
+
+        /**
+         * Removes the partial downloads not continued for [STALE_AFTER_MS], with their files.
+         */
+        @JvmStatic
+        fun discardStale(dao: PartialDownloadDao, now: Long) {
+            dao.getModifiedBefore(now - STALE_AFTER_MS).forEach {
+                Log_OC.d(TAG, "discarding stale partial download of ${it.remotePath}")
+                deleteFiles(tmpFile(it.accountName, it.remotePath), it.segments)
+                dao.delete(it.accountName, it.remotePath)
+            }
+        }
+    }
+
+    /**
+     * @param total length of the complete file, -1 if unknown
+     */
+    data class ContentRange(val start: Long, val end: Long, val total: Long)
+
+    /**
+     * @param etag entity tag of the downloaded file without quotes, as stored for files
+     * @param modificationTimestamp 0 if unknown
+     */
+    class Result(val result: RemoteOperationResult<Unit>, val etag: String?, val modificationTimestamp: Long)
+
+    private val lastModified = AtomicLong()
+
+    fun run(client: OwnCloudClient): Result {
+        tmpFile.parentFile?.mkdirs()
+        val state = dao.get(accountName, remotePath)?.takeIf { isValid(it) }
+        if (state == null) {
+            discard(maxOf(maxSegments, 1))
+        } else {
+            Log_OC.d(TAG, "resuming download of $remotePath in ${state.segments} ranges")
+            dao.upsert(state.copy(modifiedAt = System.currentTimeMillis()))
+        }
+
+        return when {
+            state != null && state.segments > 1 -> downloadSegments(client, state)
+            state == null && maxSegments > 1 -> startSegments(client) ?: downloadSingle(client, null)
+            else -> downloadSingle(client, state)
+        }
+    }
+
+    private fun isValid(state: PartialDownloadEntity): Boolean {
+        if (state.segments < 1 || state.totalLength <= 0) {
+            return false
+        }
+        val ranges = segmentRanges(state.totalLength, state.segments)
+        return ranges.size == state.segments &&
+            ranges.withIndex().all { (index, range) ->
+                partFile(tmpFile, index, state.segments).length() <= range.last - range.first + 1
+            }
+    }
+
+    private fun discard(segments: Int) {
+        dao.delete(accountName, remotePath)
+        deleteFiles(tmpFile, segments)
+    }
+
+    @Suppress("ReturnCount", "LongMethod")
+    private fun downloadSingle(client: OwnCloudClient, state: PartialDownloadEntity?): Result {
+        val offset = if (state != null) tmpFile.length() else 0L
+        val get = GetMethod(client.getFilesDavUri(remotePath))
+        if (state != null && offset > 0) {
+            get.setRequestHeader(HEADER_RANGE, "bytes=$offset-")
+            get.setRequestHeader(HEADER_IF_RANGE, state.etag)
+        }
+
+        try {
+            val status = client.executeMethod(get)
+            val append: Boolean
+            val totalLength: Long
+            when (status) {
+                HttpStatus.SC_PARTIAL_CONTENT -> {
+                    val range = parseContentRange(get.getResponseHeader(HEADER_CONTENT_RANGE)?.value)
+                    if (state == null || range == null || range.start != offset) {
+                        Log_OC.w(TAG, "unexpected range for $remotePath, downloading it again")
+                        get.abort()
+                        discard(1)
+                        return downloadSingle(client, null)
+                    }
+                    append = true
+                    totalLength = state.totalLength
+                }
+
+                HttpStatus.SC_OK -> {
+                    if (state != null) {
+                        Log_OC.d(TAG, "$remotePath changed on the server, downloading it again")
+                    }
+                    append = false
+                    totalLength = get.responseContentLength
+                    saveState(get, totalLength, 1)
+                }
+
+                HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE if state != null -> {
+                    client.exhaustResponse(get.responseBodyAsStream)
+                    return if (offset == state.totalLength) {
+                        complete(1, state.etag)
+                    } else {
+                        discard(1)
+                        downloadSingle(client, null)
+                    }
+                }
+
+                else -> {
+                    client.exhaustResponse(get.responseBodyAsStream)
+                    return Result(RemoteOperationResult(false, get), null, 0)
+                }
+            }
+
+            recordLastModified(get)
+            val transferred = AtomicLong(if (append) offset else 0)
+            if (!copy(get.responseBodyAsStream, tmpFile, append, transferred, totalLength) { isCancelled() }) {
+                get.abort()
+                return Result(RemoteOperationResult(OperationCancelledException()), null, 0)
+            }
+            if (totalLength >= 0 && tmpFile.length() != totalLength) {
+                Log_OC.w(TAG, "download of $remotePath ended after ${tmpFile.length()} of $totalLength bytes")
+                return Result(RemoteOperationResult(ResultCode.UNKNOWN_ERROR), null, 0)
+            }
+
+            val etag = fileEtag(get) ?: state?.etag
+            dao.delete(accountName, remotePath)
+            return Result(RemoteOperationResult(true, get), etag?.replace("\"", ""), lastModified.get())
+        } catch (e: IOException) {
+            Log_OC.w(TAG, "download of $remotePath interrupted after ${tmpFile.length()} bytes: ${e.message}")
+            return Result(RemoteOperationResult(e), null, 0)
+        } finally {
+            get.releaseConnection()
+        }
+    }
+
+    /**
+     * @return null if the file cannot be downloaded in ranges
+     */
+    private fun startSegments(client: OwnCloudClient): Result? {
+        val head = HeadMethod(client.getFilesDavUri(remotePath))
+        try {
+            if (client.executeMethod(head) != HttpStatus.SC_OK) {
+                return null
+            }
+            val totalLength = head.responseContentLength
+            if (totalLength < PARALLEL_MIN_BYTES) {
+                return null
+            }
+            val state = saveState(head, totalLength, maxSegments) ?: return null
+            return downloadSegments(client, state)
+        } catch (e: IOException) {
+            Log_OC.w(TAG, "could not request headers of $remotePath: ${e.message}")
+            return null
+        } finally {
+            head.releaseConnection()
+        }
+    }
+
+    private fun downloadSegments(client: OwnCloudClient, state: PartialDownloadEntity): Result {
+        val ranges = segmentRanges(state.totalLength, state.segments)
+        val transferred = AtomicLong(
+            ranges.indices.sumOf { partFile(tmpFile, it, state.segments).length() }
+        )
+        val failed = AtomicBoolean()
+
+        // own threads, shared executors may be busy with the downloads waiting for these ranges
+        val executor = Executors.newFixedThreadPool(ranges.size - 1)
+        val results = try {
+            val futures = ranges.withIndex().drop(1).map { (index, range) ->
+                executor.submit(Callable { downloadRange(client, state, index, range, transferred, failed) })
+            }
+            val first = downloadRange(client, state, 0, ranges.first(), transferred, failed)
+            listOf(first) + futures.map { it.get() }
+        } catch (e: ExecutionException) {
+            listOf(RemoteOperationResult<Unit>(e.cause as? Exception ?: e))
+        } finally {
+            executor.shutdownNow()
+        }
+
+        results.firstOrNull { it.code == ResultCode.ETAG_CHANGED }?.let {
+            Log_OC.d(TAG, "$remotePath changed on the server, downloading it again")
+            discard(state.segments)
+            return downloadSingle(client, null)
+        }
+        results.firstOrNull { !it.isSuccess }?.let {
+            return Result(it, null, 0)
+        }
+
+        return try {
+            join(state.segments)
+            complete(state.segments, state.etag)
+        } catch (e: IOException) {
+            Log_OC.e(TAG, "could not join ranges of $remotePath", e)
+            discard(state.segments)
+            Result(RemoteOperationResult(e), null, 0)
+        }
+    }
+
+    @Suppress("ReturnCount", "LongParameterList")
+    private fun downloadRange(
+        client: OwnCloudClient,
+        state: PartialDownloadEntity,
+        index: Int,
+        range: LongRange,
+        transferred: AtomicLong,
+        failed: AtomicBoolean
+    ): RemoteOperationResult<Unit> {
+        val part = partFile(tmpFile, index, state.segments)
+        val offset = range.first + part.length()
+        if (offset > range.last) {
+            return RemoteOperationResult(ResultCode.OK)
+        }
+        if (failed.get()) {
+            return RemoteOperationResult(OperationCancelledException())
+        }
+
+        val get = GetMethod(client.getFilesDavUri(remotePath))
+        get.setRequestHeader(HEADER_RANGE, "bytes=$offset-${range.last}")
+        get.setRequestHeader(HEADER_IF_RANGE, state.etag)
+        try {
+            val status = client.executeMethod(get)
+            if (status == HttpStatus.SC_OK) {
+                // the other ranges are of the old file, stop them as well
+                failed.set(true)
+                get.abort()
+                return RemoteOperationResult(ResultCode.ETAG_CHANGED)
+            }
+            val contentRange = parseContentRange(get.getResponseHeader(HEADER_CONTENT_RANGE)?.value)
+            if (status != HttpStatus.SC_PARTIAL_CONTENT || contentRange?.start != offset) {
+                client.exhaustResponse(get.responseBodyAsStream)
+                failed.set(true)
+                return RemoteOperationResult(false, get)
+            }
+
+            recordLastModified(get)
+            val copied = copy(get.responseBodyAsStream, part, true, transferred, state.totalLength) {
+                isCancelled() || failed.get()
+            }
+            if (!copied) {
+                get.abort()
+                return RemoteOperationResult(OperationCancelledException())
+            }
+            if (part.length() != range.last - range.first + 1) {
+                failed.set(true)
+                return RemoteOperationResult(ResultCode.UNKNOWN_ERROR)
+            }
+            return RemoteOperationResult(ResultCode.OK)
+        } catch (e: IOException) {
+            failed.set(true)
+            return RemoteOperationResult(e)
+        } finally {
+            get.releaseConnection()
+        }
+    }
+
+    private fun join(segments: Int) {
+        FileOutputStream(tmpFile).use { output ->
+            (0 until segments).forEach { index ->
+                partFile(tmpFile, index, segments).inputStream().use { it.copyTo(output, BUFFER_SIZE) }
+            }
+        }
+        (0 until segments).forEach { partFile(tmpFile, it, segments).delete() }
+    }
+
+    private fun complete(segments: Int, etag: String): Result {
+        dao.delete(accountName, remotePath)
+        if (segments > 1) {
+            (0 until segments).forEach { partFile(tmpFile, it, segments).delete() }
+        }
+        return Result(RemoteOperationResult(ResultCode.OK), etag.replace("\"", ""), lastModified.get())
+    }
+
+    /**
+     * @return saved state, null if the download cannot be resumed
+     */
+    private fun saveState(method: HttpMethodBase, totalLength: Long, segments: Int): PartialDownloadEntity? {
+        val etag = method.getResponseHeader(HEADER_ETAG)?.value
+        if (etag.isNullOrEmpty() || etag.startsWith(WEAK_ETAG_PREFIX) || totalLength <= 0) {
+            dao.delete(accountName, remotePath)
+            return null
+        }
+        val state = PartialDownloadEntity(
+            accountName,
+            remotePath,
+            etag,
+            totalLength,
+            segments,
+            System.currentTimeMillis()
+        )
+        dao.upsert(state)
+        return state
+    }
+
+    private fun fileEtag(method: HttpMethodBase): String? =
+        (method.getResponseHeader(HEADER_OC_ETAG) ?: method.getResponseHeader(HEADER_ETAG))?.value
+
+    private fun recordLastModified(method: HttpMethodBase) {
+        val header = method.getResponseHeader(HEADER_LAST_MODIFIED)?.value ?: return
+        try {
+            lastModified.set(
+                ZonedDateTime.parse(header, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+            )
+        } catch (e: DateTimeParseException) {
+            Log_OC.w(TAG, "could not parse last modification date $header: ${e.message}")
+        }
+    }
+
+    /**
+     * @return false if stopped before the end of the stream
+     */
+    private fun copy(
+        input: InputStream,
+        target: File,
+        append: Boolean,
+        transferred: AtomicLong,
+        totalLength: Long,
+        stop: () -> Boolean
+    ): Boolean {
+        FileOutputStream(target, append).use { output ->
+            val buffer = ByteArray(BUFFER_SIZE)
+            while (true) {
+                if (stop()) {
+                    return false
+                }
+                val read = input.read(buffer)
+                if (read == -1) {
+                    return true
+                }
+                output.write(buffer, 0, read)
+                val soFar = transferred.addAndGet(read.toLong())
+                listeners.forEach { it.onTransferProgress(read.toLong(), soFar, totalLength, fileName) }
+            }
+        }
+    }
+}
@@ -29,8 +29,10 @@ import android.provider.DocumentsProvider;
 
 import com.nextcloud.client.account.User;
 import com.nextcloud.client.account.UserAccountManager;
+import com.nextcloud.client.core.Lanes;
 import com.nextcloud.client.jobs.upload.FileUploadHelper;
 import com.nextcloud.client.jobs.upload.FileUploadWorker;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.client.preferences.AppPreferences;
 import com.nextcloud.client.preferences.AppPreferencesImpl;
 import com.nextcloud.client.utils.HashUtil;
@@ -45,7 +47,6 @@ import com.owncloud.android.datamodel.ThumbnailsCacheManager;
 import com.owncloud.android.files.services.NameCollisionPolicy;
 import com.owncloud.android.lib.common.OwnCloudAccount;
 import com.owncloud.android.lib.common.OwnCloudClient;
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory;
 import com.owncloud.android.lib.common.operations.RemoteOperationResult;
 import com.owncloud.android.lib.common.utils.Log_OC;
 import com.owncloud.android.lib.resources.files.CheckEtagRemoteOperation;
@@ -77,7 +78,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -107,7 +109,7 @@ public class DocumentsStorageProvider extends DocumentsProvider {
     private static final int DOCUMENTID_PARTS = 2;
     private final Map<String, FileDataStorageManager> rootIdToStorageManager = new HashMap<>();
 
-    private final Executor executor = Executors.newCachedThreadPool();
+    private final Executor executor = Lanes.executor(Lanes.Lane.DOCUMENTS_PROVIDER, Lanes.Priority.USER_VISIBLE);
 
     @Override
     public Cursor queryRoots(String[] projection) {
@@ -244,10 +246,11 @@ public class DocumentsStorageProvider extends DocumentsProvider {
                     Log_OC.w(TAG, "Conflict found!");
                 } else {
                     // dirty threading workaround for client apps which call openDocument on the main thread,
-                    // thus causing a NetworkOnMainThreadException. The download runs on a fresh (non-binder) thread,
-                    // which already carries the app's own identity, so no extra clearCallingIdentity() is needed there.
+                    // thus causing a NetworkOnMainThreadException. The download runs on a lane (non-binder) thread of
+                    // its own, which already carries the app's own identity, so no extra clearCallingIdentity() is
+                    // needed there. The binder thread blocks until it is done, so it must not queue behind other work.
                     final AtomicBoolean downloadResult = new AtomicBoolean(false);
-                    final Thread downloadThread = new Thread(() -> {
+                    final Future<?> download = Lanes.submit(Lanes.Lane.DOCUMENTS_PROVIDER, () -> {
                         var downloadFileOperation = new DownloadFileOperation(user, ocFile, context);
                         final var result = downloadFileOperation.execute(document.getClient());
                         if (!result.isSuccess()) {
@@ -262,15 +265,14 @@ public class DocumentsStorageProvider extends DocumentsProvider {
                             saveDownloadedFile(document.getStorageManager(), downloadFileOperation, ocFile);
                             downloadResult.set(true);
                         }
-                    });
-                    downloadThread.start();
+                    }, Lanes.Priority.USER_VISIBLE);
 
                     try {
-                        downloadThread.join();
+                        download.get();
                         if (!downloadResult.get()) {
                             throw new FileNotFoundException("Error downloading file: " + ocFile.getFileName());
                         }
-                    } catch (InterruptedException e) {
+                    } catch (InterruptedException | ExecutionException e) {
                         throw new FileNotFoundException("Error downloading file: " + ocFile.getFileName());
                     }
                 }
@@ -987,7 +989,7 @@ public class DocumentsStorageProvider extends DocumentsProvider {
             try {
 
                 OwnCloudAccount ocAccount = getUser().toOwnCloudAccount();
-                return OwnCloudClientManagerFactory.getDefaultSingleton().getClientFor(ocAccount, getContext());
+                return ClientPool.getOwnCloudClient(ocAccount, getContext());
             } catch (OperationCanceledException | IOException | AuthenticatorException e) {
                 Log_OC.e(TAG, "Failed to set client", e);
             }
@@ -104,6 +104,7 @@ public class FileContentProvider extends ContentProvider {
         } finally {
             db.endTransaction();
         }
+        notifyRoomObservers();
         mContext.getContentResolver().notifyChange(uri, null);
         return count;
     }
@@ -217,6 +218,7 @@ public class FileContentProvider extends ContentProvider {
         } finally {
             db.endTransaction();
         }
+        notifyRoomObservers();
         mContext.getContentResolver().notifyChange(newUri, null);
         return newUri;
     }
@@ -564,6 +566,7 @@ public class FileContentProvider extends ContentProvider {
         } finally {
             db.endTransaction();
         }
+        notifyRoomObservers();
         mContext.getContentResolver().notifyChange(uri, null);
         return count;
     }
@@ -619,6 +622,14 @@ public class FileContentProvider extends ContentProvider {
         return results;
     }
 
+    /**
+     * Writes through {@link #mDbHelper} bypass Room, so its invalidation tracker has to be told about them for Room
+     * observers, like the folder listing of {@link com.owncloud.android.ui.adapter.OCFileListAdapter}, to see them.
+     */
+    private void notifyRoomObservers() {
+        database.getInvalidationTracker().refreshAsync();
+    }
+
     private boolean isCallerNotAllowed(Uri uri) {
         return switch (mUriMatcher.match(uri)) {
             case SHARES, CAPABILITIES, UPLOADS, SYNCED_FOLDERS, EXTERNAL_LINKS, VIRTUAL, FILESYSTEM -> {
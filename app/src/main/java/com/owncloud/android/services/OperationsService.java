@@ -29,6 +29,7 @@ import android.util.Pair;
 
 import com.nextcloud.client.account.User;
 import com.nextcloud.client.account.UserAccountManager;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.common.NextcloudClient;
 import com.nextcloud.utils.extensions.IntentExtensionsKt;
 import com.owncloud.android.MainApp;
@@ -435,8 +436,7 @@ public class OperationsService extends Service {
                         } else {
                             ocAccount = new OwnCloudAccount(mLastTarget.mServerUrl, null);
                         }
-                        mOwnCloudClient = OwnCloudClientManagerFactory.getDefaultSingleton().
-                            getClientFor(ocAccount, mService);
+                        mOwnCloudClient = ClientPool.getOwnCloudClient(ocAccount, mService);
                     }
 
                     // perform the operation
@@ -454,8 +454,8 @@ public class OperationsService extends Service {
                             throw e;
                         }
 
-                        NextcloudClient nextcloudClient = OwnCloudClientManagerFactory.getDefaultSingleton()
-                            .getNextcloudClientFor(ocAccount, mService.getBaseContext());
+                        NextcloudClient nextcloudClient =
+                            ClientPool.getNextcloudClient(ocAccount, mService.getBaseContext());
                         result = mCurrentOperation.run(nextcloudClient);
                     }
                 } catch (AccountsException | IOException e) {
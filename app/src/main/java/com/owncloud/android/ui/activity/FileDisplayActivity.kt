@@ -1621,6 +1621,11 @@ class FileDisplayActivity :
             return
         }
 
+        // an observed folder already picked up the synced rows from the database
+        if (ocFileListFragment.updateObservedDirectory(currentDir)) {
+            return
+        }
+
         ocFileListFragment.listDirectory(currentDir, MainApp.isOnlyOnDevice())
     }
 
@@ -34,6 +34,7 @@ import com.owncloud.android.R
 import com.owncloud.android.databinding.UploadListLayoutBinding
 import com.owncloud.android.datamodel.OCFile
 import com.owncloud.android.datamodel.SyncedFolderProvider
+import com.owncloud.android.datamodel.UploadChangeNotifier
 import com.owncloud.android.datamodel.UploadsStorageManager
 import com.owncloud.android.db.OCUpload
 import com.owncloud.android.lib.common.operations.RemoteOperation
@@ -86,6 +87,14 @@ class UploadListActivity :
     private lateinit var adapterActionHandler: UploadListAdapterAction
     private lateinit var adapterHelper: UploadListAdapterHelper
 
+    private val uploadChangeListener = UploadChangeNotifier.Listener { changes ->
+        if (changes.all || changes.uploadIds.size > MAX_REFRESHED_ROWS) {
+            reloadItems()
+        } else {
+            uploadListAdapter.refreshUploadItems(changes.uploadIds) { reloadItems() }
+        }
+    }
+
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
 
@@ -172,6 +181,10 @@ class UploadListActivity :
         uploadListAdapter.loadUploadItemsFromDb { swipeListRefreshLayout?.isRefreshing = false }
     }
 
+    private fun reloadItems() {
+        throttler.run("update_upload_list") { uploadListAdapter.loadUploadItemsFromDb() }
+    }
+
     private fun refresh() {
         FileUploadHelper.instance().retryFailedUploads(
             uploadsStorageManager,
@@ -191,9 +204,10 @@ class UploadListActivity :
         val intentFilter = IntentFilter().apply {
             addAction(FileUploadEventBroadcaster.ACTION_UPLOAD_ENQUEUED)
             addAction(FileUploadEventBroadcaster.ACTION_UPLOAD_STARTED)
-            addAction(FileUploadEventBroadcaster.ACTION_UPLOAD_COMPLETED)
         }
         uploadFinishReceiver?.let { localBroadcastManager.registerReceiver(it, intentFilter) }
+        // status changes, including completed uploads, are written to the database and reported by the notifier
+        UploadChangeNotifier.addListener(uploadChangeListener)
 
         Log_OC.v(TAG, "onStart() end")
     }
@@ -204,6 +218,7 @@ class UploadListActivity :
             uploadFinishReceiver?.let { localBroadcastManager.unregisterReceiver(it) }
             uploadFinishReceiver = null
         }
+        UploadChangeNotifier.removeListener(uploadChangeListener)
         super.onStop()
         Log_OC.v(TAG, "onStop() end")
     }
@@ -380,7 +395,13 @@ class UploadListActivity :
 
     private inner class UploadFinishReceiver : BroadcastReceiver() {
         override fun onReceive(context: Context?, intent: Intent?) {
-            throttler.run("update_upload_list") { uploadListAdapter.loadUploadItemsFromDb() }
+            val uploadId = intent?.getLongExtra(FileUploadEventBroadcaster.EXTRA_UPLOAD_ID, -1L) ?: -1L
+            if (uploadId < 0) {
+                reloadItems()
+            } else {
+                // a started upload keeps its section, so only its row is updated
+                uploadListAdapter.refreshUploadItems(listOf(uploadId)) { reloadItems() }
+            }
         }
     }
 
@@ -391,6 +412,7 @@ class UploadListActivity :
 
     companion object {
         private val TAG: String = UploadListActivity::class.java.getSimpleName()
+        private const val MAX_REFRESHED_ROWS = 50
 
         fun createIntent(file: OCFile?, user: User?, flag: Int, context: Context): Intent =
             Intent(context, UploadListActivity::class.java).apply {
@@ -13,6 +13,8 @@
  */
 package com.owncloud.android.ui.activity;
 
+import android.accounts.AuthenticatorException;
+import android.accounts.OperationCanceledException;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.os.Bundle;
@@ -30,6 +32,7 @@ import com.bumptech.glide.request.transition.Transition;
 import com.nextcloud.client.account.User;
 import com.nextcloud.client.account.UserAccountManager;
 import com.nextcloud.client.di.Injectable;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.client.preferences.AppPreferences;
 import com.nextcloud.common.NextcloudClient;
 import com.nextcloud.utils.GlideHelper;
@@ -37,9 +40,7 @@ import com.nextcloud.utils.extensions.BundleExtensionsKt;
 import com.owncloud.android.R;
 import com.owncloud.android.databinding.UserInfoLayoutBinding;
 import com.owncloud.android.lib.common.OwnCloudAccount;
-import com.owncloud.android.lib.common.OwnCloudClientFactory;
 import com.owncloud.android.lib.common.UserInfo;
-import com.owncloud.android.lib.common.accounts.AccountUtils;
 import com.owncloud.android.lib.common.operations.RemoteOperationResult;
 import com.owncloud.android.lib.common.utils.Log_OC;
 import com.owncloud.android.lib.resources.users.GetUserInfoRemoteOperation;
@@ -52,6 +53,7 @@ import com.owncloud.android.utils.PushUtils;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -341,9 +343,8 @@ public class UserInfoActivity extends DrawerActivity implements Injectable {
             NextcloudClient nextcloudClient;
 
             try {
-                nextcloudClient = OwnCloudClientFactory.createNextcloudClient(user,
-                                                                              this);
-            } catch (AccountUtils.AccountNotFoundException e) {
+                nextcloudClient = ClientPool.getNextcloudClient(user, this);
+            } catch (OperationCanceledException | AuthenticatorException | IOException e) {
                 Log_OC.e(this, "Error retrieving user info", e);
                 return;
             }
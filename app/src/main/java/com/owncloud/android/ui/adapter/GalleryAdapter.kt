@@ -107,9 +107,12 @@ class GalleryAdapter(
     private fun rebuildFilePositionMap() {
         filePositionMap.clear()
         rowIdMap.clear()
+        indexSections(0)
+    }
 
-        files.forEachIndexed { sectionIndex, galleryItem ->
-            galleryItem.rows.forEachIndexed { rowIndex, row ->
+    private fun indexSections(fromSection: Int) {
+        for (sectionIndex in fromSection until files.size) {
+            files[sectionIndex].rows.forEachIndexed { rowIndex, row ->
                 val position = sectionIndex to rowIndex
 
                 // since row can contain files two to five use first files id as adapter id
@@ -210,6 +213,40 @@ class GalleryAdapter(
         notifyDataSetChanged()
     }
 
+    /**
+     * Replaces the list with [items], which must be the current list with older files appended through
+     * [com.nextcloud.utils.extensions.appendGalleryItems]. Only the last existing section is re-indexed and the
+     * change is dispatched as a range insert, instead of rebinding every row.
+     */
+    fun appendList(items: List<GalleryItems>) {
+        val lastSection = files.lastIndex
+        if (lastSection < 0 || items.size < files.size) {
+            updateList(items)
+            return
+        }
+
+        val oldItemCount = itemCount
+        val oldLastRowIndex = files[lastSection].rows.lastIndex
+        val oldLastRow = files[lastSection].rows.getOrNull(oldLastRowIndex)
+        val oldLastSectionFilesCount = files[lastSection].rows.sumOf { it.files.size }
+
+        _files = items
+        cachedAllFiles = null
+        cachedFilesCount += items.drop(lastSection).sumOf { section -> section.rows.sumOf { it.files.size } } -
+            oldLastSectionFilesCount
+        indexSections(lastSection)
+
+        val newLastRowOfOldSection = items[lastSection].rows.getOrNull(oldLastRowIndex)
+        if (oldLastRow != null && newLastRowOfOldSection != oldLastRow) {
+            notifyItemChanged(getAbsolutePosition(lastSection, oldLastRowIndex))
+        }
+
+        val insertedCount = itemCount - oldItemCount
+        if (insertedCount > 0) {
+            notifyItemRangeInserted(oldItemCount, insertedCount)
+        }
+    }
+
     @SuppressLint("NotifyDataSetChanged")
     fun clear() {
         files = emptyList()
@@ -59,6 +59,7 @@ import com.owncloud.android.ui.activity.DrawerActivity;
 import com.owncloud.android.ui.activity.FileDisplayActivity;
 import com.owncloud.android.ui.adapter.helper.OCFileListAdapterDataProvider;
 import com.owncloud.android.ui.adapter.helper.OCFileListAdapterHelper;
+import com.owncloud.android.ui.adapter.helper.OCFileListDiffCallback;
 import com.owncloud.android.ui.fragment.OCFileListFragment;
 import com.owncloud.android.ui.fragment.SearchType;
 import com.owncloud.android.ui.interfaces.OCFileListFragmentInterface;
@@ -85,7 +86,9 @@ import java.util.stream.IntStream;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 import kotlin.Pair;
 import kotlin.Unit;
@@ -256,6 +259,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             }
         }
 
+        helper.cancelDiff();
         FileSortOrder sortOrder = preferences.getSortOrderByFolder(currentDirectory);
         if (searchType == SearchType.SHARED_FILTER) {
             mFiles.sort((o1, o2) -> Long.compare(o2.getFirstShareTimestamp(), o1.getFirstShareTimestamp()));
@@ -822,7 +826,8 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     /**
-     * Change the adapted directory for a new one
+     * Change the adapted directory for a new one. The content of the directory stays observed afterwards, so later
+     * database changes of its files update the list without another call.
      *
      * @param directory             New folder to adapt. Can be NULL, meaning "no content to adapt".
      * @param updatedStorageManager Optional updated storage manager; used to replace
@@ -854,7 +859,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             return;
         }
 
-        helper.prepareFileList(directory,
+        helper.observeFileList(directory,
                                adapterDataProvider,
                                onlyOnDevice,
                                limitToMimeType,
@@ -867,25 +872,111 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         });
     }
 
+    /**
+     * Replaces the adapted files. Within the same directory the change is diffed off the main thread by
+     * {@link OCFileListAdapterHelper#calculateDiff}, so only rows that actually changed are rebound; a new
+     * directory, or an empty old or new list, is applied at once.
+     */
     public void updateAdapter(List<OCFile> newFiles, OCFile directory) {
         Log_OC.d(TAG, "updating the adapter");
 
-        mFiles.clear();
-        mFiles.addAll(newFiles);
-
-        mFilesAll.clear();
-        mFilesAll.addAll(mFiles);
-
+        final boolean sameDirectory = directory == null || currentDirectory == null ||
+            directory.getFileId() == currentDirectory.getFileId();
         if (directory != null) {
             currentDirectory = directory;
         }
 
         searchType = null;
 
-        activity.runOnUiThread(this::notifyDataSetChanged);
+        if (!sameDirectory || mFiles.isEmpty() || newFiles.isEmpty()) {
+            helper.cancelDiff();
+            replaceFiles(newFiles);
+            activity.runOnUiThread(this::notifyDataSetChanged);
+            return;
+        }
+
+        final List<OCFile> oldSnapshot = new ArrayList<>(mFiles);
+        final List<OCFile> newSnapshot = new ArrayList<>(newFiles);
+        final boolean hadHeader = shouldShowHeader();
+
+        helper.calculateDiff(oldSnapshot, newSnapshot, (generation, diffResult) -> {
+            applyDiff(generation, oldSnapshot, newSnapshot, hadHeader, diffResult);
+            return Unit.INSTANCE;
+        });
+    }
+
+    @SuppressLint("NotifyDataSetChanged")
+    private void applyDiff(long generation,
+                           List<OCFile> oldSnapshot,
+                           List<OCFile> newSnapshot,
+                           boolean hadHeader,
+                           DiffUtil.DiffResult diffResult) {
+        // the files were replaced, reordered or another list shown since this diff was requested
+        if (!helper.isCurrentDiff(generation)) {
+            Log_OC.d(TAG, "dropping outdated file list diff");
+            return;
+        }
+
+        // the list was changed in place (sort, insert, remove) while diffing, positions would not match anymore
+        final boolean listChanged = !isSameSnapshot(oldSnapshot, mFiles);
+        replaceFiles(newSnapshot);
+
+        if (listChanged || hadHeader != shouldShowHeader()) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        final int headerOffset = hadHeader ? 1 : 0;
+        diffResult.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position + headerOffset, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                notifyItemRangeRemoved(position + headerOffset, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                notifyItemMoved(fromPosition + headerOffset, toPosition + headerOffset);
+            }
+
+            @Override
+            public void onChanged(int position, int count, @Nullable Object payload) {
+                notifyItemRangeChanged(position + headerOffset, count, payload);
+            }
+        });
+
+        // footer shows the file and folder counts
+        notifyItemChanged(getItemCount() - 1);
+    }
+
+    private static boolean isSameSnapshot(List<OCFile> snapshot, List<OCFile> files) {
+        if (snapshot.size() != files.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.get(i) != files.get(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void replaceFiles(List<OCFile> newFiles) {
+        mFiles.clear();
+        mFiles.addAll(newFiles);
+
+        mFilesAll.clear();
+        mFilesAll.addAll(mFiles);
     }
 
     public void prepareForSearchData(FileDataStorageManager storageManager, SearchType searchType) {
+        helper.stopObserving();
         initStorageManagerShowShareAvatar(storageManager);
         clearSearchData(searchType);
     }
@@ -918,6 +1009,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     public void setSortOrder(FileSortOrder newSortOrder) {
+        helper.cancelDiff();
         sortOrder = newSortOrder;
     }
 
@@ -931,6 +1023,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
         boolean foldersBeforeFiles = preferences.isSortFoldersBeforeFiles();
         boolean favoritesFirst = preferences.isSortFavoritesFirst();
+        helper.cancelDiff();
         mFiles = sortOrder.sortCloudFiles(mFiles, foldersBeforeFiles, favoritesFirst);
         notifyDataSetChanged();
 
@@ -950,6 +1043,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     public void setFiles(List<OCFile> files) {
+        helper.cancelDiff();
         mFiles = files;
     }
 
@@ -1071,7 +1165,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         currentDirectory = folder;
     }
 
-    // payload only for local file indicator
+    // payloads only for local file indicator and sync state
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
         if (!payloads.isEmpty() && payloads.get(0) instanceof Integer iconId && holder instanceof ListViewHolder listViewHolder) {
@@ -1080,6 +1174,16 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             // skip full rebind
             return;
         }
+
+        if (!payloads.isEmpty() && payloads.stream().allMatch(OCFileListDiffCallback.PAYLOAD_SYNC_STATE::equals) &&
+            holder instanceof ListViewHolder listViewHolder) {
+            OCFile file = getItem(position);
+            if (file != null) {
+                // keep the thumbnail, refresh indicators and the click listeners bound to the old file instance
+                ocFileListDelegate.bindSyncState(listViewHolder, file);
+                return;
+            }
+        }
         super.onBindViewHolder(holder, position, payloads);
     }
 
@@ -1092,6 +1196,13 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         }
     }
 
+    /**
+     * @return true if changes of the files in the folder with the given id already reach this adapter by themselves
+     */
+    public boolean isObservingFolder(long folderId) {
+        return helper.isObservingFolder(folderId);
+    }
+
     public void cleanup() {
         ocFileListDelegate.cleanup();
         helper.cleanup();
@@ -1099,6 +1210,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
     @SuppressLint("NotifyDataSetChanged")
     public void removeAllFiles() {
+        helper.stopObserving();
         mFiles.clear();
         mFilesAll.clear();
         notifyDataSetChanged();
@@ -1133,6 +1245,7 @@ public class OCFileListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             .orElse(-1);
         if (oldIndex == -1) return;
 
+        helper.cancelDiff();
         mFiles.remove(oldIndex);
         mFiles.add(updatedFile);
 
@@ -247,6 +247,14 @@ class OCFileListDelegate(
         }
     }
 
+    /**
+     * Rebinds only what depends on the local and sync state of [file], leaving the thumbnail untouched.
+     */
+    fun bindSyncState(viewHolder: ListViewHolder, file: OCFile) {
+        bindGridItemLayout(file, viewHolder)
+        bindGridMetadataViews(file, viewHolder)
+    }
+
     private fun bindUnreadComments(file: OCFile, gridViewHolder: ListViewHolder) {
         if (file.unreadCommentsCount > 0) {
             gridViewHolder.unreadComments.visibility = View.VISIBLE
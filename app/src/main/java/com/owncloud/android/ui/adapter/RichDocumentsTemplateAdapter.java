@@ -16,11 +16,11 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import com.nextcloud.client.account.CurrentAccountProvider;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.utils.GlideHelper;
 import com.owncloud.android.R;
 import com.owncloud.android.databinding.TemplateButtonBinding;
 import com.owncloud.android.datamodel.Template;
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory;
 import com.owncloud.android.lib.common.utils.Log_OC;
 import com.owncloud.android.ui.dialog.ChooseRichDocumentsTemplateDialogFragment;
 import com.owncloud.android.utils.NextcloudServer;
@@ -28,7 +28,6 @@ import com.owncloud.android.utils.theme.ViewThemeUtils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
@@ -126,7 +125,7 @@ public class RichDocumentsTemplateAdapter extends RecyclerView.Adapter<RichDocum
 
             new Thread(() -> {{
                 try {
-                    final var client = OwnCloudClientManagerFactory.getDefaultSingleton().getNextcloudClientFor(currentAccount.getUser().toOwnCloudAccount(), context);
+                    final var client = ClientPool.getNextcloudClient(currentAccount.getUser(), context);
                     handler.post(() -> GlideHelper.INSTANCE.loadIntoImageView(context, client, template.getThumbnailLink(), binding.template, placeholder, false));
                 } catch (Exception e) {
                     Log_OC.e("RichDocumentsTemplateAdapter", "Exception setData: " + e);
@@ -23,6 +23,7 @@ import com.afollestad.sectionedrecyclerview.SectionedViewHolder
 import com.google.android.material.button.MaterialButton
 import com.nextcloud.android.common.ui.theme.utils.ColorRole
 import com.nextcloud.client.core.Clock
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.device.PowerManagementService
 import com.nextcloud.client.network.ConnectivityService
 import com.nextcloud.utils.extensions.calculateScanInterval
@@ -47,7 +48,6 @@ import kotlinx.coroutines.withContext
 import java.io.File
 import java.util.Locale
 import java.util.concurrent.Executor
-import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 
 /**
@@ -70,7 +70,7 @@ class SyncedFolderAdapter(
     private val syncFolderItems: MutableList<SyncedFolderDisplayItem> = ArrayList()
     private val filteredSyncFolderItems: MutableList<SyncedFolderDisplayItem> = ArrayList()
     private var hideItems = true
-    private val thumbnailThreadPool: Executor = Executors.newCachedThreadPool()
+    private val thumbnailThreadPool: Executor = Lanes.executor(Lanes.Lane.CPU_DECODE, Lanes.Priority.USER_VISIBLE)
 
     private val minimumSizeForTouchableArea
         by lazy { context.resources.getDimensionPixelSize(R.dimen.minimum_size_for_touchable_area) }
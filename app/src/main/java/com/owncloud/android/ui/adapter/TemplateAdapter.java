@@ -18,9 +18,9 @@ import android.view.ViewGroup;
 
 import com.nextcloud.client.account.CurrentAccountProvider;
 import com.nextcloud.client.network.ClientFactory;
+import com.nextcloud.client.network.ClientPool;
 import com.nextcloud.utils.GlideHelper;
 import com.owncloud.android.databinding.TemplateButtonBinding;
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory;
 import com.owncloud.android.lib.common.Template;
 import com.owncloud.android.lib.common.TemplateList;
 import com.owncloud.android.lib.common.utils.Log_OC;
@@ -28,7 +28,6 @@ import com.owncloud.android.utils.MimeTypeUtil;
 import com.owncloud.android.utils.theme.ViewThemeUtils;
 
 import java.util.ArrayList;
-import java.util.Optional;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
@@ -123,7 +122,7 @@ public class TemplateAdapter extends RecyclerView.Adapter<TemplateAdapter.ViewHo
             int placeholder = MimeTypeUtil.getFileTypeIconId(mimetype, template.getTitle());
             new Thread(() -> {{
                 try {
-                    final var client = OwnCloudClientManagerFactory.getDefaultSingleton().getNextcloudClientFor(Optional.of(currentAccountProvider.getUser().toOwnCloudAccount()).get(), context);
+                    final var client = ClientPool.getNextcloudClient(currentAccountProvider.getUser(), context);
                     GlideHelper.INSTANCE.loadIntoImageView(context, client, template.getPreview(), binding.template, placeholder, false);
                 } catch (Exception e) {
                     Log_OC.e("TemplateAdapter", "Exception setData: " + e);
@@ -56,6 +56,7 @@ class UnifiedSearchListAdapter(
     }
 
     private var currentDirItems: List<OCFile> = listOf()
+    private var includesOtherFolders = false
     private var sections: List<UnifiedSearchSection> = emptyList()
 
     init {
@@ -187,7 +188,11 @@ class UnifiedSearchListAdapter(
     override fun onBindHeaderViewHolder(holder: SectionedViewHolder, section: Int, expanded: Boolean) {
         if (holder is UnifiedSearchHeaderViewHolder) {
             if (isCurrentDirItem(section)) {
-                val name = context.getString(R.string.unified_search_fragment_search_in_this_folder)
+                val name = if (includesOtherFolders) {
+                    context.getString(R.string.unified_search_fragment_search_in_all_folders)
+                } else {
+                    context.getString(R.string.unified_search_fragment_search_in_this_folder)
+                }
                 val currentDirUnifiedSearchSection = UnifiedSearchSection("", name, listOf(), false)
                 holder.bind(currentDirUnifiedSearchSection)
             } else {
@@ -266,11 +271,17 @@ class UnifiedSearchListAdapter(
         notifyDataSetChanged()
     }
 
+    /**
+     * @param includesOtherFolders true if some of the local results are not in the current folder
+     */
     @SuppressLint("NotifyDataSetChanged")
-    fun setDataCurrentDirItems(currentDirItems: List<OCFile>) {
+    fun setDataCurrentDirItems(currentDirItems: List<OCFile>, includesOtherFolders: Boolean = false) {
         this.currentDirItems = currentDirItems
+        this.includesOtherFolders = includesOtherFolders
         notifyDataSetChanged()
     }
 
     fun hasLocalResults(): Boolean = currentDirItems.isNotEmpty()
+
+    fun localFileIds(): Set<Long> = currentDirItems.mapTo(HashSet()) { it.fileId }
 }
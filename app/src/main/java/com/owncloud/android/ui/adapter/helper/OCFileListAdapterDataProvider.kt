@@ -9,9 +9,11 @@ package com.owncloud.android.ui.adapter.helper
 
 import com.nextcloud.client.database.entity.FileEntity
 import com.owncloud.android.datamodel.OCFile
+import kotlinx.coroutines.flow.Flow
 
 interface OCFileListAdapterDataProvider {
     fun convertToOCFiles(id: Long): List<OCFile>
     suspend fun getFolderContent(id: Long): List<FileEntity>
+    fun getFolderContentFlow(id: Long): Flow<List<FileEntity>>
     fun createFileInstance(entity: FileEntity): OCFile
 }
@@ -7,26 +7,47 @@
 
 package com.owncloud.android.ui.adapter.helper
 
+import androidx.recyclerview.widget.DiffUtil
 import com.nextcloud.client.database.entity.FileEntity
 import com.nextcloud.client.preferences.AppPreferences
 import com.nextcloud.utils.extensions.filterFilenames
 import com.nextcloud.utils.extensions.isTempFile
 import com.owncloud.android.MainApp
 import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.lib.common.utils.Log_OC
 import com.owncloud.android.lib.resources.shares.ShareType
 import com.owncloud.android.lib.resources.shares.ShareeUser
 import com.owncloud.android.utils.FileSortOrder
 import com.owncloud.android.utils.MimeTypeUtil
+import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
-class OCFileListAdapterHelper {
+class OCFileListAdapterHelper @JvmOverloads constructor(
+    private val diffDispatcher: CoroutineDispatcher = Dispatchers.Default
+) {
+    companion object {
+        private const val TAG = "OCFileListAdapterHelper"
+
+        // minimum time between two list updates caused by database changes
+        private const val FRAME_BUDGET_MS = 16L
+    }
+
     private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
     private var job: Job? = null
+    private var observedFolderId: Long? = null
+    private var diffJob: Job? = null
+
+    // changed by every diff request and cancellation
+    @Volatile
+    private var diffGeneration = 0L
 
     @Suppress("LongParameterList")
     fun prepareFileList(
@@ -40,6 +61,7 @@ class OCFileListAdapterHelper {
     ) {
         // cancel previous job to not have two jobs running
         job?.cancel()
+        observedFolderId = null
 
         job = scope.launch {
             val (sortedList, sortOrder) = prepareFileList(
@@ -56,6 +78,109 @@ class OCFileListAdapterHelper {
         }
     }
 
+    /**
+     * Like [prepareFileList], but keeps observing the folder content in the database: [onComplete] is called with
+     * the initial list and then again whenever rows of the folder actually changed, at most once per
+     * [FRAME_BUDGET_MS]. Room conflates the table invalidations arriving in between, so a burst of writes during a
+     * sync causes a single re-read instead of one per broadcast.
+     */
+    @Suppress("LongParameterList")
+    fun observeFileList(
+        directory: OCFile,
+        dataProvider: OCFileListAdapterDataProvider,
+        onlyOnDevice: Boolean,
+        limitToMimeType: String,
+        preferences: AppPreferences,
+        userId: String,
+        onComplete: (List<OCFile>, FileSortOrder) -> Unit
+    ) {
+        if (!directory.isFolder || !directory.fileExists()) {
+            prepareFileList(directory, dataProvider, onlyOnDevice, limitToMimeType, preferences, userId, onComplete)
+            return
+        }
+
+        job?.cancel()
+        observedFolderId = directory.fileId
+
+        job = scope.launch {
+            dataProvider.getFolderContentFlow(directory.fileId)
+                .distinctUntilChanged()
+                .catch { e -> Log_OC.e(TAG, "observing folder content failed", e) }
+                .collect { fileEntities ->
+                    val rawResult = toOCFiles(fileEntities, dataProvider, onlyOnDevice)
+                    val (sortedList, sortOrder) = filterAndSort(
+                        directory,
+                        rawResult,
+                        dataProvider,
+                        limitToMimeType,
+                        preferences,
+                        userId
+                    )
+                    withContext(Dispatchers.Main) {
+                        onComplete(sortedList, sortOrder)
+                    }
+                    delay(FRAME_BUDGET_MS)
+                }
+        }
+    }
+
+    /**
+     * @return true if the content of the folder with [folderId] is currently observed, so changes of its rows reach
+     * the list without an explicit refresh
+     */
+    fun isObservingFolder(folderId: Long): Boolean = job?.isActive == true && observedFolderId == folderId
+
+    /**
+     * Stops the observation started by [observeFileList], e.g. before the list shows search results instead.
+     */
+    fun stopObserving() {
+        cancelDiff()
+        if (observedFolderId != null) {
+            job?.cancel()
+            job = null
+            observedFolderId = null
+        }
+    }
+
+    /**
+     * Computes the difference between two file list snapshots off the main thread and delivers it on the main
+     * thread. A newer request or [cancelDiff] cancels a pending one, so only the latest result is ever dispatched.
+     * [onComplete] also gets the generation of the diff, to check it with [isCurrentDiff] right before the result
+     * is applied.
+     */
+    fun calculateDiff(
+        oldFiles: List<OCFile>,
+        newFiles: List<OCFile>,
+        onComplete: (Long, DiffUtil.DiffResult) -> Unit
+    ) {
+        cancelDiff()
+        val generation = diffGeneration
+
+        diffJob = scope.launch(diffDispatcher) {
+            val result = DiffUtil.calculateDiff(OCFileListDiffCallback(oldFiles, newFiles))
+            withContext(Dispatchers.Main) {
+                if (isCurrentDiff(generation)) {
+                    onComplete(generation, result)
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the pending diff, if any. Called before the files are replaced or reordered directly, so a diff of an
+     * older list cannot overwrite them afterwards.
+     */
+    fun cancelDiff() {
+        diffJob?.cancel()
+        diffJob = null
+        diffGeneration++
+    }
+
+    /**
+     * @return true if no other diff was requested and no diff was cancelled since the one of [generation]
+     */
+    fun isCurrentDiff(generation: Long): Boolean = generation == diffGeneration
+
     fun getAvatarSharees(file: OCFile, userId: String?): List<ShareeUser> {
         val sharees = file.sharees
         val ownerId = file.ownerId
@@ -76,12 +201,24 @@ class OCFileListAdapterHelper {
         limitToMimeType: String,
         preferences: AppPreferences,
         userId: String
+    ): Pair<List<OCFile>, FileSortOrder> {
+        val rawResult = getFolderContent(directory, dataProvider, onlyOnDevice)
+        return filterAndSort(directory, rawResult, dataProvider, limitToMimeType, preferences, userId)
+    }
+
+    @Suppress("LongParameterList")
+    private suspend fun filterAndSort(
+        directory: OCFile,
+        rawResult: List<OCFile>,
+        dataProvider: OCFileListAdapterDataProvider,
+        limitToMimeType: String,
+        preferences: AppPreferences,
+        userId: String
     ): Pair<List<OCFile>, FileSortOrder> {
         val showHiddenFiles = preferences.isShowHiddenFilesEnabled()
         val hasMimeTypeFilter = limitToMimeType.isNotEmpty()
         val isRootAndPersonalOnly = (OCFile.ROOT_PATH == directory.remotePath && MainApp.isOnlyPersonFiles())
 
-        val rawResult = getFolderContent(directory, dataProvider, onlyOnDevice)
         val filtered = ArrayList<OCFile>(rawResult.size)
 
         for (file in rawResult) {
@@ -185,19 +322,26 @@ class OCFileListAdapterHelper {
         }
 
         val fileEntities: List<FileEntity> = dataProvider.getFolderContent(ocFile.fileId)
+        return@withContext toOCFiles(fileEntities, dataProvider, onlyOnDevice)
+    }
 
-        return@withContext fileEntities.mapNotNull { fileEntity ->
-            val file = dataProvider.createFileInstance(fileEntity)
-            if (!onlyOnDevice || file.existsOnDevice()) {
-                file
-            } else {
-                null
-            }
+    private fun toOCFiles(
+        fileEntities: List<FileEntity>,
+        dataProvider: OCFileListAdapterDataProvider,
+        onlyOnDevice: Boolean
+    ): List<OCFile> = fileEntities.mapNotNull { fileEntity ->
+        val file = dataProvider.createFileInstance(fileEntity)
+        if (!onlyOnDevice || file.existsOnDevice()) {
+            file
+        } else {
+            null
         }
     }
 
     fun cleanup() {
         job?.cancel()
         job = null
+        observedFolderId = null
+        cancelDiff()
     }
 }
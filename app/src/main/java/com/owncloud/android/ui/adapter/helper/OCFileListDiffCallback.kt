@@ -0,0 +1,80 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.owncloud.android.ui.adapter.helper
+
+import androidx.recyclerview.widget.DiffUtil
+import com.owncloud.android.datamodel.OCFile
+
+/**
+ * Compares two file list snapshots for [com.owncloud.android.ui.adapter.OCFileListAdapter].
+ *
+ * Rows are matched by their stable file id, contents by etag and the attributes the list shows. A row whose only
+ * difference is its local or sync state gets [PAYLOAD_SYNC_STATE], so the adapter refreshes its indicators
+ * without reloading the thumbnail.
+ */
+class OCFileListDiffCallback(private val oldFiles: List<OCFile>, private val newFiles: List<OCFile>) :
+    DiffUtil.Callback() {
+
+    override fun getOldListSize(): Int = oldFiles.size
+
+    override fun getNewListSize(): Int = newFiles.size
+
+    override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        val oldFile = oldFiles[oldItemPosition]
+        val newFile = newFiles[newItemPosition]
+
+        // offline operations and other unsaved files have no database id yet
+        return if (oldFile.fileId > 0 || newFile.fileId > 0) {
+            oldFile.fileId == newFile.fileId
+        } else {
+            oldFile.decryptedRemotePath == newFile.decryptedRemotePath
+        }
+    }
+
+    override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        val oldFile = oldFiles[oldItemPosition]
+        val newFile = newFiles[newItemPosition]
+        return hasSameContent(oldFile, newFile) && hasSameSyncState(oldFile, newFile)
+    }
+
+    override fun getChangePayload(oldItemPosition: Int, newItemPosition: Int): Any? {
+        val oldFile = oldFiles[oldItemPosition]
+        val newFile = newFiles[newItemPosition]
+        return if (hasSameContent(oldFile, newFile)) PAYLOAD_SYNC_STATE else null
+    }
+
+    companion object {
+        const val PAYLOAD_SYNC_STATE = "sync_state"
+
+        @Suppress("ComplexMethod")
+        private fun hasSameContent(oldFile: OCFile, newFile: OCFile): Boolean = oldFile.etag == newFile.etag &&
+            oldFile.decryptedRemotePath == newFile.decryptedRemotePath &&
+            oldFile.modificationTimestamp == newFile.modificationTimestamp &&
+            oldFile.fileLength == newFile.fileLength &&
+            oldFile.isFavorite == newFile.isFavorite &&
+            oldFile.isHidden == newFile.isHidden &&
+            oldFile.isEncrypted == newFile.isEncrypted &&
+            oldFile.isSharedViaLink == newFile.isSharedViaLink &&
+            oldFile.isSharedWithSharee == newFile.isSharedWithSharee &&
+            oldFile.sharees == newFile.sharees &&
+            oldFile.isLocked == newFile.isLocked &&
+            oldFile.unreadCommentsCount == newFile.unreadCommentsCount &&
+            oldFile.tags == newFile.tags &&
+            oldFile.note == newFile.note &&
+            oldFile.isPreviewAvailable == newFile.isPreviewAvailable &&
+            oldFile.isUpdateThumbnailNeeded == newFile.isUpdateThumbnailNeeded &&
+            oldFile.livePhotoVideo?.fileId == newFile.livePhotoVideo?.fileId &&
+            oldFile.isOfflineOperation == newFile.isOfflineOperation
+
+        private fun hasSameSyncState(oldFile: OCFile, newFile: OCFile): Boolean =
+            oldFile.storagePath == newFile.storagePath &&
+                oldFile.etagInConflict == newFile.etagInConflict &&
+                oldFile.isDownloading == newFile.isDownloading &&
+                oldFile.lastSyncDateForData == newFile.lastSyncDateForData
+    }
+}
@@ -82,6 +82,10 @@ class UploadListAdapter(
     private var uploadProgressListener: UploadProgressListener? = null
     private var notificationManager: NotificationManager? = null
 
+    // incremented by every reload, so pages and rows read for older data are dropped
+    private var loadGeneration = 0
+    private val loadingSections = mutableSetOf<Int>()
+
     init {
         Log_OC.d(TAG, "UploadListAdapter")
         shouldShowHeadersForEmptySections(false)
@@ -110,7 +114,7 @@ class UploadListAdapter(
     private fun bindHeaderTitle(holder: HeaderViewHolder, group: UploadListSection, section: Int) {
         val title = activity.getString(group.titleRes)
         val headerText = activity.getString(R.string.uploads_view_group_header)
-        holder.binding.uploadListTitle.text = String.format(headerText, title, group.items.size)
+        holder.binding.uploadListTitle.text = String.format(headerText, title, group.totalCount)
         viewThemeUtils.platform.colorTextView(holder.binding.uploadListTitle)
 
         val toggleExpand = {
@@ -158,8 +162,11 @@ class UploadListAdapter(
     private fun cancelAllCurrentUploads(group: UploadListSection) {
         val items = group.items.takeIf { it.isNotEmpty() } ?: return
         val accountName = items[0].accountName
-        val remotePaths = items.map { it.remotePath }
+        val capabilities = activity.capabilities.orElse(null) ?: return
         activity.lifecycleScope.launch(Dispatchers.IO) {
+            // only the first pages of the section are loaded
+            val remotePaths = uploadHelper.getUploadsByStatus(accountName, group.status, capabilities)
+                .map { it.remotePath }
             uploadHelper.updateUploadStatuses(
                 remotePaths,
                 accountName,
@@ -250,9 +257,14 @@ class UploadListAdapter(
         absolutePosition: Int
     ) {
         if (uploadListSections.isEmpty() || section !in uploadListSections.indices) return
-        val item = uploadListSections[section].items[relativePosition]
+        val group = uploadListSections[section]
+        val item = group.items[relativePosition]
         val itemViewHolder = holder as ItemViewHolder
 
+        if (group.hasMoreItems && relativePosition >= group.items.size - PREFETCH_DISTANCE) {
+            loadNextPage(section)
+        }
+
         bindItemText(holder, item)
         bindItemStatus(itemViewHolder, item)
         bindItemActions(itemViewHolder, item)
@@ -550,43 +562,150 @@ class UploadListAdapter(
             )
         }
 
+    /**
+     * Reloads section counts and the rows loaded so far. Counts come from one aggregating query and each section
+     * reads at most as many rows as it already shows, so the whole uploads table is never read. Uploads running right
+     * now are read by id and pinned above the pages of the current uploads.
+     */
     @SuppressLint("NotifyDataSetChanged")
     @JvmOverloads
     fun loadUploadItemsFromDb(onCompleted: Runnable = {}) {
         val optionalUser = activity.user
-        val optionalCapabilities = activity.capabilities
-        if (optionalUser.isEmpty || optionalCapabilities.isEmpty) return
+        if (optionalUser.isEmpty || activity.capabilities.isEmpty) return
 
         val accountName = optionalUser.get().accountName
-        val capabilities = optionalCapabilities.get()
+        val generation = ++loadGeneration
+        val loadedSizes = uploadListSections.map { it.items.size }
 
         activity.lifecycleScope.launch(Dispatchers.IO) {
-            val succeededUploads = uploadHelper.getUploadsByStatus(
-                accountName,
-                UploadsStorageManager.UploadStatus.UPLOAD_SUCCEEDED,
-                capabilities
-            )
+            val counts = uploadsStorageManager.getUploadCounts(accountName)
+            val running = loadRunningUploads(accountName)
+
+            val updatedSections = uploadListSections.mapIndexed { index, sec ->
+                val totalCount = counts
+                    .filter { it.status == sec.status.value && (sec.skipped == null || it.skipped == sec.skipped) }
+                    .sumOf { it.count }
+                val limit = minOf(totalCount, maxOf(PAGE_SIZE, loadedSizes[index]))
+                val pinned = if (sec.type == UploadListType.CURRENT) running.filter { sec.accepts(it) } else listOf()
+                val pinnedIds = pinned.mapTo(HashSet()) { it.uploadId }
+                val uploads = if (limit > 0) loadPage(accountName, sec, null, limit) else listOf()
+                sec.withItems(pinned, uploads.filter { it.uploadId !in pinnedIds }, totalCount)
+            }
 
-            val updatedSections = uploadListSections.map { sec ->
-                val uploads = when (sec.type) {
-                    UploadListType.COMPLETED -> succeededUploads.filter { it.lastResult != UploadResult.SKIPPED }
-                    UploadListType.SKIPPED -> succeededUploads.filter { it.lastResult == UploadResult.SKIPPED }
-                    else -> uploadHelper.getUploadsByStatus(accountName, sec.status, capabilities)
+            withContext(Dispatchers.Main) {
+                if (generation == loadGeneration) {
+                    loadingSections.clear()
+                    for (i in uploadListSections.indices) {
+                        uploadListSections[i] = updatedSections[i]
+                    }
+                    notifyDataSetChanged()
                 }
-                uploads.forEach { it.setDataFixed(uploadHelper) }
-                sec.withItems(uploads.sortedByUploadOrder())
+                onCompleted.run()
             }
+        }
+    }
+
+    private fun loadRunningUploads(accountName: String): List<OCUpload> {
+        val ids = FileUploadWorker.getCurrentUploadIds()
+        if (ids.isEmpty()) return listOf()
+
+        val uploads = uploadsStorageManager.getUploadsByIds(ids.toLongArray(), accountName)
+        uploads.forEach { it.setDataFixed(uploadHelper) }
+        return uploads.filter { it.isFixedUploadingNow }.sortedByUploadOrder()
+    }
+
+    private fun loadPage(
+        accountName: String,
+        section: UploadListSection,
+        after: OCUpload?,
+        limit: Int
+    ): List<OCUpload> {
+        // kept in the order of the query: sorting a page by other keys would break the order across page boundaries
+        val uploads = uploadsStorageManager.getUploadPage(accountName, section.status, section.skipped, after, limit)
+        uploads.forEach { it.setDataFixed(uploadHelper) }
+        return uploads
+    }
+
+    private fun loadNextPage(sectionIndex: Int) {
+        val accountName = activity.user.orElse(null)?.accountName ?: return
+        if (!loadingSections.add(sectionIndex)) return
+
+        val generation = loadGeneration
+        val section = uploadListSections[sectionIndex]
+        // the keyset follows the database order of the loaded rows, pinned rows are not part of it
+        val after = section.pagedItems.maxWithOrNull(
+            compareBy<OCUpload> { -it.uploadEndTimestamp }.thenBy { it.uploadId }
+        )
+
+        activity.lifecycleScope.launch(Dispatchers.IO) {
+            val page = loadPage(accountName, section, after, PAGE_SIZE)
 
             withContext(Dispatchers.Main) {
-                for (i in uploadListSections.indices) {
-                    uploadListSections[i] = updatedSections[i]
+                if (generation != loadGeneration) return@withContext
+                loadingSections.remove(sectionIndex)
+
+                val current = uploadListSections[sectionIndex]
+                val loadedIds = current.items.mapTo(HashSet()) { it.uploadId }
+                val newItems = page.filter { it.uploadId !in loadedIds }
+                if (newItems.isEmpty()) {
+                    // rows changed since counting, the count is corrected by the next reload
+                    uploadListSections[sectionIndex] = current.withItems(current.items, current.items.size)
+                    return@withContext
+                }
+
+                uploadListSections[sectionIndex] = current.withItems(current.items + newItems)
+                if (isSectionExpanded(sectionIndex)) {
+                    notifyItemRangeInserted(getAbsolutePosition(sectionIndex, current.items.size), newItems.size)
                 }
-                notifyDataSetChanged()
-                onCompleted.run()
             }
         }
     }
 
+    /**
+     * Updates the rows of the given uploads in place. Falls back to [onNotUpdated] if an upload is not shown yet, was
+     * removed or moved to another section, as counts and ordering change then.
+     */
+    fun refreshUploadItems(uploadIds: Collection<Long>, onNotUpdated: Runnable) {
+        val accountName = activity.user.orElse(null)?.accountName ?: return
+        val generation = loadGeneration
+
+        activity.lifecycleScope.launch(Dispatchers.IO) {
+            val uploads = uploadsStorageManager.getUploadsByIds(uploadIds.toLongArray(), accountName)
+            uploads.forEach { it.setDataFixed(uploadHelper) }
+
+            withContext(Dispatchers.Main) {
+                val allReplaced = generation == loadGeneration &&
+                    uploads.size == uploadIds.size &&
+                    uploads.all { replaceUploadItem(it) }
+                if (!allReplaced) {
+                    onNotUpdated.run()
+                }
+            }
+        }
+    }
+
+    private fun replaceUploadItem(upload: OCUpload): Boolean {
+        for (sectionIndex in uploadListSections.indices) {
+            val section = uploadListSections[sectionIndex]
+            val row = section.items.indexOfFirst { it.uploadId == upload.uploadId }
+            if (row < 0) continue
+            if (!section.accepts(upload)) return false
+            // uploads starting or stopping to run move in or out of the pinned rows
+            if (section.type == UploadListType.CURRENT && (row < section.pinnedCount) != upload.isFixedUploadingNow) {
+                return false
+            }
+
+            uploadListSections[sectionIndex] = section.withItems(
+                section.items.toMutableList().apply { set(row, upload) }
+            )
+            if (isSectionExpanded(sectionIndex)) {
+                notifyItemChanged(getAbsolutePosition(sectionIndex, row))
+            }
+            return true
+        }
+        return false
+    }
+
     fun cancelOldErrorNotification(upload: OCUpload?) {
         if (notificationManager == null) {
             notificationManager = activity.getSystemService(Context.NOTIFICATION_SERVICE) as NotificationManager?
@@ -601,5 +720,8 @@ class UploadListAdapter(
 
     companion object {
         private val TAG: String = UploadListAdapter::class.java.getSimpleName()
+
+        private const val PAGE_SIZE = 100
+        private const val PREFETCH_DISTANCE = 20
     }
 }
@@ -10,15 +10,45 @@ package com.owncloud.android.ui.adapter.uploadList.model
 import com.owncloud.android.R
 import com.owncloud.android.datamodel.UploadsStorageManager
 import com.owncloud.android.db.OCUpload
+import com.owncloud.android.db.UploadResult
 
 data class UploadListSection(
     val type: UploadListType?,
     val titleRes: Int,
     val status: UploadsStorageManager.UploadStatus,
-    val items: List<OCUpload>
+    val items: List<OCUpload>,
+    val totalCount: Int = 0,
+    val pinnedCount: Int = 0
 ) {
     fun withItems(newItems: List<OCUpload>) = copy(items = newItems)
 
+    fun withItems(newItems: List<OCUpload>, newTotalCount: Int) = copy(items = newItems, totalCount = newTotalCount)
+
+    fun withItems(pinned: List<OCUpload>, paged: List<OCUpload>, newTotalCount: Int) =
+        copy(items = pinned + paged, totalCount = newTotalCount, pinnedCount = pinned.size)
+
+    /**
+     * Items read in keyset pages, in database order, without the pinned ones shown above them.
+     */
+    val pagedItems: List<OCUpload>
+        get() = items.drop(pinnedCount)
+
+    /**
+     * Succeeded uploads are split into completed and skipped ones, other sections take all uploads of their status.
+     */
+    val skipped: Boolean?
+        get() = when (type) {
+            UploadListType.COMPLETED -> false
+            UploadListType.SKIPPED -> true
+            else -> null
+        }
+
+    val hasMoreItems: Boolean
+        get() = items.size < totalCount
+
+    fun accepts(upload: OCUpload): Boolean = upload.uploadStatus == status &&
+        (skipped == null || skipped == (upload.lastResult == UploadResult.SKIPPED))
+
     companion object {
         fun sections(): MutableList<UploadListSection> = mutableListOf(
             UploadListSection(
@@ -30,6 +30,7 @@ import androidx.lifecycle.lifecycleScope
 import androidx.localbroadcastmanager.content.LocalBroadcastManager
 import androidx.recyclerview.widget.GridLayoutManager
 import androidx.recyclerview.widget.RecyclerView
+import com.nextcloud.utils.extensions.appendGalleryItems
 import com.nextcloud.utils.extensions.getGalleryItemsPageSuspended
 import com.nextcloud.utils.extensions.getParcelableArgument
 import kotlinx.coroutines.Job
@@ -64,6 +65,8 @@ class GalleryFragment :
     private var endDate: Long = 0
     private val limit = 150
     private var loadedItemCount = INITIAL_GALLERY_WINDOW
+    private var lastLoadedFile: OCFile? = null
+    private var hasMoreLocalItems = true
     private var restoreScrollPending = false
     private var adapter: GalleryAdapter? = null
 
@@ -275,6 +278,7 @@ class GalleryFragment :
             return
         }
 
+        val searchedUntil = endDate
         if (result.lastTimestamp > -1) {
             endDate = result.lastTimestamp
         }
@@ -284,7 +288,13 @@ class GalleryFragment :
         }
 
         if (!result.emptySearch) {
-            showAllGalleryItems()
+            if (isOlderThanLoadedItems(searchedUntil)) {
+                // changes are all behind the displayed window, keep the built sections and only append
+                hasMoreLocalItems = true
+                loadNextGalleryPage()
+            } else {
+                showAllGalleryItems()
+            }
         }
 
         Log_OC.d(this, "End gallery search")
@@ -381,10 +391,9 @@ class GalleryFragment :
                 Log_OC.d(this, "Gallery swipe: retrieve items because end of gallery display")
             }
 
-            // Almost reached the end, widen the display window and continue to load new photos
+            // Almost reached the end, append the next local page and continue to load new photos
             endDate = lastItemTimestamp
-            loadedItemCount += GALLERY_WINDOW_INCREMENT
-            showAllGalleryItems()
+            loadNextGalleryPage()
             isPhotoSearchQueryRunning = true
             runGallerySearchTask()
         }
@@ -397,14 +406,28 @@ class GalleryFragment :
         showAllGalleryItems()
     }
 
+    private fun getMimeFilter(mediaState: MediaState): String? = when (mediaState) {
+        MediaState.MEDIA_STATE_PHOTOS_ONLY -> IMAGE_MIME_FILTER
+        MediaState.MEDIA_STATE_VIDEOS_ONLY -> VIDEO_MIME_FILTER
+        else -> null
+    }
+
+    /**
+     * @param timestamp upper bound of a searched range, in seconds
+     * @return true if every file of the range sorts after the last loaded file, i.e. the visible sections are
+     * unaffected by changes inside that range
+     */
+    private fun isOlderThanLoadedItems(timestamp: Long): Boolean {
+        val lastFile = lastLoadedFile ?: return false
+        return (timestamp + 1) * 1000 <= lastFile.modificationTimestamp
+    }
+
+    /**
+     * Reloads the whole loaded window, e.g. after the media filter or folder changed.
+     */
     fun showAllGalleryItems() {
         val mediaState = bottomSheet?.currMediaState ?: return
-
-        val mimeFilter = when (mediaState) {
-            MediaState.MEDIA_STATE_PHOTOS_ONLY -> IMAGE_MIME_FILTER
-            MediaState.MEDIA_STATE_VIDEOS_ONLY -> VIDEO_MIME_FILTER
-            else -> null
-        }
+        val mimeFilter = getMimeFilter(mediaState)
 
         showGalleryJob?.cancel()
         showGalleryJob = lifecycleScope.launch(Dispatchers.Default) {
@@ -418,6 +441,9 @@ class GalleryFragment :
             val galleryItems = items.toGalleryItems(columnsCount, ThumbnailsCacheManager.getThumbnailDimension())
 
             withContext(Dispatchers.Main) {
+                lastLoadedFile = items.lastOrNull()
+                hasMoreLocalItems = items.size >= loadedItemCount
+
                 if (galleryItems.isEmpty()) {
                     setEmptyListMessage(SearchType.GALLERY_SEARCH)
                 }
@@ -435,6 +461,54 @@ class GalleryFragment :
         }
     }
 
+    /**
+     * Loads the page after [lastLoadedFile] and appends it to the existing sections. Does nothing while another
+     * load is in progress, as that one already covers the current window.
+     */
+    private fun loadNextGalleryPage() {
+        val mediaState = bottomSheet?.currMediaState ?: return
+        val lastFile = lastLoadedFile
+        if (lastFile == null) {
+            showAllGalleryItems()
+            return
+        }
+
+        if (showGalleryJob?.isActive == true || !hasMoreLocalItems) {
+            return
+        }
+
+        val mimeFilter = getMimeFilter(mediaState)
+        val currentItems = adapter?.files ?: return
+        val columns = columnsCount
+
+        showGalleryJob = lifecycleScope.launch(Dispatchers.Default) {
+            val remotePath = preferences.getLastSelectedMediaFolder()
+            val items = mContainerActivity.storageManager.getGalleryItemsPageSuspended(
+                remotePath,
+                mimeFilter,
+                GALLERY_WINDOW_INCREMENT,
+                lastFile
+            )
+
+            val galleryItems = currentItems.appendGalleryItems(
+                items,
+                columns,
+                ThumbnailsCacheManager.getThumbnailDimension()
+            )
+
+            withContext(Dispatchers.Main) {
+                hasMoreLocalItems = items.size >= GALLERY_WINDOW_INCREMENT
+                if (items.isEmpty()) {
+                    return@withContext
+                }
+
+                lastLoadedFile = items.last()
+                loadedItemCount += items.size
+                adapter?.appendList(galleryItems)
+            }
+        }
+    }
+
     private fun updateSubtitle(mediaState: MediaState?) {
         val toolbarActivity = getTypedActivity(ToolbarActivity::class.java)
         if (!isAdded || toolbarActivity == null) {
@@ -1655,6 +1655,23 @@ public class OCFileListFragment extends ExtendedListFragment implements
         }
     }
 
+    /**
+     * Takes over the given directory without listing it again if its content is already observed by the adapter,
+     * as the changed files reach the list by themselves.
+     *
+     * @return true if the directory is observed, false if it has to be listed with {@link #listDirectory}
+     */
+    public boolean updateObservedDirectory(@NonNull OCFile directory) {
+        if (searchFragment || mAdapter == null || mFile == null || mFile.getFileId() != directory.getFileId() ||
+            !mAdapter.isObservingFolder(directory.getFileId())) {
+            return false;
+        }
+
+        mFile = directory;
+        updateLayout();
+        return true;
+    }
+
     public List<OCFile> getAdapterFiles() {
         return mAdapter.getFiles();
     }
@@ -14,6 +14,7 @@ import android.accounts.Account
 import android.content.ContentValues
 import androidx.lifecycle.lifecycleScope
 import com.nextcloud.client.account.User
+import com.nextcloud.client.network.ClientPool
 import com.nextcloud.client.preferences.AppPreferences
 import com.owncloud.android.R
 import com.owncloud.android.datamodel.FileDataStorageManager
@@ -22,7 +23,7 @@ import com.owncloud.android.datamodel.VirtualFolderType
 import com.owncloud.android.datamodel.e2e.v1.decrypted.DecryptedFolderMetadataFileV1
 import com.owncloud.android.datamodel.e2e.v2.decrypted.DecryptedFolderMetadataFile
 import com.owncloud.android.db.ProviderMeta
-import com.owncloud.android.lib.common.OwnCloudClientFactory
+import com.owncloud.android.lib.common.OwnCloudAccount
 import com.owncloud.android.lib.common.operations.RemoteOperation
 import com.owncloud.android.lib.common.operations.RemoteOperationResult
 import com.owncloud.android.lib.common.utils.Log_OC
@@ -260,7 +261,7 @@ class OCFileListSearchTask(
 
         if (!ocFile.isEncrypted && !parent.isEncrypted) return ocFile
 
-        val client = OwnCloudClientFactory.createOwnCloudClient(accountProvider(), activity)
+        val client = ClientPool.getOwnCloudClient(OwnCloudAccount(accountProvider(), activity), activity)
 
         val metadata = RefreshFolderOperation.getDecryptedFolderMetadata(
             true,
@@ -32,6 +32,7 @@ import com.nextcloud.client.account.CurrentAccountProvider
 import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.client.core.AsyncRunner
 import com.nextcloud.client.core.Clock
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.di.Injectable
 import com.nextcloud.client.di.ViewModelFactory
 import com.nextcloud.client.network.ClientFactory
@@ -39,6 +40,7 @@ import com.nextcloud.client.preferences.AppPreferences
 import com.nextcloud.common.NextcloudClient
 import com.nextcloud.utils.extensions.getTypedActivity
 import com.nextcloud.utils.extensions.searchFilesByName
+import com.nextcloud.utils.extensions.searchFilesInIndex
 import com.nextcloud.utils.extensions.setVisibleIf
 import com.nextcloud.utils.extensions.typedActivity
 import com.nextcloud.utils.thumbnail.ThumbnailGenerator
@@ -61,6 +63,7 @@ import com.owncloud.android.ui.unifiedsearch.ProviderID
 import com.owncloud.android.ui.unifiedsearch.UnifiedSearchSection
 import com.owncloud.android.ui.unifiedsearch.UnifiedSearchViewModel
 import com.owncloud.android.ui.unifiedsearch.filterOutHiddenFiles
+import com.owncloud.android.ui.unifiedsearch.filterOutLocalFiles
 import com.owncloud.android.utils.DisplayUtils
 import com.owncloud.android.utils.PermissionUtil
 import com.owncloud.android.utils.theme.ViewThemeUtils
@@ -97,6 +100,7 @@ class UnifiedSearchFragment :
         private const val ARG_HIDDEN_FILES = "ARG_HIDDEN_FILES"
         private const val CURRENT_DIR_PATH = "CURRENT_DIR"
         private const val SEARCH_TIMEOUT_MS = 30_000L
+        private const val LOCAL_RESULTS_LIMIT = 30
 
         fun newInstance(
             query: String?,
@@ -148,6 +152,8 @@ class UnifiedSearchFragment :
     private var currentDir: OCFile? = null
     private var initialQuery: String? = null
     private var searchJob: Job? = null
+    private var localSearchJob: Job? = null
+    private var searchResultSections: List<UnifiedSearchSection> = listOf()
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
@@ -240,6 +246,8 @@ class UnifiedSearchFragment :
             }
 
             vm.setQuery("")
+            localSearchJob?.cancel()
+            searchResultSections = listOf()
             adapter.setData(emptyList())
             adapter.setDataCurrentDirItems(listOf())
 
@@ -378,7 +386,7 @@ class UnifiedSearchFragment :
 
     private fun setUpBinding() {
         binding.swipeContainingList.setOnRefreshListener {
-            vm.initialQuery()
+            vm.initialQuery(refresh = true)
         }
     }
 
@@ -411,7 +419,7 @@ class UnifiedSearchFragment :
         adapter.setLayoutManager(gridLayoutManager)
         binding.listRoot.layoutManager = gridLayoutManager
         binding.listRoot.adapter = adapter
-        searchInCurrentDirectory(initialQuery ?: "")
+        searchLocally(initialQuery ?: "")
 
         setUpViewModel()
         if (!initialQuery.isNullOrEmpty()) {
@@ -441,7 +449,17 @@ class UnifiedSearchFragment :
     fun onSearchResultChanged(result: List<UnifiedSearchSection>) {
         Log_OC.d(TAG, "result")
         binding.emptyList.emptyListView.visibility = View.GONE
-        val newFiles = result.filterOutHiddenFiles(listOfHiddenFiles)
+        searchResultSections = result
+        showSearchResults()
+    }
+
+    /**
+     * Shows the server results, without the files already shown as local results
+     */
+    private fun showSearchResults() {
+        val newFiles = searchResultSections
+            .filterOutHiddenFiles(listOfHiddenFiles)
+            .filterOutLocalFiles(adapter.localFileIds())
         if (newFiles.isNotEmpty()) {
             vm.updateScreenState(UnifiedSearchFragmentScreenState.ShowingContent)
         }
@@ -463,19 +481,39 @@ class UnifiedSearchFragment :
     override fun onQueryTextChange(newText: String?): Boolean {
         val closeButton = searchView?.findViewById<ImageView>(androidx.appcompat.R.id.search_close_btn)
         closeButton?.visibility = if (newText?.isEmpty() == true) View.INVISIBLE else View.VISIBLE
-        searchInCurrentDirectory(newText ?: "")
+        searchLocally(newText ?: "")
+        vm.search(newText ?: "")
         return true
     }
 
-    private fun searchInCurrentDirectory(query: String) {
-        currentDir?.run {
-            val files = storageManager
-                .searchFilesByName(this, accountManager.user.accountName, query)
-                .filter { !it.isEncrypted }
+    /**
+     * Shows the files of the current folder and the files of all folders known locally matching [query], before the
+     * server answers.
+     */
+    private fun searchLocally(query: String) {
+        localSearchJob?.cancel()
+        if (_binding == null) {
+            return
+        }
+        val folder = currentDir
+        val accountName = accountManager.user.accountName
+        localSearchJob = viewLifecycleOwner.lifecycleScope.launch {
+            val (inFolder, inAllFolders) = withContext(Lanes.dispatcher(Lanes.Lane.DB)) {
+                val inFolder = folder?.let { storageManager.searchFilesByName(it, accountName, query) }.orEmpty()
+                val inAllFolders = if (query.isBlank()) {
+                    emptyList()
+                } else {
+                    storageManager.searchFilesInIndex(accountName, query, LOCAL_RESULTS_LIMIT)
+                }
+                inFolder.filter { !it.isEncrypted } to inAllFolders.filter { !it.isEncrypted }
+            }
+
+            val files = (inFolder + inAllFolders).distinctBy { it.fileId }
             if (files.isNotEmpty()) {
                 vm.updateScreenState(UnifiedSearchFragmentScreenState.ShowingContent)
             }
-            adapter.setDataCurrentDirItems(files)
+            adapter.setDataCurrentDirItems(files, files.size > inFolder.size)
+            showSearchResults()
         }
     }
 
@@ -101,6 +101,7 @@ class PreviewImageFragment :
 
     private var ignoreFirstSavedState = false
     private var loadBitmapTask: LoadBitmapTask? = null
+    private var tiledImage: TiledImageDrawable? = null
 
     @Inject
     lateinit var connectivityService: ConnectivityService
@@ -439,6 +440,8 @@ class PreviewImageFragment :
 
     @SuppressFBWarnings("Dm")
     override fun onDestroy() {
+        tiledImage?.release()
+        tiledImage = null
         bitmap?.recycle()
         super.onDestroy()
     }
@@ -489,6 +492,14 @@ class PreviewImageFragment :
                 val screenSize = DisplayUtils.getScreenSize(activity)
                 var minWidth = screenSize.x
                 var minHeight = screenSize.y
+
+                if (TiledImageDrawable.canTile(storagePath, ocFile.mimeType, minWidth, minHeight)) {
+                    val tiledImage = TiledImageDrawable.create(storagePath, minWidth, minHeight)
+                    if (tiledImage != null) {
+                        return LoadImage(null, tiledImage, ocFile)
+                    }
+                }
+
                 var i = 0
                 while (i < maxDownScale && bitmapResult == null && drawableResult == null) {
                     if (MIME_TYPE_SVG.equals(ocFile.mimeType, ignoreCase = true)) {
@@ -561,6 +572,7 @@ class PreviewImageFragment :
         @Deprecated("Deprecated in Java")
         override fun onCancelled(result: LoadImage?) {
             result?.bitmap?.recycle()
+            (result?.drawable as? TiledImageDrawable)?.release()
         }
 
         @Deprecated("Deprecated in Java")
@@ -586,7 +598,9 @@ class PreviewImageFragment :
                 return
             }
 
-            if (bitmap != null) {
+            if (drawable is TiledImageDrawable) {
+                showTiledImage(imageView, drawable)
+            } else if (bitmap != null) {
                 Log_OC.d(
                     TAG,
                     "Showing image with resolution " + bitmap.width + "x" +
@@ -623,6 +637,29 @@ class PreviewImageFragment :
         }
     }
 
+    private fun showTiledImage(imageView: PhotoView, drawable: TiledImageDrawable) {
+        tiledImage?.release()
+        tiledImage = drawable
+
+        imageView.setImageDrawable(drawable)
+        imageView.setOnMatrixChangeListener { displayRect ->
+            drawable.onDisplayRectChanged(displayRect, imageView.width, imageView.height)
+        }
+        imageView.post {
+            val displayRect = imageView.displayRect ?: return@post
+            if (displayRect.width() <= 0f) {
+                return@post
+            }
+
+            // allow zooming in up to the full resolution of the image
+            val fullResolutionScale = drawable.intrinsicWidth / displayRect.width() * imageView.scale
+            if (fullResolutionScale > imageView.maximumScale) {
+                imageView.maximumScale = fullResolutionScale
+            }
+            drawable.onDisplayRectChanged(displayRect, imageView.width, imageView.height)
+        }
+    }
+
     @Suppress("ReturnCount")
     private fun generateCheckerboardLayeredDrawable(result: LoadImage, bitmap: Bitmap?): LayerDrawable {
         val resources = resources
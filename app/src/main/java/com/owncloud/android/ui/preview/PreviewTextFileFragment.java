@@ -153,6 +153,7 @@ public class PreviewTextFileFragment extends PreviewTextFragment {
         private static final int PARAMS_LENGTH = 1;
         private final WeakReference<TextView> textViewReference;
         private final WeakReference<FrameLayout> progressViewReference;
+        private TextFileLines textLines;
 
         private TextLoadAsyncTask(WeakReference<TextView> textView, WeakReference<FrameLayout> progressView) {
             textViewReference = textView;
@@ -172,14 +173,21 @@ public class PreviewTextFileFragment extends PreviewTextFragment {
             }
             String location = (String) params[0];
 
+            File textFile = new File(location);
+            if (textFile.length() > TextFileLines.MIN_FILE_SIZE) {
+                textLines = TextFileLines.open(textFile);
+                if (textLines != null) {
+                    return null;
+                }
+            }
+
             Scanner scanner = null;
             StringWriter source = new StringWriter();
             BufferedWriter bufferedWriter = new BufferedWriter(source);
             Reader reader = null;
 
             try {
-                File file = new File(location);
-                reader = ReaderFactory.createReaderFromFile(file);
+                reader = ReaderFactory.createReaderFromFile(textFile);
                 scanner = new Scanner(reader);
 
                 while (scanner.hasNextLine()) {
@@ -218,8 +226,13 @@ public class PreviewTextFileFragment extends PreviewTextFragment {
             final TextView textView = textViewReference.get();
 
             if (textView != null) {
-                originalText = stringWriter.toString();
-                setText(textView, originalText, getFile(), requireActivity(), false, false, viewThemeUtils);
+                if (textLines != null) {
+                    showTextLines(textLines);
+                } else {
+                    originalText = stringWriter.toString();
+                    setText(textView, originalText, getFile(), requireActivity(), false, false, viewThemeUtils);
+                    textView.setVisibility(View.VISIBLE);
+                }
 
                 if (searchView != null) {
                     searchView.setOnQueryTextListener(PreviewTextFileFragment.this);
@@ -228,8 +241,8 @@ public class PreviewTextFileFragment extends PreviewTextFragment {
                         searchView.setQuery(searchQuery, true);
                     }
                 }
-
-                textView.setVisibility(View.VISIBLE);
+            } else if (textLines != null) {
+                textLines.close();
             }
 
             final FrameLayout progress = progressViewReference.get();
@@ -237,6 +250,13 @@ public class PreviewTextFileFragment extends PreviewTextFragment {
                 progress.setVisibility(View.GONE);
             }
         }
+
+        @Override
+        protected void onCancelled(StringWriter stringWriter) {
+            if (textLines != null) {
+                textLines.close();
+            }
+        }
     }
 
     /**
@@ -24,8 +24,11 @@ import android.view.ViewGroup
 import android.widget.TextView
 import androidx.appcompat.widget.SearchView
 import androidx.core.content.ContextCompat
+import androidx.lifecycle.lifecycleScope
+import androidx.recyclerview.widget.LinearLayoutManager
 import com.nextcloud.android.common.ui.theme.utils.ColorRole
 import com.nextcloud.client.account.UserAccountManager
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.device.DeviceInfo
 import com.nextcloud.client.di.Injectable
 import com.nextcloud.utils.LinkHelper
@@ -51,10 +54,15 @@ import io.noties.markwon.ext.tasklist.TaskListDrawable
 import io.noties.markwon.ext.tasklist.TaskListPlugin
 import io.noties.markwon.html.HtmlPlugin
 import io.noties.markwon.syntax.Prism4jTheme
+import io.noties.markwon.syntax.Prism4jSyntaxHighlight
 import io.noties.markwon.syntax.Prism4jThemeDefault
 import io.noties.markwon.syntax.SyntaxHighlightPlugin
 import io.noties.prism4j.Prism4j
 import io.noties.prism4j.annotations.PrismBundle
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
 import thirdparties.io.noties.prism4j.languages.MarkwonGrammarLocator
 import javax.inject.Inject
 
@@ -86,6 +94,19 @@ abstract class PreviewTextFragment :
     @JvmField
     protected var originalText: String? = null
 
+    /**
+     * Lines of large files, shown instead of [originalText]
+     */
+    private var textLines: TextFileLines? = null
+    private var textLinesAdapter: TextLinesAdapter? = null
+    private var searchJob: Job? = null
+
+    /**
+     * Line numbers of the lines matching the current search, and the one scrolled to
+     */
+    private var matches = IntArray(0)
+    private var currentMatch = -1
+
     @Inject
     lateinit var accountManager: UserAccountManager
 
@@ -107,6 +128,8 @@ abstract class PreviewTextFragment :
         binding = TextFilePreviewBinding.inflate(inflater, container, false)
 
         binding.emptyListProgress.visibility = View.VISIBLE
+        binding.textPreviewPreviousMatch.setOnClickListener { showMatch(currentMatch - 1) }
+        binding.textPreviewNextMatch.setOnClickListener { showMatch(currentMatch + 1) }
 
         return binding.root
     }
@@ -120,6 +143,34 @@ abstract class PreviewTextFragment :
 
     abstract fun loadAndShowTextPreview()
 
+    override fun onDestroyView() {
+        super.onDestroyView()
+        searchJob?.cancel()
+        textLines?.close()
+        textLines = null
+        textLinesAdapter = null
+    }
+
+    /**
+     * Shows a large file line by line. Only the visible lines are read and highlighted.
+     */
+    protected fun showTextLines(lines: TextFileLines) {
+        searchJob?.cancel()
+        textLines?.close()
+        textLines = lines
+
+        val adapter = TextLinesAdapter(
+            lines,
+            createLineHighlighter(file?.fileName),
+            ContextCompat.getColor(requireContext(), R.color.primary)
+        )
+        textLinesAdapter = adapter
+        binding.textPreviewLines.layoutManager = LinearLayoutManager(requireContext())
+        binding.textPreviewLines.adapter = adapter
+        binding.textPreview.visibility = View.GONE
+        binding.textPreviewLines.visibility = View.VISIBLE
+    }
+
     override fun onQueryTextSubmit(query: String): Boolean {
         performSearch(query, 0)
         return true
@@ -134,7 +185,7 @@ abstract class PreviewTextFragment :
     private fun performSearch(query: String, delay: Int) {
         handler?.removeCallbacksAndMessages(null)
 
-        if (originalText != null) {
+        if (originalText != null || textLines != null) {
             if (activity is FileDisplayActivity) {
                 val fileDisplayActivity = activity as FileDisplayActivity?
                 fileDisplayActivity?.setSearchQuery(query)
@@ -148,7 +199,9 @@ abstract class PreviewTextFragment :
     }
 
     private fun markText(query: String) {
-        if (!TextUtils.isEmpty(query)) {
+        if (textLines != null) {
+            searchLines(query)
+        } else if (!TextUtils.isEmpty(query)) {
             val coloredText = StringUtils.searchAndColor(
                 originalText,
                 query,
@@ -156,12 +209,77 @@ abstract class PreviewTextFragment :
             )
 
             binding.textPreview.setHtmlContent(coloredText.replace("\n", "<br \\>"))
+            val count = Regex(Regex.escape(query), RegexOption.IGNORE_CASE).findAll(originalText ?: "").count()
+            showSearchBar(count, navigable = false)
         } else {
             val activity = activity ?: return
             setText(binding.textPreview, originalText, file, activity, false, false, viewThemeUtils)
+            binding.textPreviewSearchBar.visibility = View.GONE
         }
     }
 
+    /**
+     * Searches the whole file in the background and scrolls to the first matching line as soon as it is found. The
+     * other matching lines can be reached with the buttons of the search bar.
+     */
+    private fun searchLines(query: String) {
+        val lines = textLines ?: return
+        val adapter = textLinesAdapter ?: return
+
+        searchJob?.cancel()
+        adapter.query = query
+        matches = IntArray(0)
+        currentMatch = -1
+        binding.textPreviewSearchBar.visibility = View.GONE
+        if (query.isEmpty()) {
+            return
+        }
+
+        searchJob = viewLifecycleOwner.lifecycleScope.launch(Lanes.dispatcher(Lanes.Lane.DISK_IO)) {
+            lines.search(query, { isActive }) { found, done ->
+                launch(Dispatchers.Main) {
+                    matches = found
+                    if (currentMatch < 0 && found.isNotEmpty()) {
+                        showMatch(0)
+                    } else {
+                        showSearchBar(found.size, navigable = true)
+                    }
+                }
+                if (done) {
+                    Log_OC.d(TAG, "${found.size} lines match the search")
+                }
+            }
+        }
+    }
+
+    /**
+     * Scrolls to the matching line at [index], wrapping around at both ends.
+     */
+    private fun showMatch(index: Int) {
+        if (matches.isEmpty()) {
+            return
+        }
+
+        currentMatch = index.mod(matches.size)
+        (binding.textPreviewLines.layoutManager as? LinearLayoutManager)
+            ?.scrollToPositionWithOffset(matches[currentMatch], 0)
+        showSearchBar(matches.size, navigable = true)
+    }
+
+    private fun showSearchBar(count: Int, navigable: Boolean) {
+        binding.textPreviewSearchBar.visibility = View.VISIBLE
+        binding.textPreviewMatchCount.text = when {
+            count == 0 -> getString(R.string.preview_text_search_no_matches)
+            navigable && currentMatch >= 0 -> getString(R.string.preview_text_search_matches, currentMatch + 1, count)
+            else -> resources.getQuantityString(R.plurals.preview_text_search_match_count, count, count)
+        }
+        val buttons = if (navigable) View.VISIBLE else View.GONE
+        binding.textPreviewPreviousMatch.visibility = buttons
+        binding.textPreviewNextMatch.visibility = buttons
+        binding.textPreviewPreviousMatch.isEnabled = count > 1
+        binding.textPreviewNextMatch.isEnabled = count > 1
+    }
+
     protected fun finish() {
         val activity = activity ?: return
         activity.runOnUiThread { activity.onBackPressedDispatcher.onBackPressed() }
@@ -170,6 +288,50 @@ abstract class PreviewTextFragment :
     companion object {
         private val TAG: String = PreviewTextFragment::class.java.simpleName
 
+        private val LANGUAGES_BY_EXTENSION = mapOf(
+            "c" to "c",
+            "h" to "c",
+            "clj" to "clojure",
+            "cc" to "cpp",
+            "cpp" to "cpp",
+            "hpp" to "cpp",
+            "cs" to "csharp",
+            "css" to "css",
+            "dart" to "dart",
+            "go" to "go",
+            "gradle" to "groovy",
+            "groovy" to "groovy",
+            "java" to "java",
+            "js" to "javascript",
+            "json" to "json",
+            "kt" to "kotlin",
+            "kts" to "kotlin",
+            "tex" to "latex",
+            "md" to "markdown",
+            "markdown" to "markdown",
+            "html" to "markup",
+            "xml" to "markup",
+            "py" to "python",
+            "scala" to "scala",
+            "sql" to "sql",
+            "swift" to "swift",
+            "yaml" to "yaml",
+            "yml" to "yaml"
+        )
+
+        /**
+         * Highlights single lines, so constructs spanning several lines are not recognized.
+         */
+        private fun createLineHighlighter(fileName: String?): ((String) -> CharSequence)? {
+            val language = LANGUAGES_BY_EXTENSION[fileName?.substringAfterLast('.', "")?.lowercase()]
+                ?: return null
+            val highlight = Prism4jSyntaxHighlight.create(
+                Prism4j(MarkwonGrammarLocator()),
+                Prism4jThemeDefault.create()
+            )
+            return { line -> highlight.highlight(language, line) }
+        }
+
         protected fun getRenderedMarkdownText(
             activity: Activity?,
             markdown: String?,
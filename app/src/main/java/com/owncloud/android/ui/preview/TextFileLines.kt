@@ -0,0 +1,318 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.preview
+
+import com.owncloud.android.lib.common.utils.Log_OC
+import org.mozilla.universalchardet.UniversalDetector
+import java.io.Closeable
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.CharBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.Charset
+import java.nio.charset.CodingErrorAction
+import java.util.concurrent.Executor
+
+/**
+ * Line offset index of a text file too large to be shown at once.
+ *
+ * The file is scanned once for line breaks without decoding it and stays opened. Lines are read back on demand with
+ * positional reads, a page at a time, and only a few pages are kept in memory. Pages shown on screen are read in the
+ * background with [loadPage].
+ */
+class TextFileLines private constructor(
+    private val channel: FileChannel,
+    private val charset: Charset,
+    private val offsets: LongArray,
+    private val lengths: IntArray,
+    val lineCount: Int
+) : Closeable {
+
+    companion object {
+        private val TAG = TextFileLines::class.java.simpleName
+
+        private const val SCAN_BUFFER_SIZE = 64 * 1024
+        private const val MAX_BATCH_SIZE = 64 * 1024
+        private const val CHARSET_SAMPLE_SIZE = 64 * 1024
+        private const val INITIAL_CAPACITY = 1024
+        private const val PAGE_SIZE = 100
+        private const val MAX_CACHED_PAGES = 8
+        private const val LOAD_FACTOR = 0.75f
+        private const val SEARCH_BATCH_SIZE = 10_000
+
+        /**
+         * Smaller files are shown at once.
+         */
+        const val MIN_FILE_SIZE = 512 * 1024L
+
+        /**
+         * Longer lines are cut at this many bytes, a single text view cannot lay them out in reasonable time.
+         */
+        const val MAX_LINE_LENGTH = 8 * 1024
+
+        private const val NEW_LINE = '\n'.code.toByte()
+        private const val BYTE_ORDER_MARK = '\uFEFF'
+
+        /**
+         * Indexes [file], must not be called on the main thread.
+         *
+         * @return index or null if the file cannot be read or its encoding cannot be split at line feed bytes
+         */
+        @JvmStatic
+        fun open(file: File): TextFileLines? {
+            val channel = try {
+                RandomAccessFile(file, "r").channel
+            } catch (e: IOException) {
+                Log_OC.e(TAG, "Could not open ${file.absolutePath}", e)
+                return null
+            }
+
+            return try {
+                val charset = detectCharset(channel)
+                if (charset == null) {
+                    channel.close()
+                    null
+                } else {
+                    Builder().scan(channel, charset)
+                }
+            } catch (e: IOException) {
+                Log_OC.e(TAG, "Could not index ${file.absolutePath}", e)
+                channel.close()
+                null
+            }
+        }
+
+        private fun detectCharset(channel: FileChannel): Charset? {
+            val buffer = ByteBuffer.allocate(CHARSET_SAMPLE_SIZE)
+            channel.read(buffer, 0)
+            val detector = UniversalDetector()
+            detector.handleData(buffer.array(), 0, buffer.position())
+            detector.dataEnd()
+
+            val name = detector.detectedCharset ?: return Charsets.UTF_8
+            if (name.startsWith("UTF-16") || name.startsWith("UTF-32")) {
+                return null
+            }
+            return try {
+                Charset.forName(name)
+            } catch (e: IllegalArgumentException) {
+                Charsets.UTF_8
+            }
+        }
+    }
+
+    private class Builder {
+        var offsets = LongArray(INITIAL_CAPACITY)
+        var lengths = IntArray(INITIAL_CAPACITY)
+        var count = 0
+
+        fun scan(channel: FileChannel, charset: Charset): TextFileLines {
+            val size = channel.size()
+            val buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE)
+            var position = 0L
+            var lineStart = 0L
+
+            while (position < size) {
+                buffer.clear()
+                val read = channel.read(buffer, position)
+                if (read <= 0) break
+                val bytes = buffer.array()
+                for (i in 0 until read) {
+                    if (bytes[i] == NEW_LINE) {
+                        add(lineStart, position + i)
+                        lineStart = position + i + 1
+                    }
+                }
+                position += read
+            }
+            if (lineStart < position) {
+                add(lineStart, position)
+            }
+            return TextFileLines(channel, charset, offsets, lengths, count)
+        }
+
+        private fun add(start: Long, end: Long) {
+            if (count == offsets.size) {
+                offsets = offsets.copyOf(count * 2)
+                lengths = lengths.copyOf(count * 2)
+            }
+            offsets[count] = start
+            lengths[count] = (end - start).coerceAtMost(MAX_LINE_LENGTH.toLong()).toInt()
+            count++
+        }
+    }
+
+    private val pages = object : LinkedHashMap<Int, Array<String>>(MAX_CACHED_PAGES, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Int, Array<String>>?): Boolean =
+            size > MAX_CACHED_PAGES
+    }
+    private val loadingPages = HashSet<Int>()
+
+    /**
+     * Reads the line if its page is not in memory, so it must not be called on the main thread.
+     */
+    fun getLine(index: Int): String {
+        checkIndex(index)
+        val page = index / PAGE_SIZE
+        val lines = synchronized(pages) { pages[page] } ?: readPage(page)
+        return lines[index % PAGE_SIZE]
+    }
+
+    /**
+     * @return the line at [index] if its page is in memory, otherwise null without reading it
+     */
+    fun getIfLoaded(index: Int): String? {
+        checkIndex(index)
+        return synchronized(pages) { pages[index / PAGE_SIZE] }?.get(index % PAGE_SIZE)
+    }
+
+    /**
+     * Reads the page of the line at [index] on [executor], unless it is in memory or already being read.
+     *
+     * @param onLoaded called on the thread of [executor] with the positions of the read lines
+     */
+    fun loadPage(index: Int, executor: Executor, onLoaded: (IntRange) -> Unit) {
+        checkIndex(index)
+        val page = index / PAGE_SIZE
+        synchronized(pages) {
+            if (pages.containsKey(page) || !loadingPages.add(page)) {
+                return
+            }
+        }
+        executor.execute {
+            try {
+                if (channel.isOpen) {
+                    readPage(page)
+                    onLoaded(page * PAGE_SIZE until minOf((page + 1) * PAGE_SIZE, lineCount))
+                }
+            } finally {
+                synchronized(pages) { loadingPages.remove(page) }
+            }
+        }
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index !in 0 until lineCount) {
+            throw IndexOutOfBoundsException("Index $index, size $lineCount")
+        }
+    }
+
+    private fun readPage(page: Int): Array<String> {
+        val from = page * PAGE_SIZE
+        val to = minOf(from + PAGE_SIZE, lineCount)
+        val lines = Array(to - from) { "" }
+        forEachLine(from, to) { index, text -> lines[index - from] = text }
+        synchronized(pages) {
+            pages[page] = lines
+        }
+        return lines
+    }
+
+    /**
+     * Finds the lines containing [query], ignoring case. Lines are read in batches and never cached.
+     *
+     * This reads the whole file, so it must not be called on the main thread.
+     *
+     * @param isActive checked between batches, the search stops when it returns false
+     * @param onProgress called with all matching line numbers so far, in ascending order, when more were found and
+     * when the search is complete
+     */
+    fun search(query: String, isActive: () -> Boolean, onProgress: (IntArray, Boolean) -> Unit) {
+        var matches = IntArray(0)
+        var count = 0
+        var reported = -1
+        var from = 0
+        if (lineCount == 0) {
+            onProgress(matches, true)
+        }
+        while (from < lineCount && isActive()) {
+            val to = minOf(from + SEARCH_BATCH_SIZE, lineCount)
+            forEachLine(from, to) { index, text ->
+                if (text.contains(query, ignoreCase = true)) {
+                    if (count == matches.size) {
+                        matches = matches.copyOf(maxOf(PAGE_SIZE, count * 2))
+                    }
+                    matches[count++] = index
+                }
+            }
+            from = to
+            if (count != reported || from == lineCount) {
+                reported = count
+                onProgress(matches.copyOf(count), from == lineCount)
+            }
+        }
+    }
+
+    private fun forEachLine(from: Int, to: Int, action: (Int, String) -> Unit) {
+        var i = from
+        while (i < to) {
+            // batches span the skipped parts of cut lines as well
+            var end = i + 1
+            while (end < to && offsets[end] + lengths[end] - offsets[i] <= MAX_BATCH_SIZE) {
+                end++
+            }
+            readBatch(i, end, action)
+            i = end
+        }
+    }
+
+    private fun readBatch(from: Int, to: Int, action: (Int, String) -> Unit) {
+        val start = offsets[from]
+        val buffer = ByteBuffer.allocate((offsets[to - 1] + lengths[to - 1] - start).toInt())
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) <= 0) break
+            }
+        } catch (e: IOException) {
+            // the file was closed or became unreadable
+            return
+        }
+
+        val bytes = buffer.array()
+        for (line in from until to) {
+            val offset = (offsets[line] - start).toInt()
+            var length = lengths[line]
+            if (offset + length > buffer.position()) {
+                continue
+            }
+            if (length > 0 && bytes[offset + length - 1] == '\r'.code.toByte()) {
+                length--
+            }
+            val text = if (lengths[line] == MAX_LINE_LENGTH) {
+                decodeCut(bytes, offset, length)
+            } else {
+                String(bytes, offset, length, charset)
+            }
+            action(line, if (line == 0) text.removePrefix(BYTE_ORDER_MARK.toString()) else text)
+        }
+    }
+
+    /**
+     * Decodes a line that may have been cut within a multi-byte character, dropping the incomplete character at its
+     * end instead of showing a replacement character.
+     */
+    private fun decodeCut(bytes: ByteArray, offset: Int, length: Int): String {
+        val decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        val chars = CharBuffer.allocate((length * decoder.maxCharsPerByte()).toInt() + 1)
+        // not the end of input, so trailing bytes of an incomplete character are left undecoded
+        decoder.decode(ByteBuffer.wrap(bytes, offset, length), chars, false)
+        chars.flip()
+        return chars.toString()
+    }
+
+    override fun close() {
+        try {
+            channel.close()
+        } catch (e: IOException) {
+            // nothing to do
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.preview
+
+import android.annotation.SuppressLint
+import android.graphics.Typeface
+import android.os.Handler
+import android.os.Looper
+import android.text.SpannableString
+import android.text.Spanned
+import android.text.style.ForegroundColorSpan
+import android.text.style.StyleSpan
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import android.widget.TextView
+import androidx.recyclerview.widget.RecyclerView
+import com.nextcloud.client.core.Lanes
+import com.owncloud.android.R
+
+/**
+ * Shows the lines of a [TextFileLines], reading and highlighting only the bound ones. Lines are read in the
+ * background; rows of a page that is not in memory stay empty until it is read.
+ *
+ * @param highlighter syntax highlighting applied to each bound line, if any
+ */
+class TextLinesAdapter(
+    private val lines: TextFileLines,
+    private val highlighter: ((String) -> CharSequence)?,
+    private val searchColor: Int
+) : RecyclerView.Adapter<TextLinesAdapter.ViewHolder>() {
+
+    class ViewHolder(view: View) : RecyclerView.ViewHolder(view) {
+        val text: TextView = view.findViewById(R.id.text_preview_line)
+    }
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val pageLoader = Lanes.executor(Lanes.Lane.DISK_IO, Lanes.Priority.USER_VISIBLE)
+
+    var query: String = ""
+        @SuppressLint("NotifyDataSetChanged")
+        set(value) {
+            if (field != value) {
+                field = value
+                notifyDataSetChanged()
+            }
+        }
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int) =
+        ViewHolder(LayoutInflater.from(parent.context).inflate(R.layout.text_file_preview_line, parent, false))
+
+    override fun getItemCount() = lines.lineCount
+
+    override fun onBindViewHolder(holder: ViewHolder, position: Int) {
+        val line = lineOrLoad(position)
+        if (line == null) {
+            holder.text.text = ""
+            return
+        }
+        val text = highlighter?.invoke(line) ?: line
+        holder.text.text = if (query.isEmpty()) text else markMatches(text)
+    }
+
+    /**
+     * @return the line, or null if its page is read in the background first; the rows of the page are rebound once
+     * it is read
+     */
+    private fun lineOrLoad(position: Int): String? {
+        lines.getIfLoaded(position)?.let { return it }
+
+        lines.loadPage(position, pageLoader) { loaded ->
+            mainHandler.post {
+                notifyItemRangeChanged(loaded.first, loaded.last - loaded.first + 1)
+            }
+        }
+        return null
+    }
+
+    private fun markMatches(text: CharSequence): CharSequence {
+        var start = text.indexOf(query, ignoreCase = true)
+        if (start < 0) {
+            return text
+        }
+
+        val marked = SpannableString(text)
+        while (start >= 0) {
+            val end = start + query.length
+            marked.setSpan(ForegroundColorSpan(searchColor), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE)
+            marked.setSpan(StyleSpan(Typeface.BOLD), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE)
+            start = text.indexOf(query, end, ignoreCase = true)
+        }
+        return marked
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.preview
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.graphics.BitmapRegionDecoder
+import android.graphics.Canvas
+import android.graphics.ColorFilter
+import android.graphics.Paint
+import android.graphics.PixelFormat
+import android.graphics.Rect
+import android.graphics.RectF
+import android.graphics.drawable.Drawable
+import android.os.Handler
+import android.os.Looper
+import android.util.LruCache
+import androidx.exifinterface.media.ExifInterface
+import com.owncloud.android.lib.common.utils.Log_OC
+import com.owncloud.android.utils.BitmapUtils
+import java.io.IOException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import kotlin.math.ceil
+import kotlin.math.floor
+
+/**
+ * Shows images too large to be decoded at once.
+ *
+ * A low resolution base layer covering the whole image is drawn first. Once zoomed in beyond its resolution, the
+ * visible part of the image is decoded in tiles at the sample size matching the zoom level. Tiles are kept in a cache
+ * bounded in bytes and tiles scrolled off screen before being decoded are cancelled, so the memory use depends on the
+ * screen size only.
+ *
+ * The drawable has the size of the full image and is meant for a [com.github.chrisbanes.photoview.PhotoView], which
+ * has to report its display rectangle to [onDisplayRectChanged].
+ */
+class TiledImageDrawable private constructor(
+    private val decoder: BitmapRegionDecoder,
+    private val base: Bitmap,
+    private val baseSampleSize: Int
+) : Drawable() {
+
+    companion object {
+        private val TAG = TiledImageDrawable::class.java.simpleName
+
+        private const val TILE_SIZE = 512
+        private const val MIN_PIXELS_SCREEN_RATIO = 4
+        private const val CACHE_MEMORY_FRACTION = 8
+        private val TILED_MIME_TYPES = setOf("image/jpeg", "image/jpg", "image/webp", "image/heic", "image/heif")
+
+        /**
+         * @return true if the image has many more pixels than the screen and can be decoded in regions
+         */
+        @JvmStatic
+        @Suppress("ReturnCount")
+        fun canTile(storagePath: String, mimeType: String?, screenWidth: Int, screenHeight: Int): Boolean {
+            if (mimeType?.lowercase() !in TILED_MIME_TYPES) {
+                return false
+            }
+
+            val (width, height) = BitmapUtils.getImageResolution(storagePath).let { it[0] to it[1] }
+            if (width <= 0 || height <= 0 ||
+                width.toLong() * height <= MIN_PIXELS_SCREEN_RATIO.toLong() * screenWidth * screenHeight
+            ) {
+                return false
+            }
+
+            // regions are decoded as stored, rotated images keep being scaled down as a whole
+            val orientation = try {
+                ExifInterface(storagePath).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION,
+                    ExifInterface.ORIENTATION_NORMAL
+                )
+            } catch (e: IOException) {
+                ExifInterface.ORIENTATION_UNDEFINED
+            }
+            return orientation == ExifInterface.ORIENTATION_NORMAL
+        }
+
+        /**
+         * Decodes the base layer, must not be called on the main thread.
+         *
+         * @return drawable or null if the image cannot be decoded in regions
+         */
+        @JvmStatic
+        @Suppress("DEPRECATION", "ReturnCount")
+        fun create(storagePath: String, screenWidth: Int, screenHeight: Int): TiledImageDrawable? {
+            val decoder = try {
+                BitmapRegionDecoder.newInstance(storagePath, false)
+            } catch (e: IOException) {
+                Log_OC.w(TAG, "Region decoding not supported for $storagePath: $e")
+                null
+            } ?: return null
+
+            var sampleSize = 1
+            while (decoder.width / sampleSize > screenWidth || decoder.height / sampleSize > screenHeight) {
+                sampleSize *= 2
+            }
+
+            val base = try {
+                decoder.decodeRegion(
+                    Rect(0, 0, decoder.width, decoder.height),
+                    BitmapFactory.Options().apply { inSampleSize = sampleSize }
+                )
+            } catch (e: OutOfMemoryError) {
+                Log_OC.w(TAG, "Out of memory decoding base layer of $storagePath")
+                null
+            }
+
+            if (base == null) {
+                decoder.recycle()
+                return null
+            }
+
+            Log_OC.d(TAG, "Tiling ${decoder.width}x${decoder.height} image, base layer ${base.width}x${base.height}")
+            return TiledImageDrawable(decoder, base, sampleSize)
+        }
+
+        private fun sampleSizeFor(scale: Float): Int {
+            var sampleSize = 1
+            while (sampleSize * 2 * scale <= 1f) {
+                sampleSize *= 2
+            }
+            return sampleSize
+        }
+    }
+
+    private data class Tile(val sampleSize: Int, val column: Int, val row: Int)
+
+    private val imageWidth = decoder.width
+    private val imageHeight = decoder.height
+    private val paint = Paint(Paint.FILTER_BITMAP_FLAG)
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val executor: ExecutorService = Executors.newSingleThreadExecutor()
+    private val pending = HashMap<Tile, Future<*>>()
+    private var visibleTiles: List<Tile> = emptyList()
+    private var released = false
+
+    // bitmaps are not recycled on eviction, the render thread may still draw them
+    private val tiles = object : LruCache<Tile, Bitmap>(
+        (Runtime.getRuntime().maxMemory() / CACHE_MEMORY_FRACTION).toInt()
+    ) {
+        override fun sizeOf(key: Tile, value: Bitmap): Int = value.byteCount
+    }
+
+    private val tileRect = Rect()
+    private val drawRect = RectF()
+
+    override fun getIntrinsicWidth(): Int = imageWidth
+
+    override fun getIntrinsicHeight(): Int = imageHeight
+
+    override fun draw(canvas: Canvas) {
+        val bounds = bounds
+        canvas.drawBitmap(base, null, bounds, paint)
+
+        val scaleX = bounds.width().toFloat() / imageWidth
+        val scaleY = bounds.height().toFloat() / imageHeight
+        visibleTiles.forEach { tile ->
+            val bitmap = tiles.get(tile) ?: return@forEach
+            imageRectOf(tile, tileRect)
+            drawRect.set(
+                bounds.left + tileRect.left * scaleX,
+                bounds.top + tileRect.top * scaleY,
+                bounds.left + tileRect.right * scaleX,
+                bounds.top + tileRect.bottom * scaleY
+            )
+            canvas.drawBitmap(bitmap, null, drawRect, paint)
+        }
+    }
+
+    /**
+     * Loads the tiles visible in the view, must be called on the main thread whenever the image is moved or zoomed.
+     *
+     * @param displayRect position of the whole image in view coordinates
+     */
+    fun onDisplayRectChanged(displayRect: RectF, viewWidth: Int, viewHeight: Int) {
+        if (released || displayRect.width() <= 0f || viewWidth <= 0 || viewHeight <= 0) {
+            return
+        }
+
+        val scale = displayRect.width() / imageWidth
+        val sampleSize = sampleSizeFor(scale)
+        val newTiles = if (sampleSize >= baseSampleSize) {
+            // the base layer is sharp enough
+            emptyList()
+        } else {
+            val left = floor(-displayRect.left / scale).toInt().coerceIn(0, imageWidth)
+            val top = floor(-displayRect.top / scale).toInt().coerceIn(0, imageHeight)
+            val right = ceil((viewWidth - displayRect.left) / scale).toInt().coerceIn(0, imageWidth)
+            val bottom = ceil((viewHeight - displayRect.top) / scale).toInt().coerceIn(0, imageHeight)
+            tilesIn(sampleSize, left, top, right, bottom)
+        }
+
+        if (newTiles != visibleTiles) {
+            visibleTiles = newTiles
+            cancelInvisibleTiles()
+            newTiles.forEach(::requestTile)
+            invalidateSelf()
+        }
+    }
+
+    /**
+     * Cancels pending tiles and frees the decoder. The drawable keeps drawing what was loaded already.
+     */
+    fun release() {
+        if (released) {
+            return
+        }
+        released = true
+        visibleTiles = emptyList()
+        pending.values.forEach { it.cancel(false) }
+        pending.clear()
+        executor.execute { decoder.recycle() }
+        executor.shutdown()
+    }
+
+    private fun tilesIn(sampleSize: Int, left: Int, top: Int, right: Int, bottom: Int): List<Tile> {
+        if (right <= left || bottom <= top) {
+            return emptyList()
+        }
+
+        val span = TILE_SIZE * sampleSize
+        val result = ArrayList<Tile>()
+        for (row in top / span..(bottom - 1) / span) {
+            for (column in left / span..(right - 1) / span) {
+                result.add(Tile(sampleSize, column, row))
+            }
+        }
+        return result
+    }
+
+    private fun imageRectOf(tile: Tile, rect: Rect) {
+        val span = TILE_SIZE * tile.sampleSize
+        rect.set(
+            tile.column * span,
+            tile.row * span,
+            minOf((tile.column + 1) * span, imageWidth),
+            minOf((tile.row + 1) * span, imageHeight)
+        )
+    }
+
+    private fun cancelInvisibleTiles() {
+        val iterator = pending.entries.iterator()
+        while (iterator.hasNext()) {
+            val (tile, future) = iterator.next()
+            if (tile !in visibleTiles) {
+                future.cancel(false)
+                iterator.remove()
+            }
+        }
+    }
+
+    private fun requestTile(tile: Tile) {
+        if (tiles.get(tile) != null || pending.containsKey(tile)) {
+            return
+        }
+
+        val rect = Rect()
+        imageRectOf(tile, rect)
+        pending[tile] = executor.submit {
+            val bitmap = decodeTile(rect, tile.sampleSize)
+            mainHandler.post {
+                pending.remove(tile)
+                if (!released && bitmap != null) {
+                    tiles.put(tile, bitmap)
+                    if (tile in visibleTiles) {
+                        invalidateSelf()
+                    }
+                }
+            }
+        }
+    }
+
+    private fun decodeTile(rect: Rect, sampleSize: Int): Bitmap? = try {
+        decoder.decodeRegion(rect, BitmapFactory.Options().apply { inSampleSize = sampleSize })
+    } catch (e: OutOfMemoryError) {
+        Log_OC.w(TAG, "Out of memory decoding tile $rect")
+        null
+    } catch (e: IllegalArgumentException) {
+        Log_OC.w(TAG, "Could not decode tile $rect: $e")
+        null
+    }
+
+    override fun setAlpha(alpha: Int) {
+        paint.alpha = alpha
+        invalidateSelf()
+    }
+
+    override fun setColorFilter(colorFilter: ColorFilter?) {
+        paint.colorFilter = colorFilter
+        invalidateSelf()
+    }
+
+    @Deprecated("Deprecated in Java")
+    override fun getOpacity(): Int = PixelFormat.TRANSLUCENT
+}
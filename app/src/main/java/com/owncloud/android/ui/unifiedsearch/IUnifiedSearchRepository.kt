@@ -8,18 +8,27 @@
  */
 package com.owncloud.android.ui.unifiedsearch
 
+import com.nextcloud.client.core.Cancellable
 import com.owncloud.android.lib.common.SearchResult
 
 data class UnifiedSearchResult(val provider: ProviderID, val success: Boolean, val result: SearchResult)
 
+/**
+ * Callbacks are called on the main thread, results of each provider as soon as they arrive. No callback is called
+ * after the returned query is cancelled.
+ */
 @Suppress("LongParameterList")
 interface IUnifiedSearchRepository {
+    /**
+     * @param refresh true to ignore cached results
+     */
     fun queryAll(
         query: String,
+        refresh: Boolean,
         onResult: (UnifiedSearchResult) -> Unit,
         onError: (Throwable) -> Unit,
         onFinished: (Boolean) -> Unit
-    )
+    ): Cancellable
 
     fun queryProvider(
         query: String,
@@ -28,5 +37,5 @@ interface IUnifiedSearchRepository {
         onResult: (UnifiedSearchResult) -> Unit,
         onError: (Throwable) -> Unit,
         onFinished: (Boolean) -> Unit
-    )
+    ): Cancellable
 }
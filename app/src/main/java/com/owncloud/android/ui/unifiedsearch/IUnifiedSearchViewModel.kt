@@ -22,7 +22,8 @@ interface IUnifiedSearchViewModel {
     val query: LiveData<String>
     val searchResults: LiveData<List<UnifiedSearchSection>>
 
-    fun initialQuery()
+    fun initialQuery(refresh: Boolean = false)
+    fun search(query: String)
     fun loadMore(provider: ProviderID)
     fun openResult(result: SearchResultEntry)
     fun setQuery(query: String)
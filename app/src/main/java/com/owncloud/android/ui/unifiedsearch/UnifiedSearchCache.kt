@@ -0,0 +1,76 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.unifiedsearch
+
+import com.nextcloud.client.core.Clock
+import com.owncloud.android.lib.common.SearchProviders
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Search providers and results of recent queries, per account.
+ *
+ * Providers rarely change, results are kept shortly, so that searching the same term again while typing or when
+ * reopening the search shows them at once. Only complete results of first pages are cached.
+ */
+@Singleton
+class UnifiedSearchCache @Inject constructor(private val clock: Clock) {
+
+    companion object {
+        const val PROVIDERS_CACHE_TIME_MS = 60 * 60 * 1000L
+        const val RESULTS_CACHE_TIME_MS = 2 * 60 * 1000L
+        const val MAX_CACHED_QUERIES = 20
+        private const val LOAD_FACTOR = 0.75f
+    }
+
+    private data class Entry<T>(val time: Long, val value: T)
+
+    private val providers = HashMap<String, Entry<SearchProviders>>()
+    private val results = object : LinkedHashMap<Pair<String, String>, Entry<List<UnifiedSearchResult>>>(
+        MAX_CACHED_QUERIES,
+        LOAD_FACTOR,
+        true
+    ) {
+        override fun removeEldestEntry(
+            eldest: MutableMap.MutableEntry<Pair<String, String>, Entry<List<UnifiedSearchResult>>>?
+        ): Boolean = size > MAX_CACHED_QUERIES
+    }
+
+    @Synchronized
+    fun getProviders(accountName: String): SearchProviders? = providers[accountName]
+        ?.takeIf { clock.currentTime - it.time < PROVIDERS_CACHE_TIME_MS }
+        ?.value
+
+    @Synchronized
+    fun putProviders(accountName: String, searchProviders: SearchProviders) {
+        providers[accountName] = Entry(clock.currentTime, searchProviders)
+    }
+
+    @Synchronized
+    fun getResults(accountName: String, query: String): List<UnifiedSearchResult>? {
+        val key = accountName to query
+        val entry = results[key] ?: return null
+        if (clock.currentTime - entry.time >= RESULTS_CACHE_TIME_MS) {
+            results.remove(key)
+            return null
+        }
+        return entry.value
+    }
+
+    @Synchronized
+    fun putResults(accountName: String, query: String, queryResults: List<UnifiedSearchResult>) {
+        results[accountName to query] = Entry(clock.currentTime, queryResults)
+    }
+
+    /**
+     * Drops the cached results of [accountName], e.g. when the user refreshes the search.
+     */
+    @Synchronized
+    fun clearResults(accountName: String) {
+        results.keys.removeAll { it.first == accountName }
+    }
+}
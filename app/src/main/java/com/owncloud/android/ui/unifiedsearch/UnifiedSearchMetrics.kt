@@ -0,0 +1,63 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.unifiedsearch
+
+import com.nextcloud.client.jobs.transfer.metrics.Histogram
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * In-process latency of the unified search, per provider. It is shown in the engineering test mode.
+ */
+object UnifiedSearchMetrics {
+
+    data class Entry(
+        val provider: ProviderID,
+        val succeeded: Long,
+        val failed: Long,
+        val cancelled: Long,
+        val latencyMs: Histogram.Snapshot
+    )
+
+    private class Metrics {
+        val succeeded = AtomicLong()
+        val failed = AtomicLong()
+        val cancelled = AtomicLong()
+        val latencyMs = Histogram()
+    }
+
+    private val registry = ConcurrentHashMap<ProviderID, Metrics>()
+
+    /**
+     * @param success null if the result was dropped because the query changed meanwhile
+     */
+    fun record(provider: ProviderID, latencyMs: Long, success: Boolean?) {
+        val metrics = registry.getOrPut(provider) { Metrics() }
+        when (success) {
+            true -> metrics.succeeded.incrementAndGet()
+            false -> metrics.failed.incrementAndGet()
+            null -> metrics.cancelled.incrementAndGet()
+        }
+        metrics.latencyMs.record(latencyMs)
+    }
+
+    fun snapshot(): List<Entry> = registry.entries
+        .map { (provider, metrics) ->
+            Entry(
+                provider,
+                metrics.succeeded.get(),
+                metrics.failed.get(),
+                metrics.cancelled.get(),
+                metrics.latencyMs.snapshot()
+            )
+        }
+        .sortedBy { it.provider }
+
+    fun reset() {
+        registry.clear()
+    }
+}
@@ -24,3 +24,16 @@ fun List<UnifiedSearchSection>.filterOutHiddenFiles(listOfHiddenFiles: List<Stri
 
         searchSection.copy(entries = entriesWithoutHiddenFiles)
     }.filter { it.entries.isNotEmpty() }
+
+/**
+ * Removes the entries of files already shown as local results, sections with more results on the server are kept.
+ */
+fun List<UnifiedSearchSection>.filterOutLocalFiles(localFileIds: Set<Long>): List<UnifiedSearchSection> {
+    if (localFileIds.isEmpty()) {
+        return this
+    }
+
+    return map { searchSection ->
+        searchSection.copy(entries = searchSection.entries.filterNot { it.localFile?.fileId in localFileIds })
+    }.filter { it.entries.isNotEmpty() || it.hasMoreResults }
+}
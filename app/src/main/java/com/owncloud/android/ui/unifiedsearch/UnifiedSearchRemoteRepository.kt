@@ -8,7 +8,8 @@
 package com.owncloud.android.ui.unifiedsearch
 
 import com.nextcloud.client.account.CurrentAccountProvider
-import com.nextcloud.client.core.AsyncRunner
+import com.nextcloud.client.core.Cancellable
+import com.nextcloud.client.core.Lanes
 import com.nextcloud.client.network.ClientFactory
 import com.nextcloud.common.NextcloudClient
 import com.owncloud.android.lib.common.SearchProviders
@@ -16,69 +17,88 @@ import com.owncloud.android.lib.common.utils.Log_OC
 import kotlinx.coroutines.CoroutineExceptionHandler
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.isActive
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 
+/**
+ * Queries all providers concurrently on the network lane. Cancelling a query cancels the provider requests not sent
+ * yet and drops the results of the others.
+ */
 class UnifiedSearchRemoteRepository(
     private val viewModelScope: CoroutineScope,
     private val clientFactory: ClientFactory,
     private val currentAccountProvider: CurrentAccountProvider,
-    private val asyncRunner: AsyncRunner
+    private val cache: UnifiedSearchCache
 ) : IUnifiedSearchRepository {
 
-    private var providers: SearchProviders? = null
     private val tag = "UnifiedSearchRemoteRepository"
 
-    private fun runAsyncWithNcClient(callback: (client: NextcloudClient) -> Unit) {
+    private object Finished : Cancellable {
+        override fun cancel() = Unit
+    }
+
+    private fun launchWithNcClient(block: suspend CoroutineScope.(client: NextcloudClient) -> Unit): Cancellable {
         val coroutineExceptionHandler = CoroutineExceptionHandler { _, exception ->
-            Log_OC.d(tag, "CoroutineExceptionHandler got at runAsyncWithNcClient $exception")
+            Log_OC.d(tag, "CoroutineExceptionHandler got at launchWithNcClient $exception")
         }
 
-        viewModelScope.launch(Dispatchers.IO + coroutineExceptionHandler) {
+        val job = viewModelScope.launch(Lanes.dispatcher(Lanes.Lane.NETWORK) + coroutineExceptionHandler) {
             val client = clientFactory.createNextcloudClient(currentAccountProvider.user)
-            callback(client)
+            block(client)
+        }
+        return object : Cancellable {
+            override fun cancel() {
+                job.cancel()
+            }
         }
     }
 
     override fun queryAll(
         query: String,
+        refresh: Boolean,
         onResult: (UnifiedSearchResult) -> Unit,
         onError: (Throwable) -> Unit,
         onFinished: (Boolean) -> Unit
-    ) {
+    ): Cancellable {
         Log_OC.d(this, "queryAll")
-        fetchProviders(
-            onResult = { result ->
-                val providerIds = result.providers.map { it.id }
-                var openRequests = providerIds.size
-                var anyError = false
-                runAsyncWithNcClient { client ->
-                    providerIds
-                        .forEach { provider ->
-                            val task = SearchOnProviderTask(query, provider, client)
-                            asyncRunner.postQuickTask(
-                                task = task,
-                                onResult = {
-                                    openRequests--
-                                    anyError = anyError || !it.success
-                                    onResult(UnifiedSearchResult(provider, it.success, it.searchResult))
-                                    if (openRequests == 0) {
-                                        onFinished(!anyError)
-                                    }
-                                },
-                                onError = {
-                                    openRequests--
-                                    anyError = true
-                                    onError(it)
-                                    if (openRequests == 0) {
-                                        onFinished(!anyError)
-                                    }
-                                }
-                            )
-                        }
+        val accountName = currentAccountProvider.user.accountName
+        if (refresh) {
+            cache.clearResults(accountName)
+        } else {
+            val cached = cache.getResults(accountName, query)
+            if (cached != null) {
+                cached.forEach(onResult)
+                onFinished(true)
+                return Finished
+            }
+        }
+
+        return launchWithNcClient { client ->
+            val providers = fetchProviders(client, accountName)
+            if (providers == null) {
+                withContext(Dispatchers.Main) { onFinished(false) }
+                return@launchWithNcClient
+            }
+
+            val results = providers.providers
+                .map { provider ->
+                    async {
+                        search(SearchOnProviderTask(query, provider.id, client), provider.id, onError)
+                            .also { withContext(Dispatchers.Main) { onResult(it) } }
+                    }
                 }
-            },
-            onError = onError
-        )
+                .awaitAll()
+
+            val success = results.all { it.success }
+            if (success) {
+                cache.putResults(accountName, query, results)
+            }
+            withContext(Dispatchers.Main) { onFinished(success) }
+        }
     }
 
     override fun queryProvider(
@@ -88,37 +108,49 @@ class UnifiedSearchRemoteRepository(
         onResult: (UnifiedSearchResult) -> Unit,
         onError: (Throwable) -> Unit,
         onFinished: (Boolean) -> Unit
-    ) {
+    ): Cancellable {
         Log_OC.d(
             this,
             "queryProvider() called with: query = $query, provider = $provider, cursor = $cursor"
         )
-        runAsyncWithNcClient { client ->
-            val task = SearchOnProviderTask(query, provider, client, cursor)
-            asyncRunner.postQuickTask(
-                task,
-                onResult = {
-                    onResult(UnifiedSearchResult(provider, it.success, it.searchResult))
-                    onFinished(it.success)
-                },
-                onError
-            )
+        return launchWithNcClient { client ->
+            val result = search(SearchOnProviderTask(query, provider, client, cursor), provider, onError)
+            withContext(Dispatchers.Main) {
+                onResult(result)
+                onFinished(result.success)
+            }
         }
     }
 
-    fun fetchProviders(onResult: (SearchProviders) -> Unit, onError: (Throwable) -> Unit) {
+    @Suppress("TooGenericExceptionCaught")
+    private suspend fun search(
+        task: SearchOnProviderTask,
+        provider: ProviderID,
+        onError: (Throwable) -> Unit
+    ): UnifiedSearchResult {
+        val startedAt = System.currentTimeMillis()
+        val result = try {
+            task()
+        } catch (e: Exception) {
+            withContext(Dispatchers.Main) { onError(e) }
+            SearchOnProviderTask.Result()
+        }
+
+        val latencyMs = System.currentTimeMillis() - startedAt
+        UnifiedSearchMetrics.record(provider, latencyMs, result.success.takeIf { currentCoroutineContext().isActive })
+        return UnifiedSearchResult(provider, result.success, result.searchResult)
+    }
+
+    private fun fetchProviders(client: NextcloudClient, accountName: String): SearchProviders? {
+        cache.getProviders(accountName)?.let { return it }
+
         Log_OC.d(this, "fetchProviders")
-        if (this.providers != null) {
-            onResult(this.providers!!)
+        val result = GetSearchProvidersTask(client)()
+        return if (result.success) {
+            cache.putProviders(accountName, result.providers)
+            result.providers
         } else {
-            runAsyncWithNcClient { client ->
-                val task = GetSearchProvidersTask(client)
-                asyncRunner.postQuickTask(
-                    task,
-                    onResult = { onResult(it.providers) },
-                    onError = onError
-                )
-            }
+            null
         }
     }
 }
@@ -17,6 +17,7 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.viewModelScope
 import com.nextcloud.client.account.CurrentAccountProvider
 import com.nextcloud.client.core.AsyncRunner
+import com.nextcloud.client.core.Cancellable
 import com.nextcloud.client.network.ClientFactory
 import com.nextcloud.client.network.ConnectivityService
 import com.owncloud.android.R
@@ -29,6 +30,8 @@ import com.owncloud.android.ui.asynctasks.GetRemoteFileTask
 import com.owncloud.android.ui.fragment.UnifiedSearchFragmentScreenState
 import javax.inject.Inject
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
@@ -39,6 +42,11 @@ class UnifiedSearchViewModel(application: Application) :
     companion object {
         private const val TAG = "UnifiedSearchViewModel"
         private const val FILES_PROVIDER_ID = "files"
+
+        /**
+         * Typed queries are sent once the user stops typing for this time.
+         */
+        const val SEARCH_DEBOUNCE_MS = 300L
     }
 
     private data class UnifiedSearchMetadata(var results: MutableList<SearchResult> = mutableListOf()) {
@@ -58,6 +66,9 @@ class UnifiedSearchViewModel(application: Application) :
     private lateinit var repository: IUnifiedSearchRepository
     private var results: MutableMap<ProviderID, UnifiedSearchMetadata> = mutableMapOf()
     private var searchResultsVersion = 0
+    private val runningQueries = mutableListOf<Cancellable>()
+    private var debounceJob: Job? = null
+    private var searchedQuery: String? = null
 
     override val screenState: MutableLiveData<UnifiedSearchFragmentScreenState> =
         MutableLiveData(UnifiedSearchFragmentScreenState.ShowingContent)
@@ -75,7 +86,8 @@ class UnifiedSearchViewModel(application: Application) :
         runner: AsyncRunner,
         clientFactory: ClientFactory,
         resources: Resources,
-        connectivityService: ConnectivityService
+        connectivityService: ConnectivityService,
+        cache: UnifiedSearchCache
     ) : this(application) {
         this.currentAccountProvider = currentAccountProvider
         this.runner = runner
@@ -87,27 +99,66 @@ class UnifiedSearchViewModel(application: Application) :
             viewModelScope,
             clientFactory,
             currentAccountProvider,
-            runner
+            cache
         )
     }
 
     /**
-     * Clears data and queries all available providers
+     * Clears data and queries all available providers, cancelling the queries still running
      */
-    override fun initialQuery() {
+    override fun initialQuery(refresh: Boolean) {
+        debounceJob?.cancel()
         doWithConnectivityCheck {
+            cancelQueries()
             results = mutableMapOf()
             searchResultsVersion++
             searchResults.value = mutableListOf()
             val queryTerm = query.value.orEmpty()
+            searchedQuery = queryTerm
 
-            if (isLoading.value != true && queryTerm.isNotBlank()) {
+            if (queryTerm.isNotBlank()) {
                 isLoading.value = true
-                repository.queryAll(queryTerm, this::onSearchResult, this::onError, this::onSearchFinished)
+                runningQueries += repository.queryAll(
+                    queryTerm,
+                    refresh,
+                    this::onSearchResult,
+                    this::onError,
+                    this::onSearchFinished
+                )
+            } else if (isLoading.value == true) {
+                isLoading.value = false
             }
         }
     }
 
+    /**
+     * Queries all providers once the query did not change for [SEARCH_DEBOUNCE_MS]
+     */
+    override fun search(query: String) {
+        debounceJob?.cancel()
+        if (query == searchedQuery) {
+            return
+        }
+        if (query.isBlank()) {
+            searchedQuery = null
+            cancelQueries()
+            if (isLoading.value == true) {
+                isLoading.value = false
+            }
+            return
+        }
+        debounceJob = viewModelScope.launch {
+            delay(SEARCH_DEBOUNCE_MS)
+            setQuery(query)
+            initialQuery()
+        }
+    }
+
+    private fun cancelQueries() {
+        runningQueries.forEach { it.cancel() }
+        runningQueries.clear()
+    }
+
     override fun loadMore(provider: ProviderID) {
         doWithConnectivityCheck {
             val queryTerm = query.value.orEmpty()
@@ -115,7 +166,7 @@ class UnifiedSearchViewModel(application: Application) :
             if (isLoading.value != true && queryTerm.isNotBlank()) {
                 results[provider]?.nextCursor()?.let { cursor ->
                     isLoading.value = true
-                    repository.queryProvider(
+                    runningQueries += repository.queryProvider(
                         queryTerm,
                         provider,
                         cursor,
@@ -269,6 +320,12 @@ class UnifiedSearchViewModel(application: Application) :
         this.query.value = query
     }
 
+    override fun onCleared() {
+        super.onCleared()
+        debounceJob?.cancel()
+        cancelQueries()
+    }
+
     @VisibleForTesting
     fun setConnectivityService(connectivityService: ConnectivityService) {
         this.connectivityService = connectivityService
@@ -12,6 +12,7 @@ import com.owncloud.android.lib.resources.files.model.ServerFileInterface
 import com.owncloud.android.lib.resources.trashbin.model.TrashbinFile
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings
 import com.owncloud.android.utils.sort.AlphanumericComparator
+import com.owncloud.android.utils.sort.NaturalSortKey
 import java.io.File
 import java.util.Locale
 
@@ -44,19 +45,22 @@ class FileSortOrderByName internal constructor(name: String?, ascending: Boolean
     }
 
     private fun <T : ServerFileInterface> sortServerFiles(files: MutableList<T>): MutableList<T> {
-        files.sortWith { o1: ServerFileInterface, o2: ServerFileInterface ->
+        // build every sort key once instead of chunking both names on each comparison
+        val keyed = files.map { NaturalSortKey.of(it.fileName) to it }
+        val sorted = keyed.sortedWith { (key1, o1), (key2, o2) ->
             when {
-                o1.isFolder && o2.isFolder -> sortMultiplier * AlphanumericComparator.compare(o1, o2)
+                o1.isFolder && o2.isFolder -> sortMultiplier * key1.compareTo(key2)
                 o1.isFolder -> -1
                 o2.isFolder -> 1
-                else -> sortMultiplier * AlphanumericComparator.compare(o1, o2)
+                else -> sortMultiplier * key1.compareTo(key2)
             }
         }
+        sorted.forEachIndexed { index, (_, file) -> files[index] = file }
         return files
     }
 
     private fun sortOnlyByName(files: MutableList<OCFile>): MutableList<OCFile> {
-        files.sortWith { o1: OCFile, o2: OCFile -> sortMultiplier * AlphanumericComparator.compare(o1, o2) }
+        files.sortWith { o1: OCFile, o2: OCFile -> sortMultiplier * o1.naturalSortKey.compareTo(o2.naturalSortKey) }
         return files
     }
 
@@ -10,8 +10,8 @@ import com.bumptech.glide.Priority
 import com.bumptech.glide.load.DataSource
 import com.bumptech.glide.load.data.DataFetcher
 import com.nextcloud.client.account.UserAccountManagerImpl
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.MainApp
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.operations.RemoteOperation
 import com.owncloud.android.lib.common.utils.Log_OC
 import org.apache.commons.httpclient.HttpStatus
@@ -31,19 +31,22 @@ class GlideStringStreamFetcher(private val url: String?) : DataFetcher<InputStre
     override fun loadData(priority: Priority, callback: DataFetcher.DataCallback<in InputStream>) {
         try {
             val ownCloudAccount = UserAccountManagerImpl.fromContext(MainApp.getAppContext()).currentOwnCloudAccount
-            val client = OwnCloudClientManagerFactory.getDefaultSingleton()
-                .getClientFor(ownCloudAccount, MainApp.getAppContext())
+            if (ownCloudAccount == null) {
+                callback.onLoadFailed(IllegalStateException("No current account"))
+                return
+            }
+            val client = ClientPool.getOwnCloudClient(ownCloudAccount, MainApp.getAppContext())
 
             get = GetMethod(url)
             get?.setRequestHeader("Cookie", "nc_sameSiteCookielax=true;nc_sameSiteCookiestrict=true")
             get?.setRequestHeader(RemoteOperation.OCS_API_HEADER, RemoteOperation.OCS_API_HEADER_VALUE)
 
-            val status = client?.executeMethod(get)
+            val status = client.executeMethod(get)
             if (status == HttpStatus.SC_OK) {
                 stream = get?.responseBodyAsStream
                 stream?.let { callback.onDataReady(it) } ?: callback.onLoadFailed(IOException("Stream is null"))
             } else {
-                client?.exhaustResponse(get?.responseBodyAsStream)
+                client.exhaustResponse(get?.responseBodyAsStream)
                 callback.onLoadFailed(IOException("Unexpected HTTP status $status"))
             }
         } catch (e: Exception) {
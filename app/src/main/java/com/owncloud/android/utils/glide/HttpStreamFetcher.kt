@@ -12,8 +12,8 @@ import com.bumptech.glide.Priority
 import com.bumptech.glide.load.DataSource
 import com.bumptech.glide.load.data.DataFetcher
 import com.nextcloud.client.account.UserAccountManagerImpl
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.MainApp
-import com.owncloud.android.lib.common.OwnCloudClientManagerFactory
 import com.owncloud.android.lib.common.operations.RemoteOperation
 import org.apache.commons.httpclient.HttpStatus
 import org.apache.commons.httpclient.methods.GetMethod
@@ -29,13 +29,11 @@ class HttpStreamFetcher internal constructor(private val url: String) : DataFetc
     override fun loadData(priority: Priority, callback: DataFetcher.DataCallback<in InputStream>) {
         try {
             val ownCloudAccount = UserAccountManagerImpl.fromContext(MainApp.getAppContext()).currentOwnCloudAccount
-            val client = OwnCloudClientManagerFactory.getDefaultSingleton()
-                .getClientFor(ownCloudAccount, MainApp.getAppContext())
-
-            if (client == null || url.isBlank()) {
+            if (ownCloudAccount == null || url.isBlank()) {
                 callback.onLoadFailed(IllegalStateException("Invalid client or URL"))
                 return
             }
+            val client = ClientPool.getOwnCloudClient(ownCloudAccount, MainApp.getAppContext())
 
             get = GetMethod(url)
             get?.setRequestHeader("Cookie", "nc_sameSiteCookielax=true;nc_sameSiteCookiestrict=true")
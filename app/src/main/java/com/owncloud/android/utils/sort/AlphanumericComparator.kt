@@ -58,10 +58,10 @@ class AlphanumericComparator<T : Any> : Comparator<T> {
 
         private val collators: ThreadLocal<Collator> = ThreadLocal.withInitial { Collator.getInstance() }
 
-        private val collator: Collator
+        internal val collator: Collator
             get() = collators.get() ?: Collator.getInstance()
 
-        private fun chunkAt(name: String, start: Int): String {
+        internal fun chunkAt(name: String, start: Int): String {
             val kind = kindOf(name[start])
             var end = start + 1
 
@@ -88,13 +88,13 @@ class AlphanumericComparator<T : Any> : Comparator<T> {
             }
         }
 
-        private fun kindOf(char: Char): ChunkKind = when {
+        internal fun kindOf(char: Char): ChunkKind = when {
             char <= LAST_ASCII_PUNCTUATION && !char.isLetterOrDigit() -> ChunkKind.SEPARATOR
             char in ZERO..NINE -> ChunkKind.NUMBER
             else -> ChunkKind.TEXT
         }
 
-        private fun compareSeparators(ours: Char, theirs: Char): Int = when {
+        internal fun compareSeparators(ours: Char, theirs: Char): Int = when {
             ours == theirs -> 0
             ours == DOT -> -1
             theirs == DOT -> 1
@@ -0,0 +1,126 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.utils.sort
+
+import java.text.CollationKey
+
+/**
+ * Precomputed form of a name for [AlphanumericComparator] ordering.
+ *
+ * The name is split into chunks and every text chunk is turned into a [CollationKey] once, so comparing two keys
+ * neither allocates substrings nor calls the collator again. Sorting n names this way needs n key computations
+ * instead of one chunked comparison per pair, and `a.compareTo(b)` always has the sign of
+ * `AlphanumericComparator.compare(a.name, b.name)`.
+ */
+class NaturalSortKey private constructor(val name: String, private val chunks: Array<Chunk>) :
+    Comparable<NaturalSortKey> {
+
+    override fun compareTo(other: NaturalSortKey): Int {
+        if (name == other.name) {
+            return 0
+        }
+
+        // equal chunks always have equal lengths, so chunks at the same index start at the same offset
+        val count = minOf(chunks.size, other.chunks.size)
+        for (i in 0 until count) {
+            val byChunk = chunks[i].compareTo(other.chunks[i])
+            if (byChunk != 0) {
+                return byChunk
+            }
+        }
+
+        return when (val byLength = name.length.compareTo(other.name.length)) {
+            0 -> name.compareTo(other.name)
+            else -> byLength
+        }
+    }
+
+    override fun equals(other: Any?): Boolean = other is NaturalSortKey && other.name == name
+
+    override fun hashCode(): Int = name.hashCode()
+
+    override fun toString(): String = name
+
+    private class Chunk(
+        val kind: ChunkKind,
+        val text: String,
+        val digits: String?,
+        val collationKey: CollationKey?
+    ) : Comparable<Chunk> {
+
+        override fun compareTo(other: Chunk): Int {
+            val byKind = kind.compareTo(other.kind)
+            if (byKind != 0) {
+                return byKind
+            }
+
+            return when (kind) {
+                ChunkKind.SEPARATOR -> AlphanumericComparator.compareSeparators(text[0], other.text[0])
+                ChunkKind.NUMBER -> compareNumbers(other)
+                ChunkKind.TEXT -> compareText(other)
+            }
+        }
+
+        private fun compareNumbers(other: Chunk): Int {
+            val ourValue = digits.orEmpty()
+            val theirValue = other.digits.orEmpty()
+
+            val byDigitCount = ourValue.length.compareTo(theirValue.length)
+            if (byDigitCount != 0) {
+                return byDigitCount
+            }
+
+            return when (val byValue = ourValue.compareTo(theirValue)) {
+                0 -> text.length.compareTo(other.text.length)
+                else -> byValue
+            }
+        }
+
+        private fun compareText(other: Chunk): Int {
+            val byCollation = compareCollationKeys(collationKey, other.collationKey)
+            if (byCollation != 0) {
+                return byCollation
+            }
+
+            return when (val byLength = text.length.compareTo(other.text.length)) {
+                0 -> text.compareTo(other.text)
+                else -> byLength
+            }
+        }
+
+        private fun compareCollationKeys(ours: CollationKey?, theirs: CollationKey?): Int = when {
+            ours == null || theirs == null -> 0
+            else -> ours.compareTo(theirs)
+        }
+    }
+
+    companion object {
+        private const val ZERO = '0'
+
+        @JvmStatic
+        fun of(name: String): NaturalSortKey {
+            val chunks = ArrayList<Chunk>()
+            var start = 0
+
+            while (start < name.length) {
+                val text = AlphanumericComparator.chunkAt(name, start)
+                val kind = AlphanumericComparator.kindOf(text[0])
+                chunks.add(
+                    Chunk(
+                        kind,
+                        text,
+                        if (kind == ChunkKind.NUMBER) text.trimStart(ZERO) else null,
+                        if (kind == ChunkKind.TEXT) AlphanumericComparator.collator.getCollationKey(text) else null
+                    )
+                )
+                start += text.length
+            }
+
+            return NaturalSortKey(name, chunks.toTypedArray())
+        }
+    }
+}
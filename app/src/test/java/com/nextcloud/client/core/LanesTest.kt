@@ -0,0 +1,114 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.core
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class LanesTest {
+
+    private companion object {
+        const val TIMEOUT_SECONDS = 3L
+    }
+
+    private val lane = Lanes.Lane.DB
+    private lateinit var release: CountDownLatch
+    private val order: MutableList<String> = Collections.synchronizedList(mutableListOf())
+
+    @Before
+    fun setUp() {
+        // occupy all threads of the lane, so the tasks submitted by the tests are queued
+        release = CountDownLatch(1)
+        val started = CountDownLatch(lane.threads)
+        repeat(lane.threads) {
+            Lanes.submit(lane, {
+                started.countDown()
+                release.await()
+            }, Lanes.Priority.BACKGROUND)
+        }
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+    }
+
+    @After
+    fun tearDown() {
+        release.countDown()
+    }
+
+    private fun record(name: String) = Runnable { order.add(name) }
+
+    @Test
+    fun `user visible tasks run before queued background tasks`() {
+        val background = Lanes.submit(lane, record("background"), Lanes.Priority.BACKGROUND)
+        val visible = Lanes.submit(lane, record("visible"), Lanes.Priority.USER_VISIBLE)
+
+        release.countDown()
+        background.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        visible.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+
+        assertEquals(listOf("visible", "background"), order)
+    }
+
+    @Test
+    fun `tasks of same priority run in submission order`() {
+        val futures = (1..3).map { Lanes.submit(lane, record("$it"), Lanes.Priority.BACKGROUND) }
+
+        release.countDown()
+        futures.forEach { it.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) }
+
+        assertEquals(listOf("1", "2", "3"), order)
+    }
+
+    @Test
+    fun `boosted task runs before other background tasks`() {
+        val first = Lanes.submit(lane, record("first"), Lanes.Priority.BACKGROUND)
+        val boosted = Lanes.submit(lane, record("boosted"), Lanes.Priority.BACKGROUND)
+        Lanes.boost(boosted)
+
+        release.countDown()
+        first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        boosted.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+
+        assertEquals(listOf("boosted", "first"), order)
+    }
+
+    @Test
+    fun `queued runnable can be removed through executor`() {
+        val executor = Lanes.executor(lane, Lanes.Priority.BACKGROUND)
+        val removed = record("removed")
+        executor.execute(removed)
+        val kept = Lanes.submit(lane, record("kept"), Lanes.Priority.BACKGROUND)
+
+        assertTrue(executor.remove(removed))
+        assertFalse(executor.remove(removed))
+
+        release.countDown()
+        kept.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        assertEquals(listOf("kept"), order)
+    }
+
+    @Test
+    fun `stats count queued and completed tasks`() {
+        val before = Lanes.stats().first { it.lane == lane }
+        val futures = (1..2).map { Lanes.submit(lane, record("$it"), Lanes.Priority.BACKGROUND) }
+
+        val queued = Lanes.stats().first { it.lane == lane }
+        assertEquals(2, queued.queued)
+        assertEquals(lane.threads, queued.active)
+        assertEquals(before.submitted + 2, queued.submitted)
+
+        release.countDown()
+        futures.forEach { it.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) }
+        assertEquals(0, Lanes.stats().first { it.lane == lane }.queued)
+    }
+}
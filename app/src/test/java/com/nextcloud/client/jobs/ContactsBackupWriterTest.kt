@@ -0,0 +1,120 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class ContactsBackupWriterTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private lateinit var cacheDir: File
+    private val converted = mutableListOf<String>()
+    private var note = ""
+    private lateinit var writer: ContactsBackupWriter
+
+    @Before
+    fun setUp() {
+        cacheDir = File(folder.root, "cache")
+        writer = ContactsBackupWriter(cacheDir) { lookupKey ->
+            converted.add(lookupKey)
+            "BEGIN:VCARD\nFN:$lookupKey\n${note}END:VCARD\n"
+        }
+    }
+
+    private fun write(vararg contacts: ContactsBackupWriter.Contact): Pair<String, String> {
+        val file = folder.newFile()
+        val hash = writer.write(contacts.asSequence(), file)
+        return hash to file.readText()
+    }
+
+    private fun cacheFileOf(contact: ContactsBackupWriter.Contact): File =
+        File(cacheDir, ContactsBackupWriter.hash(contact.lookupKey.toByteArray()) + "_" + contact.lastUpdated + ".vcf")
+
+    @Test
+    fun `unchanged contacts are converted once and give the same hash`() {
+        val alice = ContactsBackupWriter.Contact("alice", 1)
+        val bob = ContactsBackupWriter.Contact("bob", 1)
+
+        val (firstHash, firstContent) = write(alice, bob)
+        val (secondHash, secondContent) = write(alice, bob)
+
+        assertEquals(listOf("alice", "bob"), converted)
+        assertEquals(firstHash, secondHash)
+        assertEquals(firstContent, secondContent)
+        assertTrue(firstContent.contains("FN:alice") && firstContent.contains("FN:bob"))
+    }
+
+    @Test
+    fun `changed contact is converted again and changes the hash`() {
+        val (firstHash, _) = write(ContactsBackupWriter.Contact("alice", 1))
+        note = "NOTE:changed\n"
+        val (secondHash, secondContent) = write(ContactsBackupWriter.Contact("alice", 2))
+
+        assertEquals(listOf("alice", "alice"), converted)
+        assertNotEquals(firstHash, secondHash)
+        assertTrue(secondContent.contains("NOTE:changed"))
+        assertFalse(cacheFileOf(ContactsBackupWriter.Contact("alice", 1)).exists())
+        assertTrue(cacheFileOf(ContactsBackupWriter.Contact("alice", 2)).exists())
+    }
+
+    @Test
+    fun `contacts without update timestamp are not cached`() {
+        write(ContactsBackupWriter.Contact("alice", 0))
+        write(ContactsBackupWriter.Contact("alice", 0))
+
+        assertEquals(listOf("alice", "alice"), converted)
+        assertTrue(cacheDir.listFiles().isNullOrEmpty())
+    }
+
+    @Test
+    fun `deleted contacts and interrupted cache writes are dropped`() {
+        val alice = ContactsBackupWriter.Contact("alice", 1)
+        val bob = ContactsBackupWriter.Contact("bob", 1)
+        write(alice, bob)
+        // left over by a conversion killed before its rename
+        val interrupted = File(cacheDir, ContactsBackupWriter.hash("carol".toByteArray()) + "_1.tmp")
+        interrupted.writeText("BEGIN:VCARD\nFN:car")
+
+        write(alice)
+
+        assertTrue(cacheFileOf(alice).exists())
+        assertFalse(cacheFileOf(bob).exists())
+        assertFalse(interrupted.exists())
+    }
+
+    @Test
+    fun `interrupted cache write is not reused`() {
+        val carol = ContactsBackupWriter.Contact("carol", 1)
+        cacheDir.mkdirs()
+        File(cacheDir, ContactsBackupWriter.hash("carol".toByteArray()) + "_1.tmp").writeText("BEGIN:VCARD\nFN:car")
+
+        val (_, content) = write(carol)
+
+        assertEquals(listOf("carol"), converted)
+        assertEquals("BEGIN:VCARD\nFN:carol\nEND:VCARD\n", content)
+    }
+
+    @Test
+    fun `unchanged backup is skipped unless forced`() {
+        val lastBackup = ContactsBackupWriter.lastBackup("abc", "/Contacts-Backup/2026-01-01.vcf")
+
+        assertTrue(ContactsBackupWriter.isUnchanged(lastBackup, "abc", force = false))
+        assertFalse(ContactsBackupWriter.isUnchanged(lastBackup, "abc", force = true))
+        assertFalse(ContactsBackupWriter.isUnchanged(lastBackup, "def", force = false))
+        assertFalse(ContactsBackupWriter.isUnchanged("", "abc", force = false))
+    }
+}
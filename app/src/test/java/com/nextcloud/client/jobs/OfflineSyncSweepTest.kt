@@ -0,0 +1,276 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs
+
+import android.content.Context
+import android.net.ConnectivityManager
+import com.nextcloud.client.account.User
+import com.nextcloud.client.network.ConnectivityService
+import com.owncloud.android.datamodel.FileDataStorageManager
+import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
+import com.owncloud.android.lib.resources.files.CheckEtagRemoteOperation
+import com.owncloud.android.lib.resources.files.ReadFolderRemoteOperation
+import com.owncloud.android.lib.resources.files.model.RemoteFile
+import com.owncloud.android.operations.SynchronizeFileOperation
+import com.owncloud.android.utils.FileStorageUtils
+import com.owncloud.android.utils.MimeType
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkConstructor
+import io.mockk.mockkStatic
+import io.mockk.slot
+import io.mockk.unmockkAll
+import io.mockk.verify
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class OfflineSyncSweepTest {
+
+    private companion object {
+        const val ACCOUNT_NAME = "user@server.com"
+        const val OLD_ETAG = "old"
+        const val NEW_ETAG = "new"
+        const val TIMEOUT_SECONDS = 5L
+    }
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val context = mockk<Context>(relaxed = true)
+    private val user = mockk<User>(relaxed = true)
+    private val storageManager = mockk<FileDataStorageManager>(relaxed = true)
+    private val connectivityService = mockk<ConnectivityService>(relaxed = true)
+    private val savedFolder = slot<OCFile>()
+    private var stopped = false
+
+    private lateinit var root: OCFile
+
+    @Before
+    fun setUp() {
+        every { user.accountName } returns ACCOUNT_NAME
+        every { context.getSystemService(ConnectivityManager::class.java) } returns null
+        mockkStatic(FileStorageUtils::class)
+        every { FileStorageUtils.getSavePath(ACCOUNT_NAME) } returns folder.root.absolutePath
+
+        mockkConstructor(CheckEtagRemoteOperation::class)
+        mockkConstructor(ReadFolderRemoteOperation::class)
+        mockkConstructor(SynchronizeFileOperation::class)
+        every { anyConstructed<SynchronizeFileOperation>().execute(context) } returns result(true)
+
+        root = localFolder("/", "root")
+        every { storageManager.getFileByPath("/") } returns root
+        every { storageManager.getFolderContent(any(), false) } returns emptyList()
+        every { storageManager.saveFile(capture(savedFolder)) } returns true
+    }
+
+    @After
+    fun tearDown() {
+        unmockkAll()
+    }
+
+    private fun sweep() = OfflineSyncSweep(context, user, storageManager, connectivityService, Dispatchers.IO) {
+        stopped
+    }
+
+    private fun result(
+        success: Boolean,
+        code: ResultCode = ResultCode.OK,
+        data: List<Any> = emptyList()
+    ): RemoteOperationResult<Any?> {
+        val result = mockk<RemoteOperationResult<Any?>>(relaxed = true)
+        every { result.isSuccess } returns success
+        every { result.code } returns code
+        every { result.data } returns ArrayList(data)
+        return result
+    }
+
+    private fun localFolder(path: String, remoteId: String) = OCFile(path).apply {
+        this.remoteId = remoteId
+        mimeType = MimeType.DIRECTORY
+        etagOnServer = OLD_ETAG
+        every { storageManager.getFileByEncryptedRemotePath(path) } returns this
+    }
+
+    private fun localFile(name: String, etag: String): OCFile {
+        val file = File(folder.root, name).apply { writeText(name) }
+        return OCFile("/$name").apply {
+            remoteId = name
+            this.etag = etag
+            storagePath = file.path
+        }
+    }
+
+    private fun remoteFile(name: String, etag: String, mimeType: String = "text/plain") = RemoteFile("/$name").apply {
+        remoteId = name
+        this.etag = etag
+        this.mimeType = mimeType
+    }
+
+    private fun rootEtag(code: ResultCode) {
+        every { anyConstructed<CheckEtagRemoteOperation>().execute(user, context) } returns
+            result(code == ResultCode.ETAG_CHANGED, code, listOf(NEW_ETAG))
+    }
+
+    private fun listing(vararg files: RemoteFile) {
+        every { anyConstructed<ReadFolderRemoteOperation>().execute(user, context) } returns
+            result(true, data = files.toList())
+    }
+
+    @Test
+    fun `unchanged root folder is not listed`() {
+        rootEtag(ResultCode.ETAG_UNCHANGED)
+        localFile("a.txt", OLD_ETAG)
+
+        val stats = runBlocking { sweep().sweep(folder.root) }
+
+        assertEquals(0, stats.foldersChanged)
+        verify(exactly = 0) { anyConstructed<ReadFolderRemoteOperation>().execute(user, context) }
+        verify(exactly = 0) { anyConstructed<SynchronizeFileOperation>().execute(context) }
+        verify(exactly = 0) { storageManager.saveFile(any()) }
+    }
+
+    @Test
+    fun `only changed files are synchronized`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        val unchanged = localFile("a.txt", OLD_ETAG)
+        val changed = localFile("b.txt", OLD_ETAG)
+        every { storageManager.getFolderContent(root, false) } returns listOf(unchanged, changed)
+        listing(remoteFile("a.txt", OLD_ETAG), remoteFile("b.txt", NEW_ETAG))
+
+        val stats = runBlocking { sweep().sweep(folder.root) }
+
+        assertEquals(1, stats.foldersChanged)
+        assertEquals(1, stats.foldersListed)
+        assertEquals(2, stats.filesChecked)
+        assertEquals(1, stats.filesSynced)
+        verify(exactly = 1) { anyConstructed<SynchronizeFileOperation>().execute(context) }
+        assertEquals(NEW_ETAG, savedFolder.captured.etagOnServer)
+    }
+
+    @Test
+    fun `files are synchronized one by one when the listing fails`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        val files = listOf(localFile("a.txt", OLD_ETAG), localFile("b.txt", OLD_ETAG))
+        every { storageManager.getFolderContent(root, false) } returns files
+        every { anyConstructed<ReadFolderRemoteOperation>().execute(user, context) } returns
+            result(false, ResultCode.HOST_NOT_AVAILABLE)
+
+        val stats = runBlocking { sweep().sweep(folder.root) }
+
+        assertEquals(0, stats.foldersListed)
+        assertEquals(2, stats.filesSynced)
+        verify(exactly = 2) { anyConstructed<SynchronizeFileOperation>().execute(context) }
+    }
+
+    @Test
+    fun `changed subfolders are swept and removed ones are deleted`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        File(folder.root, "changed").mkdir()
+        File(folder.root, "removed").mkdir()
+        val changedFolder = localFolder("/changed/", "changed")
+        val removedFolder = localFolder("/removed/", "removed")
+        listing(remoteFile("changed", NEW_ETAG, MimeType.DIRECTORY))
+
+        val stats = runBlocking { sweep().sweep(folder.root) }
+
+        assertEquals(2, stats.foldersChanged)
+        verify { storageManager.getFolderContent(changedFolder, false) }
+        verify { storageManager.removeFolder(removedFolder, true, true) }
+        // the subfolder is not checked on its own, its eTag came with the listing
+        verify(exactly = 1) { anyConstructed<CheckEtagRemoteOperation>().execute(user, context) }
+    }
+
+    @Test
+    fun `stopped sweep does not list or synchronize`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        localFile("a.txt", OLD_ETAG)
+        stopped = true
+
+        val stats = runBlocking { sweep().sweep(folder.root) }
+
+        assertEquals(0, stats.foldersChanged)
+        verify(exactly = 0) { anyConstructed<ReadFolderRemoteOperation>().execute(user, context) }
+        verify(exactly = 0) { storageManager.saveFile(any()) }
+    }
+
+    @Test
+    fun `sweep stopped after the root is listed keeps the root eTag`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        every { storageManager.getFolderContent(root, false) } returns listOf(localFile("a.txt", OLD_ETAG))
+        every { anyConstructed<ReadFolderRemoteOperation>().execute(user, context) } answers {
+            stopped = true
+            result(true, data = listOf(remoteFile("a.txt", NEW_ETAG)))
+        }
+
+        runBlocking { sweep().sweep(folder.root) }
+
+        // the next sweep finds the root changed and synchronizes the file
+        verify(exactly = 0) { anyConstructed<SynchronizeFileOperation>().execute(context) }
+        verify(exactly = 0) { storageManager.saveFile(any()) }
+    }
+
+    @Test
+    fun `sweep stopped in a subfolder keeps the eTags of its parents`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        File(folder.root, "changed").mkdir()
+        localFolder("/changed/", "changed")
+        var listings = 0
+        every { anyConstructed<ReadFolderRemoteOperation>().execute(user, context) } answers {
+            if (listings++ == 0) {
+                result(true, data = listOf(remoteFile("changed", NEW_ETAG, MimeType.DIRECTORY)))
+            } else {
+                stopped = true
+                result(true)
+            }
+        }
+
+        val stats = runBlocking { sweep().sweep(folder.root) }
+
+        assertEquals(2, stats.foldersChanged)
+        verify(exactly = 0) { storageManager.saveFile(any()) }
+    }
+
+    @Test
+    fun `cancelled sweep keeps the old folder eTag`() {
+        rootEtag(ResultCode.ETAG_CHANGED)
+        every { storageManager.getFolderContent(root, false) } returns listOf(localFile("a.txt", OLD_ETAG))
+        listing(remoteFile("a.txt", NEW_ETAG))
+        val syncing = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        every { anyConstructed<SynchronizeFileOperation>().execute(context) } answers {
+            syncing.countDown()
+            release.await()
+            result(true)
+        }
+
+        val failure = runBlocking {
+            val sweep = async(Dispatchers.IO) { sweep().sweep(folder.root) }
+            assertTrue(syncing.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            sweep.cancel()
+            release.countDown()
+            runCatching { sweep.await() }.exceptionOrNull()
+        }
+
+        // the next sweep checks the folder again
+        assertTrue(failure is CancellationException)
+        verify(exactly = 0) { storageManager.saveFile(any()) }
+    }
+}
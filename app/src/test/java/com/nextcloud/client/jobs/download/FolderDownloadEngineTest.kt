@@ -0,0 +1,239 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs.download
+
+import android.content.Context
+import android.net.ConnectivityManager
+import com.nextcloud.client.account.User
+import com.nextcloud.client.core.Clock
+import com.nextcloud.client.network.ClientPool
+import com.nextcloud.client.network.ConnectivityService
+import com.owncloud.android.datamodel.FileDataStorageManager
+import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.lib.common.OwnCloudAccount
+import com.owncloud.android.lib.common.OwnCloudClient
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+import com.owncloud.android.operations.DownloadFileOperation
+import com.owncloud.android.operations.DownloadType
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkObject
+import io.mockk.unmockkAll
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.util.Collections
+import java.util.Date
+import java.util.TimeZone
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class FolderDownloadEngineTest {
+
+    private companion object {
+        const val ACCOUNT_NAME = "user@server.com"
+        const val SMALL = 1024L
+        const val LARGE = FolderDownloadEngine.LARGE_FILE_BYTES + 1
+        const val TIMEOUT_SECONDS = 5L
+    }
+
+    private class FakeClock : Clock {
+        override var currentTime = 0L
+        override val currentDate get() = Date(currentTime)
+        override val millisSinceBoot get() = currentTime
+        override val tz: TimeZone get() = TimeZone.getDefault()
+    }
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val context = mockk<Context>(relaxed = true)
+    private val user = mockk<User>(relaxed = true)
+    private val storageManager = mockk<FileDataStorageManager>(relaxed = true)
+    private val connectivityService = mockk<ConnectivityService>(relaxed = true)
+    private val client = mockk<OwnCloudClient>(relaxed = true)
+    private val clock = FakeClock()
+
+    private val executed = Collections.synchronizedList(mutableListOf<String>())
+    private val savedBatches = Collections.synchronizedList(mutableListOf<List<String>>())
+    private val reported = Collections.synchronizedList(mutableListOf<String>())
+
+    @Before
+    fun setUp() {
+        every { user.accountName } returns ACCOUNT_NAME
+        every { context.getSystemService(ConnectivityManager::class.java) } returns null
+
+        mockkObject(ClientPool)
+        every { ClientPool.getOwnCloudClient(any<OwnCloudAccount>(), any()) } returns client
+        mockkObject(FileDownloadHelper.Companion)
+        every { FileDownloadHelper.instance() } returns mockk(relaxed = true)
+
+        every { storageManager.saveDownloadedFiles(any()) } answers {
+            savedBatches.add(firstArg<List<OCFile>>().map { it.remotePath })
+        }
+    }
+
+    @After
+    fun tearDown() {
+        unmockkAll()
+    }
+
+    private fun engine(parallelism: Int = 1, isStopped: () -> Boolean = { false }) = FolderDownloadEngine(
+        context,
+        user,
+        storageManager,
+        connectivityService,
+        parallelism,
+        largeFileParallelism = 1,
+        clock = clock,
+        isStopped = isStopped
+    )
+
+    @Suppress("DEPRECATION")
+    private fun operation(name: String, size: Long, onExecute: () -> Unit = {}): DownloadFileOperation {
+        val file = OCFile("/$name").apply {
+            fileId = name.hashCode().toLong()
+            fileLength = size
+            mimeType = "text/plain"
+        }
+        every { storageManager.getFileById(file.fileId) } returns file
+
+        val operation = mockk<DownloadFileOperation>(relaxed = true)
+        every { operation.file } returns file
+        every { operation.size } returns size
+        every { operation.remotePath } returns file.remotePath
+        every { operation.downloadType } returns DownloadType.DOWNLOAD
+        every { operation.execute(client) } answers {
+            executed.add(file.remotePath)
+            onExecute()
+            RemoteOperationResult<Any?>(RemoteOperationResult.ResultCode.OK)
+        }
+        return operation
+    }
+
+    private fun download(engine: FolderDownloadEngine, operations: List<DownloadFileOperation>) = runBlocking {
+        engine.download(operations) { operation, _, _, _ -> reported.add(operation.remotePath) }
+    }
+
+    @Test
+    fun `large files are downloaded apart from small ones, both smallest first`() {
+        val operations = listOf(
+            operation("small-3", SMALL * 3),
+            operation("large-2", LARGE * 2),
+            operation("small-1", SMALL),
+            operation("large-1", LARGE),
+            operation("small-2", SMALL * 2)
+        )
+
+        val stats = download(engine(), operations)
+
+        // a single worker is the large file worker, it takes the small files once the large ones are done
+        assertEquals(listOf("/large-1", "/large-2", "/small-1", "/small-2", "/small-3"), executed)
+        assertEquals(5, stats.succeeded)
+        assertEquals(0, stats.failed)
+    }
+
+    @Test
+    fun `small files are not held up by a large file`() {
+        val smallDone = CountDownLatch(3)
+        val largeWaited = AtomicInteger()
+        val operations = listOf(
+            operation("large", LARGE) {
+                if (smallDone.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    largeWaited.incrementAndGet()
+                }
+            },
+            operation("small-1", SMALL) { smallDone.countDown() },
+            operation("small-2", SMALL) { smallDone.countDown() },
+            operation("small-3", SMALL) { smallDone.countDown() }
+        )
+
+        download(engine(parallelism = 2), operations)
+
+        assertEquals(1, largeWaited.get())
+        assertEquals(4, reported.size)
+    }
+
+    @Test
+    fun `downloaded files are saved in batches`() {
+        val count = FolderDownloadEngine.SAVE_BATCH_SIZE * 2 + 20
+        val operations = (1..count).map { operation("file-%03d".format(it), SMALL + it) }
+
+        download(engine(), operations)
+
+        assertEquals(
+            listOf(FolderDownloadEngine.SAVE_BATCH_SIZE, FolderDownloadEngine.SAVE_BATCH_SIZE, 20),
+            savedBatches.map { it.size }
+        )
+        assertEquals(count, reported.size)
+    }
+
+    @Test
+    fun `downloaded files are saved after the save interval`() {
+        val operations = (1..5).map {
+            operation("file-$it", SMALL + it) { clock.currentTime += FolderDownloadEngine.SAVE_INTERVAL_MS / 2 }
+        }
+
+        download(engine(), operations)
+
+        assertEquals(listOf(2, 2, 1), savedBatches.map { it.size })
+    }
+
+    @Test
+    fun `files are reported only once they are saved`() {
+        val operations = (1..3).map { operation("file-$it", SMALL + it) }
+        every { storageManager.saveDownloadedFiles(any()) } answers {
+            assertTrue(reported.isEmpty())
+            savedBatches.add(firstArg<List<OCFile>>().map { it.remotePath })
+        }
+
+        download(engine(), operations)
+
+        assertEquals(listOf(listOf("/file-1", "/file-2", "/file-3")), savedBatches)
+        assertEquals(listOf("/file-1", "/file-2", "/file-3"), reported)
+    }
+
+    @Test
+    fun `downloaded files are saved when the download stops`() {
+        val operations = (1..10).map { operation("file-$it", SMALL + it) }
+
+        val stats = download(engine { executed.size >= 3 }, operations)
+
+        assertEquals(listOf("/file-1", "/file-2", "/file-3"), executed)
+        assertEquals(listOf(listOf("/file-1", "/file-2", "/file-3")), savedBatches)
+        assertEquals(3, reported.size)
+        assertEquals(3, stats.succeeded)
+    }
+
+    @Test
+    fun `pending files are the ones missing or outdated on the device`() {
+        val missing = OCFile("/missing").apply { storagePath = File(folder.root, "missing").path }
+        val current = downloaded("current", etagOnServer = "a")
+        val unknownOnServer = downloaded("unknown", etagOnServer = null)
+        val outdated = downloaded("outdated", etagOnServer = "b")
+
+        val pending = FolderDownloadEngine.pendingFiles(listOf(missing, current, unknownOnServer, outdated))
+
+        assertEquals(listOf(missing, outdated), pending)
+    }
+
+    private fun downloaded(name: String, etagOnServer: String?): OCFile {
+        val file = File(folder.root, name).apply { writeText(name) }
+        return OCFile("/$name").apply {
+            storagePath = file.path
+            etag = "a"
+            this.etagOnServer = etagOnServer
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs.offlineOperations
+
+import com.nextcloud.client.database.entity.OfflineOperationEntity
+import com.nextcloud.model.OfflineOperationRawType
+import com.nextcloud.model.OfflineOperationType
+import com.owncloud.android.lib.common.OwnCloudClient
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+import com.owncloud.android.lib.resources.files.ReadFileRemoteOperation
+import com.owncloud.android.lib.resources.files.ReadFolderRemoteOperation
+import com.owncloud.android.lib.resources.files.model.RemoteFile
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkConstructor
+import io.mockk.unmockkAll
+import io.mockk.verify
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.atomic.AtomicInteger
+
+class OfflineOperationsReplayPlannerTest {
+
+    private companion object {
+        const val FOLDER_COUNT = 12
+        const val REQUEST_MILLIS = 20L
+    }
+
+    private val client = mockk<OwnCloudClient>()
+    private val planner = OfflineOperationsReplayPlanner(client, Dispatchers.IO)
+
+    @After
+    fun tearDown() {
+        unmockkAll()
+    }
+
+    private fun createFolder(path: String) = OfflineOperationEntity(
+        path = path,
+        type = OfflineOperationType.CreateFolder(OfflineOperationRawType.CreateFolder.name, path)
+    )
+
+    private fun createFile(path: String) = OfflineOperationEntity(
+        path = path,
+        type = OfflineOperationType.CreateFile(
+            OfflineOperationRawType.CreateFile.name,
+            "/local$path",
+            path,
+            "text/plain"
+        )
+    )
+
+    private fun rename(path: String, newName: String) = OfflineOperationEntity(
+        path = path,
+        type = OfflineOperationType.RenameFile(OfflineOperationRawType.RenameFile.name, 1, newName)
+    )
+
+    private fun remove(path: String) = OfflineOperationEntity(
+        path = path,
+        type = OfflineOperationType.RemoveFile(OfflineOperationRawType.RemoveFile.name, path)
+    )
+
+    private fun result(files: List<RemoteFile>): RemoteOperationResult<Any?> = mockk {
+        every { isSuccess } returns true
+        every { data } returns ArrayList<Any>(files)
+    }
+
+    @Test
+    fun `nested operations are kept in one chain in queued order`() {
+        val folder = createFolder("/a/")
+        val subFolder = createFolder("/a/b/")
+        val file = createFile("/a/b/c.txt")
+
+        val chains = planner.plan(listOf(folder, subFolder, file))
+
+        assertEquals(listOf(listOf(folder, subFolder, file)), chains)
+    }
+
+    @Test
+    fun `nested operations queued before their parent join its chain`() {
+        val file = createFile("/a/b.txt")
+        val other = createFile("/c.txt")
+        val folderRemoval = remove("/a/")
+
+        val chains = planner.plan(listOf(file, other, folderRemoval))
+
+        assertEquals(listOf(listOf(file, folderRemoval), listOf(other)), chains)
+    }
+
+    @Test
+    fun `operations on the renamed path wait for the rename`() {
+        val folder = createFolder("/a/")
+        val rename = rename("/a/", "b")
+        val file = createFile("/b/c.txt")
+        val removal = remove("/b/")
+
+        val chains = planner.plan(listOf(folder, rename, file, removal))
+
+        assertEquals(listOf(listOf(folder, rename, file, removal)), chains)
+    }
+
+    @Test
+    fun `renamed files chain with operations on both names`() {
+        val file = createFile("/docs/a.txt")
+        val rename = rename("/docs/a.txt", "b.txt")
+        val removal = remove("/docs/b.txt")
+        val sibling = createFile("/docs/c.txt")
+
+        val chains = planner.plan(listOf(file, rename, sibling, removal))
+
+        assertEquals(listOf(listOf(file, rename, removal), listOf(sibling)), chains)
+    }
+
+    @Test
+    fun `renames link chains transitively`() {
+        val first = createFile("/x/a.txt")
+        val second = createFile("/y/b.txt")
+        val rename = rename("/x/", "y")
+
+        val chains = planner.plan(listOf(first, second, rename))
+
+        assertEquals(listOf(listOf(first, second, rename)), chains)
+    }
+
+    @Test
+    fun `independent paths are separate chains`() {
+        val first = createFolder("/a/")
+        val second = createFolder("/ab/")
+        val third = createFile("/c/d.txt")
+        val withoutPath = OfflineOperationEntity(type = OfflineOperationType.RemoveFile("RemoveFile", "/e"))
+
+        val chains = planner.plan(listOf(first, second, withoutPath, third))
+
+        assertEquals(listOf(listOf(first), listOf(second), listOf(third)), chains)
+    }
+
+    @Test
+    fun `prefetch lists every parent folder once with limited parallel requests`() = runBlocking {
+        val running = AtomicInteger()
+        val maxRunning = AtomicInteger()
+        mockkConstructor(ReadFolderRemoteOperation::class)
+        mockkConstructor(ReadFileRemoteOperation::class)
+        val listing = (0 until FOLDER_COUNT).map { RemoteFile("/folder$it/file.txt") }
+        every { anyConstructed<ReadFolderRemoteOperation>().execute(client) } answers {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), ::maxOf)
+            Thread.sleep(REQUEST_MILLIS)
+            running.decrementAndGet()
+            result(listing)
+        }
+        val chains = planner.plan(
+            (0 until FOLDER_COUNT).flatMap {
+                listOf(createFile("/folder$it/file.txt"), createFile("/folder$it/other.txt"))
+            }
+        )
+
+        planner.prefetch(chains)
+
+        verify(exactly = FOLDER_COUNT) { anyConstructed<ReadFolderRemoteOperation>().execute(client) }
+        assertTrue(maxRunning.get() in 2..OfflineOperationsReplayPlanner.MAX_PARALLEL_REQUESTS)
+        assertEquals("/folder3/file.txt", planner.getRemoteFile("/folder3/file.txt", true)?.remotePath)
+        // missing from a listed folder, so it does not exist yet
+        assertNull(planner.getRemoteFile("/folder3/other.txt", true))
+        verify(exactly = 0) { anyConstructed<ReadFileRemoteOperation>().execute(client) }
+    }
+
+    @Test
+    fun `outdated listings are not used`() = runBlocking {
+        mockkConstructor(ReadFolderRemoteOperation::class)
+        mockkConstructor(ReadFileRemoteOperation::class)
+        every { anyConstructed<ReadFolderRemoteOperation>().execute(client) } returns result(emptyList())
+        every { anyConstructed<ReadFileRemoteOperation>().execute(client) } returns
+            result(listOf(RemoteFile("/a/b.txt")))
+        planner.prefetch(planner.plan(listOf(createFile("/a/b.txt"))))
+
+        val file = planner.getRemoteFile("/a/b.txt", false)
+
+        assertEquals("/a/b.txt", file?.remotePath)
+        verify(exactly = 1) { anyConstructed<ReadFileRemoteOperation>().execute(client) }
+    }
+}
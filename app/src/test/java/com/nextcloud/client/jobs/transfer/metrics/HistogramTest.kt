@@ -0,0 +1,61 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.jobs.transfer.metrics
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class HistogramTest {
+
+    private companion object {
+        const val VALUE_COUNT = 1000L
+    }
+
+    @Test
+    fun `empty histogram has an empty snapshot`() {
+        val snapshot = Histogram().snapshot()
+
+        assertEquals(0, snapshot.count)
+        assertEquals(0, snapshot.max)
+        assertEquals(0, snapshot.p99)
+    }
+
+    @Test
+    fun `percentiles are within a factor of two`() {
+        // GIVEN
+        //      values 1..1000 are recorded
+        val histogram = Histogram()
+        (1..VALUE_COUNT).forEach { histogram.record(it) }
+
+        // WHEN
+        //      snapshot is taken
+        val snapshot = histogram.snapshot()
+
+        // THEN
+        //      count, min, max and mean are exact
+        //      percentiles are bucket bounds close to the exact value
+        assertEquals(VALUE_COUNT, snapshot.count)
+        assertEquals(1, snapshot.min)
+        assertEquals(VALUE_COUNT, snapshot.max)
+        assertEquals((VALUE_COUNT + 1) / 2, snapshot.mean)
+        listOf(snapshot.p50 to 500L, snapshot.p90 to 900L, snapshot.p99 to 990L).forEach { (actual, exact) ->
+            assertTrue("$actual vs $exact", actual in exact..exact * 2)
+        }
+    }
+
+    @Test
+    fun `percentiles never exceed recorded range`() {
+        val histogram = Histogram()
+        repeat(10) { histogram.record(100) }
+
+        val snapshot = histogram.snapshot()
+
+        assertEquals(100, snapshot.p50)
+        assertEquals(100, snapshot.p99)
+    }
+}
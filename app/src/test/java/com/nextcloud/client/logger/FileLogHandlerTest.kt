@@ -199,6 +199,30 @@ class FileLogHandlerTest {
         assertTrue(lines.logSize > 0)
     }
 
+    @Test
+    fun `indexed log entries are read and filtered`() {
+        // GIVEN
+        //      log entries are spread over rotated files
+        //      log files contain a line that is not an entry
+        writeLogFile("log.txt.0", "1970-01-01T00:00:00.000Z;D;tag;first\nnot an entry\n")
+        writeLogFile("log.txt", "1970-01-01T00:00:00.000Z;W;other;second\n1970-01-01T00:00:00.000Z;E;tag;third")
+
+        // WHEN
+        //      log files are indexed
+        //      entries are filtered by tag
+        val handler = FileLogHandler(logDir, "log.txt", FILE_SIZE)
+        val entries = handler.indexLogFiles(THREE_LOG_FILES)
+        val filtered = entries.filter("TAG")
+
+        // THEN
+        //      entries are read in order of writing
+        //      filter matches tag and message ignoring case
+        assertEquals(listOf("first", "second", "third"), entries.map { it.message })
+        assertEquals(listOf(Level.DEBUG, Level.WARNING, Level.ERROR), entries.map { it.level })
+        assertEquals(listOf("first", "third"), filtered.map { it.message })
+        entries.close()
+    }
+
     @Test(expected = IllegalArgumentException::class)
     fun `load log lines - negative count is illegal`() {
         // WHEN
@@ -0,0 +1,100 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.logger
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.util.Date
+import java.util.concurrent.Executor
+
+class LogEntryPagesTest {
+
+    private companion object {
+        const val ENTRY_COUNT = 250
+        const val PAGE_SIZE = 100
+    }
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val queued = mutableListOf<Runnable>()
+    private val executor = Executor { queued.add(it) }
+
+    private fun pages(): LogEntryPages {
+        val file = folder.newFile("log.txt")
+        file.writeText(
+            (0 until ENTRY_COUNT).joinToString("\n") {
+                LogEntry(Date(it.toLong()), Level.DEBUG, "tag", "message $it").toString()
+            }
+        )
+        return LogEntryPages(LogIndex.build(listOf(file)))
+    }
+
+    private fun runQueued() {
+        val tasks = queued.toList()
+        queued.clear()
+        tasks.forEach { it.run() }
+    }
+
+    @Test
+    fun `pages are read on the executor`() {
+        val pages = pages()
+        val loaded = mutableListOf<IntRange>()
+
+        assertNull(pages.getIfLoaded(PAGE_SIZE + 1))
+        pages.loadPage(PAGE_SIZE + 1, executor) { loaded.add(it) }
+        pages.loadPage(PAGE_SIZE + 2, executor) { loaded.add(it) }
+        assertEquals("a page being read is not read twice", 1, queued.size)
+        assertNull(pages.getIfLoaded(PAGE_SIZE + 1))
+
+        runQueued()
+
+        assertEquals(listOf(PAGE_SIZE until 2 * PAGE_SIZE), loaded)
+        assertEquals("message ${PAGE_SIZE + 1}", pages.getIfLoaded(PAGE_SIZE + 1)?.message)
+        assertNull(pages.getIfLoaded(0))
+    }
+
+    @Test
+    fun `last page is shorter`() {
+        val pages = pages()
+        val loaded = mutableListOf<IntRange>()
+
+        pages.loadPage(ENTRY_COUNT - 1, executor) { loaded.add(it) }
+        runQueued()
+
+        assertEquals(listOf(2 * PAGE_SIZE until ENTRY_COUNT), loaded)
+        assertEquals("message ${ENTRY_COUNT - 1}", pages[ENTRY_COUNT - 1].message)
+    }
+
+    @Test
+    fun `closed entries fail instead of returning missing entries`() {
+        val pages = pages()
+        pages.close()
+
+        val failure = runCatching { pages[0] }.exceptionOrNull()
+        assertTrue(failure is IllegalStateException)
+        assertTrue(runCatching { pages.retain() }.exceptionOrNull() is IllegalStateException)
+    }
+
+    @Test
+    fun `retained entries stay readable after the owner is closed`() {
+        val pages = pages()
+        val filtered = pages.filter("message 12")
+        val retained = filtered.retain()
+
+        pages.close()
+        pages.close()
+
+        assertEquals(listOf("message 12") + (120 until 130).map { "message $it" }, retained.map { it.message })
+        retained.close()
+        assertTrue(runCatching { retained[0] }.exceptionOrNull() is IllegalStateException)
+    }
+}
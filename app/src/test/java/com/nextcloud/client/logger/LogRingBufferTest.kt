@@ -0,0 +1,120 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.logger
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.atomic.AtomicLong
+
+class LogRingBufferTest {
+
+    private companion object {
+        const val CAPACITY = 10
+        const val OVERFLOW = 3
+        const val PRODUCER_COUNT = 4
+        const val ENTRIES_PER_PRODUCER = 10_000
+    }
+
+    private fun drain(buffer: LogRingBuffer): List<String> {
+        val messages = mutableListOf<String>()
+        buffer.drainTo { messages.add(it.message) }
+        return messages
+    }
+
+    @Test
+    fun `records are drained in order`() {
+        val buffer = LogRingBuffer(CAPACITY)
+        repeat(CAPACITY) {
+            assertTrue(buffer.offer(0, Level.DEBUG, "tag", "message $it"))
+        }
+
+        val messages = drain(buffer)
+
+        assertEquals((0 until CAPACITY).map { "message $it" }, messages)
+        assertTrue(buffer.isEmpty)
+        assertEquals(0, buffer.droppedCount)
+    }
+
+    @Test
+    fun `oldest records are dropped on overflow`() {
+        // GIVEN
+        //      buffer is filled beyond its capacity
+        val buffer = LogRingBuffer(CAPACITY)
+        val accepted = (0 until CAPACITY + OVERFLOW).map {
+            buffer.offer(0, Level.DEBUG, "tag", "message $it")
+        }
+
+        // WHEN
+        //      records are drained
+        val messages = drain(buffer)
+
+        // THEN
+        //      producers were told about the overflow
+        //      newest records are kept
+        //      dropped records are counted
+        assertFalse(accepted.last())
+        assertEquals((OVERFLOW until CAPACITY + OVERFLOW).map { "message $it" }, messages)
+        assertEquals(OVERFLOW.toLong(), buffer.droppedCount)
+    }
+
+    @Test
+    fun `every record is either drained or dropped with concurrent producers`() {
+        val buffer = LogRingBuffer(CAPACITY)
+        val producers = (0 until PRODUCER_COUNT).map {
+            Thread {
+                repeat(ENTRIES_PER_PRODUCER) { buffer.offer(0, Level.DEBUG, "tag", "message") }
+            }
+        }
+        producers.forEach { it.start() }
+
+        var drained = 0L
+        var lastSequence = -1L
+        while (producers.any { it.isAlive } || !buffer.isEmpty) {
+            buffer.drainTo {
+                assertTrue(it.sequence > lastSequence)
+                lastSequence = it.sequence
+                drained++
+            }
+        }
+
+        assertEquals((PRODUCER_COUNT * ENTRIES_PER_PRODUCER).toLong(), drained + buffer.droppedCount)
+    }
+
+    @Test
+    fun `record claimed but not published is not drainable`() {
+        // GIVEN
+        //      a producer claimed the first sequence and was descheduled before publishing
+        //      another producer published the next record
+        val buffer = LogRingBuffer(CAPACITY)
+        val writeSequence = LogRingBuffer::class.java.getDeclaredField("writeSequence").apply { isAccessible = true }
+        (writeSequence.get(buffer) as AtomicLong).incrementAndGet()
+        buffer.offer(0, Level.DEBUG, "tag", "message 1")
+
+        // THEN
+        //      the consumer has nothing to drain and can wait instead of spinning
+        assertFalse(buffer.isEmpty)
+        assertFalse(buffer.hasPublished)
+        assertTrue(drain(buffer).isEmpty())
+        assertFalse(buffer.hasPublished)
+    }
+
+    @Test
+    fun `published and overwritten records are drainable`() {
+        val buffer = LogRingBuffer(CAPACITY)
+        assertFalse(buffer.hasPublished)
+
+        buffer.offer(0, Level.DEBUG, "tag", "message")
+        assertTrue(buffer.hasPublished)
+        drain(buffer)
+        assertFalse(buffer.hasPublished)
+
+        repeat(CAPACITY + OVERFLOW) { buffer.offer(0, Level.DEBUG, "tag", "message $it") }
+        assertTrue(buffer.hasPublished)
+    }
+}
@@ -83,7 +83,7 @@ class LoggerTest {
             writerThreadIds.add(Thread.currentThread().id)
             it.callRealMethod()
             latch.countDown()
-        }.whenever(logHandler).close()
+        }.whenever(logHandler).flush()
 
         // GIVEN
         //      logger event loop is running
@@ -124,7 +124,7 @@ class LoggerTest {
         doAnswer {
             it.callRealMethod()
             latch.countDown()
-        }.whenever(logHandler).close()
+        }.whenever(logHandler).flush()
 
         // GIVEN
         //      logger event loop is running
@@ -137,10 +137,10 @@ class LoggerTest {
         // THEN
         //      log handler opens log file
         //      log handler writes entry
-        //      log handler closes log file
+        //      log handler flushes log file and keeps it opened
         //      no lost messages
         val called = latch.await(LATCH_WAIT, TimeUnit.SECONDS)
-        assertTrue("Expected open(), write() and close() calls on bg thread", called)
+        assertTrue("Expected open(), write() and flush() calls on bg thread", called)
         val inOrder = inOrder(logHandler)
         inOrder.verify(logHandler).open()
         inOrder.verify(logHandler).write(
@@ -148,7 +148,8 @@ class LoggerTest {
                 tag in this && message in this
             }
         )
-        inOrder.verify(logHandler).close()
+        inOrder.verify(logHandler).flush()
+        verify(logHandler, times(0)).close()
         assertFalse(logger.lostEntries)
     }
 
@@ -164,7 +165,7 @@ class LoggerTest {
             loggerThreadId = Thread.currentThread().id
             latch.countDown()
             it.callRealMethod()
-        }.whenever(logHandler).loadLogFiles(any())
+        }.whenever(logHandler).indexLogFiles(any())
 
         // os handler will be called on bg thread
         whenever(osHandler.post(any())).thenAnswer {
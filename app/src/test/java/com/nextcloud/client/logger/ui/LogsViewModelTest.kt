@@ -56,6 +56,7 @@ class LogsViewModelTest {
         var onLoadedCallback: OnLogsLoaded? = null
 
         override val lostEntries: Boolean = false
+        override val droppedEntries: Long = 0
         override fun load(onLoaded: OnLogsLoaded) {
             this.onLoadedCallback = onLoaded
             loadRequestCount++
@@ -16,6 +16,8 @@ import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
 import com.nextcloud.common.PlainClient
 import com.nextcloud.operations.GetMethod
+import com.owncloud.android.lib.common.operations.RemoteOperationResult
+import com.owncloud.android.lib.common.operations.RemoteOperationResult.ResultCode
 import com.owncloud.android.lib.resources.status.NextcloudVersion
 import com.owncloud.android.lib.resources.status.OwnCloudVersion
 import kotlinx.coroutines.Dispatchers
@@ -44,6 +46,8 @@ import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.net.URI
+import java.util.concurrent.CountDownLatch
+import kotlin.concurrent.thread
 
 @RunWith(Suite::class)
 @Suite.SuiteClasses(
@@ -51,7 +55,8 @@ import java.net.URI
     ConnectivityServiceTest.IsConnected::class,
     ConnectivityServiceTest.WifiConnectionWalledStatusOnLegacyServer::class,
     ConnectivityServiceTest.WifiConnectionWalledStatus::class,
-    ConnectivityServiceTest.LocalNetworkFallback::class
+    ConnectivityServiceTest.LocalNetworkFallback::class,
+    ConnectivityServiceTest.WalledStatusSharing::class
 )
 class ConnectivityServiceTest {
 
@@ -434,4 +439,60 @@ class ConnectivityServiceTest {
             verify(requestBuilder, never()).invoke(any())
         }
     }
+
+    internal class WalledStatusSharing : Base() {
+        @Before
+        fun setUp() {
+            connectivityService.updateConnectivity()
+            clearInvocations(requestBuilder, client, getRequest)
+            whenever(getRequest.getResponseContentLength()).thenReturn(0L)
+        }
+
+        @Test
+        fun `concurrent checks share one request`() {
+            // GIVEN
+            //      server check blocks until released
+            val started = CountDownLatch(1)
+            val release = CountDownLatch(1)
+            whenever(getRequest.execute(client)).thenAnswer {
+                started.countDown()
+                release.await()
+                HttpStatus.SC_NO_CONTENT
+            }
+
+            // WHEN
+            //      a second check starts while the first one is running
+            val results = arrayOfNulls<Boolean>(2)
+            val first = thread { results[0] = connectivityService.isInternetWalled() }
+            started.await()
+            val second = thread { results[1] = connectivityService.isInternetWalled() }
+            while (second.state != Thread.State.WAITING) {
+                Thread.sleep(1)
+            }
+            release.countDown()
+            first.join()
+            second.join()
+
+            // THEN
+            //      both get the result of a single request
+            assertEquals(false, results[0])
+            assertEquals(false, results[1])
+            verify(getRequest, times(1)).execute(client)
+        }
+
+        @Test
+        fun `request outcomes update cached status`() {
+            val key = ConnectivityKey(user.accountName, newServer.uri.toString())
+
+            connectivityService.onRequestCompleted(user, RemoteOperationResult<Any>(ResultCode.OK))
+            verify(walledCheckCache).setValue(key, false)
+
+            connectivityService.onRequestCompleted(user, RemoteOperationResult<Any>(ResultCode.TIMEOUT))
+            verify(walledCheckCache).setValue(key, true)
+
+            clearInvocations(walledCheckCache)
+            connectivityService.onRequestCompleted(user, RemoteOperationResult<Any>(ResultCode.FILE_NOT_FOUND))
+            verify(walledCheckCache, never()).setValue(any(), any())
+        }
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.nextcloud.client.startup
+
+import com.nextcloud.client.startup.StartupInitializer.Mode
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+
+class StartupInitializerTest {
+
+    private val mainQueue = ArrayDeque<Runnable>()
+    private val backgroundQueue = ArrayDeque<Runnable>()
+    private val log = mutableListOf<String>()
+    private lateinit var initializer: StartupInitializer
+
+    @Before
+    fun setUp() {
+        initializer = StartupInitializer({ mainQueue.add(it) }, { backgroundQueue.add(it) })
+    }
+
+    private fun step(name: String) = Runnable { log.add(name) }
+
+    private fun runAll(queue: ArrayDeque<Runnable>) {
+        while (queue.isNotEmpty()) {
+            queue.removeFirst().run()
+        }
+    }
+
+    @Test
+    fun `immediate steps run in order before start returns`() {
+        initializer
+            .add("a", Mode.IMMEDIATE, step("a"))
+            .add("b", Mode.BACKGROUND, step("b"))
+            .add("c", Mode.IMMEDIATE, step("c"))
+
+        initializer.start()
+
+        assertEquals(listOf("a", "c"), log)
+        assertEquals(1, backgroundQueue.size)
+    }
+
+    @Test
+    fun `background steps wait for their dependencies`() {
+        // GIVEN
+        //      b depends on a, both run in background
+        initializer
+            .add("a", Mode.BACKGROUND, step("a"))
+            .add("b", Mode.BACKGROUND, step("b"), "a")
+        initializer.start()
+
+        // WHEN
+        //      the first scheduled step runs
+        backgroundQueue.removeFirst().run()
+
+        // THEN
+        //      the dependent step is scheduled afterwards only
+        assertEquals(listOf("a"), log)
+        assertEquals(1, backgroundQueue.size)
+        runAll(backgroundQueue)
+        assertEquals(listOf("a", "b"), log)
+    }
+
+    @Test
+    fun `deferred steps run after the first frame`() {
+        initializer
+            .add("a", Mode.AFTER_FIRST_FRAME, step("a"))
+            .add("b", Mode.BACKGROUND, step("b"))
+        initializer.start()
+        runAll(backgroundQueue)
+
+        assertEquals(0, mainQueue.size)
+
+        initializer.onFirstFrame()
+        initializer.onFirstFrame()
+        runAll(mainQueue)
+
+        assertEquals(listOf("b", "a"), log)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `unknown dependency is rejected`() {
+        initializer.add("a", Mode.BACKGROUND, step("a"), "b")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `immediate step cannot depend on deferred step`() {
+        initializer
+            .add("a", Mode.BACKGROUND, step("a"))
+            .add("b", Mode.IMMEDIATE, step("b"), "a")
+    }
+}
@@ -9,12 +9,14 @@
 package com.nextcloud.client.utils
 
 import com.owncloud.android.utils.sort.AlphanumericComparator
+import com.owncloud.android.utils.sort.NaturalSortKey
 import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import java.util.Locale
+import kotlin.math.sign
 import kotlin.random.Random
 
 /**
@@ -109,6 +111,23 @@ class NaturalSortTest {
         assertTrue("Sorting must never throw, but failed for ${failures.take(FAILURES_TO_REPORT)}", failures.isEmpty())
     }
 
+    @Test
+    fun sortKeyAgreesWithComparator() {
+        val names = namesWithIgnorableCharacters() + expectedOrders.flatMap { it.second }
+        val keys = names.map { NaturalSortKey.of(it) }
+
+        val violations = keys.flatMap { first ->
+            keys.filter { second -> first.compareTo(second).sign != compare(first.name, second.name).sign }
+                .map { second -> "${first.name.readable()} vs ${second.name.readable()}" }
+        }
+
+        assertEquals(
+            "NaturalSortKey must order like AlphanumericComparator",
+            emptyList<String>(),
+            violations.take(FAILURES_TO_REPORT)
+        )
+    }
+
     private fun brokenChains(first: String, second: String, names: List<String>): List<String> = names
         .filter { third -> compare(second, third) <= 0 && compare(first, third) > 0 }
         .map { third -> "${first.readable()} <= ${second.readable()} <= ${third.readable()}" }
@@ -0,0 +1,49 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.nextcloud.utils.extensions
+
+import com.owncloud.android.db.UploadResult
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class UploadResultExtensionsTest {
+
+    @Test
+    fun `only failed transfers that may succeed are retried`() {
+        val retried = UploadResult.entries.filter { it.isRetryableFailure() }.toSet()
+
+        assertEquals(
+            setOf(
+                UploadResult.NETWORK_CONNECTION,
+                UploadResult.CREDENTIAL_ERROR,
+                UploadResult.FOLDER_ERROR,
+                UploadResult.SERVICE_INTERRUPTED,
+                UploadResult.MAINTENANCE_MODE,
+                UploadResult.LOCK_FAILED,
+                UploadResult.SSL_RECOVERABLE_PEER_UNVERIFIED,
+                UploadResult.LOCAL_STORAGE_FULL,
+                UploadResult.OLD_ANDROID_API
+            ),
+            retried
+        )
+    }
+
+    @Test
+    fun `delayed uploads were not transferred`() {
+        val delayed = UploadResult.entries.filter { it.isDelayed() }.toSet()
+
+        assertEquals(
+            setOf(
+                UploadResult.DELAYED_FOR_WIFI,
+                UploadResult.DELAYED_FOR_CHARGING,
+                UploadResult.DELAYED_IN_POWER_SAVE_MODE
+            ),
+            delayed
+        )
+    }
+}
@@ -11,16 +11,18 @@ import android.accounts.Account
 import android.content.Context
 import com.nextcloud.client.account.User
 import com.nextcloud.client.account.UserAccountManager
+import com.nextcloud.client.network.ClientPool
 import com.owncloud.android.lib.common.OwnCloudClient
-import com.owncloud.android.lib.common.OwnCloudClientFactory
 import com.owncloud.android.lib.common.accounts.AccountUtils
+import io.mockk.every
+import io.mockk.mockkObject
+import io.mockk.unmockkObject
+import io.mockk.verify
 import org.junit.After
 import org.junit.Assert.assertNull
 import org.junit.Assert.assertSame
 import org.junit.Before
 import org.junit.Test
-import org.mockito.MockedStatic
-import org.mockito.Mockito
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.whenever
 import java.util.Optional
@@ -32,8 +34,8 @@ class UserAccountManagerExtensionsTest {
     private lateinit var accountManager: UserAccountManager
     private lateinit var context: Context
     private lateinit var platformAccount: Account
+    private lateinit var user: User
     private lateinit var client: OwnCloudClient
-    private lateinit var clientFactory: MockedStatic<OwnCloudClientFactory>
 
     @Before
     fun setUp() {
@@ -44,18 +46,18 @@ class UserAccountManagerExtensionsTest {
         accountManager = mock()
         whenever(accountManager.context).thenReturn(context)
 
-        clientFactory = Mockito.mockStatic(OwnCloudClientFactory::class.java)
+        mockkObject(ClientPool)
     }
 
     @After
     fun tearDown() {
-        clientFactory.close()
+        unmockkObject(ClientPool)
     }
 
     @Test
     fun `client is created for a registered account`() {
         givenRegisteredAccount()
-        givenClientIsCreatedFor(platformAccount, context)
+        givenClientIsCreatedFor(context)
 
         assertSame(client, accountManager.createOwncloudClient(accountName))
     }
@@ -64,7 +66,7 @@ class UserAccountManagerExtensionsTest {
     fun `client is created for the current account when no account name is given`() {
         whenever(accountManager.currentAccount).thenReturn(accountNamed(accountName))
         givenRegisteredAccount()
-        givenClientIsCreatedFor(platformAccount, context)
+        givenClientIsCreatedFor(context)
 
         assertSame(client, accountManager.createOwncloudClient())
     }
@@ -75,7 +77,7 @@ class UserAccountManagerExtensionsTest {
 
         assertNull(accountManager.createOwncloudClient(accountName))
 
-        clientFactory.verifyNoInteractions()
+        verify(exactly = 0) { ClientPool.getOwnCloudClient(any<User>(), any()) }
     }
 
     @Test
@@ -86,23 +88,20 @@ class UserAccountManagerExtensionsTest {
 
         assertNull(accountManager.createOwncloudClient(accountName))
 
-        clientFactory.verifyNoInteractions()
+        verify(exactly = 0) { ClientPool.getOwnCloudClient(any<User>(), any()) }
     }
 
     @Test
     fun `no client is created when the account is removed while the client is created`() {
         givenRegisteredAccount()
-        clientFactory.`when`<OwnCloudClient> {
-            OwnCloudClientFactory.createOwnCloudClient(platformAccount, context)
-        }.thenThrow(AccountUtils.AccountNotFoundException(platformAccount, "Account not found", null))
+        every { ClientPool.getOwnCloudClient(user, context) } throws
+            AccountUtils.AccountNotFoundException(platformAccount, "Account not found", null)
 
         assertNull(accountManager.createOwncloudClient(accountName))
     }
 
-    private fun givenClientIsCreatedFor(account: Account, appContext: Context) {
-        clientFactory.`when`<OwnCloudClient> {
-            OwnCloudClientFactory.createOwnCloudClient(account, appContext)
-        }.thenReturn(client)
+    private fun givenClientIsCreatedFor(appContext: Context) {
+        every { ClientPool.getOwnCloudClient(user, appContext) } returns client
     }
 
     // Account.name is a public final field, so it cannot be stubbed and has to be written directly
@@ -110,11 +109,9 @@ class UserAccountManagerExtensionsTest {
         Account::class.java.getField("name").apply { isAccessible = true }.set(account, name)
     }
 
-    @Suppress("DEPRECATION")
     private fun givenRegisteredAccount() {
-        val user = mock<User>()
+        user = mock()
         whenever(user.isAnonymous).thenReturn(false)
-        whenever(user.toPlatformAccount()).thenReturn(platformAccount)
         whenever(accountManager.getUser(accountName)).thenReturn(Optional.of(user))
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import android.database.Cursor
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class MediaProviderTest {
+
+    private companion object {
+        const val DATA_PATH = "/storage/emulated/0/Android/media/com.nextcloud.client/nextcloud"
+        const val CAMERA = "/storage/emulated/0/DCIM/Camera"
+        const val SCREENSHOTS = "/storage/emulated/0/Pictures/Screenshots"
+    }
+
+    private data class Row(val bucketId: String, val bucketName: String, val path: String)
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    /**
+     * Cursor over the given rows, in the projection order bucket id, bucket name, data.
+     */
+    private fun cursor(rows: List<Row>): Cursor {
+        var position = -1
+        val cursor = mockk<Cursor>(relaxed = true)
+        every { cursor.getColumnIndexOrThrow("bucket_id") } returns 0
+        every { cursor.getColumnIndexOrThrow("bucket_display_name") } returns 1
+        every { cursor.getColumnIndexOrThrow("_data") } returns 2
+        every { cursor.moveToNext() } answers { ++position < rows.size }
+        every { cursor.getString(0) } answers { rows[position].bucketId }
+        every { cursor.getString(1) } answers { rows[position].bucketName }
+        every { cursor.getString(2) } answers { rows[position].path }
+        return cursor
+    }
+
+    @Test
+    fun `rows are grouped by bucket in one pass, newest first`() {
+        val cursor = cursor(
+            listOf(
+                Row("camera", "Camera", "$CAMERA/4.mp4"),
+                Row("screenshots", "Screenshots", "$SCREENSHOTS/3.mp4"),
+                Row("camera", "Camera", "$CAMERA/2.mp4"),
+                Row("camera", "Camera", "$CAMERA/1.mp4")
+            )
+        )
+
+        val folders = MediaProvider.aggregateMediaFolders(cursor, MediaFolderType.VIDEO, 2, DATA_PATH)
+
+        assertEquals(listOf("Camera", "Screenshots"), folders.map { it.folderName })
+        val camera = folders[0]
+        assertEquals(3L, camera.numberOfFiles)
+        assertEquals(listOf("$CAMERA/4.mp4", "$CAMERA/2.mp4"), camera.filePaths)
+        assertEquals(CAMERA, camera.absolutePath)
+        assertEquals(MediaFolderType.VIDEO, camera.type)
+        assertEquals(1L, folders[1].numberOfFiles)
+        verify { cursor.close() }
+    }
+
+    @Test
+    fun `folders within the app data path are left out`() {
+        val cursor = cursor(
+            listOf(
+                Row("app", "nextcloud", "$DATA_PATH/user@server/clip.mp4"),
+                Row("camera", "Camera", "$CAMERA/1.mp4")
+            )
+        )
+
+        val folders = MediaProvider.aggregateMediaFolders(cursor, MediaFolderType.VIDEO, 1, DATA_PATH)
+
+        assertEquals(listOf("Camera"), folders.map { it.folderName })
+    }
+
+    @Test
+    fun `missing images are counted but not sampled`() {
+        val images = folder.newFolder("images")
+        val existing = File(images, "2.jpg").apply { writeText("2") }
+        val cursor = cursor(
+            listOf(
+                Row("images", "images", File(images, "3.jpg").path),
+                Row("images", "images", existing.path)
+            )
+        )
+
+        val folders = MediaProvider.aggregateMediaFolders(cursor, MediaFolderType.IMAGE, 2, DATA_PATH)
+
+        assertEquals(2L, folders.single().numberOfFiles)
+        assertEquals(listOf(existing.path), folders.single().filePaths)
+        assertEquals(images.path, folders.single().absolutePath)
+    }
+
+    @Test
+    fun `no cursor gives no folders`() {
+        assertTrue(MediaProvider.aggregateMediaFolders(null, MediaFolderType.IMAGE, 1, DATA_PATH).isEmpty())
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import com.nextcloud.client.database.entity.FileEntity
+import com.owncloud.android.lib.resources.files.model.GeoLocation
+import com.owncloud.android.lib.resources.files.model.ImageDimension
+import com.owncloud.android.lib.resources.shares.ShareType
+import com.owncloud.android.lib.resources.shares.ShareeUser
+import com.owncloud.android.lib.resources.tags.Tag
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Before
+import org.junit.Test
+
+class OCFileCacheTest {
+
+    private var decodeCount = 0
+
+    private val decode: (FileEntity) -> OCFileCache.Decoded = {
+        decodeCount++
+        OCFileCache.Decoded(
+            listOf(ShareeUser("alice", "Alice", ShareType.USER)),
+            listOf(Tag("1", "Confidential", null)),
+            ImageDimension(WIDTH, HEIGHT),
+            GeoLocation(LATITUDE, LONGITUDE)
+        )
+    }
+
+    @Before
+    fun setUp() {
+        OCFileCache.clear()
+    }
+
+    @After
+    fun tearDown() {
+        OCFileCache.clear()
+    }
+
+    private fun entity(id: Long?, etag: String = "etag", sharees: String = "[{\"userId\":\"alice\"}]"): FileEntity =
+        mockk {
+            every { this@mockk.id } returns id
+            every { this@mockk.etag } returns etag
+            every { modified } returns 0L
+            every { this@mockk.sharees } returns sharees
+            every { tags } returns "[{\"name\":\"Confidential\"}]"
+            every { metadataSize } returns "{\"width\":10,\"height\":20}"
+            every { metadataGPS } returns "{\"latitude\":1,\"longitude\":2}"
+        }
+
+    @Test
+    fun `unchanged row is decoded once`() {
+        OCFileCache.getOrDecode(entity(1), decode)
+        OCFileCache.getOrDecode(entity(1), decode)
+
+        assertEquals(1, decodeCount)
+    }
+
+    @Test
+    fun `changed etag or json column is decoded again`() {
+        OCFileCache.getOrDecode(entity(1), decode)
+        OCFileCache.getOrDecode(entity(1, etag = "changed"), decode)
+        OCFileCache.getOrDecode(entity(1, etag = "changed", sharees = "[]"), decode)
+
+        assertEquals(3, decodeCount)
+    }
+
+    @Test
+    fun `row without id is not cached`() {
+        OCFileCache.getOrDecode(entity(null), decode)
+        OCFileCache.getOrDecode(entity(null), decode)
+
+        assertEquals(2, decodeCount)
+    }
+
+    @Test
+    fun `removed and cleared rows are decoded again`() {
+        OCFileCache.getOrDecode(entity(1), decode)
+        OCFileCache.remove(1)
+        OCFileCache.getOrDecode(entity(1), decode)
+        OCFileCache.clear()
+        OCFileCache.getOrDecode(entity(1), decode)
+
+        assertEquals(3, decodeCount)
+    }
+
+    @Test
+    fun `files created from the same entry do not share values`() {
+        val first = OCFileCache.getOrDecode(entity(1), decode)
+        val second = OCFileCache.getOrDecode(entity(1), decode)
+        val third = OCFileCache.getOrDecode(entity(1), decode)
+
+        assertEquals(first.sharees, second.sharees)
+        assertNotSame(first.sharees.single(), second.sharees.single())
+        assertNotSame(first.tags.single(), second.tags.single())
+        assertNotSame(first.imageDimension, second.imageDimension)
+        assertNotSame(first.geoLocation, second.geoLocation)
+        assertNotSame(second.imageDimension, third.imageDimension)
+        assertEquals(1, decodeCount)
+    }
+
+    @Test
+    fun `stats count hits and misses and are kept when the cache is cleared`() {
+        val before = OCFileCache.stats()
+
+        OCFileCache.getOrDecode(entity(1), decode)
+        OCFileCache.getOrDecode(entity(1), decode)
+        OCFileCache.getOrDecode(entity(2), decode)
+        val stats = OCFileCache.stats()
+        OCFileCache.clear()
+        val cleared = OCFileCache.stats()
+
+        assertEquals(2, stats.entries)
+        assertEquals(before.hits + 1, stats.hits)
+        assertEquals(before.misses + 2, stats.misses)
+        assertEquals(stats.copy(entries = 0), cleared)
+    }
+
+    private companion object {
+        const val WIDTH = 10f
+        const val HEIGHT = 20f
+        const val LATITUDE = 1.0
+        const val LONGITUDE = 2.0
+    }
+}
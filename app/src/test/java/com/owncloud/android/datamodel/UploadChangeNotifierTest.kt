@@ -0,0 +1,110 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+
+class UploadChangeNotifierTest {
+
+    /**
+     * Deliveries posted by the notifier with their delay, run by the tests instead of the main looper.
+     */
+    private val scheduled = mutableListOf<Pair<Runnable, Long>>()
+    private val delivered = mutableListOf<UploadChangeNotifier.Changes>()
+    private val listener = UploadChangeNotifier.Listener { delivered.add(it) }
+    private lateinit var mainScheduler: (Runnable, Long) -> Unit
+
+    @Before
+    fun setUp() {
+        mainScheduler = UploadChangeNotifier.scheduler
+        UploadChangeNotifier.scheduler = { runnable, delayMs -> scheduled.add(runnable to delayMs) }
+        // drops changes of other tests, whose deliveries were posted to the stubbed main looper
+        UploadChangeNotifier.dispatchPending()
+        UploadChangeNotifier.addListener(listener)
+    }
+
+    @After
+    fun tearDown() {
+        UploadChangeNotifier.removeListener(listener)
+        UploadChangeNotifier.dispatchPending()
+        UploadChangeNotifier.scheduler = mainScheduler
+    }
+
+    private fun runScheduled() {
+        val runnables = scheduled.map { it.first }
+        scheduled.clear()
+        runnables.forEach { it.run() }
+    }
+
+    @Test
+    fun `changes within a frame are delivered once`() {
+        UploadChangeNotifier.notifyChanged(1)
+        UploadChangeNotifier.notifyChanged(2)
+        UploadChangeNotifier.notifyChanged(1)
+
+        assertEquals(listOf(UploadChangeNotifier.FRAME_INTERVAL_MS), scheduled.map { it.second })
+        assertTrue(delivered.isEmpty())
+
+        runScheduled()
+
+        assertEquals(1, delivered.size)
+        assertEquals(setOf(1L, 2L), delivered[0].uploadIds)
+        assertFalse(delivered[0].all)
+    }
+
+    @Test
+    fun `changes after a delivery are delivered in the next frame`() {
+        UploadChangeNotifier.notifyChanged(1)
+        runScheduled()
+        UploadChangeNotifier.notifyChanged(2)
+        runScheduled()
+
+        assertEquals(listOf(setOf(1L), setOf(2L)), delivered.map { it.uploadIds })
+    }
+
+    @Test
+    fun `ids up to the cap are tracked`() {
+        (1..UploadChangeNotifier.MAX_TRACKED_IDS).forEach { UploadChangeNotifier.notifyChanged(it.toLong()) }
+        runScheduled()
+
+        assertEquals(UploadChangeNotifier.MAX_TRACKED_IDS, delivered.single().uploadIds.size)
+        assertFalse(delivered.single().all)
+    }
+
+    @Test
+    fun `more ids than the cap fall back to a full reload`() {
+        (0..UploadChangeNotifier.MAX_TRACKED_IDS).forEach { UploadChangeNotifier.notifyChanged(it.toLong()) }
+        UploadChangeNotifier.notifyChanged(-1)
+        runScheduled()
+
+        assertTrue(delivered.single().all)
+        assertTrue(delivered.single().uploadIds.isEmpty())
+    }
+
+    @Test
+    fun `all changed replaces the ids of the frame`() {
+        UploadChangeNotifier.notifyChanged(1)
+        UploadChangeNotifier.notifyAllChanged()
+        UploadChangeNotifier.notifyChanged(2)
+        runScheduled()
+
+        assertEquals(1, delivered.size)
+        assertTrue(delivered[0].all)
+        assertTrue(delivered[0].uploadIds.isEmpty())
+
+        UploadChangeNotifier.notifyChanged(3)
+        runScheduled()
+
+        assertEquals(setOf(3L), delivered[1].uploadIds)
+        assertFalse(delivered[1].all)
+    }
+}
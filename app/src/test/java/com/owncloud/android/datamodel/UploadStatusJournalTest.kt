@@ -0,0 +1,170 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.datamodel
+
+import com.owncloud.android.datamodel.UploadsStorageManager.UploadStatus
+import com.owncloud.android.db.UploadResult
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class UploadStatusJournalTest {
+
+    private companion object {
+        const val FLUSH_DELAY_MS = 50L
+        const val LONG_DELAY_MS = 60_000L
+        const val TIMEOUT_SECONDS = 5L
+        const val PARALLEL_UPLOADS = 3
+    }
+
+    /**
+     * Committed batches as upload ids, in commit order.
+     */
+    private val commits: MutableList<List<Long>> = Collections.synchronizedList(mutableListOf())
+    private val committed = mutableMapOf<Long, UploadStatus>()
+    private var store = UploadStatusJournal.Store { transitions ->
+        commits.add(transitions.map { it.uploadId })
+        synchronized(committed) { transitions.forEach { committed[it.uploadId] = it.status } }
+    }
+    private val executor = Executors.newSingleThreadScheduledExecutor()
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    private fun journal(flushDelayMs: Long = LONG_DELAY_MS) =
+        UploadStatusJournal({ store.write(it) }, executor, flushDelayMs)
+
+    private fun started(id: Long) =
+        UploadStatusJournal.Transition(id, UploadStatus.UPLOAD_IN_PROGRESS, UploadResult.UNKNOWN, null, null, null)
+
+    private fun succeeded(id: Long) =
+        UploadStatusJournal.Transition(id, UploadStatus.UPLOAD_SUCCEEDED, UploadResult.UPLOADED, "/$id", null, id)
+
+    private fun awaitWriter() {
+        executor.submit { }.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+    }
+
+    @Test
+    fun `started uploads are written together after the flush delay`() {
+        val journal = journal(FLUSH_DELAY_MS)
+
+        journal.record(started(1))
+        journal.record(started(2))
+        journal.record(started(3))
+        assertTrue(commits.isEmpty())
+
+        Thread.sleep(FLUSH_DELAY_MS * 2)
+        awaitWriter()
+
+        assertEquals(listOf(listOf(1L, 2L, 3L)), commits)
+    }
+
+    @Test
+    fun `terminal transition is committed with pending ones before record returns`() {
+        val journal = journal()
+
+        journal.record(started(1))
+        journal.record(started(2))
+        journal.record(succeeded(1))
+
+        // the start of upload 1 is replaced by its terminal transition
+        assertEquals(listOf(listOf(1L, 2L)), commits)
+        assertEquals(UploadStatus.UPLOAD_SUCCEEDED, committed[1])
+        assertEquals(UploadStatus.UPLOAD_IN_PROGRESS, committed[2])
+    }
+
+    @Test
+    fun `terminal transitions recorded during a commit share the next one`() {
+        val writing = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val delegate = store
+        store = UploadStatusJournal.Store { transitions ->
+            if (commits.isEmpty()) {
+                writing.countDown()
+                release.await()
+            }
+            delegate.write(transitions)
+        }
+        val journal = journal()
+
+        val first = Thread { journal.record(succeeded(0)) }.apply { start() }
+        assertTrue(writing.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        val parallel = (1..PARALLEL_UPLOADS).map { id ->
+            Thread { journal.record(succeeded(id.toLong())) }.apply { start() }
+        }
+        // all of them wait for their commit
+        while (parallel.any { it.state != Thread.State.WAITING }) {
+            Thread.sleep(1)
+        }
+        release.countDown()
+        (parallel + first).forEach { it.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS)) }
+
+        assertEquals(2, commits.size)
+        assertEquals(listOf(0L), commits[0])
+        assertEquals(setOf(1L, 2L, 3L), commits[1].toSet())
+    }
+
+    @Test
+    fun `flush writes pending transitions and returns once committed`() {
+        val journal = journal()
+
+        journal.flush()
+        journal.record(started(1))
+        journal.flush()
+
+        assertEquals(listOf(listOf(1L)), commits)
+    }
+
+    @Test
+    fun `crash loses only starts and the restarted upload is written again`() {
+        // GIVEN
+        //      an upload was started and another one finished
+        //      the process dies before the delayed write
+        journal().apply {
+            record(started(1))
+            record(started(2))
+            record(succeeded(2))
+            record(started(1))
+        }
+        executor.shutdownNow()
+
+        // WHEN
+        //      the uploads are replayed after the restart
+        val restartedExecutor = Executors.newSingleThreadScheduledExecutor()
+        val restarted = UploadStatusJournal({ store.write(it) }, restartedExecutor, LONG_DELAY_MS)
+        restarted.record(started(1))
+        restarted.record(succeeded(1))
+        restartedExecutor.shutdownNow()
+
+        // THEN
+        //      the finished upload was committed before the crash
+        //      the lost start was repeated and the upload finished
+        assertEquals(listOf(listOf(1L, 2L), listOf(1L)), commits)
+        assertEquals(UploadStatus.UPLOAD_SUCCEEDED, committed[1])
+        assertEquals(UploadStatus.UPLOAD_SUCCEEDED, committed[2])
+    }
+
+    @Test
+    fun `failed commit is thrown to the caller of a terminal transition`() {
+        val failure = IllegalStateException("disk full")
+        store = UploadStatusJournal.Store { throw failure }
+        val journal = journal()
+
+        journal.record(started(1))
+        val thrown = runCatching { journal.record(succeeded(2)) }.exceptionOrNull()
+
+        assertSame(failure, thrown)
+    }
+}
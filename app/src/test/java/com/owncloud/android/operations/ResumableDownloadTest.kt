@@ -0,0 +1,324 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package com.owncloud.android.operations
+
+import com.nextcloud.client.database.dao.PartialDownloadDao
+import com.nextcloud.client.database.entity.PartialDownloadEntity
+import com.owncloud.android.lib.common.OwnCloudClient
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkConstructor
+import io.mockk.unmockkAll
+import org.apache.commons.httpclient.Header
+import org.apache.commons.httpclient.HttpMethod
+import org.apache.commons.httpclient.HttpStatus
+import org.apache.commons.httpclient.methods.GetMethod
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayInputStream
+import java.io.File
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.random.Random
+
+@Suppress("TooManyFunctions")
+class ResumableDownloadTest {
+
+    private companion object {
+        const val ACCOUNT_NAME = "user@server.com"
+        const val REMOTE_PATH = "/video.mp4"
+        const val DAV_URI = "https://server.com/remote.php/dav/files/user/video.mp4"
+        const val FILE_LENGTH = 10_000
+        const val ETAG = "\"abc\""
+        const val CHANGED_ETAG = "\"def\""
+        const val SEGMENTS = 3
+    }
+
+    private class Response(val status: Int, val headers: Map<String, String>, val body: ByteArray)
+
+    /**
+     * Request as received by the server.
+     */
+    private data class Request(val range: String?, val ifRange: String?)
+
+    /**
+     * Answers range requests for [content] like a WebDAV server.
+     */
+    private class Server(var content: ByteArray, var etag: String) {
+        var supportsRanges = true
+        val requests: MutableList<Request> = Collections.synchronizedList(mutableListOf())
+        private val responses = Collections.synchronizedMap(IdentityHashMap<Any, Response>())
+
+        fun execute(method: HttpMethod): Int {
+            val request = Request(
+                method.getRequestHeader("Range")?.value,
+                method.getRequestHeader("If-Range")?.value
+            )
+            requests.add(request)
+            val response = respond(request)
+            responses[method] = response
+            return response.status
+        }
+
+        private fun respond(request: Request): Response {
+            val ranged = supportsRanges && request.range != null && (request.ifRange == null || request.ifRange == etag)
+            if (!ranged) {
+                return Response(HttpStatus.SC_OK, mapOf("ETag" to etag), content)
+            }
+
+            val (start, end) = request.range!!.removePrefix("bytes=").split("-")
+            val first = start.toInt()
+            if (first >= content.size) {
+                return Response(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE, emptyMap(), ByteArray(0))
+            }
+            val last = if (end.isEmpty()) content.size - 1 else minOf(end.toInt(), content.size - 1)
+            return Response(
+                HttpStatus.SC_PARTIAL_CONTENT,
+                mapOf("ETag" to etag, "Content-Range" to "bytes $first-$last/${content.size}"),
+                content.copyOfRange(first, last + 1)
+            )
+        }
+
+        fun response(method: Any): Response = responses.getValue(method)
+    }
+
+    private class InMemoryPartialDownloadDao : PartialDownloadDao {
+        val entities = ConcurrentHashMap<Pair<String, String>, PartialDownloadEntity>()
+
+        override fun get(accountName: String, remotePath: String) = entities[accountName to remotePath]
+
+        override fun getModifiedBefore(modifiedBefore: Long) = entities.values.filter { it.modifiedAt < modifiedBefore }
+
+        override fun upsert(entity: PartialDownloadEntity) {
+            entities[entity.accountName to entity.remotePath] = entity
+        }
+
+        override fun delete(accountName: String, remotePath: String) {
+            entities.remove(accountName to remotePath)
+        }
+    }
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val content = Random(0).nextBytes(FILE_LENGTH)
+    private val server = Server(content, ETAG)
+    private val dao = InMemoryPartialDownloadDao()
+    private val client = mockk<OwnCloudClient>(relaxed = true)
+    private lateinit var tmpFile: File
+
+    @Before
+    fun setUp() {
+        tmpFile = File(folder.root, "tmp$REMOTE_PATH")
+        every { client.getFilesDavUri(REMOTE_PATH) } returns DAV_URI
+        every { client.executeMethod(any<HttpMethod>()) } answers { server.execute(firstArg()) }
+
+        mockkConstructor(GetMethod::class)
+        every { anyConstructed<GetMethod>().statusCode } answers { server.response(self).status }
+        every { anyConstructed<GetMethod>().statusText } returns ""
+        every { anyConstructed<GetMethod>().responseHeaders } answers {
+            server.response(self).headers.map { Header(it.key, it.value) }.toTypedArray()
+        }
+        every { anyConstructed<GetMethod>().getResponseHeader(any()) } answers {
+            server.response(self).headers[firstArg()]?.let { Header(firstArg(), it) }
+        }
+        every { anyConstructed<GetMethod>().responseContentLength } answers {
+            server.response(self).body.size.toLong()
+        }
+        every { anyConstructed<GetMethod>().responseBodyAsStream } answers {
+            ByteArrayInputStream(server.response(self).body)
+        }
+    }
+
+    @After
+    fun tearDown() {
+        unmockkAll()
+    }
+
+    private fun download(maxSegments: Int = 1) =
+        ResumableDownload(ACCOUNT_NAME, REMOTE_PATH, "video.mp4", tmpFile, dao, emptyList(), { false }, maxSegments)
+            .run(client)
+
+    private fun partFile(segment: Int) = File("${tmpFile.path}.part$segment")
+
+    private fun savePartialDownload(etag: String = ETAG, totalLength: Int = FILE_LENGTH, segments: Int = 1) {
+        dao.upsert(PartialDownloadEntity(ACCOUNT_NAME, REMOTE_PATH, etag, totalLength.toLong(), segments, 0))
+    }
+
+    private fun writePartial(file: File, bytes: ByteArray) {
+        file.parentFile?.mkdirs()
+        file.writeBytes(bytes)
+    }
+
+    private fun assertDownloaded(result: ResumableDownload.Result, bytes: ByteArray, etag: String) {
+        assertTrue(result.result.isSuccess)
+        assertEquals(etag.replace("\"", ""), result.etag)
+        assertArrayEquals(bytes, tmpFile.readBytes())
+        assertTrue("partial state is removed once complete", dao.entities.isEmpty())
+    }
+
+    @Test
+    fun downloadWithoutPartialStateRequestsTheWholeFile() {
+        val result = download()
+
+        assertDownloaded(result, content, ETAG)
+        assertEquals(listOf(Request(null, null)), server.requests)
+    }
+
+    @Test
+    fun interruptedDownloadResumesFromThePartialFile() {
+        savePartialDownload()
+        writePartial(tmpFile, content.copyOf(4000))
+
+        val result = download()
+
+        assertDownloaded(result, content, ETAG)
+        assertEquals(listOf(Request("bytes=4000-", ETAG)), server.requests)
+    }
+
+    @Test
+    fun fileChangedOnTheServerIsDownloadedAgainWhenIfRangeDoesNotMatch() {
+        savePartialDownload()
+        writePartial(tmpFile, content.copyOf(4000))
+        val changed = Random(1).nextBytes(FILE_LENGTH)
+        server.content = changed
+        server.etag = CHANGED_ETAG
+
+        val result = download()
+
+        assertDownloaded(result, changed, CHANGED_ETAG)
+        assertEquals(listOf(Request("bytes=4000-", ETAG)), server.requests)
+    }
+
+    @Test
+    fun completePartialFileIsFinishedWhenTheRangeIsNotSatisfiable() {
+        savePartialDownload()
+        writePartial(tmpFile, content)
+
+        val result = download()
+
+        assertDownloaded(result, content, ETAG)
+        assertEquals(listOf(Request("bytes=$FILE_LENGTH-", ETAG)), server.requests)
+    }
+
+    @Test
+    fun downloadStartsOverWhenTheRangeIsNotSatisfiableBeforeTheSavedLength() {
+        // the saved length is wrong, the partial file already has all bytes of the file
+        savePartialDownload(totalLength = FILE_LENGTH * 2)
+        writePartial(tmpFile, content)
+
+        val result = download()
+
+        assertDownloaded(result, content, ETAG)
+        assertEquals(listOf(Request("bytes=$FILE_LENGTH-", ETAG), Request(null, null)), server.requests)
+    }
+
+    @Test
+    fun fullResponseToARangeRequestReplacesThePartialFile() {
+        savePartialDownload()
+        writePartial(tmpFile, content.copyOf(4000))
+        server.supportsRanges = false
+
+        val result = download()
+
+        assertDownloaded(result, content, ETAG)
+        assertEquals(1, server.requests.size)
+    }
+
+    @Test
+    fun rangesAreDownloadedIntoPartsAndJoined() {
+        // GIVEN
+        //      the first range is partly downloaded, the last one is complete
+        val ranges = ResumableDownload.segmentRanges(FILE_LENGTH.toLong(), SEGMENTS)
+        savePartialDownload(segments = SEGMENTS)
+        writePartial(partFile(0), content.copyOf(1000))
+        writePartial(partFile(2), content.copyOfRange(ranges[2].first.toInt(), FILE_LENGTH))
+
+        // WHEN
+        val result = download(SEGMENTS)
+
+        // THEN
+        //      only the missing bytes are requested
+        //      the parts are joined and removed
+        assertDownloaded(result, content, ETAG)
+        assertEquals(
+            setOf(
+                Request("bytes=1000-${ranges[0].last}", ETAG),
+                Request("bytes=${ranges[1].first}-${ranges[1].last}", ETAG)
+            ),
+            server.requests.toSet()
+        )
+        (0 until SEGMENTS).forEach { assertFalse(partFile(it).exists()) }
+    }
+
+    @Test
+    fun fileChangedDuringARangedDownloadIsDownloadedAgainInOneRequest() {
+        savePartialDownload(segments = SEGMENTS)
+        writePartial(partFile(0), content.copyOf(1000))
+        val changed = Random(1).nextBytes(FILE_LENGTH)
+        server.content = changed
+        server.etag = CHANGED_ETAG
+
+        val result = download(SEGMENTS)
+
+        assertDownloaded(result, changed, CHANGED_ETAG)
+        assertEquals(Request(null, null), server.requests.last())
+        (0 until SEGMENTS).forEach { assertFalse(partFile(it).exists()) }
+    }
+
+    @Test
+    fun rangesCoverAllBytesOnce() {
+        val ranges = ResumableDownload.segmentRanges(10, 4)
+
+        assertEquals(listOf(0L..2L, 3L..5L, 6L..8L, 9L..9L), ranges)
+    }
+
+    @Test
+    fun rangesOfEvenlySplitFile() {
+        val ranges = ResumableDownload.segmentRanges(8, 2)
+
+        assertEquals(listOf(0L..3L, 4L..7L), ranges)
+    }
+
+    @Test
+    fun emptyRangesAreDropped() {
+        val ranges = ResumableDownload.segmentRanges(2, 4)
+
+        assertEquals(listOf(0L..0L, 1L..1L), ranges)
+    }
+
+    @Test
+    fun contentRangeIsParsed() {
+        val range = ResumableDownload.parseContentRange("bytes 100-199/1000")
+
+        assertEquals(ResumableDownload.ContentRange(100, 199, 1000), range)
+    }
+
+    @Test
+    fun contentRangeWithUnknownLength() {
+        val range = ResumableDownload.parseContentRange("bytes 0-9/*")
+
+        assertEquals(ResumableDownload.ContentRange(0, 9, -1), range)
+    }
+
+    @Test
+    fun invalidContentRangeIsIgnored() {
+        assertNull(ResumableDownload.parseContentRange(null))
+        assertNull(ResumableDownload.parseContentRange("bytes */1000"))
+        assertNull(ResumableDownload.parseContentRange("items 0-9/10"))
+    }
+}
@@ -12,6 +12,8 @@ import android.text.TextUtils
 import com.nextcloud.client.account.User
 import com.nextcloud.client.jobs.upload.FileUploadHelper
 import com.nextcloud.client.preferences.AppPreferences
+import com.nextcloud.utils.extensions.appendGalleryItems
+import com.nextcloud.utils.extensions.toGalleryItems
 import com.nextcloud.utils.thumbnail.ThumbnailGenerator
 import com.owncloud.android.datamodel.FileDataStorageManager
 import com.owncloud.android.datamodel.GalleryItems
@@ -209,6 +211,31 @@ class GalleryAdapterTest {
         assertEquals("The duplicate detection seems to be faulty", rows.size, itemIds.size)
     }
 
+    @Test
+    fun testAppendGalleryItemsKeepsExistingRows() {
+        val thumbnailSize = 50
+        val columns = 2
+        val day = 24 * 60 * 60 * 1000L
+        val march = 1646092800000L // 2022-03-01 00:00 UTC
+        fun file(id: Long, modified: Long) = OCFile("/$id.jpg").apply {
+            fileId = id
+            modificationTimestamp = modified
+        }
+
+        val firstPage = listOf(file(1, march + 20 * day), file(2, march + 19 * day), file(3, march + 18 * day))
+        val secondPage = listOf(file(4, march + 17 * day), file(5, march + 16 * day), file(6, march - 10 * day))
+
+        val existing = firstPage.toGalleryItems(columns, thumbnailSize)
+        val appended = existing.appendGalleryItems(secondPage, columns, thumbnailSize)
+
+        assertEquals(2, appended.size)
+        assertEquals(existing[0].rows[0], appended[0].rows[0])
+        assertEquals(listOf(3L, 4L), appended[0].rows[1].files.map { it.fileId })
+        assertEquals(listOf(5L), appended[0].rows[2].files.map { it.fileId })
+        assertEquals(listOf(6L), appended[1].rows[0].files.map { it.fileId })
+        assertEquals((firstPage + secondPage).toGalleryItems(columns, thumbnailSize), appended)
+    }
+
     fun uniquePositiveRandomLongs(count: Int, max: Long = Long.MAX_VALUE): List<Long> {
         require(count >= 0) { "count must be non-negative" }
         if (count == 0) return emptyList()
@@ -11,6 +11,8 @@ import com.nextcloud.client.database.entity.FileEntity
 import com.owncloud.android.datamodel.OCFile
 import com.owncloud.android.ui.adapter.helper.OCFileListAdapterDataProvider
 import com.owncloud.android.utils.MimeType
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
 
 @Suppress("LongParameterList", "MagicNumber")
 class MockOCFileListAdapterDataProvider : OCFileListAdapterDataProvider {
@@ -93,5 +95,9 @@ class MockOCFileListAdapterDataProvider : OCFileListAdapterDataProvider {
         it.parent == id && it.path != OCFile.ROOT_PATH
     }
 
+    override fun getFolderContentFlow(id: Long): Flow<List<FileEntity>> = flow {
+        emit(getFolderContent(id))
+    }
+
     override fun createFileInstance(entity: FileEntity): OCFile = files.first { it.fileId == entity.id }
 }
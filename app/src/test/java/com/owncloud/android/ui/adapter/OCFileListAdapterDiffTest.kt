@@ -0,0 +1,112 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.adapter
+
+import com.owncloud.android.datamodel.OCFile
+import com.owncloud.android.ui.adapter.helper.OCFileListAdapterHelper
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.setMain
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * The adapter replaces, sorts or clears its files directly while a diff of an older list may still be running; these
+ * cases must drop the pending diff instead of letting it overwrite the list afterwards.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class OCFileListAdapterDiffTest {
+
+    private val dispatcher = StandardTestDispatcher()
+    private val helper = OCFileListAdapterHelper(dispatcher)
+    private val delivered = mutableListOf<Long>()
+
+    private val folderA = listOf(file(1, "a.txt"), file(2, "b.txt"))
+    private val folderAChanged = listOf(file(1, "a.txt"), file(2, "b.txt"), file(3, "c.txt"))
+    private val folderASorted = folderAChanged.reversed()
+
+    @Before
+    fun setUp() {
+        Dispatchers.setMain(dispatcher)
+    }
+
+    @After
+    fun tearDown() {
+        helper.cleanup()
+        Dispatchers.resetMain()
+    }
+
+    private fun file(id: Long, name: String) = OCFile("/$name").apply {
+        fileId = id
+        etag = "etag_$id"
+    }
+
+    private fun requestDiff(old: List<OCFile>, new: List<OCFile>) {
+        helper.calculateDiff(old, new) { generation, _ -> delivered.add(generation) }
+    }
+
+    @Test
+    fun `only the latest diff is delivered`() {
+        requestDiff(folderA, folderAChanged)
+        requestDiff(folderA, folderASorted)
+        dispatcher.scheduler.advanceUntilIdle()
+
+        assertEquals(1, delivered.size)
+        assertTrue(helper.isCurrentDiff(delivered.single()))
+    }
+
+    @Test
+    fun `replacing the files directly drops the pending diff`() {
+        requestDiff(folderA, folderAChanged)
+        // navigating to another folder or applying an empty list replaces the files without a diff
+        helper.cancelDiff()
+        dispatcher.scheduler.advanceUntilIdle()
+
+        assertTrue(delivered.isEmpty())
+    }
+
+    @Test
+    fun `stopping the observation for search results drops the pending diff`() {
+        requestDiff(folderA, folderAChanged)
+        helper.stopObserving()
+        dispatcher.scheduler.advanceUntilIdle()
+
+        assertTrue(delivered.isEmpty())
+    }
+
+    @Test
+    fun `a delivered diff is outdated once the list is sorted before it is applied`() {
+        var sortedBeforeApply = false
+        helper.calculateDiff(folderA, folderAChanged) { generation, _ ->
+            // a sort posted to the main thread ahead of the diff result
+            helper.cancelDiff()
+            sortedBeforeApply = !helper.isCurrentDiff(generation)
+        }
+        dispatcher.scheduler.advanceUntilIdle()
+
+        assertTrue(sortedBeforeApply)
+    }
+
+    @Test
+    fun `a diff requested after a cancellation is delivered`() {
+        requestDiff(folderA, folderAChanged)
+        helper.cancelDiff()
+        requestDiff(folderAChanged, folderASorted)
+        dispatcher.scheduler.advanceUntilIdle()
+
+        assertEquals(1, delivered.size)
+        assertTrue(helper.isCurrentDiff(delivered.single()))
+        helper.cancelDiff()
+        assertFalse(helper.isCurrentDiff(delivered.single()))
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.preview
+
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.util.concurrent.Executor
+
+class TextFileLinesTest {
+
+    private companion object {
+        const val LINE_COUNT = 25_000
+        const val PAGE_SIZE = 100
+        const val MATCH_INTERVAL = 1000
+    }
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val opened = mutableListOf<TextFileLines>()
+
+    @After
+    fun tearDown() {
+        opened.forEach { it.close() }
+    }
+
+    private fun open(content: ByteArray): TextFileLines {
+        val file = folder.newFile()
+        file.writeBytes(content)
+        return TextFileLines.open(file)!!.also { opened.add(it) }
+    }
+
+    private fun open(content: String) = open(content.toByteArray())
+
+    private fun TextFileLines.allLines() = (0 until lineCount).map { getLine(it) }
+
+    @Test
+    fun `line offsets are indexed for all line endings`() {
+        val lines = open("\uFEFFfirst\r\nsecond\n\nlast")
+
+        assertEquals(4, lines.lineCount)
+        assertEquals(listOf("first", "second", "", "last"), lines.allLines())
+    }
+
+    @Test
+    fun `trailing line feed does not add a line`() {
+        assertEquals(listOf("a", "b"), open("a\nb\n").allLines())
+        assertEquals(0, open("").lineCount)
+    }
+
+    @Test
+    fun `lines are read from their offsets across pages`() {
+        val lines = open((0 until LINE_COUNT).joinToString("\n") { "line $it" })
+
+        assertEquals(LINE_COUNT, lines.lineCount)
+        assertEquals("line ${LINE_COUNT - 1}", lines.getLine(LINE_COUNT - 1))
+        assertEquals("line 0", lines.getLine(0))
+        assertEquals("line 12345", lines.getLine(12_345))
+    }
+
+    @Test
+    fun `long lines are cut on a character boundary`() {
+        // three bytes per character, so the cut falls within a character
+        val long = "€".repeat(TextFileLines.MAX_LINE_LENGTH)
+        val lines = open("$long\nnext")
+
+        val cut = lines.getLine(0)
+
+        assertEquals(TextFileLines.MAX_LINE_LENGTH / 3, cut.length)
+        assertTrue(cut.all { it == '€' })
+        assertEquals("next", lines.getLine(1))
+    }
+
+    @Test
+    fun `pages are read on the executor`() {
+        val lines = open((0 until LINE_COUNT).joinToString("\n") { "line $it" })
+        val queued = mutableListOf<Runnable>()
+        val loaded = mutableListOf<IntRange>()
+
+        assertNull(lines.getIfLoaded(PAGE_SIZE + 1))
+        lines.loadPage(PAGE_SIZE + 1, Executor { queued.add(it) }) { loaded.add(it) }
+        lines.loadPage(PAGE_SIZE + 2, Executor { queued.add(it) }) { loaded.add(it) }
+        assertEquals("a page being read is not read twice", 1, queued.size)
+        assertNull(lines.getIfLoaded(PAGE_SIZE + 1))
+
+        queued.single().run()
+
+        assertEquals(listOf(PAGE_SIZE until 2 * PAGE_SIZE), loaded)
+        assertEquals("line ${PAGE_SIZE + 1}", lines.getIfLoaded(PAGE_SIZE + 1))
+        assertNull(lines.getIfLoaded(0))
+    }
+
+    @Test
+    fun `search reports matching lines in order`() {
+        val lines = open(
+            (0 until LINE_COUNT).joinToString("\n") { if (it % MATCH_INTERVAL == 7) "Needle $it" else "hay $it" }
+        )
+        val progress = mutableListOf<Pair<IntArray, Boolean>>()
+
+        lines.search("needle", { true }) { matches, complete -> progress.add(matches to complete) }
+
+        val expected = (0 until LINE_COUNT).filter { it % MATCH_INTERVAL == 7 }.toIntArray()
+        assertArrayEquals(expected, progress.last().first)
+        assertTrue(progress.last().second)
+        assertTrue(progress.dropLast(1).none { it.second })
+        assertTrue(progress.zipWithNext().all { (a, b) -> a.first.size <= b.first.size })
+    }
+
+    @Test
+    fun `search finds text in cut lines and stops when cancelled`() {
+        val lines = open("a".repeat(TextFileLines.MAX_LINE_LENGTH * 2) + "\n" + "b\n".repeat(LINE_COUNT))
+        val progress = mutableListOf<Boolean>()
+
+        lines.search("aaa", { progress.isEmpty() }) { matches, complete ->
+            assertArrayEquals(intArrayOf(0), matches)
+            progress.add(complete)
+        }
+
+        assertEquals(listOf(false), progress)
+    }
+
+    @Test
+    fun `search of empty file completes`() {
+        val progress = mutableListOf<Boolean>()
+
+        open("").search("a", { true }) { matches, complete ->
+            assertEquals(0, matches.size)
+            progress.add(complete)
+        }
+
+        assertEquals(listOf(true), progress)
+    }
+}
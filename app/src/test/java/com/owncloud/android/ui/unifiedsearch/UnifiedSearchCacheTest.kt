@@ -0,0 +1,91 @@
+/*
+ * Nextcloud - Android Client
+ *
+ * SPDX-FileCopyrightText: 2026 Nextcloud GmbH and Nextcloud contributors
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package com.owncloud.android.ui.unifiedsearch
+
+import com.nextcloud.client.core.Clock
+import com.owncloud.android.lib.common.SearchProviders
+import com.owncloud.android.lib.common.SearchResult
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import java.util.Date
+import java.util.TimeZone
+
+class UnifiedSearchCacheTest {
+
+    private class TestClock : Clock {
+        override var currentTime = 0L
+        override val currentDate: Date get() = Date(currentTime)
+        override val millisSinceBoot: Long get() = currentTime
+        override val tz: TimeZone get() = TimeZone.getDefault()
+    }
+
+    private companion object {
+        const val ACCOUNT = "user@nextcloud.localhost"
+        const val OTHER_ACCOUNT = "other@nextcloud.localhost"
+    }
+
+    private lateinit var clock: TestClock
+    private lateinit var cache: UnifiedSearchCache
+    private val results = listOf(UnifiedSearchResult("files", true, SearchResult()))
+
+    @Before
+    fun setUp() {
+        clock = TestClock()
+        cache = UnifiedSearchCache(clock)
+    }
+
+    @Test
+    fun `providers are cached per account until they expire`() {
+        val providers = SearchProviders()
+        cache.putProviders(ACCOUNT, providers)
+
+        assertSame(providers, cache.getProviders(ACCOUNT))
+        assertNull(cache.getProviders(OTHER_ACCOUNT))
+
+        clock.currentTime = UnifiedSearchCache.PROVIDERS_CACHE_TIME_MS
+        assertNull(cache.getProviders(ACCOUNT))
+    }
+
+    @Test
+    fun `results are cached per account and query until they expire`() {
+        cache.putResults(ACCOUNT, "query", results)
+
+        assertSame(results, cache.getResults(ACCOUNT, "query"))
+        assertNull(cache.getResults(ACCOUNT, "other query"))
+        assertNull(cache.getResults(OTHER_ACCOUNT, "query"))
+
+        clock.currentTime = UnifiedSearchCache.RESULTS_CACHE_TIME_MS
+        assertNull(cache.getResults(ACCOUNT, "query"))
+    }
+
+    @Test
+    fun `least recently used query is evicted`() {
+        repeat(UnifiedSearchCache.MAX_CACHED_QUERIES) {
+            cache.putResults(ACCOUNT, "query $it", results)
+        }
+        cache.getResults(ACCOUNT, "query 0")
+        cache.putResults(ACCOUNT, "new query", results)
+
+        assertSame(results, cache.getResults(ACCOUNT, "query 0"))
+        assertNull(cache.getResults(ACCOUNT, "query 1"))
+        assertEquals(results, cache.getResults(ACCOUNT, "new query"))
+    }
+
+    @Test
+    fun `clearing results keeps other accounts`() {
+        cache.putResults(ACCOUNT, "query", results)
+        cache.putResults(OTHER_ACCOUNT, "query", results)
+
+        cache.clearResults(ACCOUNT)
+
+        assertNull(cache.getResults(ACCOUNT, "query"))
+        assertSame(results, cache.getResults(OTHER_ACCOUNT, "query"))
+    }
+}